@@ -0,0 +1,121 @@
+package io.oxiles.chain.block;
+
+import io.oxiles.chain.service.domain.Hash32;
+import io.oxiles.chain.service.domain.wrapper.CompactQuantities;
+import io.oxiles.dto.event.ContractEventDetails;
+import io.oxiles.dto.event.ContractEventStatus;
+import io.oxiles.dto.event.parameter.EventParameter;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * The details of a contract event that is waiting for confirmation, with the hashes held as Hash32
+ * values and the quantities as longs.
+ *
+ * A node can have thousands of events waiting at once, so the ContractEventDetails that is
+ * broadcast is only rebuilt once the event has been confirmed or invalidated.
+ */
+class CompactContractEvent extends CompactQuantities {
+
+    private static final String LOG_INDEX = "logIndex";
+
+    private static final String BLOCK_NUMBER = "blockNumber";
+
+    private static final String BLOCK_TIMESTAMP = "blockTimestamp";
+
+    private final String name;
+
+    private final String filterId;
+
+    private final String nodeName;
+
+    private final List<EventParameter> indexedParameters;
+
+    private final List<EventParameter> nonIndexedParameters;
+
+    private final Hash32 transactionHash;
+
+    private final long logIndex;
+
+    private final long blockNumber;
+
+    private final Hash32 blockHash;
+
+    private final String address;
+
+    private final String from;
+
+    private final String eventSpecificationSignature;
+
+    private final String networkName;
+
+    private final long blockTimestamp;
+
+    CompactContractEvent(ContractEventDetails eventDetails) {
+        name = eventDetails.getName();
+        filterId = eventDetails.getFilterId();
+        nodeName = eventDetails.getNodeName();
+        indexedParameters = eventDetails.getIndexedParameters();
+        nonIndexedParameters = eventDetails.getNonIndexedParameters();
+        transactionHash = Hash32.fromHex(eventDetails.getTransactionHash());
+        logIndex = compact(LOG_INDEX, eventDetails.getLogIndex());
+        blockNumber = compact(BLOCK_NUMBER, eventDetails.getBlockNumber());
+        blockHash = Hash32.fromHex(eventDetails.getBlockHash());
+        address = eventDetails.getAddress();
+        from = eventDetails.getFrom();
+        eventSpecificationSignature = eventDetails.getEventSpecificationSignature();
+        networkName = eventDetails.getNetworkName();
+        blockTimestamp = compact(BLOCK_TIMESTAMP, eventDetails.getBlockTimestamp());
+    }
+
+    String getId() {
+        return getTransactionHash() + "-" + getBlockHash() + "-" + getLogIndex();
+    }
+
+    String getTransactionHash() {
+        return Hash32.toHex(transactionHash);
+    }
+
+    String getBlockHash() {
+        return Hash32.toHex(blockHash);
+    }
+
+    boolean isInBlock(String hash) {
+        return blockHash == null ? hash == null : blockHash.matches(hash);
+    }
+
+    BigInteger getLogIndex() {
+        return expand(LOG_INDEX, logIndex);
+    }
+
+    BigInteger getBlockNumber() {
+        return expand(BLOCK_NUMBER, blockNumber);
+    }
+
+    /**
+     * @param status the status to broadcast the event with
+     * @return the details of the event, as they were before it was compacted
+     */
+    ContractEventDetails toContractEventDetails(ContractEventStatus status) {
+        final ContractEventDetails eventDetails = new ContractEventDetails();
+
+        eventDetails.setName(name);
+        eventDetails.setFilterId(filterId);
+        eventDetails.setNodeName(nodeName);
+        eventDetails.setIndexedParameters(indexedParameters);
+        eventDetails.setNonIndexedParameters(nonIndexedParameters);
+        eventDetails.setTransactionHash(getTransactionHash());
+        eventDetails.setLogIndex(getLogIndex());
+        eventDetails.setBlockNumber(getBlockNumber());
+        eventDetails.setBlockHash(getBlockHash());
+        eventDetails.setAddress(address);
+        eventDetails.setFrom(from);
+        eventDetails.setStatus(status);
+        eventDetails.setEventSpecificationSignature(eventSpecificationSignature);
+        eventDetails.setNetworkName(networkName);
+        eventDetails.setBlockTimestamp(expand(BLOCK_TIMESTAMP, blockTimestamp));
+
+        return eventDetails;
+    }
+}
@@ -0,0 +1,280 @@
+package io.oxiles.chain.block;
+
+import io.oxiles.chain.block.reorg.ChainReorganisation;
+import io.oxiles.chain.block.reorg.ReorgListener;
+import io.oxiles.chain.service.BlockchainException;
+import io.oxiles.chain.service.BlockchainService;
+import io.oxiles.chain.service.domain.Block;
+import io.oxiles.chain.service.domain.Log;
+import io.oxiles.chain.service.domain.TransactionReceipt;
+import io.oxiles.chain.settings.Node;
+import io.oxiles.dto.event.ContractEventDetails;
+import io.oxiles.dto.event.ContractEventStatus;
+import io.oxiles.integration.broadcast.blockchain.BlockchainEventBroadcaster;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks the unconfirmed events of a node until they are either confirmed or invalidated.
+ *
+ * The pending events are indexed on the block number at which they next need to be checked, which is
+ * the confirmation target for an event that looks fine.  On each new block only the events that are
+ * due are checked, with a single set of receipt lookups for all of them, rather than every pending
+ * event looking up its receipt on every block.
+ *
+ * An event whose transaction has gone missing, or whose log no longer matches, is checked again once
+ * its grace period has passed, and is invalidated if it still does not match by then.  Once the
+ * target of an event has been reached it is checked on every block until it is resolved.  Events in
+ * blocks that are orphaned by a reorg are brought forward to be checked with the new head.
+ *
+ * The pending events are held as CompactContractEvents, with block numbers as longs, and the
+ * ContractEventDetails is only rebuilt when the event is broadcast.
+ */
+@Slf4j
+public class ConfirmationTracker implements BlockListener, ReorgListener {
+
+    private static final long NOT_SET = -1;
+
+    private BlockchainService blockchainService;
+
+    private BlockchainEventBroadcaster eventBroadcaster;
+
+    private long blocksToWait;
+
+    private long blocksToWaitForMissingTx;
+
+    private long blocksToWaitBeforeInvalidating;
+
+    private NavigableMap<Long, List<PendingConfirmation>> pendingByCheckBlock = new TreeMap<>();
+
+    private int pendingCount;
+
+    public ConfirmationTracker(BlockchainService blockchainService,
+                               BlockchainEventBroadcaster eventBroadcaster,
+                               Node node) {
+        this.blockchainService = blockchainService;
+        this.eventBroadcaster = eventBroadcaster;
+        this.blocksToWait = node.getBlocksToWaitForConfirmation().longValueExact();
+        this.blocksToWaitForMissingTx = node.getBlocksToWaitForMissingTx().longValueExact();
+        this.blocksToWaitBeforeInvalidating = node.getBlocksToWaitBeforeInvalidating().longValueExact();
+    }
+
+    /**
+     * @param contractEvent the unconfirmed event
+     * @param currentBlock the current block number, which the confirmation target is counted from
+     */
+    public void track(ContractEventDetails contractEvent, BigInteger currentBlock) {
+        final long targetBlock = currentBlock.longValueExact() + blocksToWait;
+
+        log.debug("Tracking event {} for confirmation at block {}", contractEvent.getId(), targetBlock);
+
+        schedule(new PendingConfirmation(new CompactContractEvent(contractEvent), targetBlock), targetBlock);
+    }
+
+    public synchronized int getPendingCount() {
+        return pendingCount;
+    }
+
+    @Override
+    public void onBlock(Block block) {
+        final long blockNumber = block.getNumber().longValueExact();
+        final List<PendingConfirmation> due = takeDue(blockNumber);
+
+        if (due.isEmpty()) {
+            return;
+        }
+
+        final Map<String, TransactionReceipt> receipts;
+
+        try {
+            receipts = blockchainService.getTransactionReceipts(due
+                    .stream()
+                    .map(pending -> pending.contractEvent.getTransactionHash())
+                    .collect(Collectors.toSet()));
+        } catch (BlockchainException e) {
+            log.warn("Unable to check {} events for confirmation at block {}, retrying on the next block",
+                    due.size(), blockNumber, e);
+
+            due.forEach(pending -> schedule(pending, blockNumber + 1));
+            return;
+        }
+
+        due.forEach(pending -> check(pending, receipts.get(pending.contractEvent.getTransactionHash()), blockNumber));
+    }
+
+    @Override
+    public void onReorg(ChainReorganisation reorg) {
+        final long checkBlock = reorg.getNewHead().getNumber().longValueExact();
+        final List<PendingConfirmation> affected = new ArrayList<>();
+
+        synchronized (this) {
+            final Iterator<List<PendingConfirmation>> lists = pendingByCheckBlock.values().iterator();
+
+            while (lists.hasNext()) {
+                final List<PendingConfirmation> pendingList = lists.next();
+                final Iterator<PendingConfirmation> pending = pendingList.iterator();
+
+                while (pending.hasNext()) {
+                    final PendingConfirmation confirmation = pending.next();
+
+                    if (isAffected(confirmation.contractEvent, reorg)) {
+                        pending.remove();
+                        affected.add(confirmation);
+                    }
+                }
+
+                if (pendingList.isEmpty()) {
+                    lists.remove();
+                }
+            }
+
+            pendingCount -= affected.size();
+        }
+
+        if (!affected.isEmpty()) {
+            log.info("{} pending events affected by reorg on node {}, checking them at block {}",
+                    affected.size(), reorg.getNodeName(), checkBlock);
+
+            affected.forEach(pending -> schedule(pending, checkBlock));
+        }
+    }
+
+    private boolean isAffected(CompactContractEvent contractEvent, ChainReorganisation reorg) {
+        if (reorg.getCommonAncestorNumber() == null) {
+            //The fork point is deeper than the tracked blocks, so any event could be affected
+            return true;
+        }
+
+        return reorg.isOrphaned(contractEvent.getBlockHash())
+                || contractEvent.getBlockNumber().compareTo(reorg.getCommonAncestorNumber()) > 0;
+    }
+
+    private synchronized void schedule(PendingConfirmation pending, long checkBlock) {
+        pendingByCheckBlock.computeIfAbsent(checkBlock, number -> new ArrayList<>()).add(pending);
+        pendingCount++;
+    }
+
+    private synchronized List<PendingConfirmation> takeDue(long blockNumber) {
+        final Map<Long, List<PendingConfirmation>> dueByBlock = pendingByCheckBlock.headMap(blockNumber, true);
+        final List<PendingConfirmation> due = new ArrayList<>();
+
+        dueByBlock.values().forEach(due::addAll);
+        dueByBlock.clear();
+        pendingCount -= due.size();
+
+        return due;
+    }
+
+    private void check(PendingConfirmation pending, TransactionReceipt receipt, long blockNumber) {
+        if (receipt == null) {
+            //Tx has disappeared...we've probably forked
+            //Tx should be included in block on new fork soon
+            if (pending.missingTxBlockLimit == NOT_SET) {
+                pending.missingTxBlockLimit = blockNumber + blocksToWaitForMissingTx;
+            } else if (blockNumber > pending.missingTxBlockLimit) {
+                invalidate(pending);
+                return;
+            }
+
+            recheck(pending, blockNumber, pending.missingTxBlockLimit);
+            return;
+        }
+
+        final Optional<Log> theLog = getCorrespondingLog(pending.contractEvent, receipt);
+
+        if (!theLog.isPresent() || isEventAnOrphan(pending.contractEvent, theLog.get())) {
+            if (pending.invalidationBlockLimit == NOT_SET) {
+                pending.invalidationBlockLimit = blockNumber + blocksToWaitBeforeInvalidating;
+            } else if (blockNumber > pending.invalidationBlockLimit) {
+                invalidate(pending);
+                return;
+            }
+
+            recheck(pending, blockNumber, pending.invalidationBlockLimit);
+            return;
+        }
+
+        if (blockNumber >= pending.targetBlock) {
+            confirm(pending);
+        } else {
+            schedule(pending, pending.targetBlock);
+        }
+    }
+
+    private void recheck(PendingConfirmation pending, long blockNumber, long blockLimit) {
+        if (blockNumber >= pending.targetBlock) {
+            schedule(pending, blockNumber + 1);
+        } else {
+            schedule(pending, Math.min(pending.targetBlock, blockLimit + 1));
+        }
+    }
+
+    private Optional<Log> getCorrespondingLog(CompactContractEvent contractEvent, TransactionReceipt receipt) {
+        return receipt.getLogs()
+                .stream()
+                .filter(theLog -> theLog.getLogIndex().equals(contractEvent.getLogIndex()))
+                .findFirst();
+    }
+
+    private boolean isEventAnOrphan(CompactContractEvent contractEvent, Log theLog) {
+        //If log is flagged as removed then event has obviously been orphaned.
+        //If block hash or log index are not as expected, this means that the transaction
+        //associated with the event has been included in a block on a different fork of a longer chain
+        //and the original event is considered orphaned.
+        String orphanReason = null;
+
+        if (theLog.isRemoved()) {
+            orphanReason = "isRemoved == true";
+        } else if (!contractEvent.isInBlock(theLog.getBlockHash())) {
+            orphanReason = "Expected blockhash " + contractEvent.getBlockHash() + ", received " + theLog.getBlockHash();
+        }
+
+        if (orphanReason != null) {
+            log.info("Orphan event detected: " + orphanReason);
+            return true;
+        }
+
+        return false;
+    }
+
+    private void confirm(PendingConfirmation pending) {
+        log.debug("Target block reached for event: {}", pending.contractEvent.getId());
+
+        broadcastEvent(pending.contractEvent, ContractEventStatus.CONFIRMED);
+    }
+
+    private void invalidate(PendingConfirmation pending) {
+        broadcastEvent(pending.contractEvent, ContractEventStatus.INVALIDATED);
+    }
+
+    private void broadcastEvent(CompactContractEvent contractEvent, ContractEventStatus status) {
+        log.debug("Sending {} event for contract event: {}", status, contractEvent.getId());
+
+        eventBroadcaster.broadcastContractEvent(contractEvent.toContractEventDetails(status));
+    }
+
+    private static class PendingConfirmation {
+
+        private CompactContractEvent contractEvent;
+
+        private long targetBlock;
+
+        private long missingTxBlockLimit = NOT_SET;
+
+        private long invalidationBlockLimit = NOT_SET;
+
+        private PendingConfirmation(CompactContractEvent contractEvent, long targetBlock) {
+            this.contractEvent = contractEvent;
+            this.targetBlock = targetBlock;
+        }
+    }
+}
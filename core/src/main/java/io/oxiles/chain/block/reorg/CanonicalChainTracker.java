@@ -0,0 +1,215 @@
+package io.oxiles.chain.block.reorg;
+
+import io.oxiles.chain.block.BlockListener;
+import io.oxiles.chain.service.domain.Block;
+import io.oxiles.monitoring.EventeumValueMonitor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Tracks the recent headers of the canonical chain for a node, and detects reorgs by checking that
+ * each new block links to the tracked chain through its parent hash.
+ *
+ * When a block does not extend the tracked chain, its ancestors are fetched by hash until one links
+ * back to a tracked block.  The tracked blocks above that common ancestor are orphaned, and the
+ * registered ReorgListeners are notified with their hashes before the block listeners that were
+ * registered after the tracker see the new block.
+ */
+@Slf4j
+public class CanonicalChainTracker implements BlockListener {
+
+    public static final int MIN_TRACKED_BLOCKS = 64;
+
+    private String nodeName;
+
+    private int trackedBlocks;
+
+    private Function<String, Optional<Block>> headerLoader;
+
+    private Collection<ReorgListener> reorgListeners = new ConcurrentLinkedQueue<>();
+
+    private NavigableMap<BigInteger, String> hashes = new TreeMap<>();
+
+    private AtomicLong reorgs;
+
+    private AtomicLong lastReorgDepth;
+
+    public CanonicalChainTracker(String nodeName,
+                                 BigInteger confirmationDepth,
+                                 EventeumValueMonitor valueMonitor) {
+        this.nodeName = nodeName;
+        this.trackedBlocks = Math.max(MIN_TRACKED_BLOCKS, confirmationDepth.intValue() + 1);
+
+        reorgs = valueMonitor.monitor("chainReorgs", nodeName, new AtomicLong(0));
+        lastReorgDepth = valueMonitor.monitor("lastChainReorgDepth", nodeName, new AtomicLong(0));
+    }
+
+    /**
+     * @param headerLoader loads a block header by hash, used to walk back to the fork point of a reorg
+     */
+    public void setHeaderLoader(Function<String, Optional<Block>> headerLoader) {
+        this.headerLoader = headerLoader;
+    }
+
+    public void addReorgListener(ReorgListener reorgListener) {
+        reorgListeners.add(reorgListener);
+    }
+
+    public void removeReorgListener(ReorgListener reorgListener) {
+        reorgListeners.remove(reorgListener);
+    }
+
+    /**
+     * @param blockNumber the block number
+     * @return the hash of the canonical block at the number, if the number is within the tracked blocks
+     */
+    public synchronized Optional<String> getCanonicalHash(BigInteger blockNumber) {
+        return Optional.ofNullable(hashes.get(blockNumber));
+    }
+
+    @Override
+    public void onBlock(Block block) {
+        if (block.getNumber() == null || block.getHash() == null) {
+            return;
+        }
+
+        final Optional<ChainReorganisation> reorg = track(block);
+
+        reorg.ifPresent(this::notifyReorg);
+    }
+
+    private synchronized Optional<ChainReorganisation> track(Block block) {
+        final BigInteger number = block.getNumber();
+        final String existing = hashes.get(number);
+
+        if (existing != null && existing.equalsIgnoreCase(block.getHash())) {
+            return Optional.empty();
+        }
+
+        if (hashes.isEmpty() || number.compareTo(hashes.lastKey().add(BigInteger.ONE)) > 0) {
+            //Nothing to link to, so the tracking restarts from this block
+            hashes.clear();
+            add(block);
+            return Optional.empty();
+        }
+
+        if (number.compareTo(hashes.firstKey()) < 0) {
+            log.debug("Ignoring block {} on node {}, which is older than the tracked blocks", number, nodeName);
+            return Optional.empty();
+        }
+
+        if (linksTo(block, hashes.get(number.subtract(BigInteger.ONE)))) {
+            final List<String> orphaned = removeFrom(number);
+
+            add(block);
+
+            return orphaned.isEmpty()
+                    ? Optional.empty()
+                    : Optional.of(new ChainReorganisation(nodeName, number.subtract(BigInteger.ONE), orphaned, block));
+        }
+
+        return Optional.of(trackFork(block));
+    }
+
+    private ChainReorganisation trackFork(Block block) {
+        final List<Block> newChain = new ArrayList<>();
+        newChain.add(block);
+
+        Block current = block;
+        BigInteger commonAncestor = null;
+
+        while (newChain.size() <= trackedBlocks) {
+            final BigInteger parentNumber = current.getNumber().subtract(BigInteger.ONE);
+            final String trackedParent = hashes.get(parentNumber);
+
+            if (trackedParent == null) {
+                break;
+            }
+
+            if (linksTo(current, trackedParent)) {
+                commonAncestor = parentNumber;
+                break;
+            }
+
+            final Optional<Block> parent = loadHeader(current.getParentHash());
+
+            if (!parent.isPresent()) {
+                break;
+            }
+
+            current = parent.get();
+            newChain.add(current);
+        }
+
+        final List<String> orphaned = removeFrom(commonAncestor != null
+                ? commonAncestor.add(BigInteger.ONE) : hashes.firstKey());
+
+        Collections.reverse(newChain);
+        newChain.forEach(this::add);
+
+        log.info("Reorg detected on node {} at block {}, orphaning {} blocks above {}", nodeName,
+                block.getNumber(), orphaned.size(), commonAncestor != null ? commonAncestor : "the tracked blocks");
+
+        return new ChainReorganisation(nodeName, commonAncestor, orphaned, block);
+    }
+
+    private Optional<Block> loadHeader(String blockHash) {
+        if (headerLoader == null || blockHash == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return headerLoader.apply(blockHash);
+        } catch (RuntimeException e) {
+            log.error(String.format("Unable to load block %s on node %s when locating a fork", blockHash, nodeName), e);
+            return Optional.empty();
+        }
+    }
+
+    private boolean linksTo(Block block, String parentHash) {
+        //Without a parent hash the linkage cannot be checked, so the block is taken to extend the chain
+        return parentHash != null && (block.getParentHash() == null || parentHash.equalsIgnoreCase(block.getParentHash()));
+    }
+
+    private List<String> removeFrom(BigInteger number) {
+        final Map<BigInteger, String> removed = hashes.tailMap(number, true);
+        final List<String> orphaned = new ArrayList<>(removed.values());
+
+        removed.clear();
+
+        return orphaned;
+    }
+
+    private void add(Block block) {
+        hashes.put(block.getNumber(), block.getHash());
+
+        while (hashes.size() > trackedBlocks) {
+            hashes.pollFirstEntry();
+        }
+    }
+
+    private void notifyReorg(ChainReorganisation reorg) {
+        reorgs.incrementAndGet();
+        lastReorgDepth.set(reorg.getDepth());
+
+        reorgListeners.forEach(listener -> {
+            try {
+                listener.onReorg(reorg);
+            } catch (Throwable t) {
+                log.error(String.format("An error occured when processing a reorg on node %s", nodeName), t);
+            }
+        });
+    }
+}
@@ -0,0 +1,42 @@
+package io.oxiles.chain.block.reorg;
+
+import io.oxiles.chain.service.domain.Block;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Details of a chain reorganisation on a node.
+ */
+@Data
+@AllArgsConstructor
+public class ChainReorganisation {
+
+    private String nodeName;
+
+    /**
+     * The number of the last block that is on both the old and the new chain, or null if the fork
+     * point is deeper than the tracked blocks.
+     */
+    private BigInteger commonAncestorNumber;
+
+    /**
+     * The hashes of the blocks that were on the canonical chain and have been replaced, lowest first.
+     */
+    private List<String> orphanedBlockHashes;
+
+    /**
+     * The block that revealed the reorg, which is the new head of the canonical chain.
+     */
+    private Block newHead;
+
+    public int getDepth() {
+        return orphanedBlockHashes.size();
+    }
+
+    public boolean isOrphaned(String blockHash) {
+        return blockHash != null && orphanedBlockHashes.stream().anyMatch(blockHash::equalsIgnoreCase);
+    }
+}
@@ -0,0 +1,14 @@
+package io.oxiles.chain.block.reorg;
+
+/**
+ * A listener for chain reorganisations detected by a {@link CanonicalChainTracker}.
+ */
+public interface ReorgListener {
+
+    /**
+     * Called before the block that caused the reorg is passed to the block listeners.
+     *
+     * @param reorg details of the blocks that are no longer on the canonical chain
+     */
+    void onReorg(ChainReorganisation reorg);
+}
@@ -0,0 +1,107 @@
+package io.oxiles.chain.block.tx;
+
+import io.oxiles.chain.service.domain.Hash32;
+import io.oxiles.chain.service.domain.wrapper.CompactQuantities;
+import io.oxiles.dto.transaction.TransactionDetails;
+import io.oxiles.dto.transaction.TransactionStatus;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+
+/**
+ * The details of a monitored transaction that is waiting for confirmation, with the hashes held as
+ * Hash32 values and the quantities as longs.
+ *
+ * The TransactionDetails that is broadcast is only rebuilt once the transaction has been confirmed
+ * or invalidated.  The value is held as a BigInteger, as most values in wei do not fit in a long.
+ */
+class CompactTransactionDetails extends CompactQuantities {
+
+    private static final String NONCE = "nonce";
+
+    private static final String BLOCK_NUMBER = "blockNumber";
+
+    private static final String BLOCK_TIMESTAMP = "blockTimestamp";
+
+    private static final String TRANSACTION_INDEX = "transactionIndex";
+
+    private final Hash32 hash;
+
+    private final long nonce;
+
+    private final Hash32 blockHash;
+
+    private final long blockNumber;
+
+    private final long blockTimestamp;
+
+    private final long transactionIndex;
+
+    private final String from;
+
+    private final String to;
+
+    private final BigInteger value;
+
+    private final String nodeName;
+
+    private final String contractAddress;
+
+    private final String input;
+
+    private final String revertReason;
+
+    CompactTransactionDetails(TransactionDetails transactionDetails) {
+        hash = Hash32.fromHex(transactionDetails.getHash());
+        nonce = compact(NONCE, transactionDetails.getNonce());
+        blockHash = Hash32.fromHex(transactionDetails.getBlockHash());
+        blockNumber = compact(BLOCK_NUMBER, transactionDetails.getBlockNumber());
+        //The timestamp is the only quantity that is held in decimal
+        blockTimestamp = compact(BLOCK_TIMESTAMP, transactionDetails.getBlockTimestamp() == null
+                ? null : new BigInteger(transactionDetails.getBlockTimestamp()));
+        transactionIndex = compact(TRANSACTION_INDEX, transactionDetails.getTransactionIndex());
+        from = transactionDetails.getFrom();
+        to = transactionDetails.getTo();
+        value = transactionDetails.getValue() == null ? null : Numeric.decodeQuantity(transactionDetails.getValue());
+        nodeName = transactionDetails.getNodeName();
+        contractAddress = transactionDetails.getContractAddress();
+        input = transactionDetails.getInput();
+        revertReason = transactionDetails.getRevertReason();
+    }
+
+    String getHash() {
+        return Hash32.toHex(hash);
+    }
+
+    String getBlockHash() {
+        return Hash32.toHex(blockHash);
+    }
+
+    boolean isInBlock(String hash) {
+        return blockHash == null ? hash == null : blockHash.matches(hash);
+    }
+
+    /**
+     * @param status the status to broadcast the transaction with
+     * @return the details of the transaction, as they were before it was compacted
+     */
+    TransactionDetails toTransactionDetails(TransactionStatus status) {
+        final BigInteger timestamp = expand(BLOCK_TIMESTAMP, blockTimestamp);
+
+        return new TransactionDetails(
+                getHash(),
+                expandToHex(NONCE, nonce),
+                getBlockHash(),
+                expandToHex(BLOCK_NUMBER, blockNumber),
+                timestamp == null ? null : timestamp.toString(),
+                expandToHex(TRANSACTION_INDEX, transactionIndex),
+                from,
+                to,
+                value == null ? null : Numeric.encodeQuantity(value),
+                nodeName,
+                contractAddress,
+                input,
+                revertReason,
+                status);
+    }
+}
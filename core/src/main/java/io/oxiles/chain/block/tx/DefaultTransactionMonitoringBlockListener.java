@@ -12,6 +12,7 @@ import io.oxiles.chain.service.container.ChainServicesContainer;
 import io.oxiles.chain.service.domain.Block;
 import io.oxiles.chain.service.domain.Transaction;
 import io.oxiles.chain.service.domain.TransactionReceipt;
+import io.oxiles.chain.service.domain.wrapper.Web3jBlock;
 import io.oxiles.chain.settings.Node;
 import io.oxiles.chain.settings.NodeSettings;
 import org.springframework.retry.support.RetryTemplate;
@@ -97,12 +98,14 @@ public class DefaultTransactionMonitoringBlockListener implements TransactionMon
 
             criteria.get(nodeName).add(matchingCriteria);
 
+            setFullTransactionObjects(nodeName, true);
+
             //Check if any cached blocks match
             //Note, this makes sense for tx hash but maybe doesn't for some other matchers?
             blockCache
                     .getCachedBlocks()
                     .forEach(block -> {
-                        block.getTransactions().forEach(tx ->
+                        withTransactions(block).getTransactions().forEach(tx ->
                                 broadcastIfMatched(block, tx, nodeName, Collections.singletonList(matchingCriteria)));
                     });
         } finally {
@@ -112,12 +115,53 @@ public class DefaultTransactionMonitoringBlockListener implements TransactionMon
 
     @Override
     public void removeMatchingCriteria(TransactionMatchingCriteria matchingCriteria) {
-        criteria.get(matchingCriteria.getNodeName()).remove(matchingCriteria);
+        final List<TransactionMatchingCriteria> nodeCriteria = criteria.get(matchingCriteria.getNodeName());
+
+        nodeCriteria.remove(matchingCriteria);
+
+        if (nodeCriteria.isEmpty()) {
+            setFullTransactionObjects(matchingCriteria.getNodeName(), false);
+        }
+    }
+
+    //Blocks only need to be retrieved with their transactions while a node has transactions to monitor
+    private void setFullTransactionObjects(String nodeName, boolean fullTransactionObjects) {
+        final BlockchainService blockchainService = getBlockchainService(nodeName);
+
+        if (blockchainService != null) {
+            blockchainService.setFullTransactionObjects(fullTransactionObjects);
+        }
+    }
+
+    //Blocks retrieved while no transactions were monitored are headers only.  A block with no
+    //transactions at all is not retrieved again.
+    private Block withTransactions(Block block) {
+        final BlockchainService blockchainService = getBlockchainService(block.getNodeName());
+
+        if (!isHeadersOnly(block) || blockchainService == null) {
+            return block;
+        }
+
+        return blockchainService.getBlock(block.getHash(), true).orElse(block);
+    }
+
+    private boolean isHeadersOnly(Block block) {
+        return block instanceof Web3jBlock && ((Web3jBlock) block).isTransactionHashesOnly();
     }
 
     private void processBlock(Block block) {
-        block.getTransactions()
-                .forEach(tx -> broadcastIfMatched(block, tx, block.getNodeName()));
+        //Blocks that were retrieved before the first criteria was added, and were still queued for
+        //dispatch when it was, are headers only
+        final Block fullBlock = hasCriteria(block.getNodeName()) ? withTransactions(block) : block;
+
+        fullBlock.getTransactions()
+                .forEach(tx -> broadcastIfMatched(fullBlock, tx, fullBlock.getNodeName()));
+    }
+
+    private boolean hasCriteria(String nodeName) {
+        final List<TransactionMatchingCriteria> nodeCriteria = criteria.get(nodeName);
+
+        return nodeCriteria != null && !nodeCriteria.isEmpty();
     }
 
     private void broadcastIfMatched(Block block, Transaction tx, String nodeName, List<TransactionMatchingCriteria> criteriaToCheck) {
@@ -149,10 +193,13 @@ public class DefaultTransactionMonitoringBlockListener implements TransactionMon
         if (isSuccess && shouldWaitBeforeConfirmation(node)) {
             txDetails.setStatus(TransactionStatus.UNCONFIRMED);
 
+            final String txHash = txDetails.getHash();
+
+            //The callback holds only the hash, so that the details are not kept until confirmation
             blockchainService.addBlockListener(new TransactionConfirmationBlockListener(txDetails,
                     blockchainService, broadcaster,node,
                     matchingCriteria.getStatuses(),
-                    () -> onConfirmed(txDetails, matchingCriteria)));
+                    () -> onConfirmed(txHash, matchingCriteria)));
 
             broadcastTransaction(txDetails, matchingCriteria);
 
@@ -207,9 +254,9 @@ public class DefaultTransactionMonitoringBlockListener implements TransactionMon
         return blockchainServices.get(nodeName);
     }
 
-    private void onConfirmed(TransactionDetails txDetails, TransactionMatchingCriteria matchingCriteria) {
+    private void onConfirmed(String txHash, TransactionMatchingCriteria matchingCriteria) {
         if (matchingCriteria.isOneTimeMatch()) {
-            log.debug("Tx {} confirmed, removing matchingCriteria", txDetails.getHash());
+            log.debug("Tx {} confirmed, removing matchingCriteria", txHash);
 
             removeMatchingCriteria(matchingCriteria);
         }
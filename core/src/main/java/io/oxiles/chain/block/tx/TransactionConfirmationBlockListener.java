@@ -19,7 +19,7 @@ public class TransactionConfirmationBlockListener extends SelfUnregisteringBlock
 
     private static final Logger LOG = LoggerFactory.getLogger(TransactionConfirmationBlockListener.class);
 
-    private TransactionDetails transactionDetails;
+    private CompactTransactionDetails transactionDetails;
     private BlockchainService blockchainService;
     private BlockchainEventBroadcaster eventBroadcaster;
     private BigInteger targetBlock;
@@ -36,7 +36,8 @@ public class TransactionConfirmationBlockListener extends SelfUnregisteringBlock
                                                 List<TransactionStatus> statusesToFilter,
                                                 OnConfirmedCallback onConfirmedCallback) {
         super(blockchainService);
-        this.transactionDetails = transactionDetails;
+        //Only the compact form is kept while the transaction waits for confirmation
+        this.transactionDetails = new CompactTransactionDetails(transactionDetails);
         this.blockchainService = blockchainService;
         this.eventBroadcaster = eventBroadcaster;
         this.onConfirmedCallback = onConfirmedCallback;
@@ -83,7 +84,7 @@ public class TransactionConfirmationBlockListener extends SelfUnregisteringBlock
         //and the original event is considered orphaned.
         String orphanReason = null;
 
-        if (!receipt.getBlockHash().equals(transactionDetails.getBlockHash())) {
+        if (!transactionDetails.isInBlock(receipt.getBlockHash())) {
             orphanReason = "Expected blockhash " + transactionDetails.getBlockHash() + ", received " + receipt.getBlockHash();
         }
 
@@ -96,13 +97,11 @@ public class TransactionConfirmationBlockListener extends SelfUnregisteringBlock
     }
 
     private void broadcastTransactionInvalidated() {
-        transactionDetails.setStatus(TransactionStatus.INVALIDATED);
-        broadcastEvent(transactionDetails);
+        broadcastEvent(transactionDetails.toTransactionDetails(TransactionStatus.INVALIDATED));
     }
 
     private void broadcastTransactionConfirmed() {
-        transactionDetails.setStatus(TransactionStatus.CONFIRMED);
-        broadcastEvent(transactionDetails);
+        broadcastEvent(transactionDetails.toTransactionDetails(TransactionStatus.CONFIRMED));
 
         onConfirmedCallback.onConfirmed();
     }
@@ -8,6 +8,13 @@ import io.oxiles.chain.service.strategy.DragonGlassSDK;
 import lombok.AllArgsConstructor;
 import io.oxiles.chain.config.factory.ContractEventDetailsFactoryFactoryBean;
 import io.oxiles.chain.service.HashgraphService;
+import io.oxiles.chain.block.reorg.CanonicalChainTracker;
+import io.oxiles.chain.service.cache.RpcResponseCache;
+import io.oxiles.chain.service.endpoint.AdaptiveConcurrencyLimit;
+import io.oxiles.chain.service.endpoint.BatchingWeb3jService;
+import io.oxiles.chain.service.endpoint.ConcurrencyLimitedWeb3jService;
+import io.oxiles.chain.service.endpoint.Endpoint;
+import io.oxiles.chain.service.endpoint.PooledWeb3jService;
 import io.oxiles.chain.service.container.EthereumNodeServices;
 import io.oxiles.chain.service.container.HashgraphNodeServices;
 import io.oxiles.chain.service.container.NodeServices;
@@ -15,6 +22,12 @@ import io.oxiles.chain.service.health.NodeHealthCheckService;
 import io.oxiles.chain.service.health.WebSocketHealthCheckService;
 import io.oxiles.chain.service.health.strategy.HttpReconnectionStrategy;
 import io.oxiles.chain.service.health.strategy.WebSocketResubscribeNodeFailureListener;
+import io.oxiles.chain.service.log.BlockLogExtractor;
+import io.oxiles.chain.service.log.LogBackfillEngine;
+import io.oxiles.chain.service.log.LogMultiplexer;
+import io.oxiles.chain.service.log.ReceiptRetryScheduler;
+import io.oxiles.chain.service.strategy.AdaptivePollingInterval;
+import io.oxiles.chain.service.strategy.BlockDispatchQueue;
 import io.oxiles.chain.service.strategy.KabutoSDK;
 import io.oxiles.chain.service.strategy.PollingBlockSubscriptionStrategy;
 import io.oxiles.chain.service.strategy.PubSubBlockSubscriptionStrategy;
@@ -40,9 +53,11 @@ import org.web3j.utils.Async;
 import javax.xml.bind.DatatypeConverter;
 import java.net.*;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @AllArgsConstructor
 public class NodeBeanRegistrationStrategy {
@@ -64,6 +79,34 @@ public class NodeBeanRegistrationStrategy {
     private static final String NODE_BLOCK_SUB_STRATEGY_BEAN_NAME =
             "%sBlockSubscriptionStategy";
 
+    private static final String NODE_LOG_MULTIPLEXER_BEAN_NAME =
+            "%sLogMultiplexer";
+
+    private static final String NODE_RECEIPT_RETRY_SCHEDULER_BEAN_NAME =
+            "%sReceiptRetryScheduler";
+
+    private static final String NODE_LOG_BACKFILL_ENGINE_BEAN_NAME =
+            "%sLogBackfillEngine";
+
+    private static final String NODE_RPC_RESPONSE_CACHE_BEAN_NAME =
+            "%sRpcResponseCache";
+
+    private static final String NODE_CANONICAL_CHAIN_TRACKER_BEAN_NAME =
+            "%sCanonicalChainTracker";
+
+    private static final String NODE_BLOCK_DISPATCH_QUEUE_BEAN_NAME =
+            "%sBlockDispatchQueue";
+
+    private static final String NODE_ADAPTIVE_POLLING_INTERVAL_BEAN_NAME =
+            "%sAdaptivePollingInterval";
+
+    private static final String NODE_BLOCK_LOG_EXTRACTOR_BEAN_NAME =
+            "%sBlockLogExtractor";
+
+    private static final String MULTIPLEX_EVENT_STRATEGY = "MULTIPLEX";
+
+    private static final String BLOCK_EVENT_STRATEGY = "BLOCK";
+
     private static final String WEB_SOCKET_CLIENT_BEAN_NAME = "%sWebSocketClient";
 
     private static final String HASHGRAPH_TX_LISTENER_BEAN_NAME =
@@ -83,12 +126,15 @@ public class NodeBeanRegistrationStrategy {
         if(node.getChainType().equals(ChainType.ETHEREUM)){
             registerContractEventDetailsFactoryBean(node, registry);
 
-            final Web3jService web3jService = buildWeb3jService(node);
+            final Web3jService transport = buildWeb3jService(node);
+            final Web3jService limitedService = limitConcurrency(node, transport);
+            final Web3jService web3jService = batchRequests(node, limitedService);
             web3j = buildWeb3j(node, web3jService);
-            blockchainServiceBeanName = registerBlockchainServiceBean(node, web3j, registry);
+            blockchainServiceBeanName = registerBlockchainServiceBean(node, web3j, web3jService, registry);
             final String nodeFailureListenerBeanName =
-                    registerNodeFailureListener(node, blockchainServiceBeanName, web3jService, registry);
-            registerNodeHealthCheckBean(node, blockchainServiceBeanName, web3jService, nodeFailureListenerBeanName, registry);
+                    registerNodeFailureListener(node, blockchainServiceBeanName, transport, registry);
+            registerNodeHealthCheckBean(
+                    node, blockchainServiceBeanName, transport, limitedService, nodeFailureListenerBeanName, registry);
         }
         else if(node.getChainType().equals(ChainType.HASHGRAPH)){
             //TODO: Factory  for others
@@ -144,6 +190,7 @@ public class NodeBeanRegistrationStrategy {
                 ContractEventDetailsFactoryFactoryBean.class);
 
         builder.addPropertyReference("parameterConverter", "web3jEventParameterConverter")
+                .addPropertyReference("settings", "eventeumSettings")
                 .addPropertyValue("node", node)
                 .addPropertyValue("nodeName", node.getName());
 
@@ -154,8 +201,12 @@ public class NodeBeanRegistrationStrategy {
         return beanName;
     }
 
-    private String registerBlockchainServiceBean(Node node, Web3j web3j, BeanDefinitionRegistry registry) {
-        final String blockSubStrategyBeanName = registerBlockSubscriptionStrategyBean(node, web3j, registry);
+    private String registerBlockchainServiceBean(Node node,
+                                                 Web3j web3j,
+                                                 Web3jService web3jService,
+                                                 BeanDefinitionRegistry registry) {
+        final String blockSubStrategyBeanName =
+                registerBlockSubscriptionStrategyBean(node, web3j, web3jService, registry);
 
         final BeanDefinitionBuilder builder = BeanDefinitionBuilder.genericBeanDefinition(
                 io.oxiles.chain.service.Web3jService.class);
@@ -164,7 +215,23 @@ public class NodeBeanRegistrationStrategy {
                 .addConstructorArgValue(web3j)
                 .addConstructorArgReference(String.format(CONTRACT_EVENT_DETAILS_FACTORY_BEAN_NAME, node.getName()))
                 .addConstructorArgReference("defaultEventBlockManagementService")
-                .addConstructorArgReference(blockSubStrategyBeanName);
+                .addConstructorArgReference(blockSubStrategyBeanName)
+                .addConstructorArgReference(registerReceiptRetrySchedulerBean(node, registry));
+
+        builder.addPropertyValue("rpcService", web3jService);
+        builder.addPropertyReference("canonicalChainTracker", registerCanonicalChainTrackerBean(node, registry));
+
+        final String logBackfillEngineBeanName = registerLogBackfillEngineBean(node, web3j, registry);
+        builder.addPropertyReference("logBackfillEngine", logBackfillEngineBeanName);
+        builder.addPropertyReference("rpcResponseCache", registerRpcResponseCacheBean(node, registry));
+
+        if (MULTIPLEX_EVENT_STRATEGY.equals(node.getEventStrategy())) {
+            builder.addPropertyReference("logMultiplexer",
+                    registerLogMultiplexerBean(node, web3j, logBackfillEngineBeanName, registry));
+        } else if (BLOCK_EVENT_STRATEGY.equals(node.getEventStrategy())) {
+            builder.addPropertyReference("logMultiplexer",
+                    registerBlockLogExtractorBean(node, web3j, logBackfillEngineBeanName, registry));
+        }
 
         final String beanName = String.format(WEB3J_SERVICE_BEAN_NAME, node.getName());
         registry.registerBeanDefinition(beanName, builder.getBeanDefinition());
@@ -172,8 +239,101 @@ public class NodeBeanRegistrationStrategy {
         return beanName;
     }
 
+    private String registerCanonicalChainTrackerBean(Node node, BeanDefinitionRegistry registry) {
+        final BeanDefinitionBuilder builder = BeanDefinitionBuilder.genericBeanDefinition(CanonicalChainTracker.class);
+
+        builder.addConstructorArgValue(node.getName())
+                .addConstructorArgValue(node.getBlocksToWaitForConfirmation())
+                .addConstructorArgReference("eventeumValueMonitor");
+
+        final String beanName = String.format(NODE_CANONICAL_CHAIN_TRACKER_BEAN_NAME, node.getName());
+        registry.registerBeanDefinition(beanName, builder.getBeanDefinition());
+
+        return beanName;
+    }
+
+    private String registerRpcResponseCacheBean(Node node, BeanDefinitionRegistry registry) {
+        final BeanDefinitionBuilder builder = BeanDefinitionBuilder.genericBeanDefinition(RpcResponseCache.class);
+
+        builder.addConstructorArgValue(node.getName())
+                .addConstructorArgValue(node.getBlocksToWaitForConfirmation())
+                .addConstructorArgValue(node.getResponseCacheMaxBytes())
+                .addConstructorArgValue(node.getResponseCacheTtl())
+                .addConstructorArgReference("eventeumValueMonitor");
+
+        final String beanName = String.format(NODE_RPC_RESPONSE_CACHE_BEAN_NAME, node.getName());
+        registry.registerBeanDefinition(beanName, builder.getBeanDefinition());
+
+        return beanName;
+    }
+
+    private String registerLogBackfillEngineBean(Node node, Web3j web3j, BeanDefinitionRegistry registry) {
+        final BeanDefinitionBuilder builder = BeanDefinitionBuilder.genericBeanDefinition(LogBackfillEngine.class);
+
+        builder.addConstructorArgValue(web3j)
+                .addConstructorArgValue(node.getName())
+                .addConstructorArgValue(node.getBackfillChunkSize())
+                .addConstructorArgValue(node.getBackfillParallelism())
+                .addConstructorArgReference("contractEventFilterRepository");
+
+        final String beanName = String.format(NODE_LOG_BACKFILL_ENGINE_BEAN_NAME, node.getName());
+        registry.registerBeanDefinition(beanName, builder.getBeanDefinition());
+
+        return beanName;
+    }
+
+    private String registerLogMultiplexerBean(Node node,
+                                              Web3j web3j,
+                                              String logBackfillEngineBeanName,
+                                              BeanDefinitionRegistry registry) {
+        final BeanDefinitionBuilder builder = BeanDefinitionBuilder.genericBeanDefinition(LogMultiplexer.class);
+
+        builder.addConstructorArgValue(web3j)
+                .addConstructorArgValue(node.getName())
+                .addConstructorArgValue(node.getPollingInterval())
+                .addConstructorArgReference(logBackfillEngineBeanName)
+                .addConstructorArgReference("eventeumValueMonitor");
+
+        final String beanName = String.format(NODE_LOG_MULTIPLEXER_BEAN_NAME, node.getName());
+        registry.registerBeanDefinition(beanName, builder.getBeanDefinition());
+
+        return beanName;
+    }
+
+    private String registerBlockLogExtractorBean(Node node,
+                                                 Web3j web3j,
+                                                 String logBackfillEngineBeanName,
+                                                 BeanDefinitionRegistry registry) {
+        final BeanDefinitionBuilder builder = BeanDefinitionBuilder.genericBeanDefinition(BlockLogExtractor.class);
+
+        builder.addConstructorArgValue(web3j)
+                .addConstructorArgValue(node.getName())
+                .addConstructorArgReference(logBackfillEngineBeanName)
+                .addConstructorArgReference("eventeumValueMonitor");
+
+        final String beanName = String.format(NODE_BLOCK_LOG_EXTRACTOR_BEAN_NAME, node.getName());
+        registry.registerBeanDefinition(beanName, builder.getBeanDefinition());
+
+        return beanName;
+    }
+
+    private String registerReceiptRetrySchedulerBean(Node node, BeanDefinitionRegistry registry) {
+        final BeanDefinitionBuilder builder = BeanDefinitionBuilder.genericBeanDefinition(ReceiptRetryScheduler.class);
+
+        builder.addConstructorArgValue(node.getName())
+                .addConstructorArgValue(node.getReceiptRetryInitialDelay())
+                .addConstructorArgValue(node.getReceiptRetryMaxAttempts())
+                .addConstructorArgReference("eventeumValueMonitor");
+
+        final String beanName = String.format(NODE_RECEIPT_RETRY_SCHEDULER_BEAN_NAME, node.getName());
+        registry.registerBeanDefinition(beanName, builder.getBeanDefinition());
+
+        return beanName;
+    }
+
     private String registerNodeHealthCheckBean(Node node,
                                                String blockchainServiceBeanName,
+                                               Web3jService transport,
                                                Web3jService web3jService,
                                                String nodeFailureListenerBeanName,
                                                BeanDefinitionRegistry registry) {
@@ -181,7 +341,7 @@ public class NodeBeanRegistrationStrategy {
 
         if (isWebSocketUrl(node.getUrl())) {
             builder = BeanDefinitionBuilder.genericBeanDefinition(WebSocketHealthCheckService.class)
-                    .addConstructorArgValue(web3jService);
+                    .addConstructorArgValue(transport);
         } else {
             builder = BeanDefinitionBuilder.genericBeanDefinition(NodeHealthCheckService.class);
         }
@@ -195,6 +355,14 @@ public class NodeBeanRegistrationStrategy {
         builder.addConstructorArgReference("taskScheduler");
         builder.addConstructorArgValue(node.getHealthcheckInterval());
 
+        if (transport instanceof PooledWeb3jService) {
+            builder.addPropertyValue("endpointPool", transport);
+        }
+
+        if (web3jService instanceof ConcurrencyLimitedWeb3jService) {
+            builder.addPropertyValue("concurrencyLimiter", web3jService);
+        }
+
         final String beanName = String.format(NODE_HEALTH_CHECK_BEAN_NAME, node.getName());
         registry.registerBeanDefinition(beanName, builder.getBeanDefinition());
 
@@ -270,16 +438,52 @@ public class NodeBeanRegistrationStrategy {
                     .readTimeout(node.getReadTimeout(),TimeUnit.MILLISECONDS)
                     .connectTimeout(node.getConnectionTimeout(),TimeUnit.MILLISECONDS)
                     .build();
-            HttpService httpService = new HttpService(node.getUrl(),client,false);
-            if (authHeaders != null) {
-                httpService.addHeaders(authHeaders);
+
+            if (node.getUrls() != null && node.getUrls().size() > 1) {
+                final List<Endpoint> endpoints = node.getUrls()
+                        .stream()
+                        .map(url -> new Endpoint(url, buildHttpService(node, url, client, authHeaders), node.getEndpointEjectionTime()))
+                        .collect(Collectors.toList());
+
+                web3jService = new PooledWeb3jService(node.getName(), endpoints, node.getHedgePercentile());
+            } else {
+                web3jService = buildHttpService(node, node.getUrl(), client, authHeaders);
             }
-            web3jService = httpService;
         }
 
         return web3jService;
     }
 
+    private Web3jService limitConcurrency(Node node, Web3jService transport) {
+        if (node.getRpcMaxConcurrency() == null || node.getRpcMaxConcurrency() <= 0) {
+            return transport;
+        }
+
+        return new ConcurrencyLimitedWeb3jService(node.getName(), transport,
+                new AdaptiveConcurrencyLimit(node.getRpcInitialConcurrency(), node.getRpcMaxConcurrency()));
+    }
+
+    private Web3jService buildHttpService(Node node, String url, OkHttpClient client, Map<String, String> authHeaders) {
+        HttpService httpService = new HttpService(url,client,false);
+        if (authHeaders != null) {
+            httpService.addHeaders(authHeaders);
+        }
+
+        return httpService;
+    }
+
+    /**
+     * Requests are batched above the concurrency limit, which counts each batch as one request, so
+     * that the limit does not also cap the size of the batches.
+     */
+    private Web3jService batchRequests(Node node, Web3jService web3jService) {
+        if (isWebSocketUrl(node.getUrl()) || node.getRpcBatchSize() == null || node.getRpcBatchSize() <= 1) {
+            return web3jService;
+        }
+
+        return new BatchingWeb3jService(node.getName(), web3jService, node.getRpcBatchSize(), node.getRpcBatchWindow());
+    }
+
     private Web3j buildWeb3j(Node node, Web3jService web3jService) {
 
         return Web3j.build(web3jService, node.getPollingInterval(), Async.defaultExecutorService());
@@ -287,6 +491,7 @@ public class NodeBeanRegistrationStrategy {
 
     private String registerBlockSubscriptionStrategyBean(Node node,
                                                          Web3j web3j,
+                                                         Web3jService web3jService,
                                                          BeanDefinitionRegistry registry) {
         BeanDefinitionBuilder builder = null;
 
@@ -309,7 +514,14 @@ public class NodeBeanRegistrationStrategy {
         builder.addConstructorArgValue(web3j)
                 .addConstructorArgValue(node.getName())
                 .addConstructorArgReference("defaultEventStoreService")
-                .addConstructorArgValue(node.getMaxUnsyncedBlocksForFilter());
+                .addConstructorArgValue(node.getMaxUnsyncedBlocksForFilter())
+                .addPropertyValue("replayWindow", node.getBlockReplayWindow())
+                .addPropertyValue("rpcService", web3jService)
+                .addPropertyReference("blockDispatchQueue", registerBlockDispatchQueueBean(node, registry));
+
+        if (PollingBlockSubscriptionStrategy.class.getName().equals(builder.getBeanDefinition().getBeanClassName())) {
+            builder.addPropertyReference("pollingInterval", registerAdaptivePollingIntervalBean(node, registry));
+        }
 
         final String beanName = String.format(NODE_BLOCK_SUB_STRATEGY_BEAN_NAME, node.getName());
         registry.registerBeanDefinition(beanName, builder.getBeanDefinition());
@@ -317,6 +529,34 @@ public class NodeBeanRegistrationStrategy {
         return beanName;
     }
 
+    private String registerBlockDispatchQueueBean(Node node, BeanDefinitionRegistry registry) {
+        final BeanDefinitionBuilder builder = BeanDefinitionBuilder.genericBeanDefinition(BlockDispatchQueue.class);
+
+        builder.addConstructorArgValue(node.getName())
+                .addConstructorArgValue(node.getBlockQueueCapacity())
+                .addConstructorArgValue(node.getBlockQueueOverflowPolicy())
+                .addConstructorArgReference("eventeumValueMonitor");
+
+        final String beanName = String.format(NODE_BLOCK_DISPATCH_QUEUE_BEAN_NAME, node.getName());
+        registry.registerBeanDefinition(beanName, builder.getBeanDefinition());
+
+        return beanName;
+    }
+
+    private String registerAdaptivePollingIntervalBean(Node node, BeanDefinitionRegistry registry) {
+        final BeanDefinitionBuilder builder = BeanDefinitionBuilder.genericBeanDefinition(AdaptivePollingInterval.class);
+
+        builder.addConstructorArgValue(node.getName())
+                .addConstructorArgValue(node.getMinPollingInterval())
+                .addConstructorArgValue(node.getMaxPollingInterval())
+                .addConstructorArgReference("eventeumValueMonitor");
+
+        final String beanName = String.format(NODE_ADAPTIVE_POLLING_INTERVAL_BEAN_NAME, node.getName());
+        registry.registerBeanDefinition(beanName, builder.getBeanDefinition());
+
+        return beanName;
+    }
+
     private boolean isWebSocketUrl(String nodeUrl) {
         return nodeUrl.contains("wss://") || nodeUrl.contains("ws://");
     }
@@ -3,6 +3,7 @@ package io.oxiles.chain.config.factory;
 import io.oxiles.chain.factory.ContractEventDetailsFactory;
 import io.oxiles.chain.service.BlockchainService;
 import io.oxiles.chain.service.Web3jService;
+import io.oxiles.chain.service.log.ReceiptRetryScheduler;
 import io.oxiles.chain.service.strategy.BlockSubscriptionStrategy;
 import io.oxiles.chain.settings.Node;
 import io.oxiles.service.AsyncTaskService;
@@ -19,12 +20,14 @@ public class BlockchainServiceFactoryBean implements FactoryBean<BlockchainServi
     private ContractEventDetailsFactory contractEventDetailsFactory;
     private EventBlockManagementService eventBlockManagementService;
     private BlockSubscriptionStrategy blockSubscriptionStrategy;
+    private ReceiptRetryScheduler receiptRetryScheduler;
     private AsyncTaskService asyncTaskService;
 
     @Override
     public BlockchainService getObject() throws Exception {
         return new Web3jService(node.getName(), web3j,
-                contractEventDetailsFactory, eventBlockManagementService, blockSubscriptionStrategy, asyncTaskService);
+                contractEventDetailsFactory, eventBlockManagementService, blockSubscriptionStrategy,
+                receiptRetryScheduler, asyncTaskService);
     }
 
     @Override
@@ -4,6 +4,7 @@ import io.oxiles.chain.converter.EventParameterConverter;
 import io.oxiles.chain.factory.ContractEventDetailsFactory;
 import io.oxiles.chain.factory.DefaultContractEventDetailsFactory;
 import io.oxiles.chain.settings.Node;
+import io.oxiles.settings.EventeumSettings;
 import lombok.Data;
 import org.springframework.beans.factory.FactoryBean;
 import org.web3j.abi.datatypes.Type;
@@ -15,11 +16,12 @@ public class ContractEventDetailsFactoryFactoryBean
     EventParameterConverter<Type> parameterConverter;
     Node node;
     String nodeName;
+    EventeumSettings settings;
 
     @Override
     public ContractEventDetailsFactory getObject() throws Exception {
         return new DefaultContractEventDetailsFactory(
-                parameterConverter, node, nodeName);
+                parameterConverter, node, nodeName, settings.isLazyParameterDecoding());
     }
 
     @Override
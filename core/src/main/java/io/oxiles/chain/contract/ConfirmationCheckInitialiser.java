@@ -1,31 +1,31 @@
 package io.oxiles.chain.contract;
 
-import io.oxiles.chain.block.BlockListener;
-import io.oxiles.chain.block.EventConfirmationBlockListener;
+import io.oxiles.chain.block.ConfirmationTracker;
 import io.oxiles.chain.service.BlockchainService;
 import io.oxiles.chain.settings.Node;
 import io.oxiles.chain.settings.NodeSettings;
 import io.oxiles.dto.event.ContractEventDetails;
 import io.oxiles.dto.event.ContractEventStatus;
 import io.oxiles.integration.broadcast.blockchain.BlockchainEventBroadcaster;
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import io.oxiles.chain.service.container.ChainServicesContainer;
 import io.oxiles.chain.service.domain.TransactionReceipt;
 import org.springframework.stereotype.Component;
 
 import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * A contract event listener that initialises a block listener after being passed an unconfirmed event.
+ * A contract event listener that passes unconfirmed events to the ConfirmationTracker of their node.
  *
- * This created block listener counts blocks since the event was first fired and broadcasts a CONFIRMED
- * event once the configured number of blocks have passed.
+ * The tracker counts blocks since the event was first fired and broadcasts a CONFIRMED event once the
+ * configured number of blocks have passed.  A tracker is created for a node, and registered as a block
+ * and reorg listener, when the first unconfirmed event for the node is seen.
  *
  * @author Craig Williams <craig.williams@consensys.net>
  */
 @Component
-@AllArgsConstructor
 @Slf4j
 public class ConfirmationCheckInitialiser implements ContractEventListener {
 
@@ -33,28 +33,48 @@ public class ConfirmationCheckInitialiser implements ContractEventListener {
     private BlockchainEventBroadcaster eventBroadcaster;
     private NodeSettings nodeSettings;
 
+    private Map<String, ConfirmationTracker> confirmationTrackers = new ConcurrentHashMap<>();
+
+    public ConfirmationCheckInitialiser(ChainServicesContainer chainServicesContainer,
+                                        BlockchainEventBroadcaster eventBroadcaster,
+                                        NodeSettings nodeSettings) {
+        this.chainServicesContainer = chainServicesContainer;
+        this.eventBroadcaster = eventBroadcaster;
+        this.nodeSettings = nodeSettings;
+    }
+
     @Override
     public void onEvent(ContractEventDetails eventDetails) {
         if (eventDetails.getStatus() == ContractEventStatus.UNCONFIRMED) {
 
             final BlockchainService blockchainService = getBlockchainService(eventDetails);
-            final Node node = nodeSettings.getNode(eventDetails.getNodeName());
+            final BigInteger currentBlock = blockchainService.getCurrentBlockNumber();
 
-            if (shouldInstantlyConfirm(eventDetails)) {
+            if (shouldInstantlyConfirm(eventDetails, currentBlock)) {
                 eventDetails.setStatus(ContractEventStatus.CONFIRMED);
                 eventBroadcaster.broadcastContractEvent(eventDetails);
 
                 return;
             }
 
-            log.info("Registering an EventConfirmationBlockListener for event: {}", eventDetails.getId());
-            blockchainService.addBlockListener(createEventConfirmationBlockListener(eventDetails, node));
+            log.info("Tracking confirmations for event: {}", eventDetails.getId());
+            getConfirmationTracker(eventDetails.getNodeName(), blockchainService).track(eventDetails, currentBlock);
         }
     }
 
-    protected BlockListener createEventConfirmationBlockListener(ContractEventDetails eventDetails, Node node) {
-        return new EventConfirmationBlockListener(eventDetails,
-                getBlockchainService(eventDetails), eventBroadcaster, node);
+    protected ConfirmationTracker createConfirmationTracker(BlockchainService blockchainService, Node node) {
+        return new ConfirmationTracker(blockchainService, eventBroadcaster, node);
+    }
+
+    private ConfirmationTracker getConfirmationTracker(String nodeName, BlockchainService blockchainService) {
+        return confirmationTrackers.computeIfAbsent(nodeName, name -> {
+            final ConfirmationTracker tracker = createConfirmationTracker(blockchainService, nodeSettings.getNode(name));
+
+            blockchainService.addBlockListener(tracker);
+            blockchainService.addReorgListener(tracker);
+
+            return tracker;
+        });
     }
 
     private BlockchainService getBlockchainService(ContractEventDetails eventDetails) {
@@ -62,10 +82,9 @@ public class ConfirmationCheckInitialiser implements ContractEventListener {
                 eventDetails.getNodeName()).getBlockchainService();
     }
 
-    private boolean shouldInstantlyConfirm(ContractEventDetails eventDetails) {
+    private boolean shouldInstantlyConfirm(ContractEventDetails eventDetails, BigInteger currentBlock) {
         final BlockchainService blockchainService = getBlockchainService(eventDetails);
         final Node node = nodeSettings.getNode(blockchainService.getNodeName());
-        BigInteger currentBlock = blockchainService.getCurrentBlockNumber();
         BigInteger waitBlocks = node.getBlocksToWaitForConfirmation();
 
         return currentBlock.compareTo(eventDetails.getBlockNumber().add(waitBlocks)) >= 0
@@ -12,4 +12,15 @@ import io.oxiles.dto.event.parameter.EventParameter;
 public interface EventParameterConverter<T> {
 
     EventParameter convert(T toConvert);
+
+    /**
+     * Returns the converter that handles values of the specified ABI type, allowing the lookup to be
+     * resolved once per event parameter rather than once per value.
+     *
+     * @param abiType the lower case ABI type name, for example uint256 or address[]
+     * @return the specific converter, or this converter if there is no specific one
+     */
+    default EventParameterConverter<T> forType(String abiType) {
+        return this;
+    }
 }
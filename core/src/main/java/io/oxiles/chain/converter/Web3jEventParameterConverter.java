@@ -1,5 +1,6 @@
 package io.oxiles.chain.converter;
 
+import io.oxiles.chain.util.ChecksumAddressCache;
 import io.oxiles.dto.event.parameter.ArrayParameter;
 import io.oxiles.dto.event.parameter.EventParameter;
 import io.oxiles.dto.event.parameter.NumberParameter;
@@ -8,7 +9,6 @@ import io.oxiles.settings.EventeumSettings;
 import org.springframework.stereotype.Component;
 import org.web3j.abi.datatypes.DynamicArray;
 import org.web3j.abi.datatypes.Type;
-import org.web3j.crypto.Keys;
 import org.web3j.utils.Numeric;
 
 import java.math.BigInteger;
@@ -30,7 +30,7 @@ public class Web3jEventParameterConverter implements EventParameterConverter<Typ
 
     public Web3jEventParameterConverter(EventeumSettings settings) {
         typeConverters.put("address",
-                (type) -> new StringParameter(type.getTypeAsString(), Keys.toChecksumAddress(type.toString())));
+                (type) -> new StringParameter(type.getTypeAsString(), ChecksumAddressCache.toChecksumAddress(type.toString())));
 
         registerNumberConverters("uint", 8, 256);
         registerNumberConverters("int", 8, 256);
@@ -63,6 +63,11 @@ public class Web3jEventParameterConverter implements EventParameterConverter<Typ
         return typeConverter.convert(toConvert);
     }
 
+    @Override
+    public EventParameterConverter<Type> forType(String abiType) {
+        return typeConverters.getOrDefault(abiType, this);
+    }
+
     private void registerNumberConverters(String prefix, int increment, int max) {
         for (int i = increment; i <= max; i = i + increment) {
             typeConverters.put(prefix + i,
@@ -87,13 +92,22 @@ public class Web3jEventParameterConverter implements EventParameterConverter<Typ
     }
 
     private EventParameter convertBytesType(Type bytesType) {
+        return convertBytes(bytesType.getTypeAsString(), (byte[]) bytesType.getValue());
+    }
+
+    /**
+     * Converts the value of a bytesN parameter, honouring the bytesToAscii setting.
+     *
+     * @param abiType the lower case ABI type name
+     * @param value the raw bytes of the value
+     * @return the converted parameter
+     */
+    public EventParameter convertBytes(String abiType, byte[] value) {
         if (settings.isBytesToAscii()) {
-            return new StringParameter(
-                    bytesType.getTypeAsString(), trim(new String((byte[]) bytesType.getValue())));
+            return new StringParameter(abiType, trim(new String(value)));
         }
 
-        return new StringParameter(
-                bytesType.getTypeAsString(), trim(Numeric.toHexString((byte[]) bytesType.getValue())));
+        return new StringParameter(abiType, trim(Numeric.toHexString(value)));
     }
 
     private String trim(String toTrim) {
@@ -0,0 +1,159 @@
+package io.oxiles.chain.decoder;
+
+import io.oxiles.chain.converter.EventParameterConverter;
+import io.oxiles.chain.converter.Web3jEventParameterConverter;
+import io.oxiles.chain.util.Web3jUtil;
+import io.oxiles.dto.event.filter.ContractEventSpecification;
+import io.oxiles.dto.event.filter.ParameterDefinition;
+import io.oxiles.dto.event.parameter.EventParameter;
+import lombok.Getter;
+import org.web3j.abi.FunctionReturnDecoder;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.Utils;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.utils.Numeric;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The decoding plan of a ContractEventSpecification.
+ *
+ * The event signature, the type references of the indexed and non indexed parameters and the
+ * converter of each parameter are resolved on construction, so that decoding a log only involves
+ * the ABI decoding and conversion of its values.
+ *
+ * When the Web3jEventParameterConverter is in use, static parameter types are decoded straight
+ * from the raw log bytes.  Non indexed parameters fall back to the Web3j decoder as a whole if any
+ * of them is a dynamic type, as the offsets of dynamic values are not handled by the raw path.
+ */
+public class CompiledEventDecoder {
+
+    @Getter
+    private String signature;
+
+    private List<TypeReference<Type>> nonIndexedTypes;
+
+    private List<EventParameterConverter<Type>> nonIndexedConverters;
+
+    private List<TypeReference<Type>> indexedTypes;
+
+    private List<EventParameterConverter<Type>> indexedConverters;
+
+    private List<StaticTypeDecoder> nonIndexedRawDecoders;
+
+    private List<StaticTypeDecoder> indexedRawDecoders;
+
+    public CompiledEventDecoder(ContractEventSpecification spec, EventParameterConverter<Type> parameterConverter) {
+        signature = Web3jUtil.getSignature(spec);
+
+        nonIndexedTypes = toTypeReferences(spec.getNonIndexedParameterDefinitions());
+        nonIndexedConverters = toConverters(spec.getNonIndexedParameterDefinitions(), parameterConverter);
+
+        indexedTypes = toTypeReferences(spec.getIndexedParameterDefinitions());
+        indexedConverters = toConverters(spec.getIndexedParameterDefinitions(), parameterConverter);
+
+        if (parameterConverter instanceof Web3jEventParameterConverter) {
+            final Web3jEventParameterConverter web3jConverter = (Web3jEventParameterConverter) parameterConverter;
+
+            final List<StaticTypeDecoder> nonIndexedDecoders =
+                    toRawDecoders(spec.getNonIndexedParameterDefinitions(), web3jConverter);
+            nonIndexedRawDecoders = nonIndexedDecoders.contains(null) ? null : nonIndexedDecoders;
+
+            indexedRawDecoders = toRawDecoders(spec.getIndexedParameterDefinitions(), web3jConverter);
+        }
+    }
+
+    public List<EventParameter> decodeNonIndexed(String data) {
+        if (nonIndexedTypes.isEmpty()) {
+            return Collections.EMPTY_LIST;
+        }
+
+        if (nonIndexedRawDecoders != null) {
+            final byte[] bytes = Numeric.hexStringToByteArray(data);
+
+            if (bytes.length >= nonIndexedRawDecoders.size() * StaticTypeDecoder.WORD_LENGTH) {
+                return decodeRaw(bytes);
+            }
+        }
+
+        final List<Type> values = FunctionReturnDecoder.decode(data, nonIndexedTypes);
+        final List<EventParameter> parameters = new ArrayList<>(values.size());
+
+        for (int i = 0; i < values.size(); i++) {
+            parameters.add(nonIndexedConverters.get(i).convert(values.get(i)));
+        }
+
+        return parameters;
+    }
+
+    /**
+     * @param topics all topics of the log, including the signature topic
+     * @return the converted indexed parameters
+     */
+    public List<EventParameter> decodeIndexed(List<String> topics) {
+        if (indexedTypes.isEmpty()) {
+            return Collections.EMPTY_LIST;
+        }
+
+        final List<EventParameter> parameters = new ArrayList<>(topics.size() - 1);
+
+        for (int i = 1; i < topics.size(); i++) {
+            final StaticTypeDecoder rawDecoder = indexedRawDecoders != null ? indexedRawDecoders.get(i - 1) : null;
+
+            if (rawDecoder != null) {
+                parameters.add(rawDecoder.decode(Numeric.hexStringToByteArray(topics.get(i)), 0));
+            } else {
+                final Type value = FunctionReturnDecoder.decodeIndexedValue(topics.get(i), indexedTypes.get(i - 1));
+
+                parameters.add(indexedConverters.get(i - 1).convert(value));
+            }
+        }
+
+        return parameters;
+    }
+
+    private List<EventParameter> decodeRaw(byte[] data) {
+        final List<EventParameter> parameters = new ArrayList<>(nonIndexedRawDecoders.size());
+
+        for (int i = 0; i < nonIndexedRawDecoders.size(); i++) {
+            parameters.add(nonIndexedRawDecoders.get(i).decode(data, i * StaticTypeDecoder.WORD_LENGTH));
+        }
+
+        return parameters;
+    }
+
+    private List<StaticTypeDecoder> toRawDecoders(List<ParameterDefinition> definitions,
+                                                  Web3jEventParameterConverter converter) {
+        if (definitions == null || definitions.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return definitions
+                .stream()
+                .map(definition -> StaticTypeDecoders.forType(definition.getType(), converter))
+                .collect(Collectors.toList());
+    }
+
+    private List<TypeReference<Type>> toTypeReferences(List<ParameterDefinition> definitions) {
+        if (definitions == null || definitions.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return Utils.convert(Web3jUtil.getTypeReferencesFromParameterDefinitions(definitions));
+    }
+
+    private List<EventParameterConverter<Type>> toConverters(List<ParameterDefinition> definitions,
+                                                             EventParameterConverter<Type> parameterConverter) {
+        if (definitions == null || definitions.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return definitions
+                .stream()
+                .map(definition -> parameterConverter.forType(definition.getType().getType().toLowerCase()))
+                .collect(Collectors.toList());
+    }
+}
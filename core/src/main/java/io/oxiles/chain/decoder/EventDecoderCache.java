@@ -0,0 +1,30 @@
+package io.oxiles.chain.decoder;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.oxiles.chain.converter.EventParameterConverter;
+import io.oxiles.dto.event.filter.ContractEventSpecification;
+import org.web3j.abi.datatypes.Type;
+
+/**
+ * Holds a CompiledEventDecoder per distinct ContractEventSpecification.
+ */
+public class EventDecoderCache {
+
+    public static final int DEFAULT_MAX_SPECIFICATIONS = 10000;
+
+    private EventParameterConverter<Type> parameterConverter;
+
+    private Cache<ContractEventSpecification, CompiledEventDecoder> decoders;
+
+    public EventDecoderCache(EventParameterConverter<Type> parameterConverter, int maxSpecifications) {
+        this.parameterConverter = parameterConverter;
+        this.decoders = CacheBuilder.newBuilder()
+                .maximumSize(maxSpecifications)
+                .build();
+    }
+
+    public CompiledEventDecoder getDecoder(ContractEventSpecification spec) {
+        return decoders.asMap().computeIfAbsent(spec, key -> new CompiledEventDecoder(key, parameterConverter));
+    }
+}
@@ -0,0 +1,15 @@
+package io.oxiles.chain.decoder;
+
+import io.oxiles.dto.event.parameter.EventParameter;
+
+/**
+ * Decodes a single 32 byte ABI word of a static type straight from the raw log bytes into an
+ * EventParameter, without creating intermediate Web3j Type objects.
+ */
+@FunctionalInterface
+public interface StaticTypeDecoder {
+
+    int WORD_LENGTH = 32;
+
+    EventParameter decode(byte[] data, int offset);
+}
@@ -0,0 +1,96 @@
+package io.oxiles.chain.decoder;
+
+import io.oxiles.chain.converter.Web3jEventParameterConverter;
+import io.oxiles.chain.util.ChecksumAddressCache;
+import io.oxiles.dto.event.filter.ParameterType;
+import io.oxiles.dto.event.parameter.NumberParameter;
+import io.oxiles.dto.event.parameter.StringParameter;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Builds StaticTypeDecoders for the uintN, intN, address, bool and bytesN parameter types.
+ *
+ * The decoded values match those of the Web3j FunctionReturnDecoder followed by the
+ * Web3jEventParameterConverter, including the sign handling of the Web3j TypeDecoder.
+ */
+public final class StaticTypeDecoders {
+
+    private StaticTypeDecoders() {
+    }
+
+    /**
+     * @param type the parameter type
+     * @param converter the converter whose bytes conversion is applied to bytesN values
+     * @return the decoder for the type, or null if the type is dynamic and must be decoded by Web3j
+     */
+    public static StaticTypeDecoder forType(ParameterType type, Web3jEventParameterConverter converter) {
+        final String abiType = type.getType().toLowerCase();
+
+        if (abiType.endsWith("[]")) {
+            return null;
+        }
+
+        if (abiType.equals("address")) {
+            return (data, offset) -> new StringParameter(abiType,
+                    ChecksumAddressCache.toChecksumAddress(Numeric.toHexString(data, offset + 12, 20, true)));
+        }
+
+        if (abiType.equals("bool")) {
+            return (data, offset) -> new NumberParameter(abiType,
+                    isOne(data, offset) ? BigInteger.ONE : BigInteger.ZERO);
+        }
+
+        if (abiType.startsWith("uint") && abiType.length() > 4) {
+            final int length = Integer.parseInt(abiType.substring(4)) / 8;
+
+            return (data, offset) -> new NumberParameter(abiType, toNumber(data, offset, length, false));
+        }
+
+        if (abiType.startsWith("int") && abiType.length() > 3) {
+            final int length = Integer.parseInt(abiType.substring(3)) / 8;
+
+            return (data, offset) -> new NumberParameter(abiType, toNumber(data, offset, length, true));
+        }
+
+        if (abiType.equals("byte")) {
+            return (data, offset) -> converter.convertBytes("bytes1", Arrays.copyOfRange(data, offset, offset + 1));
+        }
+
+        if (abiType.startsWith("bytes") && abiType.length() > 5) {
+            final int length = Integer.parseInt(abiType.substring(5));
+
+            return (data, offset) -> converter.convertBytes(abiType, Arrays.copyOfRange(data, offset, offset + length));
+        }
+
+        return null;
+    }
+
+    /**
+     * Reads the low length bytes of a word, prefixed with the first byte of the word as the sign
+     * byte for signed types, as the Web3j TypeDecoder does.
+     */
+    private static BigInteger toNumber(byte[] data, int offset, int length, boolean signed) {
+        final byte[] value = new byte[length + 1];
+
+        if (signed) {
+            value[0] = data[offset];
+        }
+
+        System.arraycopy(data, offset + StaticTypeDecoder.WORD_LENGTH - length, value, 1, length);
+
+        return new BigInteger(value);
+    }
+
+    private static boolean isOne(byte[] data, int offset) {
+        for (int i = offset; i < offset + StaticTypeDecoder.WORD_LENGTH - 1; i++) {
+            if (data[i] != 0) {
+                return false;
+            }
+        }
+
+        return data[offset + StaticTypeDecoder.WORD_LENGTH - 1] == 1;
+    }
+}
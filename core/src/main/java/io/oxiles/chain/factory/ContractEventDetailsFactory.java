@@ -14,4 +14,12 @@ import org.web3j.protocol.core.methods.response.Log;
  */
 public interface ContractEventDetailsFactory {
     ContractEventDetails createEventDetails(ContractEventFilter eventFilter, Log log, EthBlock ethBlock, TransactionReceipt transactionReceipt);
+
+    /**
+     * Prepares any per filter state up front, so that it is not built when the first log arrives.
+     *
+     * @param eventFilter the filter being registered
+     */
+    default void prepare(ContractEventFilter eventFilter) {
+    }
 }
@@ -1,62 +1,81 @@
 package io.oxiles.chain.factory;
 
-import java.util.Collections;
-
+import io.oxiles.chain.decoder.CompiledEventDecoder;
+import io.oxiles.chain.decoder.EventDecoderCache;
 import io.oxiles.dto.event.ContractEventDetails;
 import io.oxiles.dto.event.ContractEventStatus;
-import io.oxiles.dto.event.parameter.EventParameter;
 import io.oxiles.chain.converter.EventParameterConverter;
 import io.oxiles.chain.settings.Node;
-import io.oxiles.chain.util.Web3jUtil;
 import io.oxiles.chain.service.domain.TransactionReceipt;
+import io.oxiles.chain.util.ChecksumAddressCache;
 
 import io.oxiles.dto.event.filter.ContractEventFilter;
 import io.oxiles.dto.event.filter.ContractEventSpecification;
-import io.oxiles.dto.event.filter.ParameterDefinition;
-import org.web3j.abi.FunctionReturnDecoder;
-import org.web3j.abi.Utils;
 import org.web3j.abi.datatypes.Type;
-import org.web3j.crypto.Keys;
 import org.web3j.protocol.core.methods.response.EthBlock;
 import org.web3j.protocol.core.methods.response.Log;
 
 import java.math.BigInteger;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 public class DefaultContractEventDetailsFactory implements ContractEventDetailsFactory {
 
     private EventParameterConverter<Type> parameterConverter;
     private Node node;
     private String networkName;
+    private EventDecoderCache decoderCache;
+    private boolean lazyParameterDecoding;
 
     public DefaultContractEventDetailsFactory(EventParameterConverter<Type> parameterConverter,
                                               Node node,
                                               String networkName) {
+        this(parameterConverter, node, networkName, false);
+    }
+
+    public DefaultContractEventDetailsFactory(EventParameterConverter<Type> parameterConverter,
+                                              Node node,
+                                              String networkName,
+                                              boolean lazyParameterDecoding) {
         this.parameterConverter = parameterConverter;
         this.node = node;
         this.networkName = networkName;
+        this.lazyParameterDecoding = lazyParameterDecoding;
+        this.decoderCache = new EventDecoderCache(parameterConverter, EventDecoderCache.DEFAULT_MAX_SPECIFICATIONS);
+    }
+
+    @Override
+    public void prepare(ContractEventFilter eventFilter) {
+        if (eventFilter.getEventSpecification() != null) {
+            decoderCache.getDecoder(eventFilter.getEventSpecification());
+        }
     }
 
     @Override
     public ContractEventDetails createEventDetails(ContractEventFilter eventFilter, Log log, EthBlock ethBlock, TransactionReceipt transactionReceipt) {
         final ContractEventSpecification eventSpec = eventFilter.getEventSpecification();
-
-        final List<EventParameter> nonIndexed = typeListToParameterList(getNonIndexedParametersFromLog(eventSpec, log));
-        final List<EventParameter> indexed = typeListToParameterList(getIndexedParametersFromLog(eventSpec, log));
+        final CompiledEventDecoder decoder = decoderCache.getDecoder(eventSpec);
 
         final ContractEventDetails eventDetails = new ContractEventDetails();
         eventDetails.setName(eventSpec.getEventName());
         eventDetails.setFilterId(eventFilter.getId());
-        eventDetails.setNonIndexedParameters(nonIndexed);
-        eventDetails.setIndexedParameters(indexed);
-        eventDetails.setAddress(Keys.toChecksumAddress(log.getAddress()));
+
+        if (lazyParameterDecoding) {
+            final String data = log.getData();
+            final List<String> topics = log.getTopics();
+
+            eventDetails.setParameterDecoders(
+                    () -> decoder.decodeIndexed(topics), () -> decoder.decodeNonIndexed(data));
+        } else {
+            eventDetails.setNonIndexedParameters(decoder.decodeNonIndexed(log.getData()));
+            eventDetails.setIndexedParameters(decoder.decodeIndexed(log.getTopics()));
+        }
+
+        eventDetails.setAddress(ChecksumAddressCache.toChecksumAddress(log.getAddress()));
         eventDetails.setLogIndex(log.getLogIndex());
         eventDetails.setTransactionHash(log.getTransactionHash());
         eventDetails.setBlockNumber(log.getBlockNumber());
         eventDetails.setBlockHash(log.getBlockHash());
-        eventDetails.setEventSpecificationSignature(Web3jUtil.getSignature(eventSpec));
+        eventDetails.setEventSpecificationSignature(decoder.getSignature());
         eventDetails.setNetworkName(this.networkName);
         eventDetails.setNodeName(eventFilter.getNode());
 
@@ -88,44 +107,4 @@ public class DefaultContractEventDetailsFactory implements ContractEventDetailsF
 
         return eventDetails;
     }
-
-    private List<EventParameter> typeListToParameterList(List<Type> typeList) {
-        if (isNullOrEmpty(typeList)) {
-            return Collections.EMPTY_LIST;
-        }
-
-        return typeList
-                .stream()
-                .map(type -> parameterConverter.convert(type))
-                .collect(Collectors.toList());
-    }
-
-    private List<Type> getNonIndexedParametersFromLog(ContractEventSpecification eventSpec, Log log) {
-        if (isNullOrEmpty(eventSpec.getNonIndexedParameterDefinitions())) {
-            return Collections.EMPTY_LIST;
-        }
-
-        return FunctionReturnDecoder.decode(
-                log.getData(),
-                Utils.convert(Web3jUtil.getTypeReferencesFromParameterDefinitions(
-                        eventSpec.getNonIndexedParameterDefinitions())));
-    }
-
-    private List<Type> getIndexedParametersFromLog(ContractEventSpecification eventSpec, Log log) {
-        if (isNullOrEmpty(eventSpec.getIndexedParameterDefinitions())) {
-            return Collections.EMPTY_LIST;
-        }
-
-        final List<String> encodedParameters = log.getTopics().subList(1, log.getTopics().size());
-        final List<ParameterDefinition> definitions = eventSpec.getIndexedParameterDefinitions();
-
-        return IntStream.range(0, encodedParameters.size())
-                .mapToObj(i -> FunctionReturnDecoder.decodeIndexedValue(encodedParameters.get(i),
-                        Web3jUtil.getTypeReferenceFromParameterType(definitions.get(i).getType())))
-                .collect(Collectors.toList());
-    }
-
-    private boolean isNullOrEmpty(List<?> toCheck) {
-        return toCheck == null || toCheck.isEmpty();
-    }
-}
\ No newline at end of file
+}
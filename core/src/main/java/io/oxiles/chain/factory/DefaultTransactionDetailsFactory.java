@@ -4,28 +4,33 @@ import io.oxiles.dto.transaction.TransactionDetails;
 import io.oxiles.dto.transaction.TransactionStatus;
 import io.oxiles.chain.service.domain.Block;
 import io.oxiles.chain.service.domain.Transaction;
-import org.modelmapper.ModelMapper;
+import io.oxiles.chain.util.ChecksumAddressCache;
 import org.springframework.stereotype.Component;
-import org.web3j.crypto.Keys;
 
 @Component
 public class DefaultTransactionDetailsFactory implements TransactionDetailsFactory {
 
-    private ModelMapper modelMapper = new ModelMapper();
-
     @Override
     public TransactionDetails createTransactionDetails(
             Block block, Transaction transaction, TransactionStatus status) {
 
         final TransactionDetails transactionDetails = new TransactionDetails();
-        modelMapper.map(transaction, transactionDetails);
+        transactionDetails.setHash(transaction.getHash());
+        transactionDetails.setNonce(transaction.getNonce());
+        transactionDetails.setBlockHash(transaction.getBlockHash());
+        transactionDetails.setBlockNumber(transaction.getBlockNumber());
+        transactionDetails.setTransactionIndex(transaction.getTransactionIndex());
+        transactionDetails.setFrom(transaction.getFrom());
+        transactionDetails.setTo(transaction.getTo());
+        transactionDetails.setValue(transaction.getValue());
+        transactionDetails.setInput(transaction.getInput());
 
         transactionDetails.setNodeName(block.getNodeName());
         transactionDetails.setStatus(status);
         transactionDetails.setBlockTimestamp(block.getTimestamp().toString());
 
         if (transaction.getCreates() != null) {
-            transactionDetails.setContractAddress(Keys.toChecksumAddress(transaction.getCreates()));
+            transactionDetails.setContractAddress(ChecksumAddressCache.toChecksumAddress(transaction.getCreates()));
         }
 
         return transactionDetails;
@@ -1,6 +1,7 @@
 package io.oxiles.chain.service;
 
 import io.oxiles.chain.block.BlockListener;
+import io.oxiles.chain.block.reorg.ReorgListener;
 import io.oxiles.model.FilterSubscription;
 import io.oxiles.chain.contract.ContractEventListener;
 import io.oxiles.chain.service.domain.Block;
@@ -8,6 +9,8 @@ import io.oxiles.chain.service.domain.TransactionReceipt;
 import io.oxiles.dto.event.filter.ContractEventFilter;
 
 import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -37,6 +40,21 @@ public interface BlockchainService {
      */
     void removeBlockListener(BlockListener blockListener);
 
+    /**
+     * Add a listener that gets notified when blocks that have been passed to the block listeners are
+     * replaced on the canonical chain.
+     *
+     * @param reorgListener the listener to add
+     */
+    void addReorgListener(ReorgListener reorgListener);
+
+    /**
+     * Remove a reorg listener than was previously added.
+     *
+     * @param reorgListener the listener to remove
+     */
+    void removeReorgListener(ReorgListener reorgListener);
+
     /**
      * Register a contract event listener for the specified event filter, that gets triggered when an event
      * matching the filter is emitted within the Ethereum network.
@@ -67,6 +85,14 @@ public interface BlockchainService {
      */
     public Optional<Block> getBlock(String blockHash, boolean fullTransactionObjects);
 
+    /**
+     * Sets whether blocks passed to the block listeners should contain full transaction objects, rather
+     * than just the block header.
+     *
+     * @param fullTransactionObjects true if the block listeners require the block transactions
+     */
+    void setFullTransactionObjects(boolean fullTransactionObjects);
+
     /**
      * Obtain the transaction receipt for a specified transaction id.
      *
@@ -75,6 +101,18 @@ public interface BlockchainService {
      */
     TransactionReceipt getTransactionReceipt(String txId);
 
+    /**
+     * Obtain the transaction receipts for a number of transactions at once.
+     *
+     * The lookups are sent together, so they can share a JSON-RPC batch when batching is enabled
+     * for the node.  Receipts are always read from the node, so that they reflect the current
+     * canonical chain.
+     *
+     * @param txIds the transaction ids
+     * @return the receipts that were found, keyed on transaction id
+     */
+    Map<String, TransactionReceipt> getTransactionReceipts(Collection<String> txIds);
+
     /**
      * Connects to the Ethereum node and starts listening for new blocks
      */
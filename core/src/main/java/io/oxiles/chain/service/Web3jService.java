@@ -1,23 +1,34 @@
 package io.oxiles.chain.service;
 
 import io.reactivex.Flowable;
+import io.reactivex.disposables.CompositeDisposable;
 import io.reactivex.disposables.Disposable;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import io.oxiles.chain.block.BlockListener;
+import io.oxiles.chain.block.reorg.CanonicalChainTracker;
+import io.oxiles.chain.block.reorg.ReorgListener;
 import io.oxiles.chain.contract.ContractEventListener;
 import io.oxiles.chain.factory.ContractEventDetailsFactory;
+import io.oxiles.chain.service.cache.RpcResponseCache;
 import io.oxiles.chain.service.domain.Block;
 import io.oxiles.chain.service.domain.TransactionReceipt;
+import io.oxiles.chain.service.domain.wrapper.StreamedEthBlock;
+import io.oxiles.chain.service.domain.wrapper.StreamedEthGetTransactionReceipt;
 import io.oxiles.chain.service.domain.wrapper.Web3jBlock;
 import io.oxiles.chain.service.domain.wrapper.Web3jTransactionReceipt;
+import io.oxiles.chain.service.log.BlockContextCache;
+import io.oxiles.chain.service.log.LogBackfillEngine;
+import io.oxiles.chain.service.log.LogMultiplexer;
+import io.oxiles.chain.service.log.LogQuery;
+import io.oxiles.chain.service.log.ReceiptRetryScheduler;
 import io.oxiles.chain.service.strategy.BlockSubscriptionStrategy;
 import io.oxiles.chain.util.Web3jUtil;
 import io.oxiles.dto.event.filter.ContractEventFilter;
-import io.oxiles.dto.event.filter.ContractEventSpecification;
 import io.oxiles.model.FilterSubscription;
 import io.oxiles.service.AsyncTaskService;
+import io.oxiles.utils.ExecutorNameFactory;
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.core.DefaultBlockParameter;
 import org.web3j.protocol.core.DefaultBlockParameterName;
@@ -30,7 +41,15 @@ import org.web3j.protocol.core.methods.response.*;
 import javax.annotation.PreDestroy;
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A BlockchainService implementating utilising the Web3j library.
@@ -41,6 +60,8 @@ import java.util.Optional;
 public class Web3jService implements BlockchainService {
 
     private static final String EVENT_EXECUTOR_NAME = "EVENT";
+
+    private static final String BACKFILL_EXECUTOR_NAME = "BACKFILL";
     @Getter
     private String nodeName;
 
@@ -53,18 +74,37 @@ public class Web3jService implements BlockchainService {
 
     private BlockSubscriptionStrategy blockSubscriptionStrategy;
 
+    private LogMultiplexer logMultiplexer;
+
+    @Setter
+    private LogBackfillEngine logBackfillEngine;
+
+    private BlockContextCache blockContextCache;
+
+    private RpcResponseCache rpcResponseCache;
+
+    private CanonicalChainTracker canonicalChainTracker;
+
+    private ReceiptRetryScheduler receiptRetryScheduler;
+
+    private org.web3j.protocol.Web3jService rpcService;
+
     public Web3jService(String nodeName,
                         Web3j web3j,
                         ContractEventDetailsFactory eventDetailsFactory,
                         EventBlockManagementService blockManagement,
                         BlockSubscriptionStrategy blockSubscriptionStrategy,
+                        ReceiptRetryScheduler receiptRetryScheduler,
                         AsyncTaskService asyncTaskService) {
         this.nodeName = nodeName;
         this.web3j = web3j;
         this.eventDetailsFactory = eventDetailsFactory;
         this.blockManagement = blockManagement;
         this.blockSubscriptionStrategy = blockSubscriptionStrategy;
+        this.receiptRetryScheduler = receiptRetryScheduler;
         this.asyncTaskService = asyncTaskService;
+        this.blockContextCache = new BlockContextCache(
+                this::getBlockHeader, this::getTransactionReceipt, BlockContextCache.DEFAULT_MAX_BLOCKS);
     }
 
     /**
@@ -83,6 +123,37 @@ public class Web3jService implements BlockchainService {
         blockSubscriptionStrategy.removeBlockListener(blockListener);
     }
 
+    /**
+     * {inheritDoc}
+     */
+    @Override
+    public void addReorgListener(ReorgListener reorgListener) {
+        if (canonicalChainTracker == null) {
+            log.warn("No canonical chain tracker for node {}, reorgs will not be notified", nodeName);
+            return;
+        }
+
+        canonicalChainTracker.addReorgListener(reorgListener);
+    }
+
+    /**
+     * {inheritDoc}
+     */
+    @Override
+    public void removeReorgListener(ReorgListener reorgListener) {
+        if (canonicalChainTracker != null) {
+            canonicalChainTracker.removeReorgListener(reorgListener);
+        }
+    }
+
+    /**
+     * {inheritDoc}
+     */
+    @Override
+    public void setFullTransactionObjects(boolean fullTransactionObjects) {
+        blockSubscriptionStrategy.setFullTransactionObjects(fullTransactionObjects);
+    }
+
     /**
      * {inheritDoc}
      */
@@ -90,51 +161,24 @@ public class Web3jService implements BlockchainService {
     public FilterSubscription registerEventListener(
             ContractEventFilter eventFilter, ContractEventListener eventListener) {
         log.debug("Registering event filter for event: {}", eventFilter.getId());
-        final ContractEventSpecification eventSpec = eventFilter.getEventSpecification();
+
+        eventDetailsFactory.prepare(eventFilter);
 
         final BigInteger startBlock = getStartBlockForEventFilter(eventFilter);
 
-        EthFilter ethFilter = new EthFilter(
-                new DefaultBlockParameterNumber(startBlock),
-                DefaultBlockParameterName.LATEST, eventFilter.getContractAddress());
+        if (logMultiplexer != null) {
+            final Disposable sub = logMultiplexer.register(
+                    eventFilter, startBlock, theLog -> onLog(eventFilter, eventListener, theLog));
 
-        if (eventFilter.getEventSpecification() != null) {
-            ethFilter = ethFilter.addSingleTopic(Web3jUtil.getSignature(eventSpec));
+            return new FilterSubscription(eventFilter, sub, startBlock);
         }
 
-        final Flowable<Log> flowable = web3j.ethLogFlowable(ethFilter);
-
-        final Disposable sub = flowable.subscribe(theLog -> {
-            if (theLog != null) {
-                asyncTaskService.execute(EVENT_EXECUTOR_NAME, () -> {
-                    try {
-                        BigInteger blockNumber = theLog.getBlockNumber();
-                        DefaultBlockParameterNumber blockParameterNumber = new DefaultBlockParameterNumber(blockNumber);
-                        EthBlock ethBlock = this.web3j.ethGetBlockByNumber(blockParameterNumber, false).send();
-                        TransactionReceipt transactionReceipt = null;
-
-                        while (transactionReceipt == null) {
-                            try {
-                                transactionReceipt = this.getTransactionReceipt(theLog.getTransactionHash());
-                            } catch (BlockchainException blockchainException) {
-                                log.debug("Retrying to recover transaction receipt of {} because '{}'", theLog.getTransactionHash(),
-                                        blockchainException.getMessage());
-                            }
-                        }
-
-                        log.debug("Dispatching log: {}", theLog);
-                        eventListener.onEvent(
-                                eventDetailsFactory.createEventDetails(eventFilter, theLog, ethBlock, transactionReceipt));
-                    } catch (IOException exception) {
-                        log.warn(exception.getMessage());
-                    }
+        if (logBackfillEngine != null && isBackfillRequired(startBlock)) {
+            return new FilterSubscription(eventFilter,
+                    backfillAndSubscribe(eventFilter, eventListener, startBlock), startBlock);
+        }
 
-                });
-            }
-            else {
-                log.info("Null logevent");
-            }
-        }, error -> log.error("Error registering event listener", error));
+        final Disposable sub = subscribeToLogs(eventFilter, eventListener, startBlock);
 
         if (sub.isDisposed()) {
             //There was an error subscribing
@@ -152,6 +196,10 @@ public class Web3jService implements BlockchainService {
     public void connect() {
         log.info("Subscribing to block events");
         blockSubscriptionStrategy.subscribe();
+
+        if (logMultiplexer != null) {
+            logMultiplexer.start();
+        }
     }
 
     /**
@@ -160,6 +208,11 @@ public class Web3jService implements BlockchainService {
     @Override
     public void disconnect() {
         log.info("Unsubscribing from block events");
+
+        if (logMultiplexer != null) {
+            logMultiplexer.stop();
+        }
+
         try {
             blockSubscriptionStrategy.unsubscribe();
         } catch (FilterException e) {
@@ -196,16 +249,39 @@ public class Web3jService implements BlockchainService {
      */
     @Override
     public TransactionReceipt getTransactionReceipt(String txId) {
+        if (rpcResponseCache != null) {
+            return rpcResponseCache.getTransactionReceipt(txId, this::fetchTransactionReceipt);
+        }
+
+        return fetchTransactionReceipt(txId);
+    }
+
+    /**
+     * {inheritDoc}
+     */
+    @Override
+    public Map<String, TransactionReceipt> getTransactionReceipts(Collection<String> txIds) {
+        final Map<String, CompletableFuture<TransactionReceipt>> lookups = new LinkedHashMap<>();
+        txIds.forEach(txId -> lookups.computeIfAbsent(txId, this::fetchTransactionReceiptAsync));
+
+        final Map<String, TransactionReceipt> receipts = new HashMap<>();
+
         try {
-            final EthGetTransactionReceipt response = web3j.ethGetTransactionReceipt(txId).send();
+            for (Map.Entry<String, CompletableFuture<TransactionReceipt>> lookup : lookups.entrySet()) {
+                final TransactionReceipt receipt = lookup.getValue().get();
 
-            return response
-                    .getTransactionReceipt()
-                    .map(receipt -> new Web3jTransactionReceipt(receipt))
-                    .orElse(null);
-        } catch (IOException e) {
-            throw new BlockchainException("Unable to connect to the ethereum client", e);
+                if (receipt != null) {
+                    receipts.put(lookup.getKey(), receipt);
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new BlockchainException("Unable to connect to the ethereum client", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BlockchainException("Interrupted while obtaining transaction receipts", e);
         }
+
+        return receipts;
     }
 
     /**
@@ -223,23 +299,53 @@ public class Web3jService implements BlockchainService {
     }
 
     public Optional<Block> getBlock(String blockHash, boolean fullTransactionObjects) {
-        try {
-            final EthBlock blockResponse = web3j.ethGetBlockByHash(blockHash, fullTransactionObjects).send();
+        if (rpcResponseCache != null) {
+            return rpcResponseCache.getBlock(blockHash, fullTransactionObjects,
+                    hash -> fetchBlock(hash, fullTransactionObjects));
+        }
 
-            if (blockResponse.getBlock() == null) {
-                return Optional.empty();
-            }
+        return fetchBlock(blockHash, fullTransactionObjects);
+    }
 
-            return Optional.of(new Web3jBlock(blockResponse.getBlock(), nodeName));
-        } catch (IOException e) {
-            throw new BlockchainException("Error when obtaining block with hash: " + blockHash, e);
+    public void setLogMultiplexer(LogMultiplexer logMultiplexer) {
+        this.logMultiplexer = logMultiplexer;
+
+        blockSubscriptionStrategy.addBlockListener(logMultiplexer);
+
+        if (canonicalChainTracker != null) {
+            canonicalChainTracker.addReorgListener(logMultiplexer);
         }
+    }
 
+    public void setCanonicalChainTracker(CanonicalChainTracker canonicalChainTracker) {
+        this.canonicalChainTracker = canonicalChainTracker;
+
+        canonicalChainTracker.setHeaderLoader(hash -> fetchBlock(hash, false));
+        blockSubscriptionStrategy.addBlockListener(canonicalChainTracker);
+
+        if (logMultiplexer != null) {
+            canonicalChainTracker.addReorgListener(logMultiplexer);
+        }
+    }
+
+    /**
+     * @param rpcService the transport behind web3j, which blocks and receipts are read from with the
+     *                   streaming parser rather than through the web3j response objects
+     */
+    public void setRpcService(org.web3j.protocol.Web3jService rpcService) {
+        this.rpcService = rpcService;
+    }
+
+    public void setRpcResponseCache(RpcResponseCache rpcResponseCache) {
+        this.rpcResponseCache = rpcResponseCache;
+
+        blockSubscriptionStrategy.addBlockListener(rpcResponseCache);
     }
 
     @Override
     public boolean isConnected() {
-        return blockSubscriptionStrategy != null && blockSubscriptionStrategy.isSubscribed();
+        return blockSubscriptionStrategy != null && blockSubscriptionStrategy.isSubscribed()
+                && (logMultiplexer == null || logMultiplexer.isRunning());
     }
 
     @Override
@@ -256,10 +362,202 @@ public class Web3jService implements BlockchainService {
 
     @PreDestroy
     private void unregisterBlockSubscription() {
+        if (logMultiplexer != null) {
+            logMultiplexer.stop();
+        }
+
         blockSubscriptionStrategy.unsubscribe();
     }
 
+    private Disposable subscribeToLogs(
+            ContractEventFilter eventFilter, ContractEventListener eventListener, BigInteger startBlock) {
+        EthFilter ethFilter = new EthFilter(
+                new DefaultBlockParameterNumber(startBlock),
+                DefaultBlockParameterName.LATEST, eventFilter.getContractAddress());
+
+        if (eventFilter.getEventSpecification() != null) {
+            ethFilter = ethFilter.addSingleTopic(Web3jUtil.getSignature(eventFilter.getEventSpecification()));
+        }
+
+        final Flowable<Log> flowable = web3j.ethLogFlowable(ethFilter);
+
+        return flowable.subscribe(theLog -> onLog(eventFilter, eventListener, theLog),
+                error -> log.error("Error registering event listener", error));
+    }
+
+    private boolean isBackfillRequired(BigInteger startBlock) {
+        return getCurrentBlockNumber().subtract(startBlock)
+                .compareTo(BigInteger.valueOf(logBackfillEngine.getChunkSize())) > 0;
+    }
+
+    /**
+     * Fetches the historical logs of a filter that starts far behind the head in chunks, before
+     * handing over to a log subscription from the block after the last one backfilled.
+     */
+    private Disposable backfillAndSubscribe(
+            ContractEventFilter eventFilter, ContractEventListener eventListener, BigInteger startBlock) {
+        final CompositeDisposable subscription = new CompositeDisposable();
+
+        final LogQuery query = new LogQuery(
+                Collections.singletonList(eventFilter.getContractAddress()),
+                eventFilter.getEventSpecification() != null
+                        ? Collections.singletonList(Web3jUtil.getSignature(eventFilter.getEventSpecification())) : null);
+
+        asyncTaskService.execute(ExecutorNameFactory.build(BACKFILL_EXECUTOR_NAME, nodeName), () -> {
+            try {
+                BigInteger nextBlock = startBlock;
+
+                while (!subscription.isDisposed() && isBackfillRequired(nextBlock)) {
+                    nextBlock = logBackfillEngine.backfill(query, nextBlock, getCurrentBlockNumber(),
+                            theLog -> onLog(eventFilter, eventListener, theLog),
+                            block -> {
+                                if (!subscription.isDisposed()) {
+                                    logBackfillEngine.checkpoint(eventFilter, block);
+                                }
+                            },
+                            subscription::isDisposed).add(BigInteger.ONE);
+                }
+
+                subscription.add(subscribeToLogs(eventFilter, eventListener, nextBlock));
+            } catch (Throwable t) {
+                log.error(String.format("Backfill of filter %s failed", eventFilter.getId()), t);
+
+                //Flag the filter as unsubscribed so that it is picked up on resubscription
+                subscription.dispose();
+            }
+        });
+
+        return subscription;
+    }
+
+    /**
+     * @return completes once the event of the log has been passed to the listener, or exceptionally if
+     * it could not be built
+     */
+    private CompletableFuture<Void> onLog(ContractEventFilter eventFilter, ContractEventListener eventListener, Log theLog) {
+        final CompletableFuture<Void> processed = new CompletableFuture<>();
+
+        if (theLog != null) {
+            //Keyed on contract address so that events of a contract stay in order across lanes
+            final String key = theLog.getAddress() != null ? theLog.getAddress().toLowerCase() : null;
+
+            asyncTaskService.execute(EVENT_EXECUTOR_NAME, nodeName, key, () -> {
+                final AtomicReference<EthBlock> ethBlock = new AtomicReference<>();
+
+                //The node may not serve the header of a block that it has only just announced, so
+                //the header is retried along with the receipt rather than dropping the event
+                receiptRetryScheduler.submit(EVENT_EXECUTOR_NAME, key, theLog.getTransactionHash(),
+                        () -> {
+                            ethBlock.set(blockContextCache.getBlock(theLog.getBlockHash()));
+
+                            return blockContextCache.getTransactionReceipt(
+                                    theLog.getBlockHash(), theLog.getTransactionHash());
+                        },
+                        transactionReceipt -> {
+                            log.debug("Dispatching log: {}", theLog);
+                            eventListener.onEvent(eventDetailsFactory.createEventDetails(
+                                    eventFilter, theLog, ethBlock.get(), transactionReceipt));
+
+                            if (theLog.isRemoved()) {
+                                blockContextCache.invalidate(theLog.getBlockHash());
+                            }
+                        }).whenComplete((result, error) -> {
+                            if (error != null) {
+                                processed.completeExceptionally(error);
+                            } else {
+                                processed.complete(null);
+                            }
+                        });
+            });
+        }
+        else {
+            log.info("Null logevent");
+            processed.complete(null);
+        }
+
+        return processed;
+    }
+
+    private TransactionReceipt fetchTransactionReceipt(String txId) {
+        try {
+            if (rpcService != null) {
+                return StreamedEthGetTransactionReceipt.getTransactionReceipt(rpcService, txId)
+                        .send()
+                        .getTransactionReceipt()
+                        .orElse(null);
+            }
+
+            final EthGetTransactionReceipt response = web3j.ethGetTransactionReceipt(txId).send();
+
+            return response
+                    .getTransactionReceipt()
+                    .map(receipt -> new Web3jTransactionReceipt(receipt))
+                    .orElse(null);
+        } catch (IOException e) {
+            throw new BlockchainException("Unable to connect to the ethereum client", e);
+        }
+    }
+
+    private CompletableFuture<TransactionReceipt> fetchTransactionReceiptAsync(String txId) {
+        if (rpcService != null) {
+            return StreamedEthGetTransactionReceipt.getTransactionReceipt(rpcService, txId)
+                    .sendAsync()
+                    .thenApply(response -> response.getTransactionReceipt().orElse(null));
+        }
+
+        return web3j.ethGetTransactionReceipt(txId)
+                .sendAsync()
+                .thenApply(response -> response
+                        .getTransactionReceipt()
+                        .map(receipt -> (TransactionReceipt) new Web3jTransactionReceipt(receipt))
+                        .orElse(null));
+    }
+
+    private Optional<Block> fetchBlock(String blockHash, boolean fullTransactionObjects) {
+        try {
+            if (rpcService != null) {
+                return StreamedEthBlock.getBlockByHash(rpcService, blockHash, fullTransactionObjects)
+                        .send()
+                        .getBlock(nodeName);
+            }
+
+            final EthBlock blockResponse = web3j.ethGetBlockByHash(blockHash, fullTransactionObjects).send();
+
+            if (blockResponse.getBlock() == null) {
+                return Optional.empty();
+            }
+
+            return Optional.of(new Web3jBlock(blockResponse.getBlock(), nodeName));
+        } catch (IOException e) {
+            throw new BlockchainException("Error when obtaining block with hash: " + blockHash, e);
+        }
+
+    }
+
+    private EthBlock getBlockHeader(String blockHash) {
+        try {
+            final EthBlock blockResponse = web3j.ethGetBlockByHash(blockHash, false).send();
+
+            if (blockResponse.getBlock() == null) {
+                throw new BlockchainException("Block not found with hash: " + blockHash);
+            }
+
+            return blockResponse;
+        } catch (IOException e) {
+            throw new BlockchainException("Error when obtaining block with hash: " + blockHash, e);
+        }
+    }
+
     private BigInteger getStartBlockForEventFilter(ContractEventFilter filter) {
-        return blockManagement.getLatestBlockForEvent(filter);
+        final BigInteger startBlock = blockManagement.getLatestBlockForEvent(filter);
+        final BigInteger checkpoint = filter.getBackfillCheckpoint();
+
+        if (checkpoint != null && checkpoint.compareTo(startBlock) > 0) {
+            log.info("Resuming filter {} from backfill checkpoint at block {}", filter.getId(), checkpoint);
+
+            return checkpoint;
+        }
+
+        return startBlock;
     }
 }
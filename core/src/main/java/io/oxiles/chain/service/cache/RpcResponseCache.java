@@ -0,0 +1,230 @@
+package io.oxiles.chain.service.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import io.oxiles.chain.block.BlockListener;
+import io.oxiles.chain.service.domain.Block;
+import io.oxiles.chain.service.domain.TransactionReceipt;
+import io.oxiles.monitoring.EventeumValueMonitor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigInteger;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A per node cache of transaction receipt and block responses, bounded by an estimate of the memory
+ * that the cached responses occupy.
+ *
+ * Responses for blocks that are deeper than the confirmation depth are considered final and are
+ * kept until evicted by size.  Responses near the head expire after a short time to live, and are
+ * dropped as soon as a reorg is detected on the block subscription.
+ *
+ * Evictions by size, expiries and reorg invalidations are counted separately, as only evictions
+ * suggest that the cache is too small.
+ */
+@Slf4j
+public class RpcResponseCache implements BlockListener {
+
+    private static final int BASE_WEIGHT = 512;
+
+    private static final int LOG_WEIGHT = 512;
+
+    private static final int TRANSACTION_WEIGHT = 1024;
+
+    private static final int TRANSACTION_HASH_WEIGHT = 80;
+
+    private static final String RECEIPT_KEY_PREFIX = "receipt:";
+
+    private static final String BLOCK_KEY_PREFIX = "block:";
+
+    private String nodeName;
+
+    private BigInteger confirmationDepth;
+
+    private Long unfinalisedTtl;
+
+    private Cache<String, CachedResponse> responses;
+
+    private volatile BigInteger headNumber;
+
+    private volatile String headHash;
+
+    private AtomicLong hits;
+
+    private AtomicLong misses;
+
+    @Getter
+    private AtomicLong evictions;
+
+    @Getter
+    private AtomicLong expiries;
+
+    @Getter
+    private AtomicLong invalidations;
+
+    public RpcResponseCache(String nodeName,
+                            BigInteger confirmationDepth,
+                            Long maxBytes,
+                            Long unfinalisedTtl,
+                            EventeumValueMonitor valueMonitor) {
+        this.nodeName = nodeName;
+        this.confirmationDepth = confirmationDepth;
+        this.unfinalisedTtl = unfinalisedTtl;
+
+        this.responses = CacheBuilder.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> response.weight)
+                .removalListener(this::onRemoval)
+                .build();
+
+        hits = valueMonitor.monitor("rpcCacheHits", nodeName, new AtomicLong(0));
+        misses = valueMonitor.monitor("rpcCacheMisses", nodeName, new AtomicLong(0));
+        evictions = valueMonitor.monitor("rpcCacheEvictions", nodeName, new AtomicLong(0));
+        expiries = valueMonitor.monitor("rpcCacheExpiries", nodeName, new AtomicLong(0));
+        invalidations = valueMonitor.monitor("rpcCacheInvalidations", nodeName, new AtomicLong(0));
+    }
+
+    public TransactionReceipt getTransactionReceipt(String transactionHash,
+                                                    Function<String, TransactionReceipt> loader) {
+        final String key = RECEIPT_KEY_PREFIX + transactionHash;
+        final TransactionReceipt cached = getIfValid(key);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        final TransactionReceipt receipt = loader.apply(transactionHash);
+
+        if (receipt != null) {
+            final int weight = BASE_WEIGHT + (receipt.getLogs() != null ? receipt.getLogs().size() * LOG_WEIGHT : 0);
+
+            responses.put(key, new CachedResponse(receipt, receipt.getBlockNumber(), weight));
+        }
+
+        return receipt;
+    }
+
+    public Optional<Block> getBlock(String blockHash,
+                                    boolean fullTransactionObjects,
+                                    Function<String, Optional<Block>> loader) {
+        final String key = BLOCK_KEY_PREFIX + fullTransactionObjects + ":" + blockHash;
+        final Block cached = getIfValid(key);
+
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        final Optional<Block> block = loader.apply(blockHash);
+
+        block.ifPresent(theBlock -> {
+            final int transactionCount = theBlock.getTransactions() != null ? theBlock.getTransactions().size() : 0;
+            final int weight = BASE_WEIGHT + transactionCount
+                    * (fullTransactionObjects ? TRANSACTION_WEIGHT : TRANSACTION_HASH_WEIGHT);
+
+            responses.put(key, new CachedResponse(theBlock, theBlock.getNumber(), weight));
+        });
+
+        return block;
+    }
+
+    /**
+     * Tracks the head of the chain, dropping every response that is not final yet when the new
+     * block does not extend the previous head.
+     *
+     * @param block the new block
+     */
+    @Override
+    public void onBlock(Block block) {
+        final BigInteger previousNumber = headNumber;
+        final String previousHash = headHash;
+
+        if (previousNumber != null && isReorg(block, previousNumber, previousHash)) {
+            log.info("Reorg detected at block {} on node {}, dropping unfinalised responses",
+                    block.getNumber(), nodeName);
+
+            invalidateUnfinalised();
+        }
+
+        if (previousNumber == null || block.getNumber().compareTo(previousNumber) >= 0) {
+            headNumber = block.getNumber();
+            headHash = block.getHash();
+        }
+    }
+
+    public void invalidateUnfinalised() {
+        responses.asMap().values().removeIf(response -> {
+            if (isFinal(response)) {
+                return false;
+            }
+
+            invalidations.incrementAndGet();
+            return true;
+        });
+    }
+
+    private boolean isReorg(Block block, BigInteger previousNumber, String previousHash) {
+        final int comparison = block.getNumber().compareTo(previousNumber.add(BigInteger.ONE));
+
+        if (comparison == 0) {
+            return block.getParentHash() != null && !block.getParentHash().equalsIgnoreCase(previousHash);
+        }
+
+        return comparison < 0 && !block.getHash().equalsIgnoreCase(previousHash);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T getIfValid(String key) {
+        final CachedResponse response = responses.getIfPresent(key);
+
+        if (response == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        if (!isFinal(response) && System.currentTimeMillis() - response.cachedAt > unfinalisedTtl) {
+            responses.invalidate(key);
+            expiries.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+
+        return (T) response.value;
+    }
+
+    private boolean isFinal(CachedResponse response) {
+        final BigInteger head = headNumber;
+
+        return head != null && response.blockNumber != null
+                && response.blockNumber.compareTo(head.subtract(confirmationDepth)) <= 0;
+    }
+
+    private void onRemoval(RemovalNotification<String, CachedResponse> notification) {
+        //Explicit removals are counted where they are made, as expiries or invalidations
+        if (notification.wasEvicted()) {
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static class CachedResponse {
+
+        private Object value;
+
+        private BigInteger blockNumber;
+
+        private int weight;
+
+        private long cachedAt = System.currentTimeMillis();
+
+        private CachedResponse(Object value, BigInteger blockNumber, int weight) {
+            this.value = value;
+            this.blockNumber = blockNumber;
+            this.weight = weight;
+        }
+    }
+}
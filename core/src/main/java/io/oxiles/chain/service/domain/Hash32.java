@@ -0,0 +1,172 @@
+package io.oxiles.chain.service.domain;
+
+import java.util.Objects;
+
+/**
+ * An immutable 32 byte value, such as a block or transaction hash.
+ *
+ * The value is held in four longs, which takes 32 bytes plus the object header, rather than the
+ * 66 character hex String that web3j returns.  The hex form is only built when it is first requested,
+ * and is then kept, as the same hash is usually asked for by several listeners of a block.
+ *
+ * Some chains return values that are not 32 bytes in hash fields, such as a mixHash of "0x0".  These
+ * are kept as the String that was returned rather than rejected, as a block that a node returns should
+ * never fail to be read because of a field that is only passed through.
+ */
+public final class Hash32 {
+
+    public static final int LENGTH = 32;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final long word0;
+
+    private final long word1;
+
+    private final long word2;
+
+    private final long word3;
+
+    private final String raw;
+
+    private String hex;
+
+    private Hash32(long word0, long word1, long word2, long word3) {
+        this.word0 = word0;
+        this.word1 = word1;
+        this.word2 = word2;
+        this.word3 = word3;
+        this.raw = null;
+    }
+
+    private Hash32(String raw) {
+        this.word0 = 0;
+        this.word1 = 0;
+        this.word2 = 0;
+        this.word3 = 0;
+        this.raw = raw;
+    }
+
+    /**
+     * @param hex the 0x prefixed or unprefixed hex value
+     * @return the Hash32, or null if the value is null.  A value that is not 32 bytes of hex is held
+     * as it was given.
+     */
+    public static Hash32 fromHex(String hex) {
+        if (hex == null) {
+            return null;
+        }
+
+        final int start = hex.startsWith("0x") || hex.startsWith("0X") ? 2 : 0;
+
+        if (hex.length() - start != LENGTH * 2 || !isHex(hex, start)) {
+            return new Hash32(hex);
+        }
+
+        return new Hash32(parseWord(hex, start), parseWord(hex, start + 16),
+                parseWord(hex, start + 32), parseWord(hex, start + 48));
+    }
+
+    /**
+     * @param hash the hash, may be null
+     * @return the 0x prefixed lower case hex value, or null if the hash is null
+     */
+    public static String toHex(Hash32 hash) {
+        return hash == null ? null : hash.toHex();
+    }
+
+    public String toHex() {
+        if (raw != null) {
+            return raw;
+        }
+
+        //Racing threads at worst build the same String twice, which is safe as Strings are immutable
+        String cached = hex;
+
+        if (cached == null) {
+            cached = buildHex();
+            hex = cached;
+        }
+
+        return cached;
+    }
+
+    private String buildHex() {
+        final char[] chars = new char[2 + LENGTH * 2];
+        chars[0] = '0';
+        chars[1] = 'x';
+
+        appendHex(chars, 2, word0);
+        appendHex(chars, 18, word1);
+        appendHex(chars, 34, word2);
+        appendHex(chars, 50, word3);
+
+        return new String(chars);
+    }
+
+    /**
+     * @param hex a hex value, may be null
+     * @return true if the hex value represents the same 32 bytes as this hash, regardless of casing
+     */
+    public boolean matches(String hex) {
+        return hex != null && hex.equalsIgnoreCase(toHex());
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+
+        if (!(other instanceof Hash32)) {
+            return false;
+        }
+
+        final Hash32 hash = (Hash32) other;
+
+        return word0 == hash.word0 && word1 == hash.word1 && word2 == hash.word2 && word3 == hash.word3
+                && Objects.equals(raw, hash.raw);
+    }
+
+    @Override
+    public int hashCode() {
+        if (raw != null) {
+            return raw.hashCode();
+        }
+
+        //The value is a hash already, so any of its words is well distributed
+        return (int) (word3 ^ (word3 >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return toHex();
+    }
+
+    private static boolean isHex(String hex, int start) {
+        for (int i = start; i < hex.length(); i++) {
+            if (Character.digit(hex.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static long parseWord(String hex, int offset) {
+        long value = 0;
+
+        for (int i = offset; i < offset + 16; i++) {
+            value = (value << 4) | Character.digit(hex.charAt(i), 16);
+        }
+
+        return value;
+    }
+
+    private static void appendHex(char[] chars, int offset, long word) {
+        for (int i = 15; i >= 0; i--) {
+            chars[offset + i] = HEX_DIGITS[(int) (word & 0xf)];
+            word >>>= 4;
+        }
+    }
+}
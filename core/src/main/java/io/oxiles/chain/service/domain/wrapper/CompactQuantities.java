@@ -0,0 +1,57 @@
+package io.oxiles.chain.service.domain.wrapper;
+
+import lombok.EqualsAndHashCode;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.oxiles.chain.service.domain.wrapper.CompactValues.ABSENT;
+import static io.oxiles.chain.service.domain.wrapper.CompactValues.LARGE;
+import static io.oxiles.chain.service.domain.wrapper.CompactValues.fitsInLong;
+import static io.oxiles.chain.service.domain.wrapper.CompactValues.toBigInteger;
+import static io.oxiles.chain.service.domain.wrapper.CompactValues.toHexQuantity;
+
+/**
+ * Base class for the wrappers, and the other long lived objects, that hold their quantities as
+ * primitive longs.
+ *
+ * Quantities such as the gas limit are not bounded by the protocol, and some private chains return
+ * values that do not fit in a long.  These are kept at full size in a map, keyed on the field name,
+ * that is only created when a wrapper has such a value.
+ */
+@EqualsAndHashCode
+public abstract class CompactQuantities {
+
+    private Map<String, BigInteger> largeQuantities;
+
+    protected long compact(String field, BigInteger quantity) {
+        if (quantity == null) {
+            return ABSENT;
+        }
+
+        if (fitsInLong(quantity)) {
+            return quantity.longValue();
+        }
+
+        if (largeQuantities == null) {
+            largeQuantities = new HashMap<>(2);
+        }
+
+        largeQuantities.put(field, quantity);
+        return LARGE;
+    }
+
+    protected long compact(String field, String hexQuantity) {
+        return hexQuantity == null ? ABSENT : compact(field, Numeric.decodeQuantity(hexQuantity));
+    }
+
+    protected BigInteger expand(String field, long quantity) {
+        return quantity == LARGE ? largeQuantities.get(field) : toBigInteger(quantity);
+    }
+
+    protected String expandToHex(String field, long quantity) {
+        return quantity == LARGE ? Numeric.encodeQuantity(largeQuantities.get(field)) : toHexQuantity(quantity);
+    }
+}
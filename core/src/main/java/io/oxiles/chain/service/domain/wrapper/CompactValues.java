@@ -0,0 +1,42 @@
+package io.oxiles.chain.service.domain.wrapper;
+
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+
+/**
+ * Conversions between the quantities returned by web3j and the primitive longs that the wrappers
+ * hold them in.  Absent quantities are held as -1, as none of the converted quantities can be negative.
+ *
+ * A quantity that does not fit in a long is held as {@link #LARGE}, and the wrapper keeps its full
+ * value separately, see {@link CompactQuantities}.
+ */
+final class CompactValues {
+
+    static final long ABSENT = -1;
+
+    static final long LARGE = Long.MIN_VALUE;
+
+    private CompactValues() {
+    }
+
+    static boolean fitsInLong(BigInteger quantity) {
+        return quantity.signum() >= 0 && quantity.bitLength() < Long.SIZE;
+    }
+
+    static BigInteger toBigInteger(long quantity) {
+        return quantity == ABSENT ? null : BigInteger.valueOf(quantity);
+    }
+
+    static String toHexQuantity(long quantity) {
+        return quantity == ABSENT ? null : Numeric.encodeQuantity(BigInteger.valueOf(quantity));
+    }
+
+    static byte[] toBytes(String hex) {
+        return hex == null ? null : Numeric.hexStringToByteArray(hex);
+    }
+
+    static String toHex(byte[] bytes) {
+        return bytes == null ? null : Numeric.toHexString(bytes);
+    }
+}
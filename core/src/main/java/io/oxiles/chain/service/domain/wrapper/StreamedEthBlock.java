@@ -0,0 +1,54 @@
+package io.oxiles.chain.service.domain.wrapper;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import io.oxiles.chain.service.domain.Block;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * A block response that is parsed straight into a {@link Web3jBlock}, rather than into a web3j
+ * EthBlock that is then converted.
+ */
+public class StreamedEthBlock extends Response<Web3jBlock> {
+
+    public static Request<?, StreamedEthBlock> getBlockByHash(Web3jService web3jService,
+                                                              String blockHash,
+                                                              boolean fullTransactionObjects) {
+        return new Request<>("eth_getBlockByHash",
+                Arrays.asList(blockHash, fullTransactionObjects), web3jService, StreamedEthBlock.class);
+    }
+
+    public static Request<?, StreamedEthBlock> getBlockByNumber(Web3jService web3jService,
+                                                                DefaultBlockParameter blockNumber,
+                                                                boolean fullTransactionObjects) {
+        return new Request<>("eth_getBlockByNumber",
+                Arrays.asList(blockNumber.getValue(), fullTransactionObjects), web3jService, StreamedEthBlock.class);
+    }
+
+    @Override
+    @JsonDeserialize(using = StreamingResponseParser.BlockDeserializer.class)
+    public void setResult(Web3jBlock result) {
+        super.setResult(result);
+    }
+
+    /**
+     * @param nodeName the name of the node the block was retrieved from
+     * @return the block, or empty if the node did not return one
+     */
+    public Optional<Block> getBlock(String nodeName) {
+        final Web3jBlock block = getResult();
+
+        if (block == null) {
+            return Optional.empty();
+        }
+
+        block.nodeName = nodeName;
+
+        return Optional.of(block);
+    }
+}
@@ -0,0 +1,32 @@
+package io.oxiles.chain.service.domain.wrapper;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import io.oxiles.chain.service.domain.TransactionReceipt;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+
+import java.util.Collections;
+import java.util.Optional;
+
+/**
+ * A transaction receipt response that is parsed straight into a {@link Web3jTransactionReceipt}.
+ */
+public class StreamedEthGetTransactionReceipt extends Response<Web3jTransactionReceipt> {
+
+    public static Request<?, StreamedEthGetTransactionReceipt> getTransactionReceipt(Web3jService web3jService,
+                                                                                     String transactionHash) {
+        return new Request<>("eth_getTransactionReceipt",
+                Collections.singletonList(transactionHash), web3jService, StreamedEthGetTransactionReceipt.class);
+    }
+
+    @Override
+    @JsonDeserialize(using = StreamingResponseParser.TransactionReceiptDeserializer.class)
+    public void setResult(Web3jTransactionReceipt result) {
+        super.setResult(result);
+    }
+
+    public Optional<TransactionReceipt> getTransactionReceipt() {
+        return Optional.ofNullable(getResult());
+    }
+}
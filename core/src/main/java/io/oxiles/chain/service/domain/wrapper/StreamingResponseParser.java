@@ -0,0 +1,252 @@
+package io.oxiles.chain.service.domain.wrapper;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import io.oxiles.chain.service.domain.Hash32;
+import io.oxiles.chain.service.domain.Log;
+import io.oxiles.chain.service.domain.Transaction;
+import io.oxiles.chain.util.ChecksumAddressCache;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.oxiles.chain.service.domain.wrapper.CompactValues.toBytes;
+
+/**
+ * Reads blocks and transaction receipts token by token from a JSON-RPC response, straight into the
+ * wrapper objects.
+ *
+ * The web3j responses hold every field as a String before they are converted into the wrappers.
+ * Reading from the parser instead avoids those intermediate objects, and fields that the wrappers
+ * do not hold are skipped without being materialised.  The values are converted in the same way
+ * as the constructors that take web3j objects, so the result is equal to going through web3j.
+ */
+final class StreamingResponseParser {
+
+    private StreamingResponseParser() {
+    }
+
+    static Web3jBlock parseBlock(JsonParser parser) throws IOException {
+        final Web3jBlock block = new Web3jBlock();
+
+        for (JsonToken token = startObject(parser); token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            final String field = parser.getCurrentName();
+            parser.nextToken();
+
+            switch (field) {
+                case "number": block.number = block.compact("number", text(parser)); break;
+                case "hash": block.hash = Hash32.fromHex(text(parser)); break;
+                case "parentHash": block.parentHash = Hash32.fromHex(text(parser)); break;
+                case "nonce":
+                    final String nonce = text(parser);
+                    block.hasNonce = nonce != null;
+                    block.nonce = nonce != null ? Numeric.decodeQuantity(nonce).longValue() : 0;
+                    break;
+                case "sha3Uncles": block.sha3Uncles = Hash32.fromHex(text(parser)); break;
+                case "logsBloom": block.logsBloom = toBytes(text(parser)); break;
+                case "transactionsRoot": block.transactionsRoot = Hash32.fromHex(text(parser)); break;
+                case "stateRoot": block.stateRoot = Hash32.fromHex(text(parser)); break;
+                case "receiptsRoot": block.receiptsRoot = Hash32.fromHex(text(parser)); break;
+                case "author": block.author = text(parser); break;
+                case "miner": block.miner = text(parser); break;
+                case "mixHash": block.mixHash = Hash32.fromHex(text(parser)); break;
+                case "difficulty": block.difficulty = quantity(parser); break;
+                case "totalDifficulty": block.totalDifficulty = quantity(parser); break;
+                case "extraData": block.extraData = text(parser); break;
+                case "size": block.size = block.compact("size", text(parser)); break;
+                case "gasLimit": block.gasLimit = block.compact("gasLimit", text(parser)); break;
+                case "gasUsed": block.gasUsed = block.compact("gasUsed", text(parser)); break;
+                case "timestamp": block.timestamp = block.compact("timestamp", text(parser)); break;
+                case "transactions": block.transactions = parseTransactions(parser, block); break;
+                case "uncles": block.uncles = strings(parser); break;
+                case "sealFields": block.sealFields = strings(parser); break;
+                default: parser.skipChildren();
+            }
+        }
+
+        return block;
+    }
+
+    static Web3jTransactionReceipt parseTransactionReceipt(JsonParser parser) throws IOException {
+        final Web3jTransactionReceipt receipt = new Web3jTransactionReceipt();
+
+        for (JsonToken token = startObject(parser); token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            final String field = parser.getCurrentName();
+            parser.nextToken();
+
+            switch (field) {
+                case "transactionHash": receipt.setTransactionHash(text(parser)); break;
+                case "transactionIndex": receipt.setTransactionIndex(quantity(parser)); break;
+                case "blockHash": receipt.setBlockHash(text(parser)); break;
+                case "blockNumber": receipt.setBlockNumber(quantity(parser)); break;
+                case "cumulativeGasUsed": receipt.setCumulativeGasUsed(quantity(parser)); break;
+                case "gasUsed": receipt.setGasUsed(quantity(parser)); break;
+                case "contractAddress": receipt.setContractAddress(text(parser)); break;
+                case "root": receipt.setRoot(text(parser)); break;
+                case "from": receipt.setFrom(text(parser)); break;
+                case "to": receipt.setTo(text(parser)); break;
+                case "logs": receipt.setLogs(parseLogs(parser)); break;
+                case "logsBloom": receipt.setLogsBloom(text(parser)); break;
+                case "status": receipt.setStatus(text(parser)); break;
+                default: parser.skipChildren();
+            }
+        }
+
+        if (receipt.getLogs() == null) {
+            receipt.setLogs(new ArrayList<>());
+        }
+
+        return receipt;
+    }
+
+    private static List<Transaction> parseTransactions(JsonParser parser, Web3jBlock block) throws IOException {
+        final List<Transaction> transactions = new ArrayList<>();
+
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return transactions;
+        }
+
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            //Blocks retrieved as headers only contain transaction hashes, which are not kept
+            if (parser.currentToken() == JsonToken.START_OBJECT) {
+                transactions.add(parseTransaction(parser));
+            } else {
+                block.transactionHashesOnly = true;
+                parser.skipChildren();
+            }
+        }
+
+        return transactions;
+    }
+
+    private static Web3jTransaction parseTransaction(JsonParser parser) throws IOException {
+        final Web3jTransaction transaction = new Web3jTransaction();
+
+        for (JsonToken token = startObject(parser); token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            final String field = parser.getCurrentName();
+            parser.nextToken();
+
+            switch (field) {
+                case "hash": transaction.hash = Hash32.fromHex(text(parser)); break;
+                case "nonce": transaction.nonce = transaction.compact("nonce", text(parser)); break;
+                case "blockHash": transaction.blockHash = Hash32.fromHex(text(parser)); break;
+                case "blockNumber": transaction.blockNumber = transaction.compact("blockNumber", text(parser)); break;
+                case "transactionIndex":
+                    transaction.transactionIndex = transaction.compact("transactionIndex", text(parser));
+                    break;
+                case "from": transaction.from = checksumAddress(text(parser)); break;
+                case "to": transaction.to = checksumAddress(text(parser)); break;
+                case "value": transaction.value = text(parser); break;
+                case "gasPrice": transaction.gasPrice = text(parser); break;
+                case "gas": transaction.gas = transaction.compact("gas", text(parser)); break;
+                case "input": transaction.input = text(parser); break;
+                case "creates": transaction.creates = text(parser); break;
+                case "publicKey": transaction.publicKey = text(parser); break;
+                case "raw": transaction.raw = text(parser); break;
+                case "r": transaction.r = text(parser); break;
+                case "s": transaction.s = text(parser); break;
+                case "v": transaction.v = parser.currentToken() == JsonToken.VALUE_STRING
+                        ? Numeric.toBigInt(parser.getText()).longValueExact() : parser.getValueAsLong();
+                    break;
+                default: parser.skipChildren();
+            }
+        }
+
+        return transaction;
+    }
+
+    private static List<Log> parseLogs(JsonParser parser) throws IOException {
+        final List<Log> logs = new ArrayList<>();
+
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return logs;
+        }
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            logs.add(parseLog(parser));
+        }
+
+        return logs;
+    }
+
+    private static Web3jLog parseLog(JsonParser parser) throws IOException {
+        final Web3jLog log = new Web3jLog();
+
+        for (JsonToken token = startObject(parser); token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            final String field = parser.getCurrentName();
+            parser.nextToken();
+
+            switch (field) {
+                case "removed": log.setRemoved(parser.getValueAsBoolean()); break;
+                case "logIndex": log.setLogIndex(quantity(parser)); break;
+                case "transactionIndex": log.setTransactionIndex(quantity(parser)); break;
+                case "transactionHash": log.setTransactionHash(text(parser)); break;
+                case "blockHash": log.setBlockHash(text(parser)); break;
+                case "blockNumber": log.setBlockNumber(quantity(parser)); break;
+                case "address": log.setAddress(text(parser)); break;
+                case "data": log.setData(text(parser)); break;
+                case "type": log.setType(text(parser)); break;
+                case "topics": log.setTopics(strings(parser)); break;
+                default: parser.skipChildren();
+            }
+        }
+
+        return log;
+    }
+
+    private static JsonToken startObject(JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.START_OBJECT ? parser.nextToken() : parser.currentToken();
+    }
+
+    private static String text(JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+    }
+
+    private static BigInteger quantity(JsonParser parser) throws IOException {
+        final String quantity = text(parser);
+
+        return quantity == null ? null : Numeric.decodeQuantity(quantity);
+    }
+
+    private static List<String> strings(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+
+        final List<String> values = new ArrayList<>();
+
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(text(parser));
+        }
+
+        return values;
+    }
+
+    private static String checksumAddress(String address) {
+        return address == null || address.isEmpty() ? address : ChecksumAddressCache.toChecksumAddress(address);
+    }
+
+    static class BlockDeserializer extends JsonDeserializer<Web3jBlock> {
+
+        @Override
+        public Web3jBlock deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return parseBlock(parser);
+        }
+    }
+
+    static class TransactionReceiptDeserializer extends JsonDeserializer<Web3jTransactionReceipt> {
+
+        @Override
+        public Web3jTransactionReceipt deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return parseTransactionReceipt(parser);
+        }
+    }
+}
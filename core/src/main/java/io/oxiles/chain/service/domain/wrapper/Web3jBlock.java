@@ -1,74 +1,240 @@
 package io.oxiles.chain.service.domain.wrapper;
 
-import io.oxiles.utils.ModelMapperFactory;
-import lombok.Data;
 import io.oxiles.chain.service.domain.Block;
+import io.oxiles.chain.service.domain.Hash32;
 import io.oxiles.chain.service.domain.Transaction;
-import org.modelmapper.ModelMapper;
-import org.web3j.crypto.Keys;
+import io.oxiles.chain.util.ChecksumAddressCache;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import org.web3j.protocol.core.methods.response.EthBlock;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
-@Data
-public class Web3jBlock implements Block {
-
-    private BigInteger number;
-    private String hash;
-    private String parentHash;
-    private BigInteger nonce;
-    private String sha3Uncles;
-    private String logsBloom;
-    private String transactionsRoot;
-    private String stateRoot;
-    private String receiptsRoot;
-    private String author;
-    private String miner;
-    private String mixHash;
-    private BigInteger difficulty;
-    private BigInteger totalDifficulty;
-    private String extraData;
-    private BigInteger size;
-    private BigInteger gasLimit;
-    private BigInteger gasUsed;
-    private BigInteger timestamp;
-    private List<Transaction> transactions;
-    private List<String> uncles;
-    private List<String> sealFields;
-    private String nodeName;
+import static io.oxiles.chain.service.domain.wrapper.CompactValues.toBytes;
+import static io.oxiles.chain.service.domain.wrapper.CompactValues.toHex;
 
-    public Web3jBlock(EthBlock.Block web3jBlock, String nodeName) {
-        final ModelMapper modelMapper = ModelMapperFactory.getInstance().createModelMapper();
-        modelMapper.typeMap(
-                EthBlock.Block.class, Web3jBlock.class)
-                .addMappings(mapper -> {
-                    mapper.skip(Web3jBlock::setTransactions);
-
-                    //Nonce can be null which throws exception in web3j when
-                    //calling getNonce (because of attempted hex conversion)
-                    if (web3jBlock.getNonceRaw() == null) {
-                        mapper.skip(Web3jBlock::setNonce);
-                    }
-                });
+/**
+ * A Block that is constructed from a Web3j block.
+ *
+ * Hashes are held as {@link Hash32} values, the logs bloom as bytes, and quantities that fit in a
+ * long as primitives, as blocks are retained in the response caches.  The values are converted
+ * back to their usual form by the getters.
+ *
+ * The fields are package private, as blocks are also read directly from the JSON-RPC response by
+ * the {@link StreamingResponseParser}.
+ */
+@EqualsAndHashCode(callSuper = true)
+@ToString
+public class Web3jBlock extends CompactQuantities implements Block {
 
-        modelMapper.map(web3jBlock, this);
+    long number;
+    Hash32 hash;
+    Hash32 parentHash;
+    long nonce;
+    boolean hasNonce;
+    Hash32 sha3Uncles;
+    byte[] logsBloom;
+    Hash32 transactionsRoot;
+    Hash32 stateRoot;
+    Hash32 receiptsRoot;
+    String author;
+    String miner;
+    Hash32 mixHash;
+    BigInteger difficulty;
+    BigInteger totalDifficulty;
+    String extraData;
+    long size;
+    long gasLimit;
+    long gasUsed;
+    long timestamp;
+    List<Transaction> transactions;
+    boolean transactionHashesOnly;
+    List<String> uncles;
+    List<String> sealFields;
+    String nodeName;
+
+    /**
+     * Used by {@link StreamingResponseParser}, which sets the fields as they are read.
+     */
+    Web3jBlock() {
+        number = CompactValues.ABSENT;
+        size = CompactValues.ABSENT;
+        gasLimit = CompactValues.ABSENT;
+        gasUsed = CompactValues.ABSENT;
+        timestamp = CompactValues.ABSENT;
+        transactions = new ArrayList<>();
+    }
+
+    public Web3jBlock(EthBlock.Block web3jBlock, String nodeName) {
+        number = compact("number", web3jBlock.getNumber());
+        hash = Hash32.fromHex(web3jBlock.getHash());
+        parentHash = Hash32.fromHex(web3jBlock.getParentHash());
+        //Nonce can be null, which fails in web3j's getNonce (because of attempted hex conversion)
+        hasNonce = web3jBlock.getNonceRaw() != null;
+        //The nonce is an unsigned 64 bit value, so is held in the bits of a long
+        nonce = hasNonce ? web3jBlock.getNonce().longValue() : 0;
+        sha3Uncles = Hash32.fromHex(web3jBlock.getSha3Uncles());
+        logsBloom = toBytes(web3jBlock.getLogsBloom());
+        transactionsRoot = Hash32.fromHex(web3jBlock.getTransactionsRoot());
+        stateRoot = Hash32.fromHex(web3jBlock.getStateRoot());
+        receiptsRoot = Hash32.fromHex(web3jBlock.getReceiptsRoot());
+        author = web3jBlock.getAuthor();
+        miner = web3jBlock.getMiner();
+        mixHash = Hash32.fromHex(web3jBlock.getMixHash());
+        difficulty = web3jBlock.getDifficulty();
+        totalDifficulty = web3jBlock.getTotalDifficulty();
+        extraData = web3jBlock.getExtraData();
+        size = compact("size", web3jBlock.getSize());
+        gasLimit = compact("gasLimit", web3jBlock.getGasLimit());
+        gasUsed = compact("gasUsed", web3jBlock.getGasUsed());
+        timestamp = compact("timestamp", web3jBlock.getTimestamp());
+        uncles = web3jBlock.getUncles();
+        sealFields = web3jBlock.getSealFields();
 
         transactions = convertTransactions(web3jBlock.getTransactions());
+        transactionHashesOnly = !web3jBlock.getTransactions().isEmpty()
+                && !(web3jBlock.getTransactions().get(0) instanceof EthBlock.TransactionObject);
 
         this.nodeName = nodeName;
     }
 
+    @Override
+    public BigInteger getNumber() {
+        return expand("number", number);
+    }
+
+    @Override
+    public String getHash() {
+        return Hash32.toHex(hash);
+    }
+
+    @Override
+    public String getParentHash() {
+        return Hash32.toHex(parentHash);
+    }
+
+    @Override
+    public BigInteger getNonce() {
+        return hasNonce ? new BigInteger(Long.toUnsignedString(nonce)) : null;
+    }
+
+    @Override
+    public String getSha3Uncles() {
+        return Hash32.toHex(sha3Uncles);
+    }
+
+    @Override
+    public String getLogsBloom() {
+        return toHex(logsBloom);
+    }
+
+    @Override
+    public String getTransactionsRoot() {
+        return Hash32.toHex(transactionsRoot);
+    }
+
+    @Override
+    public String getStateRoot() {
+        return Hash32.toHex(stateRoot);
+    }
+
+    @Override
+    public String getReceiptsRoot() {
+        return Hash32.toHex(receiptsRoot);
+    }
+
+    @Override
+    public String getAuthor() {
+        return author;
+    }
+
+    @Override
+    public String getMiner() {
+        return miner;
+    }
+
+    @Override
+    public String getMixHash() {
+        return Hash32.toHex(mixHash);
+    }
+
+    @Override
+    public BigInteger getDifficulty() {
+        return difficulty;
+    }
+
+    @Override
+    public BigInteger getTotalDifficulty() {
+        return totalDifficulty;
+    }
+
+    @Override
+    public String getExtraData() {
+        return extraData;
+    }
+
+    @Override
+    public BigInteger getSize() {
+        return expand("size", size);
+    }
+
+    @Override
+    public BigInteger getGasLimit() {
+        return expand("gasLimit", gasLimit);
+    }
+
+    @Override
+    public BigInteger getGasUsed() {
+        return expand("gasUsed", gasUsed);
+    }
+
+    @Override
+    public BigInteger getTimestamp() {
+        return expand("timestamp", timestamp);
+    }
+
+    @Override
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    /**
+     * @return true if the block was retrieved with transaction hashes rather than full transaction
+     * objects, and so has transactions that are not held
+     */
+    public boolean isTransactionHashesOnly() {
+        return transactionHashesOnly;
+    }
+
+    @Override
+    public List<String> getUncles() {
+        return uncles;
+    }
+
+    @Override
+    public List<String> getSealFields() {
+        return sealFields;
+    }
+
+    @Override
+    public String getNodeName() {
+        return nodeName;
+    }
+
     private List<Transaction> convertTransactions(List<EthBlock.TransactionResult> toConvert) {
+        //Blocks retrieved as headers only contain transaction hashes, which are not converted
         return toConvert.stream()
+                .filter(tx -> tx instanceof EthBlock.TransactionObject)
                 .map(tx -> {
                     org.web3j.protocol.core.methods.response.Transaction transaction = (org.web3j.protocol.core.methods.response.Transaction) tx.get();
 
-                    transaction.setFrom(Keys.toChecksumAddress(transaction.getFrom()));
+                    transaction.setFrom(ChecksumAddressCache.toChecksumAddress(transaction.getFrom()));
 
                     if (transaction.getTo() != null && !transaction.getTo().isEmpty()) {
-                        transaction.setTo(Keys.toChecksumAddress(transaction.getTo()));
+                        transaction.setTo(ChecksumAddressCache.toChecksumAddress(transaction.getTo()));
                     }
 
                     return new Web3jTransaction(transaction);
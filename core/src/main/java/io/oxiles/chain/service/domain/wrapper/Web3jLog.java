@@ -1,10 +1,8 @@
 package io.oxiles.chain.service.domain.wrapper;
 
-import io.oxiles.utils.ModelMapperFactory;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import io.oxiles.chain.service.domain.Log;
-import org.modelmapper.ModelMapper;
 
 import java.math.BigInteger;
 import java.util.List;
@@ -30,8 +28,15 @@ public class Web3jLog implements Log {
     private List<String> topics;
 
     public Web3jLog(org.web3j.protocol.core.methods.response.Log web3jLog) {
-
-        final ModelMapper modelMapper = ModelMapperFactory.getInstance().createModelMapper();
-        modelMapper.map(web3jLog, this);
+        removed = web3jLog.isRemoved();
+        logIndex = web3jLog.getLogIndex();
+        transactionIndex = web3jLog.getTransactionIndex();
+        transactionHash = web3jLog.getTransactionHash();
+        blockHash = web3jLog.getBlockHash();
+        blockNumber = web3jLog.getBlockNumber();
+        address = web3jLog.getAddress();
+        data = web3jLog.getData();
+        type = web3jLog.getType();
+        topics = web3jLog.getTopics();
     }
 }
@@ -1,34 +1,149 @@
 package io.oxiles.chain.service.domain.wrapper;
 
-import io.oxiles.utils.ModelMapperFactory;
-import lombok.Data;
+import io.oxiles.chain.service.domain.Hash32;
 import io.oxiles.chain.service.domain.Transaction;
-import org.modelmapper.ModelMapper;
-
-@Data
-public class Web3jTransaction implements Transaction {
-
-    private String hash;
-    private String nonce;
-    private String blockHash;
-    private String blockNumber;
-    private String transactionIndex;
-    private String from;
-    private String to;
-    private String value;
-    private String gasPrice;
-    private String gas;
-    private String input;
-    private String creates;
-    private String publicKey;
-    private String raw;
-    private String r;
-    private String s;
-    private long v;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * A Transaction that is constructed from a Web3j transaction.
+ *
+ * Hashes are held as {@link Hash32} values, and the nonce, block number, index and gas as primitives.
+ * The getters return these as hex quantities, in the same form as the node returned them.
+ */
+@EqualsAndHashCode(callSuper = true)
+@ToString
+public class Web3jTransaction extends CompactQuantities implements Transaction {
+
+    Hash32 hash;
+    long nonce;
+    Hash32 blockHash;
+    long blockNumber;
+    long transactionIndex;
+    String from;
+    String to;
+    String value;
+    String gasPrice;
+    long gas;
+    String input;
+    String creates;
+    String publicKey;
+    String raw;
+    String r;
+    String s;
+    long v;
+
+    /**
+     * Used by {@link StreamingResponseParser}, which sets the fields as they are read.
+     */
+    Web3jTransaction() {
+        nonce = CompactValues.ABSENT;
+        blockNumber = CompactValues.ABSENT;
+        transactionIndex = CompactValues.ABSENT;
+        gas = CompactValues.ABSENT;
+    }
 
     public Web3jTransaction(org.web3j.protocol.core.methods.response.Transaction web3jTransaction) {
+        hash = Hash32.fromHex(web3jTransaction.getHash());
+        nonce = compact("nonce", web3jTransaction.getNonceRaw());
+        blockHash = Hash32.fromHex(web3jTransaction.getBlockHash());
+        blockNumber = compact("blockNumber", web3jTransaction.getBlockNumberRaw());
+        transactionIndex = compact("transactionIndex", web3jTransaction.getTransactionIndexRaw());
+        from = web3jTransaction.getFrom();
+        to = web3jTransaction.getTo();
+        value = web3jTransaction.getValueRaw();
+        gasPrice = web3jTransaction.getGasPriceRaw();
+        gas = compact("gas", web3jTransaction.getGasRaw());
+        input = web3jTransaction.getInput();
+        creates = web3jTransaction.getCreates();
+        publicKey = web3jTransaction.getPublicKey();
+        raw = web3jTransaction.getRaw();
+        r = web3jTransaction.getR();
+        s = web3jTransaction.getS();
+        v = web3jTransaction.getV();
+    }
+
+    @Override
+    public String getHash() {
+        return Hash32.toHex(hash);
+    }
+
+    @Override
+    public String getNonce() {
+        return expandToHex("nonce", nonce);
+    }
+
+    @Override
+    public String getBlockHash() {
+        return Hash32.toHex(blockHash);
+    }
+
+    @Override
+    public String getBlockNumber() {
+        return expandToHex("blockNumber", blockNumber);
+    }
+
+    @Override
+    public String getTransactionIndex() {
+        return expandToHex("transactionIndex", transactionIndex);
+    }
+
+    @Override
+    public String getFrom() {
+        return from;
+    }
+
+    @Override
+    public String getTo() {
+        return to;
+    }
+
+    @Override
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String getGasPrice() {
+        return gasPrice;
+    }
+
+    @Override
+    public String getGas() {
+        return expandToHex("gas", gas);
+    }
+
+    @Override
+    public String getInput() {
+        return input;
+    }
+
+    @Override
+    public String getCreates() {
+        return creates;
+    }
+
+    @Override
+    public String getPublicKey() {
+        return publicKey;
+    }
+
+    public String getRaw() {
+        return raw;
+    }
+
+    @Override
+    public String getR() {
+        return r;
+    }
+
+    @Override
+    public String getS() {
+        return s;
+    }
 
-        final ModelMapper modelMapper = ModelMapperFactory.getInstance().createModelMapper();
-        modelMapper.map(web3jTransaction, this);
+    @Override
+    public long getV() {
+        return v;
     }
 }
@@ -1,10 +1,9 @@
 package io.oxiles.chain.service.domain.wrapper;
 
-import io.oxiles.utils.ModelMapperFactory;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import io.oxiles.chain.service.domain.Log;
 import io.oxiles.chain.service.domain.TransactionReceipt;
-import org.modelmapper.ModelMapper;
 
 import java.math.BigInteger;
 import java.util.List;
@@ -16,6 +15,7 @@ import java.util.stream.Collectors;
  * @author Craig Williams <craig.williams@consensys.net>
  */
 @Data
+@NoArgsConstructor
 public class Web3jTransactionReceipt implements TransactionReceipt {
 
     private String transactionHash;
@@ -35,18 +35,19 @@ public class Web3jTransactionReceipt implements TransactionReceipt {
     public Web3jTransactionReceipt(
             org.web3j.protocol.core.methods.response.TransactionReceipt web3TransactionReceipt) {
 
+        transactionHash = web3TransactionReceipt.getTransactionHash();
+        transactionIndex = web3TransactionReceipt.getTransactionIndex();
+        blockHash = web3TransactionReceipt.getBlockHash();
+        blockNumber = web3TransactionReceipt.getBlockNumber();
+        cumulativeGasUsed = web3TransactionReceipt.getCumulativeGasUsed();
+        gasUsed = web3TransactionReceipt.getGasUsed();
+        contractAddress = web3TransactionReceipt.getContractAddress();
+        root = web3TransactionReceipt.getRoot();
+        from = web3TransactionReceipt.getFrom();
+        to = web3TransactionReceipt.getTo();
         logs = convertLogs(web3TransactionReceipt.getLogs());
-
-        try {
-            final ModelMapper modelMapper = ModelMapperFactory.getInstance().createModelMapper();
-            //Skip logs
-            modelMapper.getConfiguration().setPropertyCondition(ctx ->
-                    !ctx.getMapping().getLastDestinationProperty().getName().equals("logs"));
-            modelMapper.map(web3TransactionReceipt, this);
-        } catch (RuntimeException re) {
-            re.printStackTrace();
-            throw re;
-        }
+        logsBloom = web3TransactionReceipt.getLogsBloom();
+        status = web3TransactionReceipt.getStatus();
     }
 
     private List<Log> convertLogs(List<org.web3j.protocol.core.methods.response.Log> logs) {
@@ -0,0 +1,107 @@
+package io.oxiles.chain.service.endpoint;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An additive increase / multiplicative decrease limit on the number of requests that can be in
+ * flight to a node at once.
+ *
+ * The limit grows by one for each full window of requests, that is once as many requests as the
+ * current limit have completed in a normal time while the limit is in use.  It is halved when a
+ * request fails or is rate limited, and cut by a smaller factor when a request takes much longer
+ * than the smoothed latency, which is usually the first sign that the provider is queueing.
+ *
+ * The smoothed latency is kept per method, as an eth_getLogs over a wide range, or a batch, takes
+ * far longer than an eth_blockNumber without the provider being under any strain.
+ *
+ * Each request is given a sequence number when it is started, and only requests started after the
+ * last cut can cut the limit again.  Otherwise every request in a burst that failed together would
+ * halve the limit in turn.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    static final double SMOOTHING_FACTOR = 0.1;
+
+    static final double LATENCY_TOLERANCE = 2.0;
+
+    static final double LATENCY_BACKOFF = 0.9;
+
+    static final double ERROR_BACKOFF = 0.5;
+
+    static final int MIN_LIMIT = 1;
+
+    private int maxLimit;
+
+    private double limit;
+
+    private Map<String, Double> latencies = new HashMap<>();
+
+    private int successesSinceIncrease;
+
+    private long nextSequence;
+
+    private long decreasedAt;
+
+    /**
+     * @param initialLimit the number of concurrent requests allowed before any have completed
+     * @param maxLimit the upper bound of the limit
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int maxLimit) {
+        this.maxLimit = Math.max(maxLimit, MIN_LIMIT);
+        this.limit = Math.max(MIN_LIMIT, Math.min(initialLimit, this.maxLimit));
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return the sequence number of a request that is about to be sent
+     */
+    public synchronized long start() {
+        return nextSequence++;
+    }
+
+    /**
+     * @param sequence the sequence number returned when the request was started
+     * @param method the JSON-RPC method of the request, or a name for a batch
+     * @param latencyMillis the time taken by the request
+     * @param inFlight the number of requests in flight when the request completed
+     */
+    public synchronized void onSuccess(long sequence, String method, long latencyMillis, int inFlight) {
+        final double latency = latencies.getOrDefault(method, 0d);
+
+        if (latency > 0 && latencyMillis > Math.max(latency, 1) * LATENCY_TOLERANCE) {
+            decrease(sequence, LATENCY_BACKOFF);
+        } else if (inFlight * 2 >= limit) {
+            //Only grow when the limit is actually being used, otherwise a quiet period would leave
+            //an arbitrarily high limit behind it
+            if (++successesSinceIncrease >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+                successesSinceIncrease = 0;
+            }
+        }
+
+        latencies.put(method, latency == 0
+                ? latencyMillis
+                : latency * (1 - SMOOTHING_FACTOR) + latencyMillis * SMOOTHING_FACTOR);
+    }
+
+    /**
+     * @param sequence the sequence number returned when the request was started
+     */
+    public synchronized void onDropped(long sequence) {
+        decrease(sequence, ERROR_BACKOFF);
+    }
+
+    private void decrease(long sequence, double backoff) {
+        if (sequence < decreasedAt) {
+            return;
+        }
+
+        limit = Math.max(MIN_LIMIT, limit * backoff);
+        decreasedAt = nextSequence;
+        successesSinceIncrease = 0;
+    }
+}
@@ -0,0 +1,292 @@
+package io.oxiles.chain.service.endpoint;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.oxiles.utils.ExecutorNameFactory;
+import io.reactivex.Flowable;
+import lombok.extern.slf4j.Slf4j;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.websocket.events.Notification;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A Web3jService that combines the requests made within a short window into a single JSON-RPC
+ * batch, so that the lookups fired when a block arrives share one HTTP round trip.
+ *
+ * A batch is sent once the window has passed since its first request, or as soon as it holds the
+ * maximum number of requests.  The responses are matched back to their callers by request id, and
+ * only then read into the response type of the request, so callers see the same responses as if
+ * each request had been sent on its own, whatever order the provider answers a batch in.
+ */
+@Slf4j
+public class BatchingWeb3jService implements Web3jService {
+
+    private static final String EXECUTOR_NAME = "RPC-BATCH";
+
+    private static final ObjectMapper OBJECT_MAPPER = ObjectMapperFactory.getObjectMapper();
+
+    private String nodeName;
+
+    private Web3jService delegate;
+
+    private int maxBatchSize;
+
+    private long batchWindow;
+
+    private ScheduledExecutorService scheduler;
+
+    private ExecutorService sender;
+
+    private List<PendingRequest> pending = new ArrayList<>();
+
+    private ScheduledFuture<?> scheduledFlush;
+
+    /**
+     * @param nodeName the node name
+     * @param delegate the service that sends the batches
+     * @param maxBatchSize the maximum number of requests in a batch
+     * @param batchWindow the number of milliseconds to wait for more requests before sending a batch
+     */
+    public BatchingWeb3jService(String nodeName, Web3jService delegate, Integer maxBatchSize, Long batchWindow) {
+        this.nodeName = nodeName;
+        this.delegate = delegate;
+        this.maxBatchSize = maxBatchSize;
+        this.batchWindow = batchWindow;
+
+        final String executorName = ExecutorNameFactory.build(EXECUTOR_NAME, nodeName);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat(executorName + "-TIMER-%d")
+                .setDaemon(true)
+                .build());
+
+        sender = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                .setNameFormat(executorName + "-%d")
+                .setDaemon(true)
+                .build());
+    }
+
+    @Override
+    public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
+        try {
+            return sendAsync(request, responseType).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + request.getMethod());
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends Response> CompletableFuture<T> sendAsync(Request request, Class<T> responseType) {
+        final PendingRequest pendingRequest = new PendingRequest(request, responseType);
+        List<PendingRequest> fullBatch = null;
+
+        synchronized (this) {
+            pending.add(pendingRequest);
+
+            if (pending.size() >= maxBatchSize) {
+                fullBatch = drain();
+            } else if (pending.size() == 1) {
+                scheduledFlush = scheduler.schedule(this::flush, batchWindow, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        if (fullBatch != null) {
+            dispatch(fullBatch);
+        }
+
+        return (CompletableFuture<T>) pendingRequest.response;
+    }
+
+    @Override
+    public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+        return delegate.sendBatch(batchRequest);
+    }
+
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        return delegate.sendBatchAsync(batchRequest);
+    }
+
+    @Override
+    public <T extends Notification<?>> Flowable<T> subscribe(Request request,
+                                                             String unsubscribeMethod,
+                                                             Class<T> responseType) {
+        return delegate.subscribe(request, unsubscribeMethod, responseType);
+    }
+
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdownNow();
+        sender.shutdownNow();
+        delegate.close();
+    }
+
+    private void flush() {
+        final List<PendingRequest> batch;
+
+        synchronized (this) {
+            batch = drain();
+        }
+
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    private List<PendingRequest> drain() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+
+        final List<PendingRequest> batch = pending;
+        pending = new ArrayList<>();
+
+        return batch;
+    }
+
+    private void dispatch(List<PendingRequest> batch) {
+        sender.execute(() -> {
+            try {
+                if (batch.size() == 1) {
+                    final PendingRequest single = batch.get(0);
+                    single.response.complete(delegate.send(single.request, single.responseType));
+                } else {
+                    sendAsBatch(batch);
+                }
+            } catch (Throwable t) {
+                batch.forEach(pendingRequest -> pendingRequest.response.completeExceptionally(t));
+            }
+        });
+    }
+
+    private void sendAsBatch(List<PendingRequest> batch) throws IOException {
+        final BatchRequest batchRequest = new BatchRequest(delegate);
+        batch.forEach(pendingRequest -> batchRequest.add(toUntypedRequest(pendingRequest.request)));
+
+        final BatchResponse batchResponse;
+
+        try {
+            batchResponse = delegate.sendBatch(batchRequest);
+        } catch (ClassCastException e) {
+            //web3j casts the response to a batch to an array, so a provider that answers a batch
+            //with a single error object fails here rather than with a JSON-RPC error
+            throw new IOException(String.format(
+                    "The provider of node %s does not support JSON-RPC batches, disable rpcBatchSize", nodeName), e);
+        }
+
+        final Map<Long, Response<?>> responsesById = new HashMap<>();
+        batchResponse.getResponses().forEach(response -> responsesById.put(response.getId(), response));
+
+        log.trace("Sent batch of {} requests", batch.size());
+
+        for (PendingRequest pendingRequest : batch) {
+            final Response<?> response = responsesById.get(pendingRequest.request.getId());
+
+            if (response == null) {
+                pendingRequest.response.completeExceptionally(new IOException(String.format(
+                        "No response in batch for %s request %d",
+                        pendingRequest.request.getMethod(), pendingRequest.request.getId())));
+                continue;
+            }
+
+            try {
+                pendingRequest.response.complete(toTypedResponse(response, pendingRequest.responseType));
+            } catch (IOException e) {
+                pendingRequest.response.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * web3j reads the n-th element of a batch response with the response type of the n-th request,
+     * which mixes up the types when a provider answers a mixed batch out of order.  The requests
+     * are sent with an untyped response instead, and each element is read into the type of the
+     * request with the same id once the batch is back.
+     */
+    @SuppressWarnings("unchecked")
+    private Request<?, UntypedResponse> toUntypedRequest(Request request) {
+        final Request<?, UntypedResponse> untyped =
+                new Request<>(request.getMethod(), request.getParams(), delegate, UntypedResponse.class);
+        untyped.setId(request.getId());
+
+        return untyped;
+    }
+
+    private Response<?> toTypedResponse(Response<?> response,
+                                        Class<? extends Response> responseType) throws IOException {
+        if (responseType.isInstance(response)) {
+            return response;
+        }
+
+        if (!(response instanceof UntypedResponse)) {
+            throw new IOException(String.format("Unexpected %s in batch for request %d",
+                    response.getClass().getSimpleName(), response.getId()));
+        }
+
+        return OBJECT_MAPPER.treeToValue(((UntypedResponse) response).json, responseType);
+    }
+
+    static class UntypedResponse extends Response<Object> {
+
+        private JsonNode json;
+
+        @JsonCreator
+        UntypedResponse(JsonNode json) {
+            this.json = json;
+
+            setId(json.path("id").asLong());
+
+            if (json.hasNonNull("error")) {
+                //Kept so that the concurrency limit still sees rate limited responses in a batch
+                setError(new Error(json.path("error").path("code").asInt(), json.path("error").path("message").asText()));
+            }
+        }
+    }
+
+    private static class PendingRequest {
+
+        private Request request;
+
+        private Class<? extends Response> responseType;
+
+        private CompletableFuture<Response> response = new CompletableFuture<>();
+
+        private PendingRequest(Request request, Class<? extends Response> responseType) {
+            this.request = request;
+            this.responseType = responseType;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package io.oxiles.chain.service.endpoint;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.oxiles.utils.ExecutorNameFactory;
+import io.reactivex.Flowable;
+import lombok.extern.slf4j.Slf4j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.exceptions.ClientConnectionException;
+import org.web3j.protocol.websocket.events.Notification;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A Web3jService that bounds the number of requests in flight to a node, using an
+ * AdaptiveConcurrencyLimit so that the bound follows what the node can currently handle.
+ *
+ * Requests over the limit wait in a single first in, first out queue, so a burst of requests from
+ * one caller (a backfill, or catching up after a reconnect) cannot starve the others.  Requests
+ * that fail in the transport, including HTTP error statuses such as 429, and responses with the
+ * rate limited error code count as dropped requests, and cut the limit.
+ *
+ * Batches take a single slot, so when requests are batched this service must sit below the
+ * BatchingWeb3jService.  Otherwise the limit would also cap the size of the batches.
+ */
+@Slf4j
+public class ConcurrencyLimitedWeb3jService implements Web3jService {
+
+    static final int RATE_LIMITED_ERROR_CODE = -32005;
+
+    private static final String EXECUTOR_NAME = "RPC-LIMIT";
+
+    private static final String BATCH_NAME = "batch";
+
+    private Web3jService delegate;
+
+    private AdaptiveConcurrencyLimit limit;
+
+    private ExecutorService sender;
+
+    private Deque<Runnable> queue = new ArrayDeque<>();
+
+    private int inFlight;
+
+    private AtomicInteger limitGauge = new AtomicInteger(0);
+
+    private AtomicInteger queueLengthGauge = new AtomicInteger(0);
+
+    private AtomicInteger inFlightGauge = new AtomicInteger(0);
+
+    /**
+     * @param nodeName the node name
+     * @param delegate the service that sends the requests
+     * @param limit the limit on concurrent requests
+     */
+    public ConcurrencyLimitedWeb3jService(String nodeName, Web3jService delegate, AdaptiveConcurrencyLimit limit) {
+        this.delegate = delegate;
+        this.limit = limit;
+
+        sender = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                .setNameFormat(ExecutorNameFactory.build(EXECUTOR_NAME, nodeName) + "-%d")
+                .setDaemon(true)
+                .build());
+
+        limitGauge.set(limit.getLimit());
+    }
+
+    @Override
+    public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
+        return await(sendAsync(request, responseType), request.getMethod());
+    }
+
+    @Override
+    public <T extends Response> CompletableFuture<T> sendAsync(Request request, Class<T> responseType) {
+        return enqueue(request.getMethod(), () -> delegate.send(request, responseType));
+    }
+
+    @Override
+    public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+        return await(sendBatchAsync(batchRequest), BATCH_NAME);
+    }
+
+    /**
+     * A batch is a single HTTP request to the node, so it takes a single slot however many requests
+     * it holds.
+     */
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        return enqueue(BATCH_NAME, () -> delegate.sendBatch(batchRequest));
+    }
+
+    @Override
+    public <T extends Notification<?>> Flowable<T> subscribe(Request request,
+                                                             String unsubscribeMethod,
+                                                             Class<T> responseType) {
+        return delegate.subscribe(request, unsubscribeMethod, responseType);
+    }
+
+    @Override
+    public void close() throws IOException {
+        sender.shutdownNow();
+        delegate.close();
+    }
+
+    public AtomicInteger getLimitGauge() {
+        return limitGauge;
+    }
+
+    public AtomicInteger getQueueLengthGauge() {
+        return queueLengthGauge;
+    }
+
+    public AtomicInteger getInFlightGauge() {
+        return inFlightGauge;
+    }
+
+    private void dispatch() {
+        final List<Runnable> ready = new ArrayList<>();
+
+        synchronized (this) {
+            final int currentLimit = limit.getLimit();
+
+            while (!queue.isEmpty() && inFlight < currentLimit) {
+                ready.add(queue.poll());
+                inFlight++;
+            }
+
+            limitGauge.set(currentLimit);
+            queueLengthGauge.set(queue.size());
+            inFlightGauge.set(inFlight);
+        }
+
+        ready.forEach(sender::execute);
+    }
+
+    private <T> CompletableFuture<T> enqueue(String name, RpcCall<T> call) {
+        final CompletableFuture<T> response = new CompletableFuture<>();
+
+        synchronized (this) {
+            queue.add(() -> execute(name, call, response));
+        }
+
+        dispatch();
+
+        return response;
+    }
+
+    private <T> T await(CompletableFuture<T> response, String name) throws IOException {
+        try {
+            return response.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + name);
+        }
+    }
+
+    private <T> void execute(String name, RpcCall<T> call, CompletableFuture<T> response) {
+        final long sequence = limit.start();
+        final long startTime = System.currentTimeMillis();
+
+        T result = null;
+        Throwable error = null;
+
+        try {
+            result = call.send();
+        } catch (Throwable t) {
+            error = t;
+        }
+
+        final int stillInFlight;
+
+        synchronized (this) {
+            stillInFlight = inFlight--;
+        }
+
+        if (isDropped(error) || isRateLimited(result)) {
+            log.debug("{} request dropped, cutting the concurrency limit", name);
+            limit.onDropped(sequence);
+        } else if (error == null) {
+            limit.onSuccess(sequence, name, System.currentTimeMillis() - startTime, stillInFlight);
+        }
+
+        dispatch();
+
+        if (error != null) {
+            response.completeExceptionally(error);
+        } else {
+            response.complete(result);
+        }
+    }
+
+    private boolean isDropped(Throwable error) {
+        //web3j's HttpService reports an HTTP error status, such as 429, with a ClientConnectionException
+        return error instanceof IOException
+                || error instanceof UncheckedIOException
+                || error instanceof ClientConnectionException;
+    }
+
+    private boolean isRateLimited(Object result) {
+        if (result instanceof BatchResponse) {
+            return ((BatchResponse) result).getResponses().stream().anyMatch(this::isRateLimited);
+        }
+
+        return result instanceof Response
+                && ((Response<?>) result).hasError()
+                && ((Response<?>) result).getError().getCode() == RATE_LIMITED_ERROR_CODE;
+    }
+
+    private interface RpcCall<T> {
+        T send() throws IOException;
+    }
+}
@@ -0,0 +1,178 @@
+package io.oxiles.chain.service.endpoint;
+
+import org.web3j.protocol.Web3jService;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One of the RPC endpoints of a pooled node, along with the latency and error rate that have been
+ * observed for the requests sent to it.
+ *
+ * An endpoint is ejected from the pool after a run of consecutive failures.  The ejection period
+ * doubles each time the endpoint fails again straight after being readmitted.
+ *
+ * The latencies of the most recent requests are also kept, so that percentiles can be worked out
+ * when deciding whether to hedge a request.
+ */
+public class Endpoint {
+
+    static final double SMOOTHING_FACTOR = 0.2;
+
+    static final int EJECTION_THRESHOLD = 3;
+
+    static final int MAX_EJECTION_SHIFT = 5;
+
+    static final int LATENCY_SAMPLES = 128;
+
+    static final int MIN_LATENCY_SAMPLES = 16;
+
+    private static final double WEIGHT_SCALE = 10000;
+
+    private String url;
+
+    private Web3jService service;
+
+    private long baseEjectionTime;
+
+    private double latency;
+
+    private double errorRate;
+
+    private int consecutiveFailures;
+
+    private int ejections;
+
+    private long ejectedUntil;
+
+    private int currentWeight;
+
+    private long[] latencySamples = new long[LATENCY_SAMPLES];
+
+    private int latencySampleCount;
+
+    private int nextLatencySample;
+
+    private AtomicInteger healthy = new AtomicInteger(1);
+
+    private AtomicLong latencyGauge = new AtomicLong(0);
+
+    private AtomicInteger errorRateGauge = new AtomicInteger(0);
+
+    public Endpoint(String url, Web3jService service, long baseEjectionTime) {
+        this.url = url;
+        this.service = service;
+        this.baseEjectionTime = baseEjectionTime;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public Web3jService getService() {
+        return service;
+    }
+
+    public synchronized void onSuccess(long latencyMillis) {
+        latency = latency == 0
+                ? latencyMillis
+                : latency * (1 - SMOOTHING_FACTOR) + latencyMillis * SMOOTHING_FACTOR;
+        errorRate = errorRate * (1 - SMOOTHING_FACTOR);
+        latencySamples[nextLatencySample] = latencyMillis;
+        nextLatencySample = (nextLatencySample + 1) % LATENCY_SAMPLES;
+        latencySampleCount = Math.min(latencySampleCount + 1, LATENCY_SAMPLES);
+        consecutiveFailures = 0;
+        ejections = 0;
+        ejectedUntil = 0;
+
+        updateGauges();
+    }
+
+    public synchronized void onFailure(long now) {
+        errorRate = errorRate * (1 - SMOOTHING_FACTOR) + SMOOTHING_FACTOR;
+        consecutiveFailures++;
+
+        if (consecutiveFailures >= EJECTION_THRESHOLD && now >= ejectedUntil) {
+            ejectedUntil = now + (baseEjectionTime << Math.min(ejections, MAX_EJECTION_SHIFT));
+            ejections++;
+        }
+
+        updateGauges();
+    }
+
+    public synchronized boolean isAvailable(long now) {
+        return now >= ejectedUntil;
+    }
+
+    public synchronized boolean isHealthy() {
+        return consecutiveFailures < EJECTION_THRESHOLD;
+    }
+
+    public synchronized long getEjectedUntil() {
+        return ejectedUntil;
+    }
+
+    /**
+     * @return the share of requests the endpoint should receive, which favours low latency and
+     * low error rates but never falls to zero
+     */
+    public synchronized int getWeight() {
+        return (int) Math.max(1, WEIGHT_SCALE / Math.max(1, latency) * (1 - errorRate));
+    }
+
+    public synchronized long getLatency() {
+        return (long) latency;
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100
+     * @return the latency percentile of the recent successful requests, or empty if there have not
+     * been enough requests to tell
+     */
+    public synchronized OptionalLong getLatencyPercentile(double percentile) {
+        final int samples = latencySampleCount;
+
+        if (samples < MIN_LATENCY_SAMPLES) {
+            return OptionalLong.empty();
+        }
+
+        final long[] sorted = Arrays.copyOf(latencySamples, samples);
+        Arrays.sort(sorted);
+
+        final int index = (int) Math.ceil(percentile / 100 * samples) - 1;
+
+        return OptionalLong.of(sorted[Math.max(0, Math.min(samples - 1, index))]);
+    }
+
+    public synchronized double getErrorRate() {
+        return errorRate;
+    }
+
+    public AtomicInteger getHealthyGauge() {
+        return healthy;
+    }
+
+    public AtomicLong getLatencyGauge() {
+        return latencyGauge;
+    }
+
+    public AtomicInteger getErrorRateGauge() {
+        return errorRateGauge;
+    }
+
+    int getCurrentWeight() {
+        return currentWeight;
+    }
+
+    void setCurrentWeight(int currentWeight) {
+        this.currentWeight = currentWeight;
+    }
+
+    private void updateGauges() {
+        healthy.set(isHealthy() ? 1 : 0);
+        latencyGauge.set((long) latency);
+        errorRateGauge.set((int) Math.round(errorRate * 100));
+    }
+}
@@ -0,0 +1,463 @@
+package io.oxiles.chain.service.endpoint;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.oxiles.utils.ExecutorNameFactory;
+import io.reactivex.Flowable;
+import lombok.extern.slf4j.Slf4j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.exceptions.ClientConnectionException;
+import org.web3j.protocol.websocket.events.Notification;
+import org.web3j.utils.Async;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Web3jService that spreads the requests for a node across several RPC endpoints.
+ *
+ * Endpoints are picked by smooth weighted round robin, with weights derived from the latency and
+ * error rate observed for each endpoint.  A request that fails with an IOException, or with the
+ * ClientConnectionException that web3j throws for an HTTP error status, is retried on the next
+ * endpoint, and endpoints that keep failing are ejected for a while.  If every endpoint has been
+ * ejected, the one whose ejection ends first is still tried, so the node is never left
+ * without an endpoint.
+ *
+ * A lookup by hash that finds nothing is also tried on the remaining endpoints, as an endpoint that
+ * lags behind the others cannot serve the blocks and transactions that they have already announced.
+ * The endpoint has not failed, so it is not penalised, and an empty result is only returned once
+ * every endpoint has been tried.
+ *
+ * Reads that are safe to repeat can optionally be hedged.  If the chosen endpoint has not answered
+ * within the configured percentile of its recent latencies, the request is also sent to a second
+ * endpoint, and whichever responds first is used.
+ *
+ * Subscriptions are not supported, so only HTTP endpoints can be pooled.
+ */
+@Slf4j
+public class PooledWeb3jService implements Web3jService {
+
+    private static final String EXECUTOR_NAME = "HEDGE";
+
+    private static final Set<String> HEDGEABLE_METHODS = new HashSet<>(Arrays.asList(
+            "eth_blockNumber",
+            "eth_getBlockByHash",
+            "eth_getBlockByNumber",
+            "eth_getTransactionByHash",
+            "eth_getTransactionReceipt",
+            "eth_getLogs",
+            "eth_call",
+            "eth_getCode",
+            "eth_getBalance",
+            "eth_chainId",
+            "net_version"));
+
+    private static final Set<String> LOOKUP_BY_HASH_METHODS = new HashSet<>(Arrays.asList(
+            "eth_getBlockByHash",
+            "eth_getTransactionByHash",
+            "eth_getTransactionReceipt"));
+
+    private String nodeName;
+
+    private List<Endpoint> endpoints;
+
+    private Double hedgePercentile;
+
+    private ExecutorService hedgeExecutor;
+
+    private AtomicLong hedgeableRequests = new AtomicLong(0);
+
+    private AtomicLong hedgedRequests = new AtomicLong(0);
+
+    private AtomicLong hedgeWins = new AtomicLong(0);
+
+    private AtomicLong hedgeLosses = new AtomicLong(0);
+
+    /**
+     * @param nodeName the node name
+     * @param endpoints the endpoints of the node
+     * @param hedgePercentile the latency percentile after which reads are hedged, or null to
+     *                        never hedge
+     */
+    public PooledWeb3jService(String nodeName, List<Endpoint> endpoints, Double hedgePercentile) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("At least one endpoint is required");
+        }
+
+        this.nodeName = nodeName;
+        this.endpoints = Collections.unmodifiableList(new ArrayList<>(endpoints));
+
+        if (hedgePercentile != null && hedgePercentile > 0 && endpoints.size() > 1) {
+            this.hedgePercentile = hedgePercentile;
+            this.hedgeExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                    .setNameFormat(ExecutorNameFactory.build(EXECUTOR_NAME, nodeName) + "-%d")
+                    .setDaemon(true)
+                    .build());
+        }
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * @return the number of reads that could have been hedged
+     */
+    public AtomicLong getHedgeableRequests() {
+        return hedgeableRequests;
+    }
+
+    /**
+     * @return the number of reads that were sent to a second endpoint
+     */
+    public AtomicLong getHedgedRequests() {
+        return hedgedRequests;
+    }
+
+    /**
+     * @return the number of hedged reads that were answered first by the second endpoint
+     */
+    public AtomicLong getHedgeWins() {
+        return hedgeWins;
+    }
+
+    /**
+     * @return the number of hedged reads that were answered first by the original endpoint
+     */
+    public AtomicLong getHedgeLosses() {
+        return hedgeLosses;
+    }
+
+    @Override
+    public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
+        final EndpointCall<T> call = LOOKUP_BY_HASH_METHODS.contains(request.getMethod())
+                ? service -> requireResult(service.send(request, responseType))
+                : service -> service.send(request, responseType);
+
+        if (hedgeExecutor != null && HEDGEABLE_METHODS.contains(request.getMethod())) {
+            return sendHedged(request, call);
+        }
+
+        return execute(new HashSet<>(), null, call);
+    }
+
+    @Override
+    public <T extends Response> CompletableFuture<T> sendAsync(Request request, Class<T> responseType) {
+        return Async.run(() -> send(request, responseType));
+    }
+
+    @Override
+    public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+        return execute(new HashSet<>(), null, service -> service.sendBatch(batchRequest));
+    }
+
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        return Async.run(() -> sendBatch(batchRequest));
+    }
+
+    @Override
+    public <T extends Notification<?>> Flowable<T> subscribe(Request request,
+                                                             String unsubscribeMethod,
+                                                             Class<T> responseType) {
+        throw new UnsupportedOperationException("Subscriptions are not supported by pooled endpoints");
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (hedgeExecutor != null) {
+            hedgeExecutor.shutdownNow();
+        }
+
+        for (Endpoint endpoint : endpoints) {
+            endpoint.getService().close();
+        }
+    }
+
+    /**
+     * Probes every endpoint with an eth_blockNumber request, which readmits ejected endpoints that
+     * have recovered and ejects failing endpoints that are not currently receiving requests.
+     *
+     * @return true if at least one endpoint responded
+     */
+    public boolean checkEndpoints() {
+        boolean anyHealthy = false;
+
+        for (Endpoint endpoint : endpoints) {
+            final long start = System.currentTimeMillis();
+
+            try {
+                new Request<>("eth_blockNumber", Collections.<String>emptyList(),
+                        endpoint.getService(), EthBlockNumber.class).send();
+
+                endpoint.onSuccess(System.currentTimeMillis() - start);
+                anyHealthy = true;
+            } catch (IOException | ClientConnectionException | UncheckedIOException e) {
+                log.warn("Endpoint {} of node {} failed health check: {}", endpoint.getUrl(), nodeName, e.getMessage());
+                endpoint.onFailure(System.currentTimeMillis());
+            }
+        }
+
+        return anyHealthy;
+    }
+
+    /**
+     * Picks the next endpoint for a request, skipping those already tried for it.
+     */
+    synchronized Endpoint select(Set<Endpoint> tried, long now) {
+        Endpoint selected = null;
+        int totalWeight = 0;
+
+        for (Endpoint endpoint : endpoints) {
+            if (tried.contains(endpoint) || !endpoint.isAvailable(now)) {
+                continue;
+            }
+
+            final int weight = endpoint.getWeight();
+            endpoint.setCurrentWeight(endpoint.getCurrentWeight() + weight);
+            totalWeight += weight;
+
+            if (selected == null || endpoint.getCurrentWeight() > selected.getCurrentWeight()) {
+                selected = endpoint;
+            }
+        }
+
+        if (selected != null) {
+            selected.setCurrentWeight(selected.getCurrentWeight() - totalWeight);
+            return selected;
+        }
+
+        //Every untried endpoint is ejected, so fall back to the one that is due back first
+        return endpoints.stream()
+                .filter(endpoint -> !tried.contains(endpoint))
+                .min(Comparator.comparingLong(Endpoint::getEjectedUntil))
+                .orElse(null);
+    }
+
+    private <T extends Response> T sendHedged(Request request, EndpointCall<T> call) throws IOException {
+        final Set<Endpoint> tried = new HashSet<>();
+
+        final Endpoint primary = select(tried, System.currentTimeMillis());
+        final OptionalLong hedgeDelay = primary.getLatencyPercentile(hedgePercentile);
+
+        tried.add(primary);
+
+        if (!hedgeDelay.isPresent()) {
+            //Not enough is known about the endpoint yet to tell when a response is late
+            try {
+                return call(primary, call);
+            } catch (IOException e) {
+                return execute(tried, e, call);
+            }
+        }
+
+        hedgeableRequests.incrementAndGet();
+
+        final CompletableFuture<T> primaryResponse = sendAsync(primary, call);
+
+        try {
+            return primaryResponse.get(hedgeDelay.getAsLong(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            //Late, so hedge below
+        } catch (ExecutionException e) {
+            return execute(tried, toIOException(e.getCause()), call);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + request.getMethod());
+        }
+
+        final Endpoint secondary = select(tried, System.currentTimeMillis());
+
+        if (secondary == null) {
+            return await(primaryResponse);
+        }
+
+        hedgedRequests.incrementAndGet();
+        tried.add(secondary);
+
+        log.debug("Hedging {} on node {}, {} has not responded within {}ms",
+                request.getMethod(), nodeName, primary.getUrl(), hedgeDelay.getAsLong());
+
+        final CompletableFuture<T> firstResponse = new CompletableFuture<>();
+        final AtomicBoolean answered = new AtomicBoolean(false);
+        final AtomicInteger failures = new AtomicInteger(0);
+
+        race(primaryResponse, firstResponse, answered, failures, hedgeLosses);
+        race(sendAsync(secondary, call), firstResponse, answered, failures, hedgeWins);
+
+        try {
+            return await(firstResponse);
+        } catch (IOException e) {
+            return execute(tried, e, call);
+        }
+    }
+
+    private <T> CompletableFuture<T> sendAsync(Endpoint endpoint, EndpointCall<T> call) {
+        final CompletableFuture<T> response = new CompletableFuture<>();
+
+        hedgeExecutor.execute(() -> {
+            try {
+                response.complete(call(endpoint, call));
+            } catch (Throwable t) {
+                response.completeExceptionally(t);
+            }
+        });
+
+        return response;
+    }
+
+    /**
+     * Completes the first response with the attempt if it is the first to succeed, or with its
+     * error if every attempt has failed.
+     */
+    private <T> void race(CompletableFuture<T> attempt,
+                          CompletableFuture<T> firstResponse,
+                          AtomicBoolean answered,
+                          AtomicInteger failures,
+                          AtomicLong wins) {
+        attempt.whenComplete((response, error) -> {
+            if (error == null) {
+                if (answered.compareAndSet(false, true)) {
+                    //Counted before completing, so the split is up to date once the caller has the response
+                    wins.incrementAndGet();
+                    firstResponse.complete(response);
+                }
+            } else if (failures.incrementAndGet() == 2) {
+                firstResponse.completeExceptionally(error);
+            }
+        });
+    }
+
+    private <T> T await(CompletableFuture<T> response) throws IOException {
+        try {
+            return response.get();
+        } catch (ExecutionException e) {
+            throw toIOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a response");
+        }
+    }
+
+    /**
+     * Any failure of an attempt is treated as an IOException, so that the request still falls back
+     * to the remaining endpoints rather than failing outright.
+     */
+    private IOException toIOException(Throwable error) {
+        if (error instanceof IOException) {
+            return (IOException) error;
+        }
+
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+
+        return new IOException(error.getMessage(), error);
+    }
+
+    private <T> T execute(Set<Endpoint> tried, IOException lastError, EndpointCall<T> call) throws IOException {
+        ResultNotFoundException notFound = lastError instanceof ResultNotFoundException
+                ? (ResultNotFoundException) lastError : null;
+
+        Endpoint endpoint;
+        while ((endpoint = select(tried, System.currentTimeMillis())) != null) {
+            tried.add(endpoint);
+
+            try {
+                return call(endpoint, call);
+            } catch (ResultNotFoundException e) {
+                notFound = e;
+            } catch (IOException e) {
+                lastError = e;
+            }
+        }
+
+        //No endpoint has the result, so the lookup genuinely found nothing
+        if (notFound != null) {
+            return notFound.getResponse();
+        }
+
+        throw lastError;
+    }
+
+    private <T> T call(Endpoint endpoint, EndpointCall<T> call) throws IOException {
+        final long start = System.currentTimeMillis();
+
+        try {
+            final T result = call.apply(endpoint.getService());
+            endpoint.onSuccess(System.currentTimeMillis() - start);
+
+            return result;
+        } catch (ResultNotFoundException e) {
+            //The endpoint answered, it just does not have the result yet
+            endpoint.onSuccess(System.currentTimeMillis() - start);
+            throw e;
+        } catch (IOException e) {
+            onFailure(endpoint, e);
+            throw e;
+        } catch (ClientConnectionException | UncheckedIOException e) {
+            //Thrown for an HTTP error status, such as a 429 or 503, or an unchecked transport
+            //failure, so the endpoint has failed rather than the request
+            onFailure(endpoint, e);
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private void onFailure(Endpoint endpoint, Exception error) {
+        log.warn("Request to endpoint {} of node {} failed: {}", endpoint.getUrl(), nodeName, error.getMessage());
+        endpoint.onFailure(System.currentTimeMillis());
+    }
+
+    private static <T extends Response> T requireResult(T response) throws ResultNotFoundException {
+        if (response != null && response.getResult() == null && !response.hasError()) {
+            throw new ResultNotFoundException(response);
+        }
+
+        return response;
+    }
+
+    private interface EndpointCall<T> {
+        T apply(Web3jService service) throws IOException;
+    }
+
+    /**
+     * Thrown when an endpoint answers a lookup by hash with an empty result, so that the lookup moves
+     * on to the next endpoint.
+     */
+    private static class ResultNotFoundException extends IOException {
+
+        private final Response<?> response;
+
+        private ResultNotFoundException(Response<?> response) {
+            super("No result found");
+            this.response = response;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T getResponse() {
+            return (T) response;
+        }
+    }
+}
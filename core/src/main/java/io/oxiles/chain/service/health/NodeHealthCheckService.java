@@ -1,6 +1,9 @@
 package io.oxiles.chain.service.health;
 
 import io.oxiles.chain.service.BlockchainService;
+import io.oxiles.chain.service.endpoint.ConcurrencyLimitedWeb3jService;
+import io.oxiles.chain.service.endpoint.Endpoint;
+import io.oxiles.chain.service.endpoint.PooledWeb3jService;
 import io.oxiles.chain.service.health.strategy.ReconnectionStrategy;
 import io.oxiles.model.LatestBlock;
 import io.oxiles.monitoring.EventeumValueMonitor;
@@ -9,6 +12,7 @@ import io.oxiles.service.SubscriptionService;
 import lombok.extern.slf4j.Slf4j;
 
 import java.math.BigInteger;
+import java.util.List;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -21,6 +25,10 @@ import java.util.concurrent.atomic.AtomicLong;
  *
  * The poll interval can be configured with the ethereum.node.healthcheck.pollInterval property.
  *
+ * For a node with several endpoints, each endpoint is probed as part of the check, and its health,
+ * latency and error rate are reported separately, along with how often reads were hedged.  The
+ * node is only considered down once no endpoint can serve requests.
+ *
  * @author Craig Williams <craig.williams@consensys.net>
  */
 @Slf4j
@@ -46,6 +54,10 @@ public class NodeHealthCheckService {
 
     private Integer syncingThreshold;
 
+    private EventeumValueMonitor valueMonitor;
+
+    private PooledWeb3jService endpointPool;
+
     public NodeHealthCheckService(BlockchainService blockchainService,
                                   ReconnectionStrategy reconnectionStrategy,
                                   SubscriptionService subscriptionService,
@@ -59,6 +71,7 @@ public class NodeHealthCheckService {
         this.reconnectionStrategy = reconnectionStrategy;
         this.subscriptionService = subscriptionService;
         this.syncingThreshold = syncingThreshold;
+        this.valueMonitor = valueMonitor;
         nodeStatus = NodeStatus.SUBSCRIBED;
 
         currentBlock = valueMonitor.monitor( "currentBlock", blockchainService.getNodeName(), new
@@ -71,10 +84,40 @@ public class NodeHealthCheckService {
         taskScheduler.scheduleWithFixedDelay(() -> this.checkHealth() ,0, healthCheckPollInterval, TimeUnit.MILLISECONDS);
     }
 
+    public void setEndpointPool(PooledWeb3jService endpointPool) {
+        final String nodeName = blockchainService.getNodeName();
+        final List<Endpoint> endpoints = endpointPool.getEndpoints();
+
+        for (int i = 0; i < endpoints.size(); i++) {
+            final Endpoint endpoint = endpoints.get(i);
+
+            valueMonitor.monitor(String.format("endpoint.%d.healthy", i), nodeName, endpoint.getHealthyGauge());
+            valueMonitor.monitor(String.format("endpoint.%d.latency", i), nodeName, endpoint.getLatencyGauge());
+            valueMonitor.monitor(String.format("endpoint.%d.errorRate", i), nodeName, endpoint.getErrorRateGauge());
+        }
+
+        valueMonitor.monitor("hedgeableRequests", nodeName, endpointPool.getHedgeableRequests());
+        valueMonitor.monitor("hedgedRequests", nodeName, endpointPool.getHedgedRequests());
+        valueMonitor.monitor("hedgeWins", nodeName, endpointPool.getHedgeWins());
+        valueMonitor.monitor("hedgeLosses", nodeName, endpointPool.getHedgeLosses());
+
+        this.endpointPool = endpointPool;
+    }
+
+    public void setConcurrencyLimiter(ConcurrencyLimitedWeb3jService concurrencyLimiter) {
+        final String nodeName = blockchainService.getNodeName();
+
+        valueMonitor.monitor("rpcConcurrencyLimit", nodeName, concurrencyLimiter.getLimitGauge());
+        valueMonitor.monitor("rpcQueueLength", nodeName, concurrencyLimiter.getQueueLengthGauge());
+        valueMonitor.monitor("rpcInFlight", nodeName, concurrencyLimiter.getInFlightGauge());
+    }
+
     public void checkHealth() {
         try {
             log.trace("Checking health");
 
+            checkEndpoints();
+
             final NodeStatus statusAtStart = nodeStatus;
 
             if (isNodeConnected()) {
@@ -123,6 +166,20 @@ public class NodeHealthCheckService {
         return true;
     }
 
+    protected void checkEndpoints() {
+        if (endpointPool == null) {
+            return;
+        }
+
+        endpointPool.checkEndpoints();
+
+        endpointPool.getEndpoints()
+                .stream()
+                .filter(endpoint -> !endpoint.isHealthy())
+                .forEach(endpoint -> log.warn("Endpoint {} of node {} is unhealthy, error rate {}%",
+                        endpoint.getUrl(), blockchainService.getNodeName(), endpoint.getErrorRateGauge()));
+    }
+
     protected boolean isSubscribed() {
         return blockchainService.isConnected() &&
                 subscriptionService.isFullySubscribed(blockchainService.getNodeName());
@@ -0,0 +1,135 @@
+package io.oxiles.chain.service.log;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.oxiles.chain.service.domain.TransactionReceipt;
+import org.web3j.protocol.core.methods.response.EthBlock;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Caches the block header and transaction receipts required to build the ContractEventDetails for
+ * the logs of a block, so that logs sharing a block or transaction only trigger a single fetch.
+ *
+ * Contexts are keyed by block hash, which means that logs from a competing fork never see the
+ * header or receipts of the block that they replaced.
+ */
+public class BlockContextCache {
+
+    public static final int DEFAULT_MAX_BLOCKS = 128;
+
+    private Function<String, EthBlock> blockLoader;
+
+    private Function<String, TransactionReceipt> receiptLoader;
+
+    private Cache<String, BlockContext> contexts;
+
+    public BlockContextCache(Function<String, EthBlock> blockLoader,
+                             Function<String, TransactionReceipt> receiptLoader,
+                             int maxBlocks) {
+        this.blockLoader = blockLoader;
+        this.receiptLoader = receiptLoader;
+        this.contexts = CacheBuilder.newBuilder()
+                .maximumSize(maxBlocks)
+                .build();
+    }
+
+    public EthBlock getBlock(String blockHash) {
+        return getContext(blockHash).getBlock();
+    }
+
+    /**
+     * Returns the receipt of a transaction mined within the specified block.
+     *
+     * @param blockHash the hash of the block containing the transaction
+     * @param transactionHash the transaction hash
+     * @return the receipt, or null if the node has not indexed the receipt for this block yet.
+     */
+    public TransactionReceipt getTransactionReceipt(String blockHash, String transactionHash) {
+        return getContext(blockHash).getTransactionReceipt(transactionHash);
+    }
+
+    public void invalidate(String blockHash) {
+        contexts.invalidate(blockHash);
+    }
+
+    private BlockContext getContext(String blockHash) {
+        return contexts.asMap().computeIfAbsent(blockHash, BlockContext::new);
+    }
+
+    private class BlockContext {
+
+        private String blockHash;
+
+        private volatile EthBlock block;
+
+        private Map<String, CompletableFuture<TransactionReceipt>> receipts = new ConcurrentHashMap<>();
+
+        private BlockContext(String blockHash) {
+            this.blockHash = blockHash;
+        }
+
+        private EthBlock getBlock() {
+            if (block == null) {
+                synchronized (this) {
+                    if (block == null) {
+                        block = blockLoader.apply(blockHash);
+                    }
+                }
+            }
+
+            return block;
+        }
+
+        /**
+         * The receipt is loaded outside of the map lock, so that a slow lookup only holds up the
+         * callers waiting on the same transaction.  A missing receipt is not cached, so it is looked
+         * up again on the next call.
+         */
+        private TransactionReceipt getTransactionReceipt(String transactionHash) {
+            final CompletableFuture<TransactionReceipt> lookup = new CompletableFuture<>();
+            final CompletableFuture<TransactionReceipt> existing = receipts.putIfAbsent(transactionHash, lookup);
+
+            if (existing != null) {
+                try {
+                    return existing.join();
+                } catch (CompletionException e) {
+                    throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                }
+            }
+
+            try {
+                final TransactionReceipt receipt = loadTransactionReceipt(transactionHash);
+
+                if (receipt == null) {
+                    receipts.remove(transactionHash, lookup);
+                }
+
+                lookup.complete(receipt);
+
+                return receipt;
+            } catch (RuntimeException e) {
+                receipts.remove(transactionHash, lookup);
+                lookup.completeExceptionally(e);
+
+                throw e;
+            }
+        }
+
+        private TransactionReceipt loadTransactionReceipt(String transactionHash) {
+            final TransactionReceipt receipt = receiptLoader.apply(transactionHash);
+
+            //A receipt from another fork means that the node has not caught up with this block yet
+            if (receipt != null && receipt.getBlockHash() != null
+                    && !receipt.getBlockHash().equalsIgnoreCase(blockHash)) {
+                return null;
+            }
+
+            return receipt;
+        }
+    }
+}
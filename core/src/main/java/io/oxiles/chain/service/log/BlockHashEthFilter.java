@@ -0,0 +1,40 @@
+package io.oxiles.chain.service.log;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.request.EthFilter;
+
+import java.util.List;
+
+/**
+ * An eth_getLogs filter that selects a single block by hash (EIP-234), rather than by block range.
+ *
+ * Querying by hash guarantees that the logs belong to the exact block that was notified, and the
+ * node returns an error rather than another block's logs if that block is no longer known.
+ */
+public class BlockHashEthFilter extends EthFilter {
+
+    private String blockHash;
+
+    public BlockHashEthFilter(String blockHash, List<String> address) {
+        super(null, null, address);
+
+        this.blockHash = blockHash;
+    }
+
+    public String getBlockHash() {
+        return blockHash;
+    }
+
+    @Override
+    @JsonIgnore
+    public DefaultBlockParameter getFromBlock() {
+        return null;
+    }
+
+    @Override
+    @JsonIgnore
+    public DefaultBlockParameter getToBlock() {
+        return null;
+    }
+}
@@ -0,0 +1,115 @@
+package io.oxiles.chain.service.log;
+
+import io.oxiles.chain.block.reorg.ChainReorganisation;
+import io.oxiles.chain.service.domain.Block;
+import io.oxiles.monitoring.EventeumValueMonitor;
+import io.oxiles.service.AsyncTaskService;
+import io.oxiles.utils.ExecutorNameFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.web3j.protocol.Web3j;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+/**
+ * Derives the contract events of every registered filter from the blocks of the node's block
+ * subscription, rather than from a poll of its own.
+ *
+ * Each block is handled in a single pass: one eth_getLogs by block hash, skipped when the block bloom
+ * rules out every registered filter.  Blocks and reorgs are handled in the order that they are
+ * notified on a single threaded executor of the node, so that a slow log query does not hold up the
+ * other block listeners.  Logs are handed to the filters in block order and always belong to the block
+ * that was broadcast to the BlockListeners, although the events of a log whose receipt lookup is
+ * retried may be broadcast after those of later logs.  Blocks missed by the subscription are filled in
+ * with a range query.
+ */
+@Slf4j
+public class BlockLogExtractor extends LogMultiplexer {
+
+    private static final String EXECUTOR_NAME = "BLOCK-LOGS";
+
+    private volatile boolean running;
+
+    public BlockLogExtractor(Web3j web3j,
+                             String nodeName,
+                             LogBackfillEngine backfillEngine,
+                             EventeumValueMonitor valueMonitor,
+                             AsyncTaskService asyncTaskService) {
+        super(web3j, nodeName, null, backfillEngine, valueMonitor, asyncTaskService);
+    }
+
+    @Override
+    public synchronized void start() {
+        log.info("Starting block driven log extraction for node {}", nodeName);
+
+        running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void onBlock(Block block) {
+        asyncTaskService.execute(getExecutorName(), () -> {
+            super.onBlock(block);
+
+            if (!running || block.getNumber() == null) {
+                return;
+            }
+
+            try {
+                processBlock(block);
+            } catch (Throwable t) {
+                //The block is left unprocessed, so it is picked up as a missed block on the next one
+                log.error(String.format("Error extracting logs from block %s on node %s",
+                        block.getNumber(), nodeName), t);
+            }
+        });
+    }
+
+    @Override
+    public void onReorg(ChainReorganisation reorg) {
+        //Queued behind the blocks that were notified before it, which may belong to the orphaned fork
+        asyncTaskService.execute(getExecutorName(), () -> super.onReorg(reorg));
+    }
+
+    void processBlock(Block block) throws IOException {
+        final BigInteger blockNumber = block.getNumber();
+
+        synchronized (processingLock) {
+            if (lastProcessedBlock == null) {
+                lastProcessedBlock = blockNumber.subtract(BigInteger.ONE);
+            }
+
+            catchUpPendingRegistrations();
+
+            processUpTo(blockNumber.subtract(BigInteger.ONE));
+
+            if (!index.isEmpty()) {
+                final LogQuery query = refreshLiveQuery();
+
+                if (mightContainLogs(blockNumber, blockNumber)) {
+                    routeLogs(backfillEngine.getLogs(query, block.getHash()), index);
+                } else {
+                    skippedQueries.incrementAndGet();
+                }
+            }
+
+            //Also covers a block that replaces an already processed height after a reorg
+            lastProcessedBlock = blockNumber;
+
+            discardProcessedBlocks();
+        }
+    }
+
+    private String getExecutorName() {
+        return ExecutorNameFactory.build(EXECUTOR_NAME, nodeName);
+    }
+}
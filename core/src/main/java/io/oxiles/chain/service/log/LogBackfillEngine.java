@@ -0,0 +1,289 @@
+package io.oxiles.chain.service.log;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.oxiles.chain.service.BlockchainException;
+import io.oxiles.dto.event.filter.ContractEventFilter;
+import io.oxiles.repository.ContractEventFilterRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Fetches the logs of a historical block range with eth_getLogs, splitting the range into chunks
+ * that are requested concurrently and delivered strictly in block order.
+ *
+ * The chunk size adapts to the node: it halves when a request fails or responds slowly, and doubles
+ * when responses are fast.  The learnt size is kept between backfills for the node.
+ */
+@Slf4j
+public class LogBackfillEngine {
+
+    private static final int MIN_CHUNK_SIZE = 1;
+
+    private static final int MAX_CHUNK_SIZE = 10000;
+
+    private static final long FAST_RESPONSE_MILLIS = 1000;
+
+    private static final long SLOW_RESPONSE_MILLIS = 5000;
+
+    private static final int MAX_CONSECUTIVE_FAILURES = 10;
+
+    private Web3j web3j;
+
+    private String nodeName;
+
+    private Integer parallelism;
+
+    private ContractEventFilterRepository eventFilterRepository;
+
+    private ExecutorService executor;
+
+    private volatile int chunkSize;
+
+    public LogBackfillEngine(Web3j web3j,
+                             String nodeName,
+                             Integer initialChunkSize,
+                             Integer parallelism,
+                             ContractEventFilterRepository eventFilterRepository) {
+        this.web3j = web3j;
+        this.nodeName = nodeName;
+        this.chunkSize = initialChunkSize;
+        this.parallelism = parallelism;
+        this.eventFilterRepository = eventFilterRepository;
+        this.executor = Executors.newFixedThreadPool(parallelism,
+                new ThreadFactoryBuilder().setNameFormat("BACKFILL-" + nodeName.toUpperCase() + "-%d").setDaemon(true).build());
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Delivers every log matching the query between the from and to blocks (inclusive), in order.
+     *
+     * @param query the log criteria
+     * @param from the first block to fetch
+     * @param to the last block to fetch
+     * @param onLog invoked for each log, in block and log index order, returning a future that completes
+     *              once the log has been processed
+     * @param onCheckpoint invoked with the last block of each chunk, once the logs of that chunk and of
+     *                     every earlier chunk have been processed.  A log that fails to process stops
+     *                     any further checkpoints, so that a restart resumes before it.
+     * @param isCancelled polled between chunks, the backfill stops early when it returns true
+     * @return the last block that has been fully delivered, once its logs have been processed
+     */
+    public BigInteger backfill(LogQuery query,
+                               BigInteger from,
+                               BigInteger to,
+                               Function<Log, CompletableFuture<?>> onLog,
+                               Consumer<BigInteger> onCheckpoint,
+                               BooleanSupplier isCancelled) {
+        log.info("Backfilling logs for node {} from block {} to {}", nodeName, from, to);
+
+        final Deque<Chunk> inFlight = new ArrayDeque<>();
+        BigInteger nextBlock = from;
+        BigInteger lastDelivered = from.subtract(BigInteger.ONE);
+        int consecutiveFailures = 0;
+        CompletableFuture<Void> processed = CompletableFuture.completedFuture(null);
+
+        while (!isCancelled.getAsBoolean()) {
+            while (inFlight.size() < parallelism && nextBlock.compareTo(to) <= 0) {
+                final BigInteger chunkEnd = to.min(nextBlock.add(BigInteger.valueOf(chunkSize - 1)));
+                inFlight.addLast(submit(query, nextBlock, chunkEnd));
+                nextBlock = chunkEnd.add(BigInteger.ONE);
+            }
+
+            final Chunk chunk = inFlight.pollFirst();
+
+            if (chunk == null) {
+                break;
+            }
+
+            try {
+                final List<Log> logs = chunk.logs.get();
+
+                consecutiveFailures = 0;
+                adjustChunkSize(chunk.getElapsed());
+
+                final CompletableFuture<?>[] chunkProcessing = logs
+                        .stream()
+                        .map(onLog)
+                        .toArray(CompletableFuture[]::new);
+
+                lastDelivered = chunk.to;
+                processed = processed
+                        .thenCombine(CompletableFuture.allOf(chunkProcessing), (previous, current) -> current)
+                        .thenRun(() -> onCheckpoint.accept(chunk.to));
+            } catch (ExecutionException e) {
+                if (++consecutiveFailures > MAX_CONSECUTIVE_FAILURES) {
+                    cancel(inFlight);
+                    throw new BlockchainException(String.format(
+                            "Unable to backfill logs for blocks %s to %s", chunk.from, chunk.to), e.getCause());
+                }
+
+                chunkSize = Math.max(MIN_CHUNK_SIZE, chunkSize / 2);
+                log.warn("Backfill of blocks {} to {} failed, retrying with chunk size {}: {}",
+                        chunk.from, chunk.to, chunkSize, e.getCause().getMessage());
+
+                retry(query, chunk, inFlight);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel(inFlight);
+                throw new BlockchainException("Interrupted whilst backfilling logs", e);
+            }
+        }
+
+        cancel(inFlight);
+
+        try {
+            //A following backfill or subscription must not checkpoint past logs that are still processing
+            processed.join();
+        } catch (CompletionException e) {
+            log.warn("Backfill of node {} stopped checkpointing after a log failed to process: {}",
+                    nodeName, e.getCause().getMessage());
+        }
+
+        return lastDelivered;
+    }
+
+    /**
+     * Fetches the logs matching the query within a single request.
+     *
+     * @param query the log criteria
+     * @param from the first block
+     * @param to the last block
+     * @return the matching logs, in block and log index order
+     */
+    public List<Log> getLogs(LogQuery query, BigInteger from, BigInteger to) throws IOException {
+        return toLogs(web3j.ethGetLogs(query.toEthFilter(from, to)).send(),
+                String.format("blocks %s to %s", from, to));
+    }
+
+    public List<Log> getLogs(LogQuery query, String blockHash) throws IOException {
+        return toLogs(web3j.ethGetLogs(query.toEthFilter(blockHash)).send(), "block " + blockHash);
+    }
+
+    private List<Log> toLogs(EthLog ethLog, String description) {
+        if (ethLog.hasError()) {
+            throw new BlockchainException(String.format("Unable to get logs for %s: %s",
+                    description, ethLog.getError().getMessage()));
+        }
+
+        return ethLog.getLogs()
+                .stream()
+                .map(logResult -> (Log) logResult.get())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Records the next block to process for a filter that is being backfilled, so that a restart
+     * resumes from where the backfill got to.
+     *
+     * Only the checkpoint of the stored filter is updated, and only while the filter is stored, so that
+     * a filter that has been removed or changed since the backfill started is not written back.
+     *
+     * @param eventFilter the filter being backfilled
+     * @param lastProcessedBlock the last block whose logs have been processed
+     */
+    public void checkpoint(ContractEventFilter eventFilter, BigInteger lastProcessedBlock) {
+        final BigInteger checkpoint = lastProcessedBlock.add(BigInteger.ONE);
+
+        eventFilter.setBackfillCheckpoint(checkpoint);
+
+        try {
+            eventFilterRepository.findById(eventFilter.getId()).ifPresent(storedFilter -> {
+                storedFilter.setBackfillCheckpoint(checkpoint);
+                eventFilterRepository.save(storedFilter);
+            });
+        } catch (Exception e) {
+            log.warn("Unable to checkpoint backfill of filter {}: {}", eventFilter.getId(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Chunk submit(LogQuery query, BigInteger from, BigInteger to) {
+        final Chunk chunk = new Chunk(from, to);
+
+        chunk.logs = executor.submit(() -> {
+            chunk.started = System.currentTimeMillis();
+            final List<Log> logs = getLogs(query, from, to);
+            chunk.finished = System.currentTimeMillis();
+
+            return logs;
+        });
+
+        return chunk;
+    }
+
+    private void retry(LogQuery query, Chunk failed, Deque<Chunk> inFlight) {
+        final Deque<Chunk> replacements = new ArrayDeque<>();
+        BigInteger from = failed.from;
+
+        while (from.compareTo(failed.to) <= 0) {
+            final BigInteger to = failed.to.min(from.add(BigInteger.valueOf(chunkSize - 1)));
+            replacements.addLast(submit(query, from, to));
+            from = to.add(BigInteger.ONE);
+        }
+
+        while (!replacements.isEmpty()) {
+            inFlight.addFirst(replacements.pollLast());
+        }
+    }
+
+    private void adjustChunkSize(long elapsed) {
+        if (elapsed < FAST_RESPONSE_MILLIS) {
+            chunkSize = Math.min(MAX_CHUNK_SIZE, chunkSize * 2);
+        } else if (elapsed > SLOW_RESPONSE_MILLIS) {
+            chunkSize = Math.max(MIN_CHUNK_SIZE, chunkSize / 2);
+        }
+    }
+
+    private void cancel(Deque<Chunk> inFlight) {
+        inFlight.forEach(chunk -> chunk.logs.cancel(true));
+        inFlight.clear();
+    }
+
+    private static class Chunk {
+
+        private BigInteger from;
+
+        private BigInteger to;
+
+        private Future<List<Log>> logs;
+
+        private volatile long started;
+
+        private volatile long finished;
+
+        private Chunk(BigInteger from, BigInteger to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        private long getElapsed() {
+            return finished - started;
+        }
+    }
+}
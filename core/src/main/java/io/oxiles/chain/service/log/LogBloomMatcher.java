@@ -0,0 +1,41 @@
+package io.oxiles.chain.service.log;
+
+import io.oxiles.chain.util.LogsBloom;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Tests block blooms against the criteria of a LogQuery.
+ *
+ * The bloom bit indices of every address and topic are calculated once on construction, so that
+ * testing a block only involves bit lookups.
+ */
+public class LogBloomMatcher {
+
+    private List<int[]> addressBits;
+
+    private List<int[]> topicBits;
+
+    public LogBloomMatcher(LogQuery query) {
+        addressBits = query.getAddresses()
+                .stream()
+                .map(LogsBloom::bitIndices)
+                .collect(Collectors.toList());
+
+        topicBits = query.getTopics() == null || query.getTopics().isEmpty() ? null : query.getTopics()
+                .stream()
+                .map(LogsBloom::bitIndices)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param bloom the logs bloom of a block
+     * @return false if the block definitely contains no log matching the query
+     */
+    public boolean mightMatch(LogsBloom bloom) {
+        final boolean addressMatch = addressBits.stream().anyMatch(bloom::mightContain);
+
+        return addressMatch && (topicBits == null || topicBits.stream().anyMatch(bloom::mightContain));
+    }
+}
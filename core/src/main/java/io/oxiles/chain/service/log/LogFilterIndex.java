@@ -0,0 +1,121 @@
+package io.oxiles.chain.service.log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of log registrations keyed on (contract address, topic0).
+ *
+ * Registrations without an event specification are stored against a null topic and match every
+ * log emitted by their contract address.
+ */
+public class LogFilterIndex {
+
+    private Map<String, Map<String, List<LogRegistration>>> registrations = new ConcurrentHashMap<>();
+
+    private AtomicLong version = new AtomicLong();
+
+    public void add(LogRegistration registration) {
+        version.incrementAndGet();
+
+        registrations
+                .computeIfAbsent(registration.getAddress(), address -> new ConcurrentHashMap<>())
+                .computeIfAbsent(topicKey(registration.getTopic()), topic -> new CopyOnWriteArrayList<>())
+                .add(registration);
+    }
+
+    public void remove(LogRegistration registration) {
+        version.incrementAndGet();
+
+        registrations.computeIfPresent(registration.getAddress(), (address, byTopic) -> {
+            byTopic.computeIfPresent(topicKey(registration.getTopic()), (topic, list) -> {
+                list.remove(registration);
+
+                return list.isEmpty() ? null : list;
+            });
+
+            return byTopic.isEmpty() ? null : byTopic;
+        });
+    }
+
+    /**
+     * Returns the registrations interested in a log with the specified address and topic0.
+     *
+     * @param address the emitting contract address
+     * @param topic the first topic of the log, may be null for anonymous events
+     * @return the matching registrations, never null
+     */
+    public List<LogRegistration> getMatches(String address, String topic) {
+        if (address == null) {
+            return Collections.emptyList();
+        }
+
+        final Map<String, List<LogRegistration>> byTopic = registrations.get(address.toLowerCase());
+
+        if (byTopic == null) {
+            return Collections.emptyList();
+        }
+
+        final List<LogRegistration> matches = new ArrayList<>();
+
+        if (topic != null) {
+            Optional.ofNullable(byTopic.get(topic.toLowerCase())).ifPresent(matches::addAll);
+        }
+
+        Optional.ofNullable(byTopic.get(topicKey(null))).ifPresent(matches::addAll);
+
+        return matches;
+    }
+
+    public Set<String> getAddresses() {
+        return new HashSet<>(registrations.keySet());
+    }
+
+    /**
+     * @return the topic0 values across all registrations, or an empty optional if any registration
+     * matches every topic, in which case the topic criteria must be omitted from the log query.
+     */
+    public Optional<Set<String>> getTopics() {
+        final Set<String> topics = new HashSet<>();
+
+        for (Map<String, List<LogRegistration>> byTopic : registrations.values()) {
+            for (String topic : byTopic.keySet()) {
+                if (topic.equals(topicKey(null))) {
+                    return Optional.empty();
+                }
+
+                topics.add(topic);
+            }
+        }
+
+        return Optional.of(topics);
+    }
+
+    public LogQuery toLogQuery() {
+        return new LogQuery(getAddresses(), getTopics().orElse(null));
+    }
+
+    /**
+     * @return a value that changes whenever a registration is added or removed, allowing callers to
+     * reuse a query built from the index until its contents change.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    public boolean isEmpty() {
+        return registrations.isEmpty();
+    }
+
+    private String topicKey(String topic) {
+        return topic == null ? "*" : topic.toLowerCase();
+    }
+}
@@ -0,0 +1,430 @@
+package io.oxiles.chain.service.log;
+
+import io.oxiles.chain.block.BlockListener;
+import io.oxiles.chain.block.reorg.ChainReorganisation;
+import io.oxiles.chain.block.reorg.ReorgListener;
+import io.oxiles.chain.service.domain.Block;
+import io.oxiles.chain.util.LogsBloom;
+import io.oxiles.chain.util.Web3jUtil;
+import io.oxiles.dto.event.filter.ContractEventFilter;
+import io.oxiles.monitoring.EventeumValueMonitor;
+import io.oxiles.service.AsyncTaskService;
+import io.oxiles.utils.ExecutorNameFactory;
+import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.Log;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Serves the log subscriptions of every ContractEventFilter registered against a node from a single
+ * eth_getLogs query per polled block range.
+ *
+ * The query contains the addresses and topic0 values of all registered filters, and each returned
+ * log is routed to the interested filters via a LogFilterIndex.  Filters registered with a start
+ * block behind the multiplexer are caught up with their own range query before joining the index,
+ * using the LogBackfillEngine in the background when they are more than a chunk behind.
+ *
+ * When registered as a BlockListener, the logs bloom of each new block is recorded, and live
+ * ranges where no bloom can contain a registered address and topic0 are skipped without a query.
+ *
+ * When registered as a ReorgListener, the logs delivered from orphaned blocks are delivered again
+ * flagged as removed, and the multiplexer rewinds to the common ancestor so that the replacement
+ * blocks are queried.  Logs that were already delivered from a block still on the canonical chain
+ * are not delivered twice.
+ */
+@Slf4j
+public class LogMultiplexer implements BlockListener, ReorgListener {
+
+    private static final BigInteger DEFAULT_MAX_BLOCK_RANGE = BigInteger.valueOf(1000);
+
+    private static final String BACKFILL_EXECUTOR_NAME = "BACKFILL";
+
+    private static final int MAX_TRACKED_BLOCKS = 1024;
+
+    @Getter
+    protected String nodeName;
+
+    private Web3j web3j;
+
+    private Long pollingInterval;
+
+    protected LogBackfillEngine backfillEngine;
+
+    protected AsyncTaskService asyncTaskService;
+
+    private BigInteger maxBlockRange = DEFAULT_MAX_BLOCK_RANGE;
+
+    protected LogFilterIndex index = new LogFilterIndex();
+
+    private Queue<LogRegistration> pendingRegistrations = new ConcurrentLinkedQueue<>();
+
+    protected volatile BigInteger lastProcessedBlock;
+
+    private Disposable pollSubscription;
+
+    private NavigableMap<BigInteger, LogsBloom> blockBlooms = new ConcurrentSkipListMap<>();
+
+    private NavigableMap<BigInteger, Set<Delivery>> deliveries = new ConcurrentSkipListMap<>();
+
+    protected final Object processingLock = new Object();
+
+    private LogQuery liveQuery;
+
+    private LogBloomMatcher liveBloomMatcher;
+
+    private long liveQueryVersion = -1;
+
+    protected AtomicLong skippedQueries;
+
+    public LogMultiplexer(Web3j web3j,
+                          String nodeName,
+                          Long pollingInterval,
+                          LogBackfillEngine backfillEngine,
+                          EventeumValueMonitor valueMonitor,
+                          AsyncTaskService asyncTaskService) {
+        this.web3j = web3j;
+        this.nodeName = nodeName;
+        this.pollingInterval = pollingInterval;
+        this.backfillEngine = backfillEngine;
+        this.asyncTaskService = asyncTaskService;
+
+        skippedQueries = valueMonitor.monitor("skippedLogQueries", nodeName, new AtomicLong(0));
+    }
+
+    public long getSkippedQueries() {
+        return skippedQueries.get();
+    }
+
+    /**
+     * @param logConsumer processes each log of the filter, returning a future that completes once the
+     *                    log has been processed
+     */
+    public LogRegistration register(ContractEventFilter eventFilter,
+                                    BigInteger startBlock,
+                                    Function<Log, CompletableFuture<?>> logConsumer) {
+        final String topic = eventFilter.getEventSpecification() != null
+                ? Web3jUtil.getSignature(eventFilter.getEventSpecification()) : null;
+
+        final LogRegistration registration = new LogRegistration(eventFilter, topic, startBlock, logConsumer, this);
+
+        pendingRegistrations.add(registration);
+
+        return registration;
+    }
+
+    public synchronized void start() {
+        if (isRunning()) {
+            return;
+        }
+
+        log.info("Starting log multiplexer for node {}", nodeName);
+
+        pollSubscription = Flowable
+                .interval(0, pollingInterval, TimeUnit.MILLISECONDS, Schedulers.io())
+                .onBackpressureDrop()
+                .subscribe(tick -> pollSafely(), error -> log.error("Log multiplexer stopped on error", error));
+    }
+
+    public synchronized void stop() {
+        if (pollSubscription != null) {
+            log.info("Stopping log multiplexer for node {}", nodeName);
+
+            pollSubscription.dispose();
+            pollSubscription = null;
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return pollSubscription != null && !pollSubscription.isDisposed();
+    }
+
+    void unregister(LogRegistration registration) {
+        synchronized (index) {
+            pendingRegistrations.remove(registration);
+            index.remove(registration);
+        }
+    }
+
+    void poll() throws IOException {
+        final BigInteger currentBlock = web3j.ethBlockNumber().send().getBlockNumber();
+
+        synchronized (processingLock) {
+            if (lastProcessedBlock == null) {
+                lastProcessedBlock = currentBlock.subtract(BigInteger.ONE);
+            }
+
+            catchUpPendingRegistrations();
+
+            processUpTo(currentBlock);
+
+            discardProcessedBlocks();
+        }
+    }
+
+    @Override
+    public void onBlock(Block block) {
+        if (block.getNumber() == null) {
+            return;
+        }
+
+        //A block replacing one at the same height after a reorg overwrites the previous bloom
+        LogsBloom.fromHex(block.getLogsBloom()).ifPresent(bloom -> blockBlooms.put(block.getNumber(), bloom));
+
+        while (blockBlooms.size() > MAX_TRACKED_BLOCKS) {
+            blockBlooms.pollFirstEntry();
+        }
+    }
+
+    @Override
+    public void onReorg(ChainReorganisation reorg) {
+        //Without a common ancestor the fork is deeper than the tracked blocks, so all of them are rechecked
+        final BigInteger rewindTo = reorg.getCommonAncestorNumber() != null
+                ? reorg.getCommonAncestorNumber()
+                : reorg.getNewHead().getNumber().subtract(BigInteger.valueOf(MAX_TRACKED_BLOCKS));
+
+        final List<Delivery> removed = new ArrayList<>();
+
+        synchronized (processingLock) {
+            for (Set<Delivery> blockDeliveries : deliveries.tailMap(rewindTo, false).values()) {
+                blockDeliveries.removeIf(delivery -> {
+                    if (reorg.isOrphaned(delivery.blockHash)) {
+                        removed.add(delivery);
+                        return true;
+                    }
+
+                    return false;
+                });
+            }
+
+            //The blooms above the fork point may belong to orphaned blocks
+            blockBlooms.tailMap(rewindTo, false).clear();
+
+            if (lastProcessedBlock != null && lastProcessedBlock.compareTo(rewindTo) > 0) {
+                lastProcessedBlock = rewindTo;
+            }
+        }
+
+        log.info("Reorg on node {}, delivering {} removed logs and resuming from block {}",
+                nodeName, removed.size(), rewindTo.add(BigInteger.ONE));
+
+        removed.forEach(delivery -> delivery.registration.deliver(asRemoved(delivery.log)));
+    }
+
+    /**
+     * Queries and routes the logs of every block after the last processed block, up to and
+     * including the specified block, in ranges of at most maxBlockRange blocks.
+     */
+    protected void processUpTo(BigInteger toBlock) throws IOException {
+        while (lastProcessedBlock.compareTo(toBlock) < 0) {
+            final BigInteger from = lastProcessedBlock.add(BigInteger.ONE);
+            final BigInteger to = toBlock.min(from.add(maxBlockRange).subtract(BigInteger.ONE));
+
+            if (!index.isEmpty()) {
+                refreshLiveQuery();
+
+                if (mightContainLogs(from, to)) {
+                    routeLogs(backfillEngine.getLogs(liveQuery, from, to), index);
+                } else {
+                    skippedQueries.incrementAndGet();
+                    log.trace("No bloom match in blocks {} to {} on node {}, skipping log query", from, to, nodeName);
+                }
+            }
+
+            lastProcessedBlock = to;
+        }
+    }
+
+    protected void discardProcessedBlocks() {
+        blockBlooms.headMap(lastProcessedBlock, true).clear();
+
+        //Deliveries are kept for as deep as a reorg is followed, so that they can be removed
+        deliveries.headMap(lastProcessedBlock.subtract(BigInteger.valueOf(MAX_TRACKED_BLOCKS)), true).clear();
+    }
+
+    protected LogQuery refreshLiveQuery() {
+        final long version = index.getVersion();
+
+        if (version != liveQueryVersion) {
+            liveQuery = index.toLogQuery();
+            liveBloomMatcher = new LogBloomMatcher(liveQuery);
+            liveQueryVersion = version;
+        }
+
+        return liveQuery;
+    }
+
+    /**
+     * A range can only be ruled out when the bloom of every block within it is known, as blocks
+     * that were missed by the block subscription may contain matching logs.
+     */
+    protected boolean mightContainLogs(BigInteger from, BigInteger to) {
+        for (BigInteger block = from; block.compareTo(to) <= 0; block = block.add(BigInteger.ONE)) {
+            final LogsBloom bloom = blockBlooms.get(block);
+
+            if (bloom == null || liveBloomMatcher.mightMatch(bloom)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (Throwable t) {
+            log.error(String.format("Error polling logs for node %s, will retry on next poll", nodeName), t);
+        }
+    }
+
+    protected void catchUpPendingRegistrations() throws IOException {
+        final Map<BigInteger, List<LogRegistration>> behindByNextBlock = new TreeMap<>();
+
+        for (LogRegistration registration : new ArrayList<>(pendingRegistrations)) {
+            if (registration.isBackfilling()) {
+                continue;
+            }
+
+            if (registration.getNextBlock().compareTo(lastProcessedBlock) > 0) {
+                activate(registration);
+            } else {
+                behindByNextBlock
+                        .computeIfAbsent(registration.getNextBlock(), nextBlock -> new ArrayList<>())
+                        .add(registration);
+            }
+        }
+
+        for (Map.Entry<BigInteger, List<LogRegistration>> entry : behindByNextBlock.entrySet()) {
+            final LogFilterIndex catchUpIndex = new LogFilterIndex();
+            entry.getValue().forEach(catchUpIndex::add);
+
+            final BigInteger blocksBehind = lastProcessedBlock.subtract(entry.getKey()).add(BigInteger.ONE);
+
+            if (blocksBehind.compareTo(BigInteger.valueOf(backfillEngine.getChunkSize())) > 0) {
+                backfill(entry.getValue(), catchUpIndex, entry.getKey(), lastProcessedBlock);
+            } else {
+                routeLogs(backfillEngine.getLogs(catchUpIndex.toLogQuery(), entry.getKey(), lastProcessedBlock), catchUpIndex);
+
+                entry.getValue().forEach(this::activate);
+            }
+        }
+    }
+
+    private void backfill(List<LogRegistration> registrations, LogFilterIndex backfillIndex, BigInteger from, BigInteger to) {
+        registrations.forEach(registration -> registration.setBackfilling(true));
+
+        asyncTaskService.execute(ExecutorNameFactory.build(BACKFILL_EXECUTOR_NAME, nodeName), () -> {
+            try {
+                backfillEngine.backfill(backfillIndex.toLogQuery(), from, to,
+                        theLog -> CompletableFuture.allOf(routeLogs(Collections.singletonList(theLog), backfillIndex)
+                                .toArray(new CompletableFuture[0])),
+                        block -> registrations
+                                .stream()
+                                .filter(registration -> !registration.isDisposed())
+                                .forEach(registration -> {
+                                    registration.setNextBlock(block.add(BigInteger.ONE));
+                                    backfillEngine.checkpoint(registration.getEventFilter(), block);
+                                }),
+                        () -> registrations.stream().allMatch(LogRegistration::isDisposed));
+            } catch (Throwable t) {
+                log.error(String.format("Backfill failed on node %s, will resume on next poll", nodeName), t);
+            } finally {
+                registrations.forEach(registration -> registration.setBackfilling(false));
+            }
+        });
+    }
+
+    private void activate(LogRegistration registration) {
+        synchronized (index) {
+            if (pendingRegistrations.remove(registration) && !registration.isDisposed()) {
+                index.add(registration);
+            }
+        }
+    }
+
+    /**
+     * @return the processing of each delivered log
+     */
+    protected List<CompletableFuture<?>> routeLogs(List<Log> logs, LogFilterIndex filterIndex) {
+        final List<CompletableFuture<?>> processing = new ArrayList<>();
+
+        logs.forEach(theLog -> {
+            final String topic = theLog.getTopics() == null || theLog.getTopics().isEmpty()
+                    ? null : theLog.getTopics().get(0);
+
+            filterIndex.getMatches(theLog.getAddress(), topic)
+                    .forEach(registration -> {
+                        if (record(registration, theLog)) {
+                            processing.add(registration.deliver(theLog));
+                        }
+                    });
+        });
+
+        return processing;
+    }
+
+    /**
+     * @return false if the log has already been delivered to the registration, which happens when
+     * the blocks after a reorg are queried again
+     */
+    private boolean record(LogRegistration registration, Log theLog) {
+        final BigInteger blockNumber = theLog.getBlockNumber();
+
+        if (lastProcessedBlock == null || theLog.getBlockHash() == null || theLog.getLogIndexRaw() == null
+                || blockNumber.compareTo(lastProcessedBlock.subtract(BigInteger.valueOf(MAX_TRACKED_BLOCKS))) <= 0) {
+            //Too deep to be affected by a followed reorg, as with most backfilled logs
+            return true;
+        }
+
+        return deliveries
+                .computeIfAbsent(blockNumber, number -> ConcurrentHashMap.newKeySet())
+                .add(new Delivery(registration, theLog));
+    }
+
+    private static Log asRemoved(Log theLog) {
+        return new Log(true, theLog.getLogIndexRaw(), theLog.getTransactionIndexRaw(),
+                theLog.getTransactionHash(), theLog.getBlockHash(), theLog.getBlockNumberRaw(),
+                theLog.getAddress(), theLog.getData(), theLog.getType(), theLog.getTopics());
+    }
+
+    @EqualsAndHashCode(of = {"registration", "blockHash", "logIndex"})
+    private static class Delivery {
+
+        private LogRegistration registration;
+
+        private Log log;
+
+        private String blockHash;
+
+        private String logIndex;
+
+        private Delivery(LogRegistration registration, Log log) {
+            this.registration = registration;
+            this.log = log;
+            this.blockHash = log.getBlockHash() != null ? log.getBlockHash().toLowerCase() : null;
+            this.logIndex = log.getLogIndexRaw();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package io.oxiles.chain.service.log;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.methods.request.EthFilter;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * The address and topic0 criteria of an eth_getLogs query, independent of the block range.
+ */
+@Data
+@AllArgsConstructor
+public class LogQuery {
+
+    private Collection<String> addresses;
+
+    /**
+     * The topic0 values to match, or null to match logs with any topic.
+     */
+    private Collection<String> topics;
+
+    public EthFilter toEthFilter(BigInteger fromBlock, BigInteger toBlock) {
+        final EthFilter ethFilter = new EthFilter(
+                new DefaultBlockParameterNumber(fromBlock),
+                new DefaultBlockParameterNumber(toBlock),
+                new ArrayList<>(addresses));
+
+        if (topics != null && !topics.isEmpty()) {
+            ethFilter.addOptionalTopics(topics.toArray(new String[0]));
+        }
+
+        return ethFilter;
+    }
+
+    public EthFilter toEthFilter(String blockHash) {
+        final EthFilter ethFilter = new BlockHashEthFilter(blockHash, new ArrayList<>(addresses));
+
+        if (topics != null && !topics.isEmpty()) {
+            ethFilter.addOptionalTopics(topics.toArray(new String[0]));
+        }
+
+        return ethFilter;
+    }
+}
@@ -0,0 +1,80 @@
+package io.oxiles.chain.service.log;
+
+import io.oxiles.dto.event.filter.ContractEventFilter;
+import io.reactivex.disposables.Disposable;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import org.web3j.protocol.core.methods.response.Log;
+
+import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * A single ContractEventFilter registered with a LogMultiplexer.
+ *
+ * Disposing the registration removes it from the multiplexer index, leaving the shared node
+ * subscription in place for the remaining filters.
+ */
+@Getter
+public class LogRegistration implements Disposable {
+
+    private ContractEventFilter eventFilter;
+
+    private String address;
+
+    private String topic;
+
+    private BigInteger fromBlock;
+
+    private Function<Log, CompletableFuture<?>> logConsumer;
+
+    private LogMultiplexer multiplexer;
+
+    private volatile boolean removed;
+
+    @Setter(AccessLevel.PACKAGE)
+    private volatile BigInteger nextBlock;
+
+    @Setter(AccessLevel.PACKAGE)
+    private volatile boolean backfilling;
+
+    LogRegistration(ContractEventFilter eventFilter,
+                    String topic,
+                    BigInteger fromBlock,
+                    Function<Log, CompletableFuture<?>> logConsumer,
+                    LogMultiplexer multiplexer) {
+        this.eventFilter = eventFilter;
+        this.address = eventFilter.getContractAddress().toLowerCase();
+        this.topic = topic == null ? null : topic.toLowerCase();
+        this.fromBlock = fromBlock;
+        this.nextBlock = fromBlock;
+        this.logConsumer = logConsumer;
+        this.multiplexer = multiplexer;
+    }
+
+    @Override
+    public void dispose() {
+        if (!removed) {
+            removed = true;
+            multiplexer.unregister(this);
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return removed;
+    }
+
+    /**
+     * @return completes once the log has been processed by the consumer
+     */
+    CompletableFuture<?> deliver(Log log) {
+        if (!removed && log.getBlockNumber().compareTo(fromBlock) >= 0) {
+            return logConsumer.apply(log);
+        }
+
+        return CompletableFuture.completedFuture(null);
+    }
+}
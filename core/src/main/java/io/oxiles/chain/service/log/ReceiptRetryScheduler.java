@@ -0,0 +1,190 @@
+package io.oxiles.chain.service.log;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.oxiles.chain.service.BlockchainException;
+import io.oxiles.chain.service.domain.TransactionReceipt;
+import io.oxiles.monitoring.EventeumValueMonitor;
+import io.oxiles.service.AsyncTaskService;
+import io.oxiles.utils.ExecutorNameFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Obtains transaction receipts that the node may not have indexed yet, without blocking the
+ * executor that processes logs.
+ *
+ * A lookup that fails is parked and retried on the original executor after an exponentially
+ * increasing delay, until either the receipt is found or the maximum number of attempts is reached.
+ */
+@Slf4j
+public class ReceiptRetryScheduler {
+
+    private static final long MAX_DELAY = 60000;
+
+    private static final int BACKOFF_MULTIPLIER = 2;
+
+    private static final String EXECUTOR_NAME = "RECEIPT-RETRY";
+
+    private String nodeName;
+
+    private Long initialDelay;
+
+    private Integer maxAttempts;
+
+    private AsyncTaskService asyncTaskService;
+
+    private ScheduledExecutorService scheduler;
+
+    private AtomicInteger pendingRetries;
+
+    private AtomicLong abandonedReceipts;
+
+    public ReceiptRetryScheduler(String nodeName,
+                                 Long initialDelay,
+                                 Integer maxAttempts,
+                                 EventeumValueMonitor valueMonitor,
+                                 AsyncTaskService asyncTaskService) {
+        this.nodeName = nodeName;
+        this.initialDelay = initialDelay;
+        this.maxAttempts = maxAttempts;
+        this.asyncTaskService = asyncTaskService;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat(ExecutorNameFactory.build(EXECUTOR_NAME, nodeName))
+                .setDaemon(true)
+                .build());
+
+        pendingRetries = valueMonitor.monitor("pendingReceiptRetries", nodeName, new AtomicInteger(0));
+        abandonedReceipts = valueMonitor.monitor("abandonedReceipts", nodeName, new AtomicLong(0));
+    }
+
+    /**
+     * Looks up a receipt immediately on the calling thread, parking the lookup for a delayed retry
+     * on the specified executor if the receipt is not available yet.
+     *
+     * @param executorName the executor that retries and the receipt consumer are run on
+     * @param transactionHash the hash of the transaction, used for logging
+     * @param lookup returns the receipt, or null if it is not available yet
+     * @param onReceipt invoked once the receipt has been obtained
+     * @return completes once onReceipt has returned, or exceptionally if it failed or the receipt was
+     * abandoned
+     */
+    public CompletableFuture<Void> submit(String executorName,
+                                          String transactionHash,
+                                          Supplier<TransactionReceipt> lookup,
+                                          Consumer<TransactionReceipt> onReceipt) {
+        return submit(executorName, null, transactionHash, lookup, onReceipt);
+    }
+
+    /**
+     * As submit(executorName, transactionHash, lookup, onReceipt), with retries executed under the
+     * specified ordering key, so that they stay on the same lane of a keyed executor.
+     */
+    public CompletableFuture<Void> submit(String executorName,
+                                          Object key,
+                                          String transactionHash,
+                                          Supplier<TransactionReceipt> lookup,
+                                          Consumer<TransactionReceipt> onReceipt) {
+        final RetryTask task = new RetryTask(executorName, key, transactionHash, lookup, onReceipt);
+
+        attempt(task, 1);
+
+        return task.result;
+    }
+
+    public int getPendingRetries() {
+        return pendingRetries.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void attempt(RetryTask task, int attempt) {
+        TransactionReceipt receipt = null;
+
+        try {
+            receipt = task.lookup.get();
+        } catch (BlockchainException blockchainException) {
+            log.debug("Unable to obtain transaction receipt of {} because '{}'",
+                    task.transactionHash, blockchainException.getMessage());
+        }
+
+        if (receipt != null) {
+            try {
+                task.onReceipt.accept(receipt);
+                task.result.complete(null);
+            } catch (RuntimeException e) {
+                task.result.completeExceptionally(e);
+                throw e;
+            }
+
+            return;
+        }
+
+        if (attempt >= maxAttempts) {
+            log.error("Giving up on transaction receipt of {} on node {} after {} attempts",
+                    task.transactionHash, nodeName, attempt);
+            abandonedReceipts.incrementAndGet();
+            task.result.completeExceptionally(new BlockchainException(
+                    "Transaction receipt not available after " + attempt + " attempts: " + task.transactionHash));
+            return;
+        }
+
+        final long delay = getDelay(attempt);
+        log.debug("Transaction receipt of {} not available, retrying in {}ms", task.transactionHash, delay);
+
+        pendingRetries.incrementAndGet();
+        scheduler.schedule(() -> {
+            pendingRetries.decrementAndGet();
+
+            asyncTaskService.execute(task.executorName, nodeName, task.key, () -> attempt(task, attempt + 1));
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private long getDelay(int attempt) {
+        long delay = initialDelay;
+
+        for (int i = 1; i < attempt && delay < MAX_DELAY; i++) {
+            delay = delay * BACKOFF_MULTIPLIER;
+        }
+
+        return Math.min(delay, MAX_DELAY);
+    }
+
+    private static class RetryTask {
+
+        private String executorName;
+
+        private Object key;
+
+        private String transactionHash;
+
+        private Supplier<TransactionReceipt> lookup;
+
+        private Consumer<TransactionReceipt> onReceipt;
+
+        private CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private RetryTask(String executorName,
+                          Object key,
+                          String transactionHash,
+                          Supplier<TransactionReceipt> lookup,
+                          Consumer<TransactionReceipt> onReceipt) {
+            this.executorName = executorName;
+            this.key = key;
+            this.transactionHash = transactionHash;
+            this.lookup = lookup;
+            this.onReceipt = onReceipt;
+        }
+    }
+}
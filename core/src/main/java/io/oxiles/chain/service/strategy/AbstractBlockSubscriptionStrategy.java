@@ -3,23 +3,36 @@ package io.oxiles.chain.service.strategy;
 import io.reactivex.disposables.Disposable;
 import lombok.extern.slf4j.Slf4j;
 import io.oxiles.chain.block.BlockListener;
+import io.oxiles.chain.service.BlockchainException;
 import io.oxiles.chain.service.domain.Block;
+import io.oxiles.chain.service.domain.wrapper.StreamedEthBlock;
+import io.oxiles.chain.service.domain.wrapper.Web3jBlock;
 import io.oxiles.model.LatestBlock;
 import io.oxiles.service.AsyncTaskService;
 import io.oxiles.service.EventStoreService;
 import io.oxiles.utils.ExecutorNameFactory;
 import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.methods.response.EthBlock;
 
+import java.io.IOException;
 import java.math.BigInteger;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
 public abstract class AbstractBlockSubscriptionStrategy<T> implements BlockSubscriptionStrategy {
 
     protected static final String BLOCK_EXECUTOR_NAME = "BLOCK";
 
+    public static final int DEFAULT_REPLAY_WINDOW = 16;
+
+    private static final int RECENT_BLOCKS_TO_TRACK = 32;
+
     protected Collection<BlockListener> blockListeners = new ConcurrentLinkedQueue<>();
     protected Disposable blockSubscription;
     protected Web3j web3j;
@@ -27,6 +40,22 @@ public abstract class AbstractBlockSubscriptionStrategy<T> implements BlockSubsc
     protected String nodeName;
     protected AsyncTaskService asyncService;
     protected  BigInteger maxUnsyncedBlocksForFilter;
+    protected volatile boolean fullTransactionObjects;
+    protected volatile BigInteger lastTriggeredBlockNumber;
+    protected BlockReplayer blockReplayer;
+    protected BlockDispatchQueue blockDispatchQueue;
+    protected Web3jService rpcService;
+
+    private int replayWindow = DEFAULT_REPLAY_WINDOW;
+
+    private final Object dispatchLock = new Object();
+
+    private Map<BigInteger, String> recentBlockHashes = new LinkedHashMap<BigInteger, String>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<BigInteger, String> eldest) {
+            return size() > RECENT_BLOCKS_TO_TRACK;
+        }
+    };
 
     public AbstractBlockSubscriptionStrategy(Web3j web3j,
                                              String nodeName,
@@ -38,7 +67,40 @@ public abstract class AbstractBlockSubscriptionStrategy<T> implements BlockSubsc
         this.eventStoreService = eventStoreService;
         this.asyncService = asyncService;
         this.maxUnsyncedBlocksForFilter = maxUnsyncedBlocksForFilter;
+        this.blockReplayer = new BlockReplayer(web3j, null, nodeName, replayWindow);
+    }
+
+    /**
+     * @param replayWindow the number of blocks that are fetched concurrently when catching up
+     */
+    public void setReplayWindow(Integer replayWindow) {
+        this.replayWindow = replayWindow;
+        this.blockReplayer = new BlockReplayer(web3j, rpcService, nodeName, replayWindow);
+    }
 
+    /**
+     * @param rpcService the transport behind web3j, which blocks are read from with the streaming
+     *                   parser rather than through web3j's EthBlock
+     */
+    public void setRpcService(Web3jService rpcService) {
+        this.rpcService = rpcService;
+        this.blockReplayer = new BlockReplayer(web3j, rpcService, nodeName, replayWindow);
+    }
+
+    public void setBlockReplayer(BlockReplayer blockReplayer) {
+        this.blockReplayer = blockReplayer;
+    }
+
+    /**
+     * When set, blocks are passed to the listeners through the bounded queue, rather than through the
+     * unbounded block executor of the AsyncTaskService.
+     *
+     * @param blockDispatchQueue the queue
+     */
+    public void setBlockDispatchQueue(BlockDispatchQueue blockDispatchQueue) {
+        this.blockDispatchQueue = blockDispatchQueue;
+
+        blockDispatchQueue.start(this::notifyListeners);
     }
 
     @Override
@@ -62,6 +124,25 @@ public abstract class AbstractBlockSubscriptionStrategy<T> implements BlockSubsc
         blockListeners.remove(blockListener);
     }
 
+    @Override
+    public void setFullTransactionObjects(boolean fullTransactionObjects) {
+        if (this.fullTransactionObjects == fullTransactionObjects) {
+            return;
+        }
+
+        log.info("Switching block retrieval for node {} to {}", nodeName,
+                fullTransactionObjects ? "full transaction objects" : "headers only");
+
+        this.fullTransactionObjects = fullTransactionObjects;
+
+        onFullTransactionObjectsChanged();
+    }
+
+    @Override
+    public boolean isFullTransactionObjects() {
+        return fullTransactionObjects;
+    }
+
     public boolean isSubscribed() {
         return blockSubscription != null && !blockSubscription.isDisposed();
     }
@@ -71,10 +152,108 @@ public abstract class AbstractBlockSubscriptionStrategy<T> implements BlockSubsc
         triggerListeners(eventeumBlock);
     }
 
+    /**
+     * Passes a block to the listeners, unless it has just been passed already.  When blocks have been
+     * skipped since the last block, for example after a subscription hands over from replaying past
+     * blocks to new blocks, the missing blocks are replayed first.
+     *
+     * A block that the dispatch queue drops is not recorded as passed on, so it is replayed as a
+     * missing block when the next block arrives.  Until then, later blocks are held back as well, as
+     * passing them on would leave a gap that is never replayed.
+     *
+     * This holds a lock of its own rather than the strategy monitor, as it may wait for space in the
+     * dispatch queue while listeners call back into the strategy.
+     *
+     * @param eventeumBlock the block
+     */
     protected void triggerListeners(Block eventeumBlock) {
-        asyncService.execute(ExecutorNameFactory.build(BLOCK_EXECUTOR_NAME, eventeumBlock.getNodeName()), () -> {
-            blockListeners.forEach(listener -> triggerListener(listener, eventeumBlock));
-        });
+        synchronized (dispatchLock) {
+            trigger(eventeumBlock);
+        }
+    }
+
+    /**
+     * @return true if the block has been passed on, now or before
+     */
+    private boolean trigger(Block eventeumBlock) {
+        final BigInteger number = eventeumBlock.getNumber();
+
+        if (number == null) {
+            return dispatchToListeners(eventeumBlock);
+        }
+
+        if (eventeumBlock.getHash() != null && eventeumBlock.getHash().equals(recentBlockHashes.get(number))) {
+            log.debug("Block {} on node {} has already been processed", number, nodeName);
+            return true;
+        }
+
+        if (!replayMissedBlocksBefore(number)) {
+            log.warn("Holding back block {} on node {} until the blocks before it have been queued", number, nodeName);
+            return false;
+        }
+
+        if (!dispatchToListeners(eventeumBlock)) {
+            return false;
+        }
+
+        recentBlockHashes.put(number, eventeumBlock.getHash());
+        lastTriggeredBlockNumber = number;
+
+        return true;
+    }
+
+    /**
+     * @return false if a missing block was dropped by the dispatch queue, so the gap remains
+     */
+    private boolean replayMissedBlocksBefore(BigInteger number) {
+        final BigInteger last = lastTriggeredBlockNumber;
+
+        if (last == null || number.compareTo(last.add(BigInteger.ONE)) <= 0) {
+            return true;
+        }
+
+        BigInteger from = last.add(BigInteger.ONE);
+        final BigInteger to = number.subtract(BigInteger.ONE);
+
+        if (maxUnsyncedBlocksForFilter != null && to.subtract(from).compareTo(maxUnsyncedBlocksForFilter) >= 0) {
+            from = to.subtract(maxUnsyncedBlocksForFilter).add(BigInteger.ONE);
+        }
+
+        log.info("Replaying blocks {} to {} on node {} before block {}", from, to, nodeName, number);
+
+        final AtomicBoolean queued = new AtomicBoolean(true);
+
+        try {
+            //Stop fetching once a block is dropped, as the rest would be dropped or held back too
+            blockReplayer
+                    .replay(from, to, fullTransactionObjects)
+                    .takeWhile(block -> queued.get())
+                    .blockingForEach(block -> queued.set(trigger(withTransactionObjects(block))));
+        } catch (RuntimeException e) {
+            log.error(String.format("Unable to replay blocks %s to %s on node %s", from, to, nodeName), e);
+        }
+
+        return queued.get();
+    }
+
+    private boolean dispatchToListeners(Block eventeumBlock) {
+        if (blockDispatchQueue == null) {
+            asyncService.execute(ExecutorNameFactory.build(BLOCK_EXECUTOR_NAME, eventeumBlock.getNodeName()),
+                    () -> notifyListeners(eventeumBlock));
+            return true;
+        }
+
+        try {
+            return blockDispatchQueue.add(eventeumBlock);
+        } catch (InterruptedException e) {
+            log.warn("Interrupted while queueing block {} on node {}", eventeumBlock.getNumber(), nodeName);
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void notifyListeners(Block eventeumBlock) {
+        blockListeners.forEach(listener -> triggerListener(listener, eventeumBlock));
     }
 
     protected void triggerListener(BlockListener listener, Block block) {
@@ -89,6 +268,100 @@ public abstract class AbstractBlockSubscriptionStrategy<T> implements BlockSubsc
         return eventStoreService.getLatestBlock(nodeName);
     }
 
+    /**
+     * @return the block to start replaying from, which is the latest processed block, or the block
+     * maxUnsyncedBlocksForFilter behind the head if that is further ahead.  Empty if there is no
+     * processed block.
+     */
+    protected Optional<BigInteger> getReplayStartBlock() {
+        final Optional<LatestBlock> latestBlock = getLatestBlock();
+
+        if (!latestBlock.isPresent()) {
+            return Optional.empty();
+        }
+
+        BigInteger latestBlockNumber = latestBlock.get().getNumber();
+
+        try {
+            final BigInteger currentBlockNumber = web3j.ethBlockNumber().send().getBlockNumber();
+
+            if (currentBlockNumber.subtract(latestBlockNumber).compareTo(maxUnsyncedBlocksForFilter) == 1) {
+                final BigInteger cappedBlockNumber = currentBlockNumber.subtract(maxUnsyncedBlocksForFilter);
+                log.info("BLOCK: Max Unsynced Blocks gap reached ´{} to {} . Applied {}. Max {}", latestBlockNumber, currentBlockNumber, cappedBlockNumber, maxUnsyncedBlocksForFilter);
+                latestBlockNumber = cappedBlockNumber;
+            }
+        } catch (Exception e) {
+            log.error("Could not get current block to possibly cap range", e);
+        }
+
+        return Optional.of(latestBlockNumber);
+    }
+
+    protected Block toEventeumBlock(EthBlock ethBlock) {
+        final EthBlock.Block block = ethBlock.getBlock();
+
+        if (fullTransactionObjects && hasTransactionHashesOnly(block)) {
+            return getBlock(block.getHash(), true);
+        }
+
+        return new Web3jBlock(block, nodeName);
+    }
+
+    /**
+     * Called after block retrieval switches between headers only and full transaction objects.
+     */
+    protected void onFullTransactionObjectsChanged() {
+    }
+
+    /**
+     * Blocks that were requested before switching to full transaction objects only contain transaction
+     * hashes, so these are fetched again with their transactions.
+     *
+     * @param block the block as received from the node
+     * @return the block, with full transaction objects if these are currently required
+     */
+    protected Block withTransactionObjects(Block block) {
+        if (fullTransactionObjects
+                && block instanceof Web3jBlock
+                && ((Web3jBlock) block).isTransactionHashesOnly()) {
+            return getBlock(block.getHash(), true);
+        }
+
+        return block;
+    }
+
+    /**
+     * @param blockHash the hash of the block
+     * @param fullTransactionObjects if the block should be retrieved with full transaction objects
+     * @return the block, read with the streaming parser when the transport behind web3j is known
+     */
+    protected Block getBlock(String blockHash, boolean fullTransactionObjects) {
+        try {
+            final Optional<Block> block;
+
+            if (rpcService != null) {
+                block = StreamedEthBlock.getBlockByHash(rpcService, blockHash, fullTransactionObjects)
+                        .send()
+                        .getBlock(nodeName);
+            } else {
+                block = Optional.ofNullable(web3j.ethGetBlockByHash(blockHash, fullTransactionObjects).send())
+                        .map(EthBlock::getBlock)
+                        .map(ethBlock -> new Web3jBlock(ethBlock, nodeName));
+            }
+
+            return block.orElseThrow(() ->
+                    new BlockchainException(String.format("Block not found. Hash: %s", blockHash)));
+        } catch (IOException e) {
+            throw new BlockchainException("Unable to retrieve block details", e);
+        }
+    }
+
+    private boolean hasTransactionHashesOnly(EthBlock.Block block) {
+        return block.getTransactions() != null
+                && !block.getTransactions().isEmpty()
+                && !(block.getTransactions().get(0) instanceof EthBlock.TransactionObject);
+    }
+
     abstract Block convertToEventeumBlock(T blockObject);
 
 }
@@ -0,0 +1,114 @@
+package io.oxiles.chain.service.strategy;
+
+import io.oxiles.monitoring.EventeumValueMonitor;
+
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Works out how long to wait before polling a node for new blocks.
+ *
+ * The block time is learnt from the timestamps of the blocks that are found, as a moving average.
+ * Polls are scheduled for when the next block is expected, and if it has not arrived by then, the
+ * interval backs off exponentially.  The interval always stays between the minimum and maximum.
+ */
+public class AdaptivePollingInterval {
+
+    private static final double SMOOTHING_FACTOR = 0.2;
+
+    private static final int MAX_BACK_OFF_SHIFT = 16;
+
+    private long minInterval;
+
+    private long maxInterval;
+
+    private double estimatedBlockTime;
+
+    private BigInteger lastBlockNumber;
+
+    private long lastBlockTimestamp;
+
+    private long lastBlockSeenAt;
+
+    private int missedPolls;
+
+    private AtomicLong currentInterval;
+
+    public AdaptivePollingInterval(String nodeName,
+                                   Long minInterval,
+                                   Long maxInterval,
+                                   EventeumValueMonitor valueMonitor) {
+        this.minInterval = minInterval;
+        this.maxInterval = Math.max(minInterval, maxInterval);
+
+        currentInterval = valueMonitor.monitor("pollingInterval", nodeName, new AtomicLong(this.maxInterval));
+    }
+
+    /**
+     * Records a block that has been found by a poll.
+     *
+     * @param blockNumber the block number
+     * @param timestamp the block timestamp, in seconds
+     * @param now the current time, in milliseconds
+     */
+    public synchronized void onBlock(BigInteger blockNumber, BigInteger timestamp, long now) {
+        if (blockNumber == null || timestamp == null) {
+            return;
+        }
+
+        final long blockTimestamp = timestamp.longValue() * 1000;
+
+        if (lastBlockNumber != null && blockNumber.compareTo(lastBlockNumber) > 0 && blockTimestamp > lastBlockTimestamp) {
+            final double blockTime = (double) (blockTimestamp - lastBlockTimestamp)
+                    / blockNumber.subtract(lastBlockNumber).longValue();
+
+            estimatedBlockTime = estimatedBlockTime == 0
+                    ? blockTime
+                    : estimatedBlockTime * (1 - SMOOTHING_FACTOR) + blockTime * SMOOTHING_FACTOR;
+        }
+
+        lastBlockNumber = blockNumber;
+        lastBlockTimestamp = blockTimestamp;
+        lastBlockSeenAt = now;
+        missedPolls = 0;
+    }
+
+    /**
+     * Records a poll that did not find a new block.
+     *
+     * @param now the current time, in milliseconds
+     */
+    public synchronized void onNoBlock(long now) {
+        if (estimatedBlockTime == 0 || now >= getNextBlockExpectedAt()) {
+            missedPolls++;
+        }
+    }
+
+    /**
+     * @param now the current time, in milliseconds
+     * @return the number of milliseconds to wait before the next poll
+     */
+    public synchronized long nextDelay(long now) {
+        final long delay;
+
+        if (estimatedBlockTime > 0 && now < getNextBlockExpectedAt()) {
+            delay = getNextBlockExpectedAt() - now;
+        } else {
+            //Either the block time is still unknown, or the block is overdue
+            delay = minInterval << Math.min(missedPolls, MAX_BACK_OFF_SHIFT);
+        }
+
+        final long bounded = Math.max(minInterval, Math.min(maxInterval, delay));
+        currentInterval.set(bounded);
+
+        return bounded;
+    }
+
+    public synchronized long getEstimatedBlockTime() {
+        return (long) estimatedBlockTime;
+    }
+
+    private long getNextBlockExpectedAt() {
+        return lastBlockSeenAt + (long) estimatedBlockTime;
+    }
+}
@@ -0,0 +1,172 @@
+package io.oxiles.chain.service.strategy;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.oxiles.chain.service.domain.Block;
+import io.oxiles.monitoring.EventeumValueMonitor;
+import io.oxiles.utils.ExecutorNameFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * A bounded queue of blocks that are waiting to be passed to the block listeners of a node, with a
+ * single thread that passes them on in order.
+ *
+ * When the queue is full, the overflow policy decides whether the thread adding a block waits for
+ * space, which holds back the block subscription feeding the queue, or whether a block is dropped.
+ *
+ * Under DROP_NEWEST, the block being added is dropped and add returns false, so the subscription
+ * strategy can replay it once there is space again.  Under DROP_OLDEST, the dropped block is one that
+ * was accepted earlier and that newer blocks are already queued behind, so it cannot be replayed in
+ * order and is lost to the block listeners.  Use DROP_OLDEST only where keeping up with the head of
+ * the chain matters more than seeing every block.
+ */
+@Slf4j
+public class BlockDispatchQueue {
+
+    public enum OverflowPolicy {
+        BLOCK,
+        DROP_NEWEST,
+        DROP_OLDEST
+    }
+
+    private static final String EXECUTOR_NAME = "BLOCK-QUEUE";
+
+    private String nodeName;
+
+    private OverflowPolicy overflowPolicy;
+
+    private BlockingQueue<QueuedBlock> queue;
+
+    private ExecutorService dispatcher;
+
+    private AtomicInteger depth;
+
+    private AtomicLong waitTime;
+
+    private AtomicLong dropped;
+
+    private AtomicLong blocked;
+
+    public BlockDispatchQueue(String nodeName,
+                              Integer capacity,
+                              String overflowPolicy,
+                              EventeumValueMonitor valueMonitor) {
+        this.nodeName = nodeName;
+        this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy);
+        this.queue = new LinkedBlockingQueue<>(capacity);
+
+        depth = valueMonitor.monitor("blockQueueDepth", nodeName, new AtomicInteger(0));
+        waitTime = valueMonitor.monitor("blockQueueWaitTime", nodeName, new AtomicLong(0));
+        dropped = valueMonitor.monitor("blockQueueDropped", nodeName, new AtomicLong(0));
+        blocked = valueMonitor.monitor("blockQueueBlocked", nodeName, new AtomicLong(0));
+    }
+
+    /**
+     * Starts the thread that passes queued blocks to the handler.
+     *
+     * @param handler passes a block to the block listeners
+     */
+    public synchronized void start(Consumer<Block> handler) {
+        if (dispatcher != null) {
+            return;
+        }
+
+        dispatcher = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat(ExecutorNameFactory.build(EXECUTOR_NAME, nodeName) + "-%d")
+                .setDaemon(true)
+                .build());
+
+        dispatcher.execute(() -> dispatch(handler));
+    }
+
+    /**
+     * Adds a block to the queue, applying the overflow policy if the queue is full.
+     *
+     * @param block the block
+     * @return true if the block was queued, or false if it was dropped under DROP_NEWEST
+     * @throws InterruptedException if interrupted while waiting for space in the queue
+     */
+    public boolean add(Block block) throws InterruptedException {
+        final QueuedBlock queuedBlock = new QueuedBlock(block);
+
+        if (!queue.offer(queuedBlock)) {
+            switch (overflowPolicy) {
+                case BLOCK:
+                    blocked.incrementAndGet();
+                    log.warn("Block queue full on node {}, waiting to add block {}", nodeName, block.getNumber());
+                    queue.put(queuedBlock);
+                    break;
+                case DROP_OLDEST:
+                    while (!queue.offer(queuedBlock)) {
+                        drop(queue.poll());
+                    }
+                    break;
+                default:
+                    drop(queuedBlock);
+                    return false;
+            }
+        }
+
+        depth.set(queue.size());
+        return true;
+    }
+
+    public int getDepth() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (dispatcher != null) {
+            dispatcher.shutdownNow();
+        }
+    }
+
+    private void dispatch(Consumer<Block> handler) {
+        while (!Thread.currentThread().isInterrupted()) {
+            final QueuedBlock queuedBlock;
+
+            try {
+                queuedBlock = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            depth.set(queue.size());
+            waitTime.set(System.currentTimeMillis() - queuedBlock.queuedAt);
+
+            try {
+                handler.accept(queuedBlock.block);
+            } catch (Throwable t) {
+                log.error(String.format("An error occured when dispatching block %s", queuedBlock.block.getHash()), t);
+            }
+        }
+    }
+
+    private void drop(QueuedBlock queuedBlock) {
+        if (queuedBlock != null) {
+            dropped.incrementAndGet();
+            log.warn("Block queue full on node {}, dropped block {}", nodeName, queuedBlock.block.getNumber());
+        }
+    }
+
+    private static class QueuedBlock {
+
+        private Block block;
+
+        private long queuedAt = System.currentTimeMillis();
+
+        private QueuedBlock(Block block) {
+            this.block = block;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package io.oxiles.chain.service.strategy;
+
+import io.oxiles.chain.service.BlockchainException;
+import io.oxiles.chain.service.domain.Block;
+import io.oxiles.chain.service.domain.wrapper.StreamedEthBlock;
+import io.oxiles.chain.service.domain.wrapper.Web3jBlock;
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.response.EthBlock;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Optional;
+
+/**
+ * Replays past blocks for a block subscription that has fallen behind the head of the chain.
+ *
+ * Up to a window of blocks are requested from the node concurrently, and the responses are
+ * re-assembled so that the blocks are always emitted in block number order.
+ *
+ * When the transport behind web3j is given, the blocks are read straight from the responses with
+ * {@link StreamedEthBlock}, as a full block is the largest response a subscription reads.
+ */
+public class BlockReplayer {
+
+    private static final int MAX_FETCH_ATTEMPTS = 5;
+
+    private Web3j web3j;
+
+    private Web3jService rpcService;
+
+    private String nodeName;
+
+    private int window;
+
+    private Scheduler scheduler;
+
+    public BlockReplayer(Web3j web3j, Web3jService rpcService, String nodeName, int window) {
+        this(web3j, rpcService, nodeName, window, Schedulers.io());
+    }
+
+    /**
+     * @param web3j the web3j instance of the node
+     * @param rpcService the transport behind web3j, or null to read blocks through web3j
+     * @param nodeName the node name
+     * @param window the number of blocks that are fetched concurrently
+     * @param scheduler the scheduler that blocks are fetched on
+     */
+    public BlockReplayer(Web3j web3j, Web3jService rpcService, String nodeName, int window, Scheduler scheduler) {
+        this.web3j = web3j;
+        this.rpcService = rpcService;
+        this.nodeName = nodeName;
+        this.window = Math.max(1, window);
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Replays the blocks between two block numbers.
+     *
+     * @param from the first block to replay
+     * @param to the last block to replay (inclusive)
+     * @param fullTransactionObjects if the blocks should be retrieved with full transaction objects
+     * @return the blocks, in block number order
+     */
+    public Flowable<Block> replay(BigInteger from, BigInteger to, boolean fullTransactionObjects) {
+        if (from.compareTo(to) > 0) {
+            return Flowable.empty();
+        }
+
+        return Flowable.rangeLong(from.longValueExact(), to.subtract(from).longValueExact() + 1)
+                .concatMapEager(number -> fetchBlock(number, fullTransactionObjects), window, 1);
+    }
+
+    /**
+     * Replays the blocks from a block number up to the head of the chain.  The head is read again
+     * once the replay reaches it, and the replay continues until no new blocks have been mined in
+     * the meantime.
+     *
+     * @param from the first block to replay
+     * @param fullTransactionObjects if the blocks should be retrieved with full transaction objects
+     * @return the blocks, in block number order
+     */
+    public Flowable<Block> catchUp(BigInteger from, boolean fullTransactionObjects) {
+        return Flowable.defer(() -> {
+            final BigInteger head = web3j.ethBlockNumber().send().getBlockNumber();
+
+            if (head.compareTo(from) < 0) {
+                return Flowable.empty();
+            }
+
+            return replay(from, head, fullTransactionObjects)
+                    .concatWith(Flowable.defer(() -> catchUp(head.add(BigInteger.ONE), fullTransactionObjects)));
+        });
+    }
+
+    private Flowable<Block> fetchBlock(long number, boolean fullTransactionObjects) {
+        return Flowable.fromCallable(() -> getBlock(
+                    DefaultBlockParameter.valueOf(BigInteger.valueOf(number)), fullTransactionObjects)
+                .orElseThrow(() -> new BlockchainException(String.format("Block not found. Number: %s", number))))
+        .retry(MAX_FETCH_ATTEMPTS - 1)
+        .subscribeOn(scheduler);
+    }
+
+    private Optional<Block> getBlock(DefaultBlockParameter blockNumber,
+                                     boolean fullTransactionObjects) throws IOException {
+        if (rpcService != null) {
+            return StreamedEthBlock.getBlockByNumber(rpcService, blockNumber, fullTransactionObjects)
+                    .send()
+                    .getBlock(nodeName);
+        }
+
+        final EthBlock block = web3j.ethGetBlockByNumber(blockNumber, fullTransactionObjects).send();
+
+        if (block == null || block.getBlock() == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new Web3jBlock(block.getBlock(), nodeName));
+    }
+}
@@ -13,4 +13,15 @@ public interface BlockSubscriptionStrategy {
     void removeBlockListener(BlockListener blockListener);
 
     boolean isSubscribed();
+
+    /**
+     * Sets whether blocks should be retrieved with full transaction objects, or as headers with
+     * transaction hashes only.  Can be changed while subscribed, and applies to all blocks that
+     * have not been passed to the listeners yet.
+     *
+     * @param fullTransactionObjects true if full transaction objects are required
+     */
+    void setFullTransactionObjects(boolean fullTransactionObjects);
+
+    boolean isFullTransactionObjects();
 }
@@ -2,17 +2,16 @@ package io.oxiles.chain.service.strategy;
 
 import io.reactivex.Flowable;
 import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
 import lombok.extern.slf4j.Slf4j;
 import io.oxiles.chain.service.domain.Block;
-import io.oxiles.chain.service.domain.wrapper.Web3jBlock;
-import io.oxiles.model.LatestBlock;
 import io.oxiles.service.AsyncTaskService;
 import io.oxiles.service.EventStoreService;
 import io.oxiles.service.exception.NotFoundException;
 import org.web3j.protocol.Web3j;
-import org.web3j.protocol.core.DefaultBlockParameter;
 import org.web3j.protocol.core.methods.response.EthBlock;
 
+import java.io.IOException;
 import java.math.BigInteger;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
@@ -20,57 +19,34 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class PollingBlockSubscriptionStrategy extends AbstractBlockSubscriptionStrategy<EthBlock> {
 
+    private AdaptivePollingInterval pollingInterval;
+
     public PollingBlockSubscriptionStrategy(
             Web3j web3j, String nodeName, EventStoreService eventStoreService, BigInteger maxUnsyncedBlocksForFilter, AsyncTaskService asyncService) {
         super(web3j, nodeName, eventStoreService, maxUnsyncedBlocksForFilter, asyncService);
     }
 
-    @Override
-    public Disposable subscribe() {
-
-        final Optional<LatestBlock> latestBlock = getLatestBlock();
-
-
-        if (latestBlock.isPresent()) {
-
-            BigInteger latestBlockNumber = latestBlock.get().getNumber();
-
-            try {
-
-                BigInteger currentBlockNumber = web3j.ethBlockNumber().send().getBlockNumber();
-
-                BigInteger cappedBlockNumber = BigInteger.valueOf(0);
-
-                if (currentBlockNumber.subtract(latestBlockNumber).compareTo(maxUnsyncedBlocksForFilter) == 1) {
-
-                    cappedBlockNumber = currentBlockNumber.subtract(maxUnsyncedBlocksForFilter);
-                    log.info("BLOCK: Max Unsynced Blocks gap reached ´{} to {} . Applied {}. Max {}", latestBlockNumber, currentBlockNumber, cappedBlockNumber, maxUnsyncedBlocksForFilter);
-                    latestBlockNumber = cappedBlockNumber;
-                }
-            } catch (Exception e) {
-                log.error("Could not get current block to possibly cap range", e);
-            }
-
-
-            final DefaultBlockParameter blockParam = DefaultBlockParameter.valueOf(latestBlockNumber);
-
-            blockSubscription = web3j.replayPastAndFutureBlocksFlowable(blockParam, true).retryWhen(errors -> errors.flatMap(error -> Flowable.timer(5, TimeUnit.SECONDS))).repeatWhen(errors -> errors.flatMap(error -> Flowable.timer(5, TimeUnit.SECONDS)))
-                    .subscribe(block -> {
-                        if (!block.hasError() && block.getBlock() != null) {
-                            log.info("Receeving block rrom {}", nodeName);
-                            triggerListeners(block);
-                        } else {
-                            log.info("REPLAY BLOCK IS NULL");
-                            //throw new NotFoundException("REPLAY BLOCK EMPTY");
-                        }
+    /**
+     * When set, new blocks are polled for on an adaptive schedule, rather than through a web3j block
+     * filter that is polled at the fixed node polling interval.
+     *
+     * @param pollingInterval the adaptive polling interval
+     */
+    public void setPollingInterval(AdaptivePollingInterval pollingInterval) {
+        this.pollingInterval = pollingInterval;
+    }
 
+    @Override
+    public synchronized Disposable subscribe() {
 
-                    }, error -> {
-                        log.error("Error on getting replay blocks", error);
-                    });
+        final Optional<BigInteger> replayStartBlock = getReplayStartBlock();
 
+        if (replayStartBlock.isPresent()) {
+            blockSubscription = subscribeFrom(replayStartBlock.get());
+        } else if (pollingInterval != null) {
+            blockSubscription = subscribeTo(Flowable.defer(this::newBlocks));
         } else {
-            blockSubscription = web3j.blockFlowable(true).delay(5000, TimeUnit.MILLISECONDS).retry().subscribe((block -> {
+            blockSubscription = web3j.blockFlowable(fullTransactionObjects).delay(5000, TimeUnit.MILLISECONDS).retry().subscribe((block -> {
                 if (!block.hasError() && block.getBlock() != null) {
                     triggerListeners(block);
                 }
@@ -86,8 +62,101 @@ public class PollingBlockSubscriptionStrategy extends AbstractBlockSubscriptionS
         return blockSubscription;
     }
 
+    /**
+     * The polling flowables fix the transaction detail level when they are created, so the
+     * subscription is restarted from the last block that was passed to the listeners.  That block is
+     * fetched again, and is dropped as a duplicate, so no block is skipped over during the switch.
+     */
+    @Override
+    protected synchronized void onFullTransactionObjectsChanged() {
+        final BigInteger lastBlockNumber = lastTriggeredBlockNumber;
+
+        if (!isSubscribed() || lastBlockNumber == null) {
+            return;
+        }
+
+        blockSubscription.dispose();
+        blockSubscription = subscribeFrom(lastBlockNumber);
+    }
+
     @Override
     Block convertToEventeumBlock(EthBlock blockObject) {
-        return new Web3jBlock(blockObject.getBlock(), nodeName);
+        return toEventeumBlock(blockObject);
+    }
+
+    /**
+     * Catches up from the block with the replayer, then polls for new blocks.  If the subscription
+     * fails it is restarted after the last block that reached the listeners, rather than from the
+     * original block again.
+     */
+    private Disposable subscribeFrom(BigInteger blockNumber) {
+        return subscribeTo(Flowable.defer(() -> blockReplayer
+                    .catchUp(getResumeBlock(blockNumber), fullTransactionObjects)
+                    .concatWith(Flowable.defer(this::newBlocks))));
+    }
+
+    private Disposable subscribeTo(Flowable<Block> blocks) {
+        return blocks
+                .subscribeOn(Schedulers.io())
+                .retryWhen(errors -> errors.flatMap(error -> {
+                    log.error("Error on getting replay blocks", error);
+                    return Flowable.timer(5, TimeUnit.SECONDS);
+                }))
+                .subscribe(block -> {
+                    log.debug("Receiving block from {}", nodeName);
+                    triggerListeners(withTransactionObjects(block));
+                }, error -> {
+                    log.error("Error on getting replay blocks", error);
+                });
+    }
+
+    private Flowable<Block> newBlocks() {
+        if (pollingInterval == null) {
+            return web3j.blockFlowable(fullTransactionObjects)
+                    .filter(block -> {
+                        if (block.hasError() || block.getBlock() == null) {
+                            log.info("REPLAY BLOCK IS NULL");
+                            return false;
+                        }
+
+                        return true;
+                    })
+                    .map(this::toEventeumBlock);
+        }
+
+        return Flowable.defer(() -> Flowable
+                    .timer(pollingInterval.nextDelay(System.currentTimeMillis()), TimeUnit.MILLISECONDS, Schedulers.io())
+                    .concatMap(tick -> pollNewBlocks()))
+                .repeat();
+    }
+
+    /**
+     * Reads the head of the chain, and fetches any blocks after the last block that was passed to the
+     * listeners.  If no block has been passed to the listeners yet, only the head block is fetched.
+     */
+    private Flowable<Block> pollNewBlocks() throws IOException {
+        final BigInteger head = web3j.ethBlockNumber().send().getBlockNumber();
+        final BigInteger lastBlockNumber = lastTriggeredBlockNumber;
+        final BigInteger from = lastBlockNumber != null ? lastBlockNumber.add(BigInteger.ONE) : head;
+
+        if (head.compareTo(from) < 0) {
+            pollingInterval.onNoBlock(System.currentTimeMillis());
+            return Flowable.empty();
+        }
+
+        return blockReplayer
+                .replay(from, head, fullTransactionObjects)
+                .doOnNext(block -> pollingInterval.onBlock(block.getNumber(),
+                        block.getTimestamp(), System.currentTimeMillis()));
+    }
+
+    private BigInteger getResumeBlock(BigInteger blockNumber) {
+        final BigInteger lastBlockNumber = lastTriggeredBlockNumber;
+
+        if (lastBlockNumber != null && lastBlockNumber.compareTo(blockNumber) > 0) {
+            return lastBlockNumber.add(BigInteger.ONE);
+        }
+
+        return blockNumber;
     }
 }
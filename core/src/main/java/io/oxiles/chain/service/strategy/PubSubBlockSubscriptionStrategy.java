@@ -1,24 +1,21 @@
 package io.oxiles.chain.service.strategy;
 
-import io.oxiles.model.LatestBlock;
 import io.oxiles.service.AsyncTaskService;
 import io.oxiles.service.EventStoreService;
 import io.oxiles.utils.ExecutorNameFactory;
 import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import io.oxiles.chain.service.BlockchainException;
 import io.oxiles.chain.service.domain.Block;
-import io.oxiles.chain.service.domain.wrapper.Web3jBlock;
 import org.springframework.retry.backoff.FixedBackOffPolicy;
 import org.springframework.retry.policy.SimpleRetryPolicy;
 import org.springframework.retry.support.RetryTemplate;
 import org.web3j.protocol.Web3j;
-import org.web3j.protocol.core.DefaultBlockParameter;
 import org.web3j.protocol.core.methods.response.EthBlock;
 import org.web3j.protocol.websocket.events.NewHead;
 
-import java.io.IOException;
 import java.math.BigInteger;
 import java.util.Optional;
 
@@ -42,36 +39,18 @@ public class PubSubBlockSubscriptionStrategy extends AbstractBlockSubscriptionSt
     }
 
     @Override
-    public Disposable subscribe() {
-        final Optional<LatestBlock> latestBlock = getLatestBlock();
-
-        if (latestBlock.isPresent()) {
-
-            BigInteger latestBlockNumber = latestBlock.get().getNumber();
-
-            try {
-
-                BigInteger currentBlockNumber = web3j.ethBlockNumber().send().getBlockNumber();
-
-                BigInteger cappedBlockNumber = BigInteger.valueOf(0);
-
-                if (currentBlockNumber.subtract(latestBlockNumber).compareTo(maxUnsyncedBlocksForFilter) == 1) {
-
-                    cappedBlockNumber = currentBlockNumber.subtract(maxUnsyncedBlocksForFilter);
-                    log.info("BLOCK: Max Unsynced Blocks gap reached ´{} to {} . Applied {}. Max {}", latestBlockNumber, currentBlockNumber, cappedBlockNumber, maxUnsyncedBlocksForFilter);
-                    latestBlockNumber = cappedBlockNumber;
-                }
-            }
-            catch (Exception e){
-                log.error("Could not get current block to possibly cap range",e);
-            }
-
-            final DefaultBlockParameter blockParam = DefaultBlockParameter.valueOf(latestBlockNumber);
-
-            //New heads can only start from latest block so we need to obtain missing blocks first
-            blockSubscription = web3j.replayPastBlocksFlowable(blockParam, true)
-                    .doOnComplete(() -> blockSubscription = subscribeToNewHeads())
-                    .subscribe(ethBlock -> triggerListeners(convertToEventeumBlock(ethBlock)));
+    public synchronized Disposable subscribe() {
+        final Optional<BigInteger> replayStartBlock = getReplayStartBlock();
+
+        if (replayStartBlock.isPresent()) {
+            //New heads can only start from latest block so we need to obtain missing blocks first.
+            //The head is re-read once the replay reaches it, and any blocks mined between the end of
+            //the replay and the first new head are filled in when that head arrives.
+            blockSubscription = blockReplayer.catchUp(replayStartBlock.get(), fullTransactionObjects)
+                    .subscribeOn(Schedulers.io())
+                    .doOnComplete(this::handOverToNewHeads)
+                    .subscribe(block -> triggerListeners(withTransactionObjects(block)),
+                            error -> log.error("Error when replaying past blocks", error));
         } else {
             blockSubscription = subscribeToNewHeads();
         }
@@ -79,6 +58,10 @@ public class PubSubBlockSubscriptionStrategy extends AbstractBlockSubscriptionSt
         return blockSubscription;
     }
 
+    private synchronized void handOverToNewHeads() {
+        blockSubscription = subscribeToNewHeads();
+    }
+
     private Disposable subscribeToNewHeads() {
         final Disposable disposable = web3j.newHeadsNotifications().subscribe(newHead -> {
             //Need to execute this is a seperate thread to workaround websocket thread deadlock
@@ -104,11 +87,7 @@ public class PubSubBlockSubscriptionStrategy extends AbstractBlockSubscriptionSt
 
     @Override
     Block convertToEventeumBlock(NewHead blockObject) {
-        return new Web3jBlock(getEthBlock(blockObject.getHash()).getBlock(), nodeName);
-    }
-
-    Block convertToEventeumBlock(EthBlock blockObject) {
-        return new Web3jBlock(blockObject.getBlock(), nodeName);
+        return getRetryTemplate().execute(context -> getBlock(blockObject.getHash(), fullTransactionObjects));
     }
 
     protected RetryTemplate getRetryTemplate() {
@@ -127,22 +106,6 @@ public class PubSubBlockSubscriptionStrategy extends AbstractBlockSubscriptionSt
         return retryTemplate;
     }
 
-    private EthBlock getEthBlock(String blockHash) {
-        return getRetryTemplate().execute((context) -> {
-            try {
-                final EthBlock block = web3j.ethGetBlockByHash(blockHash, true).send();
-
-                if (block == null || block.getBlock() == null) {
-                    throw new BlockchainException(String.format("Block not found. Hash: %s", blockHash));
-                }
-
-                return block;
-            } catch (IOException e) {
-                throw new BlockchainException("Unable to retrieve block details", e);
-            }
-        });
-    }
-
     @Setter
     private class BasicNewHead extends NewHead {
         private String hash;
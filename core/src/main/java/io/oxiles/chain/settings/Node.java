@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigInteger;
 import java.security.PrivateKey;
+import java.util.List;
 
 @Data
 @AllArgsConstructor
@@ -33,4 +34,23 @@ public class Node {
     private BigInteger maxUnsyncedBlocksForFilter;
     private BigInteger syncStartBlock;
     private String apiKey;
+    private String eventStrategy;
+    private Long receiptRetryInitialDelay;
+    private Integer receiptRetryMaxAttempts;
+    private Integer backfillChunkSize;
+    private Integer backfillParallelism;
+    private Long responseCacheMaxBytes;
+    private Long responseCacheTtl;
+    private Integer blockReplayWindow;
+    private Long minPollingInterval;
+    private Long maxPollingInterval;
+    private Integer blockQueueCapacity;
+    private String blockQueueOverflowPolicy;
+    private List<String> urls;
+    private Long endpointEjectionTime;
+    private Double hedgePercentile;
+    private Integer rpcBatchSize;
+    private Long rpcBatchWindow;
+    private Integer rpcInitialConcurrency;
+    private Integer rpcMaxConcurrency;
 }
@@ -1,7 +1,9 @@
 package io.oxiles.chain.settings;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 import lombok.Data;
 import io.oxiles.chain.service.BlockchainException;
@@ -32,10 +34,42 @@ public class NodeSettings {
 
     private static final String DEFAULT_BLOCKS_TO_WAIT_FOR_CONFIRMATION = "12";
 
+    private static final Long DEFAULT_RECEIPT_RETRY_INITIAL_DELAY = 500l;
+
+    private static final Integer DEFAULT_RECEIPT_RETRY_MAX_ATTEMPTS = 20;
+
+    private static final Integer DEFAULT_BACKFILL_CHUNK_SIZE = 1000;
+
+    private static final Integer DEFAULT_BACKFILL_PARALLELISM = 4;
+
+    private static final Long DEFAULT_RESPONSE_CACHE_MAX_BYTES = 32l * 1024 * 1024;
+
+    private static final Long DEFAULT_RESPONSE_CACHE_TTL = 15000l;
+
+    private static final Integer DEFAULT_BLOCK_REPLAY_WINDOW = 16;
+
+    private static final Long DEFAULT_MIN_POLLING_INTERVAL = 1000l;
+
+    private static final Integer DEFAULT_BLOCK_QUEUE_CAPACITY = 1000;
+
+    private static final String DEFAULT_BLOCK_QUEUE_OVERFLOW_POLICY = "BLOCK";
+
+    private static final Long DEFAULT_ENDPOINT_EJECTION_TIME = 30000l;
+
+    private static final Integer DEFAULT_RPC_BATCH_SIZE = 1;
+
+    private static final Long DEFAULT_RPC_BATCH_WINDOW = 5l;
+
+    private static final Integer DEFAULT_RPC_INITIAL_CONCURRENCY = 8;
+
+    private static final Integer DEFAULT_RPC_MAX_CONCURRENCY = 0;
+
     private static final BigInteger DEFAULT_MAX_UNSYNCED_BLOCKS_FOR_FILTER = BigInteger.valueOf(20000);
 
     public static final String DEFAULT_SYNC_START_BLOCK = "-1";
 
+    public static final String DEFAULT_EVENT_STRATEGY = "FILTER";
+
     private static final String ATTRIBUTE_PREFIX = "ethereum";
 
     private static final String NODE_ATTRIBUTE_PREFIX = ".nodes[%s]";
@@ -92,6 +126,44 @@ public class NodeSettings {
 
     private static final String NODE_API_KEY = "apiKey";
 
+    private static final String EVENT_STRATEGY_ATTRIBUTE = "eventStrategy";
+
+    private static final String RECEIPT_RETRY_INITIAL_DELAY_ATTRIBUTE = "receiptRetryInitialDelay";
+
+    private static final String RECEIPT_RETRY_MAX_ATTEMPTS_ATTRIBUTE = "receiptRetryMaxAttempts";
+
+    private static final String BACKFILL_CHUNK_SIZE_ATTRIBUTE = "backfillChunkSize";
+
+    private static final String BACKFILL_PARALLELISM_ATTRIBUTE = "backfillParallelism";
+
+    private static final String RESPONSE_CACHE_MAX_BYTES_ATTRIBUTE = "responseCacheMaxBytes";
+
+    private static final String RESPONSE_CACHE_TTL_ATTRIBUTE = "responseCacheTtl";
+
+    private static final String BLOCK_REPLAY_WINDOW_ATTRIBUTE = "blockReplayWindow";
+
+    private static final String MIN_POLLING_INTERVAL_ATTRIBUTE = "minPollingInterval";
+
+    private static final String MAX_POLLING_INTERVAL_ATTRIBUTE = "maxPollingInterval";
+
+    private static final String BLOCK_QUEUE_CAPACITY_ATTRIBUTE = "blockQueueCapacity";
+
+    private static final String BLOCK_QUEUE_OVERFLOW_POLICY_ATTRIBUTE = "blockQueueOverflowPolicy";
+
+    private static final String NODE_URLS_ATTRIBUTE = "urls";
+
+    private static final String ENDPOINT_EJECTION_TIME_ATTRIBUTE = "endpointEjectionTime";
+
+    private static final String HEDGE_PERCENTILE_ATTRIBUTE = "hedgePercentile";
+
+    private static final String RPC_BATCH_SIZE_ATTRIBUTE = "rpcBatchSize";
+
+    private static final String RPC_BATCH_WINDOW_ATTRIBUTE = "rpcBatchWindow";
+
+    private static final String RPC_INITIAL_CONCURRENCY_ATTRIBUTE = "rpcInitialConcurrency";
+
+    private static final String RPC_MAX_CONCURRENCY_ATTRIBUTE = "rpcMaxConcurrency";
+
     private static final String[] SUPPORTED_CHAINS = new String[]{ETHEREUM_CHAIN_NAME_ATTRIBUTE, HASHGRAPH_CHAIN_NAME_ATTRIBUTE};
 
     private HashMap<String, Node> nodes;
@@ -118,11 +190,12 @@ public class NodeSettings {
             while (nodeExistsAtIndex(environment, supportedChain, nodeIndex)) {
 
                 String nodeName = getNodeNameProperty(environment, supportedChain, nodeIndex);
+                List<String> urls = getNodeUrlsProperty(environment, supportedChain, nodeIndex);
                 Node node = new Node(
                         nodeName,
                         getNodeTypeProperty(environment, supportedChain, nodeIndex),
                         ChainType.valueOf(supportedChain.toUpperCase()),
-                        getNodeUrlProperty(environment, supportedChain, nodeIndex),
+                        urls.isEmpty() ? null : urls.get(0),
                         getNodePollingIntervalProperty(environment, supportedChain, nodeIndex),
                         getNodeUsernameProperty(environment, supportedChain, nodeIndex),
                         getNodePasswordProperty(environment, supportedChain, nodeIndex),
@@ -139,7 +212,26 @@ public class NodeSettings {
                         getBlocksToWaitForMissingTxProperty(environment, supportedChain, nodeIndex),
                         getMaxUnsyncedBlocksForFilter(environment, supportedChain, nodeIndex),
                         getSyncStartBlock(environment, supportedChain, nodeIndex),
-                        getNodeApiKeyProperty(environment, supportedChain, nodeIndex)
+                        getNodeApiKeyProperty(environment, supportedChain, nodeIndex),
+                        getNodeEventStrategyProperty(environment, supportedChain, nodeIndex),
+                        getReceiptRetryInitialDelayProperty(environment, supportedChain, nodeIndex),
+                        getReceiptRetryMaxAttemptsProperty(environment, supportedChain, nodeIndex),
+                        getBackfillChunkSizeProperty(environment, supportedChain, nodeIndex),
+                        getBackfillParallelismProperty(environment, supportedChain, nodeIndex),
+                        getResponseCacheMaxBytesProperty(environment, supportedChain, nodeIndex),
+                        getResponseCacheTtlProperty(environment, supportedChain, nodeIndex),
+                        getBlockReplayWindowProperty(environment, supportedChain, nodeIndex),
+                        getMinPollingIntervalProperty(environment, supportedChain, nodeIndex),
+                        getMaxPollingIntervalProperty(environment, supportedChain, nodeIndex),
+                        getBlockQueueCapacityProperty(environment, supportedChain, nodeIndex),
+                        getBlockQueueOverflowPolicyProperty(environment, supportedChain, nodeIndex),
+                        urls,
+                        getEndpointEjectionTimeProperty(environment, supportedChain, nodeIndex),
+                        getHedgePercentileProperty(environment, supportedChain, nodeIndex),
+                        getRpcBatchSizeProperty(environment, supportedChain, nodeIndex),
+                        getRpcBatchWindowProperty(environment, supportedChain, nodeIndex),
+                        getRpcInitialConcurrencyProperty(environment, supportedChain, nodeIndex),
+                        getRpcMaxConcurrencyProperty(environment, supportedChain, nodeIndex)
                 );
 
                 nodes.put(nodeName, node);
@@ -166,6 +258,49 @@ public class NodeSettings {
         return getProperty(environment, buildNodeAttribute(NODE_URL_ATTRIBUTE, chainName, index));
     }
 
+    /**
+     * The endpoints of a node are its url, followed by any listed under urls, either as a list or
+     * as a comma separated string.  Only HTTP endpoints can be pooled, so a websocket url must be
+     * the only endpoint of its node.
+     */
+    private List<String> getNodeUrlsProperty(Environment environment, String chainName, int index) {
+        final List<String> urls = new ArrayList<>();
+        addUrls(urls, getNodeUrlProperty(environment, chainName, index));
+
+        final String urlsAttribute = buildNodeAttribute(NODE_URLS_ATTRIBUTE, chainName, index);
+        addUrls(urls, getProperty(environment, urlsAttribute));
+
+        for (int urlIndex = 0; environment.containsProperty(urlsAttribute + "[" + urlIndex + "]"); urlIndex++) {
+            addUrls(urls, getProperty(environment, urlsAttribute + "[" + urlIndex + "]"));
+        }
+
+        if (urls.size() > 1 && urls.stream().anyMatch(NodeSettings::isWebSocketUrl)) {
+            throw new BlockchainException(String.format(
+                    "Node %s has several urls including a websocket url, only http urls can be pooled: %s",
+                    getNodeNameProperty(environment, chainName, index), urls));
+        }
+
+        return urls;
+    }
+
+    private static boolean isWebSocketUrl(String url) {
+        return url.contains("wss://") || url.contains("ws://");
+    }
+
+    private void addUrls(List<String> urls, String commaSeparatedUrls) {
+        if (commaSeparatedUrls == null) {
+            return;
+        }
+
+        for (String url : commaSeparatedUrls.split(",")) {
+            final String trimmed = url.trim();
+
+            if (!trimmed.isEmpty() && !urls.contains(trimmed)) {
+                urls.add(trimmed);
+            }
+        }
+    }
+
 
     private NodeType getNodeTypeProperty(Environment environment, String chainName, int index) {
         String nodeType = getProperty(environment, buildNodeAttribute(NODE_TYPE_ATTRIBUTE, chainName, index));
@@ -353,6 +488,210 @@ public class NodeSettings {
         return getProperty(environment, buildNodeAttribute(NODE_API_KEY, chainName, index));
     }
 
+    private String getNodeEventStrategyProperty(Environment environment, String chainName, int index) {
+        String eventStrategy =
+                getProperty(environment, buildNodeAttribute(EVENT_STRATEGY_ATTRIBUTE, chainName, index));
+
+        if (eventStrategy == null) {
+            // Get the generic configuration
+            eventStrategy = getProperty(environment,
+                    ATTRIBUTE_PREFIX + "." + EVENT_STRATEGY_ATTRIBUTE, DEFAULT_EVENT_STRATEGY);
+        }
+
+        return eventStrategy;
+    }
+
+    private Long getReceiptRetryInitialDelayProperty(Environment environment, String chainName, int index) {
+        final String initialDelay =
+                getProperty(environment, buildNodeAttribute(RECEIPT_RETRY_INITIAL_DELAY_ATTRIBUTE, chainName, index));
+
+        if (initialDelay == null) {
+            return DEFAULT_RECEIPT_RETRY_INITIAL_DELAY;
+        }
+
+        return Long.valueOf(initialDelay);
+    }
+
+    private Integer getReceiptRetryMaxAttemptsProperty(Environment environment, String chainName, int index) {
+        final String maxAttempts =
+                getProperty(environment, buildNodeAttribute(RECEIPT_RETRY_MAX_ATTEMPTS_ATTRIBUTE, chainName, index));
+
+        if (maxAttempts == null) {
+            return DEFAULT_RECEIPT_RETRY_MAX_ATTEMPTS;
+        }
+
+        return Integer.valueOf(maxAttempts);
+    }
+
+    private Integer getBackfillChunkSizeProperty(Environment environment, String chainName, int index) {
+        final String chunkSize =
+                getProperty(environment, buildNodeAttribute(BACKFILL_CHUNK_SIZE_ATTRIBUTE, chainName, index));
+
+        if (chunkSize == null) {
+            return DEFAULT_BACKFILL_CHUNK_SIZE;
+        }
+
+        return Integer.valueOf(chunkSize);
+    }
+
+    private Integer getBackfillParallelismProperty(Environment environment, String chainName, int index) {
+        final String parallelism =
+                getProperty(environment, buildNodeAttribute(BACKFILL_PARALLELISM_ATTRIBUTE, chainName, index));
+
+        if (parallelism == null) {
+            return DEFAULT_BACKFILL_PARALLELISM;
+        }
+
+        return Integer.valueOf(parallelism);
+    }
+
+    private Long getResponseCacheMaxBytesProperty(Environment environment, String chainName, int index) {
+        final String maxBytes =
+                getProperty(environment, buildNodeAttribute(RESPONSE_CACHE_MAX_BYTES_ATTRIBUTE, chainName, index));
+
+        if (maxBytes == null) {
+            return DEFAULT_RESPONSE_CACHE_MAX_BYTES;
+        }
+
+        return Long.valueOf(maxBytes);
+    }
+
+    private Long getResponseCacheTtlProperty(Environment environment, String chainName, int index) {
+        final String ttl =
+                getProperty(environment, buildNodeAttribute(RESPONSE_CACHE_TTL_ATTRIBUTE, chainName, index));
+
+        if (ttl == null) {
+            return DEFAULT_RESPONSE_CACHE_TTL;
+        }
+
+        return Long.valueOf(ttl);
+    }
+
+    private Integer getBlockReplayWindowProperty(Environment environment, String chainName, int index) {
+        final String window =
+                getProperty(environment, buildNodeAttribute(BLOCK_REPLAY_WINDOW_ATTRIBUTE, chainName, index));
+
+        if (window == null) {
+            return DEFAULT_BLOCK_REPLAY_WINDOW;
+        }
+
+        return Integer.valueOf(window);
+    }
+
+    private Long getMinPollingIntervalProperty(Environment environment, String chainName, int index) {
+        final String minInterval =
+                getProperty(environment, buildNodeAttribute(MIN_POLLING_INTERVAL_ATTRIBUTE, chainName, index));
+
+        if (minInterval == null) {
+            return DEFAULT_MIN_POLLING_INTERVAL;
+        }
+
+        return Long.valueOf(minInterval);
+    }
+
+    private Long getMaxPollingIntervalProperty(Environment environment, String chainName, int index) {
+        final String maxInterval =
+                getProperty(environment, buildNodeAttribute(MAX_POLLING_INTERVAL_ATTRIBUTE, chainName, index));
+
+        if (maxInterval == null) {
+            //Defaults to the fixed polling interval, so polls are never less frequent than before
+            return getNodePollingIntervalProperty(environment, chainName, index);
+        }
+
+        return Long.valueOf(maxInterval);
+    }
+
+    private Integer getBlockQueueCapacityProperty(Environment environment, String chainName, int index) {
+        final String capacity =
+                getProperty(environment, buildNodeAttribute(BLOCK_QUEUE_CAPACITY_ATTRIBUTE, chainName, index));
+
+        if (capacity == null) {
+            return DEFAULT_BLOCK_QUEUE_CAPACITY;
+        }
+
+        return Integer.valueOf(capacity);
+    }
+
+    private String getBlockQueueOverflowPolicyProperty(Environment environment, String chainName, int index) {
+        final String overflowPolicy =
+                getProperty(environment, buildNodeAttribute(BLOCK_QUEUE_OVERFLOW_POLICY_ATTRIBUTE, chainName, index));
+
+        if (overflowPolicy == null) {
+            return DEFAULT_BLOCK_QUEUE_OVERFLOW_POLICY;
+        }
+
+        return overflowPolicy.toUpperCase();
+    }
+
+    private Long getEndpointEjectionTimeProperty(Environment environment, String chainName, int index) {
+        final String ejectionTime =
+                getProperty(environment, buildNodeAttribute(ENDPOINT_EJECTION_TIME_ATTRIBUTE, chainName, index));
+
+        if (ejectionTime == null) {
+            return DEFAULT_ENDPOINT_EJECTION_TIME;
+        }
+
+        return Long.valueOf(ejectionTime);
+    }
+
+    private Double getHedgePercentileProperty(Environment environment, String chainName, int index) {
+        final String hedgePercentile =
+                getProperty(environment, buildNodeAttribute(HEDGE_PERCENTILE_ATTRIBUTE, chainName, index));
+
+        if (hedgePercentile == null) {
+            //Hedging is off unless configured, as it adds load on the endpoints
+            return null;
+        }
+
+        return Double.valueOf(hedgePercentile);
+    }
+
+    private Integer getRpcBatchSizeProperty(Environment environment, String chainName, int index) {
+        final String batchSize =
+                getProperty(environment, buildNodeAttribute(RPC_BATCH_SIZE_ATTRIBUTE, chainName, index));
+
+        if (batchSize == null) {
+            //Not every provider accepts batches, so each request is sent on its own unless configured
+            return DEFAULT_RPC_BATCH_SIZE;
+        }
+
+        return Integer.valueOf(batchSize);
+    }
+
+    private Long getRpcBatchWindowProperty(Environment environment, String chainName, int index) {
+        final String batchWindow =
+                getProperty(environment, buildNodeAttribute(RPC_BATCH_WINDOW_ATTRIBUTE, chainName, index));
+
+        if (batchWindow == null) {
+            return DEFAULT_RPC_BATCH_WINDOW;
+        }
+
+        return Long.valueOf(batchWindow);
+    }
+
+    private Integer getRpcInitialConcurrencyProperty(Environment environment, String chainName, int index) {
+        final String initialConcurrency =
+                getProperty(environment, buildNodeAttribute(RPC_INITIAL_CONCURRENCY_ATTRIBUTE, chainName, index));
+
+        if (initialConcurrency == null) {
+            return DEFAULT_RPC_INITIAL_CONCURRENCY;
+        }
+
+        return Integer.valueOf(initialConcurrency);
+    }
+
+    private Integer getRpcMaxConcurrencyProperty(Environment environment, String chainName, int index) {
+        final String maxConcurrency =
+                getProperty(environment, buildNodeAttribute(RPC_MAX_CONCURRENCY_ATTRIBUTE, chainName, index));
+
+        if (maxConcurrency == null) {
+            return DEFAULT_RPC_MAX_CONCURRENCY;
+        }
+
+        //The limit is off unless a maximum is set, and a value of zero or below sends requests without any limit
+        return Integer.valueOf(maxConcurrency);
+    }
+
 
     private String getProperty(Environment environment, String property) {
         return environment.getProperty(property);
@@ -0,0 +1,82 @@
+package io.oxiles.chain.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.web3j.crypto.Keys;
+import org.web3j.utils.Numeric;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, shared cache of EIP-55 checksum addresses.
+ *
+ * Checksumming an address requires a keccak hash, and the same few addresses are seen over and over
+ * again in transactions, logs and event parameters.  The cache is keyed on the lower case address, so
+ * each distinct address maps to a single checksummed String instance, regardless of the casing or
+ * prefix of the input.
+ */
+public final class ChecksumAddressCache {
+
+    public static final int MAX_CACHED_ADDRESSES = 100000;
+
+    private static final String HEX_PREFIX = "0x";
+
+    private static Cache<String, String> addresses =
+            CacheBuilder.newBuilder().maximumSize(MAX_CACHED_ADDRESSES).build();
+
+    private static AtomicLong hits = new AtomicLong(0);
+
+    private static AtomicLong misses = new AtomicLong(0);
+
+    private ChecksumAddressCache() {
+    }
+
+    /**
+     * Returns the checksummed form of the address, calculating and caching it if this is the first time
+     * the address has been seen.
+     *
+     * @param address the address, in any casing, with or without a 0x prefix
+     * @return the checksummed address, or null if the address is null
+     */
+    public static String toChecksumAddress(String address) {
+        if (address == null) {
+            return null;
+        }
+
+        final String key = toKey(address);
+        final String cached = addresses.getIfPresent(key);
+
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        misses.incrementAndGet();
+
+        return addresses.asMap().computeIfAbsent(key, Keys::toChecksumAddress);
+    }
+
+    public static AtomicLong getHits() {
+        return hits;
+    }
+
+    public static AtomicLong getMisses() {
+        return misses;
+    }
+
+    public static long size() {
+        return addresses.size();
+    }
+
+    static void clear() {
+        addresses.invalidateAll();
+        hits.set(0);
+        misses.set(0);
+    }
+
+    private static String toKey(String address) {
+        final String lowerCase = address.toLowerCase();
+
+        return Numeric.containsHexPrefix(lowerCase) ? lowerCase : HEX_PREFIX + lowerCase;
+    }
+}
@@ -0,0 +1,74 @@
+package io.oxiles.chain.util;
+
+import org.web3j.crypto.Hash;
+import org.web3j.utils.Numeric;
+
+import java.util.Optional;
+
+/**
+ * A 2048 bit logs bloom, as found in block headers and transaction receipts.
+ *
+ * Each address and topic of a log sets three bits in the bloom, taken from the low 11 bits of the
+ * first three byte pairs of its keccak256 hash.  A bloom can return false positives, but never
+ * false negatives, so a value that is not contained was definitely not logged.
+ */
+public class LogsBloom {
+
+    public static final int BLOOM_BYTES = 256;
+
+    private static final int BITS_PER_VALUE = 3;
+
+    private static final int BIT_INDEX_MASK = 2047;
+
+    private byte[] bloom;
+
+    private LogsBloom(byte[] bloom) {
+        this.bloom = bloom;
+    }
+
+    /**
+     * @param hex the hex encoded bloom
+     * @return the bloom, or empty if the value is missing or malformed, in which case nothing can
+     * be ruled out.
+     */
+    public static Optional<LogsBloom> fromHex(String hex) {
+        if (hex == null) {
+            return Optional.empty();
+        }
+
+        final byte[] bytes = Numeric.hexStringToByteArray(hex);
+
+        return bytes.length == BLOOM_BYTES ? Optional.of(new LogsBloom(bytes)) : Optional.empty();
+    }
+
+    /**
+     * Calculates the bit indices that an address or topic sets within a bloom.
+     *
+     * @param hexValue the hex encoded address or topic
+     * @return the three bit indices, counted from the least significant bit
+     */
+    public static int[] bitIndices(String hexValue) {
+        final byte[] hash = Hash.sha3(Numeric.hexStringToByteArray(hexValue));
+        final int[] indices = new int[BITS_PER_VALUE];
+
+        for (int i = 0; i < BITS_PER_VALUE; i++) {
+            indices[i] = (((hash[i * 2] & 0xFF) << 8) | (hash[i * 2 + 1] & 0xFF)) & BIT_INDEX_MASK;
+        }
+
+        return indices;
+    }
+
+    public boolean mightContain(String hexValue) {
+        return mightContain(bitIndices(hexValue));
+    }
+
+    public boolean mightContain(int[] bitIndices) {
+        for (int bitIndex : bitIndices) {
+            if ((bloom[BLOOM_BYTES - 1 - bitIndex / 8] & (1 << (bitIndex % 8))) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
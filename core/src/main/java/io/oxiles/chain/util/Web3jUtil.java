@@ -1,5 +1,7 @@
 package io.oxiles.chain.util;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.oxiles.service.exception.ValidationException;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -23,6 +25,11 @@ public class Web3jUtil {
 
     private static Map<ParameterType, TypeMapping> typeMappings = new HashMap<ParameterType, TypeMapping>();
 
+    private static final int MAX_CACHED_SIGNATURES = 10000;
+
+    private static Cache<ContractEventSpecification, String> signatures =
+            CacheBuilder.newBuilder().maximumSize(MAX_CACHED_SIGNATURES).build();
+
     private static final String ADDRESS = "ADDRESS";
     private static final String BOOL = "BOOL";
     private static final String STRING = "STRING";
@@ -73,8 +80,15 @@ public class Web3jUtil {
         return typeMappings.get(parameterType).getClazz();
     }
 
+    /**
+     * Returns the topic0 signature of an event, which is only calculated on the first call for each
+     * distinct specification.
+     */
     public static String getSignature(ContractEventSpecification spec) {
+        return signatures.asMap().computeIfAbsent(spec, Web3jUtil::calculateSignature);
+    }
 
+    private static String calculateSignature(ContractEventSpecification spec) {
         final List<ParameterDefinition> allParameterDefinitions = new ArrayList<>();
         addAllDefinitions(allParameterDefinitions, spec.getIndexedParameterDefinitions());
         addAllDefinitions(allParameterDefinitions, spec.getNonIndexedParameterDefinitions());
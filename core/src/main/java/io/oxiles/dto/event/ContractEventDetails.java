@@ -6,12 +6,16 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import io.oxiles.dto.event.parameter.EventParameter;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
 
 import java.math.BigInteger;
 import java.util.List;
+import java.util.function.Supplier;
 
 import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
@@ -26,7 +30,7 @@ import javax.persistence.Lob;
 @Document
 @Entity
 @Data
-@ToString
+@ToString(exclude = {"indexedParametersDecoder", "nonIndexedParametersDecoder"})
 @EqualsAndHashCode
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -46,6 +50,17 @@ public class ContractEventDetails {
 
     private List<EventParameter> nonIndexedParameters;
 
+    /**
+     * Set when the parameters are decoded lazily, and cleared once they have been decoded.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient Supplier<List<EventParameter>> indexedParametersDecoder;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient Supplier<List<EventParameter>> nonIndexedParametersDecoder;
+
     private String transactionHash;
 
     private BigInteger logIndex;
@@ -69,4 +84,54 @@ public class ContractEventDetails {
     public String getId() {
         return transactionHash + "-" + blockHash + "-" + logIndex;
     }
+
+    /**
+     * Defers decoding of the parameters until they are first accessed, or serialized.
+     *
+     * @param indexedDecoder decodes the indexed parameters
+     * @param nonIndexedDecoder decodes the non indexed parameters
+     */
+    public synchronized void setParameterDecoders(Supplier<List<EventParameter>> indexedDecoder,
+                                                  Supplier<List<EventParameter>> nonIndexedDecoder) {
+        this.indexedParametersDecoder = indexedDecoder;
+        this.nonIndexedParametersDecoder = nonIndexedDecoder;
+    }
+
+    /**
+     * Decodes any parameters that are still pending, which is required before the event is
+     * persisted, as the stores read the parameter fields directly.
+     */
+    public synchronized void decodeParameters() {
+        if (indexedParametersDecoder != null) {
+            indexedParameters = indexedParametersDecoder.get();
+            indexedParametersDecoder = null;
+        }
+
+        if (nonIndexedParametersDecoder != null) {
+            nonIndexedParameters = nonIndexedParametersDecoder.get();
+            nonIndexedParametersDecoder = null;
+        }
+    }
+
+    public List<EventParameter> getIndexedParameters() {
+        decodeParameters();
+
+        return indexedParameters;
+    }
+
+    public synchronized void setIndexedParameters(List<EventParameter> indexedParameters) {
+        this.indexedParametersDecoder = null;
+        this.indexedParameters = indexedParameters;
+    }
+
+    public List<EventParameter> getNonIndexedParameters() {
+        decodeParameters();
+
+        return nonIndexedParameters;
+    }
+
+    public synchronized void setNonIndexedParameters(List<EventParameter> nonIndexedParameters) {
+        this.nonIndexedParametersDecoder = null;
+        this.nonIndexedParameters = nonIndexedParameters;
+    }
 }
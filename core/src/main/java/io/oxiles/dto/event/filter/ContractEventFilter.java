@@ -22,7 +22,7 @@ import org.springframework.data.mongodb.core.mapping.Document;
 @Document
 @Entity
 @Data
-@EqualsAndHashCode
+@EqualsAndHashCode(exclude = "backfillCheckpoint")
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class ContractEventFilter {
 
@@ -40,4 +40,6 @@ public class ContractEventFilter {
     private CorrelationIdStrategy correlationIdStrategy;
 
     private BigInteger startBlock;
+
+    private BigInteger backfillCheckpoint;
 }
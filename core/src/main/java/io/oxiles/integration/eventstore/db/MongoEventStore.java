@@ -100,6 +100,8 @@ public class MongoEventStore implements SaveableEventStore {
 
     @Override
     public void save(ContractEventDetails contractEventDetails) {
+        //The repository maps fields directly, so lazily decoded parameters must be decoded first
+        contractEventDetails.decodeParameters();
         eventDetailsRepository.save(contractEventDetails);
     }
 
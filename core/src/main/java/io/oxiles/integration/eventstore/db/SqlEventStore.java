@@ -65,6 +65,8 @@ public class SqlEventStore implements SaveableEventStore {
 
     @Override
     public void save(ContractEventDetails contractEventDetails) {
+        //The repository maps fields directly, so lazily decoded parameters must be decoded first
+        contractEventDetails.decodeParameters();
         eventDetailsRepository.save(contractEventDetails);
     }
 
@@ -0,0 +1,20 @@
+package io.oxiles.monitoring;
+
+import io.oxiles.chain.util.ChecksumAddressCache;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the hit and miss counts of the shared {@link ChecksumAddressCache}.
+ *
+ * The cache is shared between nodes, so its gauges are registered against the "global" node name.
+ */
+@Component
+public class ChecksumAddressCacheMonitor {
+
+    public static final String GLOBAL_NODE_NAME = "global";
+
+    public ChecksumAddressCacheMonitor(EventeumValueMonitor valueMonitor) {
+        valueMonitor.monitor("checksumAddressCacheHits", GLOBAL_NODE_NAME, ChecksumAddressCache.getHits());
+        valueMonitor.monitor("checksumAddressCacheMisses", GLOBAL_NODE_NAME, ChecksumAddressCache.getMisses());
+    }
+}
@@ -12,5 +12,15 @@ public interface AsyncTaskService {
 
     void execute(String executorName, Runnable task);
 
+    /**
+     * Executes a task that must run in order with the other tasks submitted with the same key and
+     * node, but that may run concurrently with tasks of other keys.
+     *
+     * Implementations without key ordering support execute the task in submission order.
+     */
+    default void execute(String executorName, String nodeName, Object key, Runnable task) {
+        execute(executorName, task);
+    }
+
     <T> Future<T> submit(String executorName, Callable<T> task);
 }
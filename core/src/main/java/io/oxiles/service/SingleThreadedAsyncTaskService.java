@@ -1,11 +1,10 @@
 package io.oxiles.service;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
-import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -15,10 +14,9 @@ import java.util.concurrent.Future;
  *
  * @author Craig Williams <craig.williams@consensys.net>
  */
-@Component
 public class SingleThreadedAsyncTaskService implements AsyncTaskService {
 
-    private Map<String, ExecutorService> executorServices = new HashMap<>();
+    private Map<String, ExecutorService> executorServices = new ConcurrentHashMap<>();
 
     @Override
     public void execute(String executorName, Runnable task) {
@@ -31,11 +29,8 @@ public class SingleThreadedAsyncTaskService implements AsyncTaskService {
     }
 
     private ExecutorService getOrCreateExecutor(String executorName) {
-        if (!executorServices.containsKey(executorName)) {
-            executorServices.put(executorName, buildExecutor(executorName));
-        }
-
-        return executorServices.get(executorName);
+        //Tasks are executed from many threads, so the executor must only be built once per name
+        return executorServices.computeIfAbsent(executorName, this::buildExecutor);
     }
 
     protected ExecutorService buildExecutor(String executorName) {
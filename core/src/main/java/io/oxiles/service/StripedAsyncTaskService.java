@@ -0,0 +1,109 @@
+package io.oxiles.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.oxiles.monitoring.EventeumValueMonitor;
+import io.oxiles.utils.ExecutorNameFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An async task service that spreads keyed tasks over a number of single threaded lanes per
+ * executor name and node.
+ *
+ * A key is always hashed onto the same lane, so tasks of a key run in submission order, while tasks
+ * of keys on different lanes run in parallel.  Tasks submitted without a key run on the single
+ * threaded executor of the name, as in the SingleThreadedAsyncTaskService.
+ *
+ * Only the order in which tasks start is kept.  A task that parks its work and submits it again
+ * later goes to the back of its lane, so the tasks submitted after it run first.  The
+ * ReceiptRetryScheduler does this with a log whose receipt is not available yet, so a contract event
+ * can be broadcast after later events of the same contract.  The lane is not held up while the
+ * receipt is retried, at the cost of strict event order within a contract.
+ *
+ * The queue depth of each lane is exported as a gauge of the node, named after the executor and the
+ * lane index, such as eventLane0QueueDepth.
+ */
+@Component
+public class StripedAsyncTaskService extends SingleThreadedAsyncTaskService {
+
+    private static final String LANE_QUEUE_DEPTH_GAUGE = "%sLane%dQueueDepth";
+
+    private int laneCount;
+
+    private EventeumValueMonitor valueMonitor;
+
+    private Map<String, Lane[]> lanes = new ConcurrentHashMap<>();
+
+    public StripedAsyncTaskService(@Value("${ethereum.eventLanes:1}") int laneCount,
+                                   EventeumValueMonitor valueMonitor) {
+        this.laneCount = Math.max(1, laneCount);
+        this.valueMonitor = valueMonitor;
+    }
+
+    @Override
+    public void execute(String executorName, String nodeName, Object key, Runnable task) {
+        if (key == null) {
+            execute(executorName, task);
+            return;
+        }
+
+        final Lane lane = lanes.computeIfAbsent(ExecutorNameFactory.build(executorName, nodeName),
+                name -> buildLanes(executorName, nodeName))[Math.floorMod(key.hashCode(), laneCount)];
+
+        lane.queueDepth.incrementAndGet();
+        lane.executor.execute(() -> {
+            lane.queueDepth.decrementAndGet();
+            task.run();
+        });
+    }
+
+    public int getQueueDepth(String executorName, String nodeName, int laneIndex) {
+        final Lane[] executorLanes = lanes.get(ExecutorNameFactory.build(executorName, nodeName));
+
+        return executorLanes == null ? 0 : executorLanes[laneIndex].queueDepth.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lanes.values().forEach(executorLanes -> {
+            for (Lane lane : executorLanes) {
+                lane.executor.shutdownNow();
+            }
+        });
+    }
+
+    private Lane[] buildLanes(String executorName, String nodeName) {
+        final Lane[] executorLanes = new Lane[laneCount];
+
+        for (int i = 0; i < laneCount; i++) {
+            final String laneName = ExecutorNameFactory.build(executorName, nodeName) + "-LANE-" + i;
+            final String gaugeName = String.format(LANE_QUEUE_DEPTH_GAUGE, executorName.toLowerCase(), i);
+
+            executorLanes[i] = new Lane(
+                    Executors.newSingleThreadExecutor(
+                            new ThreadFactoryBuilder().setNameFormat(laneName + "-%d").build()),
+                    valueMonitor.monitor(gaugeName, nodeName, new AtomicInteger(0)));
+        }
+
+        return executorLanes;
+    }
+
+    private static class Lane {
+
+        private ExecutorService executor;
+
+        private AtomicInteger queueDepth;
+
+        private Lane(ExecutorService executor, AtomicInteger queueDepth) {
+            this.executor = executor;
+            this.queueDepth = queueDepth;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.oxiles.settings;
 
 import lombok.Data;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -10,7 +11,16 @@ public class EventeumSettings {
 
     private boolean bytesToAscii;
 
-    public EventeumSettings(@Value("${broadcaster.bytesToAscii:false}") boolean bytesToAscii) {
+    private boolean lazyParameterDecoding;
+
+    public EventeumSettings(boolean bytesToAscii) {
+        this(bytesToAscii, false);
+    }
+
+    @Autowired
+    public EventeumSettings(@Value("${broadcaster.bytesToAscii:false}") boolean bytesToAscii,
+                            @Value("${broadcaster.lazyParameterDecoding:false}") boolean lazyParameterDecoding) {
         this.bytesToAscii = bytesToAscii;
+        this.lazyParameterDecoding = lazyParameterDecoding;
     }
 }
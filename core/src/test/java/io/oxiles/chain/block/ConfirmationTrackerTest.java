@@ -0,0 +1,276 @@
+package io.oxiles.chain.block;
+
+import io.oxiles.chain.block.reorg.ChainReorganisation;
+import io.oxiles.chain.service.BlockchainException;
+import io.oxiles.chain.service.BlockchainService;
+import io.oxiles.chain.service.domain.Block;
+import io.oxiles.chain.service.domain.Log;
+import io.oxiles.chain.service.domain.TransactionReceipt;
+import io.oxiles.chain.settings.Node;
+import io.oxiles.dto.event.ContractEventDetails;
+import io.oxiles.dto.event.ContractEventStatus;
+import io.oxiles.integration.broadcast.blockchain.BlockchainEventBroadcaster;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class ConfirmationTrackerTest {
+
+    private static final BigInteger BLOCKS_TO_WAIT = BigInteger.valueOf(10);
+    private static final BigInteger BLOCKS_TO_WAIT_MISSING = BigInteger.valueOf(100);
+    private static final BigInteger BLOCKS_TO_WAIT_BEFORE_INVALIDATING = BigInteger.valueOf(1);
+    private static final String EVENT_BLOCK_HASH =
+            "0x368ce0ee3afdf1bd73d7e6912f899f31b14b9656e1a3164400ba4587df192c1d";
+    private static final BigInteger EVENT_BLOCK_NUMBER = BigInteger.valueOf(1000);
+    private static final String EVENT_TX_HASH =
+            "0x1fdb6a20587d7114ee471f3ec9d2517b267fc951eafc91ccdede7c50962a755b";
+    private static final BigInteger EVENT_LOG_INDEX = BigInteger.valueOf(1);
+
+    private ConfirmationTracker underTest;
+
+    private ContractEventDetails mockEventDetails;
+    private BlockchainService mockBlockchainService;
+    private BlockchainEventBroadcaster mockEventBroadcaster;
+    private TransactionReceipt mockTransactionReceipt;
+    private Log mockLog;
+    private Map<String, TransactionReceipt> receipts;
+
+    @Before
+    public void init() {
+        mockBlockchainService = mock(BlockchainService.class);
+        mockEventBroadcaster = mock(BlockchainEventBroadcaster.class);
+        mockTransactionReceipt = mock(TransactionReceipt.class);
+        mockLog = mock(Log.class);
+
+        final Log anotherMockLog = mock(Log.class);
+        when(anotherMockLog.getLogIndex()).thenReturn(EVENT_LOG_INDEX.add(BigInteger.ONE));
+
+        when(mockTransactionReceipt.getLogs()).thenReturn(Arrays.asList(anotherMockLog, mockLog));
+
+        mockEventDetails = createEventDetails(EVENT_TX_HASH);
+
+        receipts = new HashMap<>();
+        receipts.put(EVENT_TX_HASH, mockTransactionReceipt);
+        when(mockBlockchainService.getTransactionReceipts(any(Collection.class))).thenReturn(receipts);
+
+        underTest = new ConfirmationTracker(mockBlockchainService, mockEventBroadcaster, createNode());
+        underTest.track(mockEventDetails, EVENT_BLOCK_NUMBER);
+    }
+
+    @Test
+    public void testEventIsNotCheckedBeforeTarget() {
+        wireLog();
+        underTest.onBlock(createBlockDetails(1002));
+
+        verify(mockBlockchainService, never()).getTransactionReceipts(any(Collection.class));
+        expectNoBroadcast();
+    }
+
+    @Test
+    public void testOnBlockWhenOverBlockThreshold() {
+        wireLog();
+        underTest.onBlock(createBlockDetails(1011));
+
+        expectBroadcastWithStatus(ContractEventStatus.CONFIRMED);
+        assertEquals(0, underTest.getPendingCount());
+    }
+
+    @Test
+    public void testOnBlockAtTargetLogRemoved() {
+        wireLog(true, EVENT_BLOCK_HASH, EVENT_LOG_INDEX);
+        underTest.onBlock(createBlockDetails(1010));
+        underTest.onBlock(createBlockDetails(1011));
+        expectNoBroadcast();
+
+        underTest.onBlock(createBlockDetails(1012));
+
+        expectBroadcastWithStatus(ContractEventStatus.INVALIDATED);
+    }
+
+    @Test
+    public void testOnBlockAtTargetBlockHashChanged() {
+        wireLog(false, EVENT_BLOCK_HASH + "changed", EVENT_LOG_INDEX);
+        underTest.onBlock(createBlockDetails(1010));
+        underTest.onBlock(createBlockDetails(1011));
+        underTest.onBlock(createBlockDetails(1012));
+
+        expectBroadcastWithStatus(ContractEventStatus.INVALIDATED);
+    }
+
+    @Test
+    public void testOnBlockAtTargetNoMatchingLog() {
+        wireLog(false, EVENT_BLOCK_HASH, EVENT_LOG_INDEX.add(BigInteger.ONE));
+        underTest.onBlock(createBlockDetails(1010));
+        underTest.onBlock(createBlockDetails(1011));
+        underTest.onBlock(createBlockDetails(1012));
+
+        expectBroadcastWithStatus(ContractEventStatus.INVALIDATED);
+    }
+
+    @Test
+    public void testTransactionDoesntExistUnderThreshold() {
+        receipts.clear();
+
+        underTest.onBlock(createBlockDetails(1010));
+        underTest.onBlock(createBlockDetails(1103));
+
+        expectNoBroadcast();
+    }
+
+    @Test
+    public void testTransactionDoesntExistOverThreshold() {
+        receipts.clear();
+
+        underTest.onBlock(createBlockDetails(1010));
+        underTest.onBlock(createBlockDetails(1111));
+
+        expectBroadcastWithStatus(ContractEventStatus.INVALIDATED);
+    }
+
+    @Test
+    public void testOrphanedEventIsCheckedBeforeTarget() {
+        wireLog(false, EVENT_BLOCK_HASH + "changed", EVENT_LOG_INDEX);
+
+        underTest.onReorg(createReorg(EVENT_BLOCK_NUMBER.subtract(BigInteger.ONE), EVENT_BLOCK_HASH, 1005));
+        underTest.onBlock(createBlockDetails(1005));
+        underTest.onBlock(createBlockDetails(1006));
+        expectNoBroadcast();
+
+        underTest.onBlock(createBlockDetails(1007));
+
+        expectBroadcastWithStatus(ContractEventStatus.INVALIDATED);
+    }
+
+    @Test
+    public void testEventBelowReorgIsNotChecked() {
+        wireLog();
+
+        underTest.onReorg(createReorg(EVENT_BLOCK_NUMBER.add(BigInteger.ONE), "0xother", 1005));
+        underTest.onBlock(createBlockDetails(1005));
+
+        verify(mockBlockchainService, never()).getTransactionReceipts(any(Collection.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDueEventsShareReceiptLookup() {
+        wireLog();
+
+        final ContractEventDetails secondEvent = createEventDetails("0x02");
+        final ContractEventDetails thirdEvent = createEventDetails("0x03");
+        receipts.put("0x02", mockTransactionReceipt);
+        receipts.put("0x03", mockTransactionReceipt);
+
+        underTest.track(secondEvent, EVENT_BLOCK_NUMBER);
+        underTest.track(thirdEvent, EVENT_BLOCK_NUMBER.add(BigInteger.ONE));
+        underTest.onBlock(createBlockDetails(1011));
+
+        final ArgumentCaptor<Collection> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(mockBlockchainService, times(1)).getTransactionReceipts(captor.capture());
+        assertEquals(new HashSet<>(Arrays.asList(EVENT_TX_HASH, "0x02", "0x03")), new HashSet<>(captor.getValue()));
+
+        verify(mockEventBroadcaster, times(3)).broadcastContractEvent(any(ContractEventDetails.class));
+    }
+
+    @Test
+    public void testBroadcastEventMatchesTrackedEvent() {
+        wireLog();
+        mockEventDetails.setAddress("0xcontract");
+        mockEventDetails.setBlockTimestamp(BigInteger.valueOf(1600000000));
+        underTest = new ConfirmationTracker(mockBlockchainService, mockEventBroadcaster, createNode());
+        underTest.track(mockEventDetails, EVENT_BLOCK_NUMBER);
+
+        underTest.onBlock(createBlockDetails(1011));
+
+        final ArgumentCaptor<ContractEventDetails> captor = ArgumentCaptor.forClass(ContractEventDetails.class);
+        verify(mockEventBroadcaster).broadcastContractEvent(captor.capture());
+
+        mockEventDetails.setStatus(ContractEventStatus.CONFIRMED);
+        assertEquals(mockEventDetails, captor.getValue());
+    }
+
+    @Test
+    public void testFailedLookupIsRetriedOnNextBlock() {
+        wireLog();
+        when(mockBlockchainService.getTransactionReceipts(any(Collection.class)))
+                .thenThrow(new BlockchainException("Error!"))
+                .thenReturn(receipts);
+
+        underTest.onBlock(createBlockDetails(1010));
+        expectNoBroadcast();
+
+        underTest.onBlock(createBlockDetails(1011));
+
+        expectBroadcastWithStatus(ContractEventStatus.CONFIRMED);
+    }
+
+    private ContractEventDetails createEventDetails(String txHash) {
+        final ContractEventDetails eventDetails = new ContractEventDetails();
+
+        eventDetails.setName("DummyEvent");
+        eventDetails.setNodeName("default");
+        eventDetails.setBlockNumber(EVENT_BLOCK_NUMBER);
+        eventDetails.setTransactionHash(txHash);
+        eventDetails.setLogIndex(EVENT_LOG_INDEX);
+        eventDetails.setBlockHash(EVENT_BLOCK_HASH);
+        eventDetails.setIndexedParameters(Collections.emptyList());
+        eventDetails.setNonIndexedParameters(Collections.emptyList());
+
+        return eventDetails;
+    }
+
+    private Node createNode() {
+        final Node node = new Node();
+        node.setBlocksToWaitForConfirmation(BLOCKS_TO_WAIT);
+        node.setBlocksToWaitForMissingTx(BLOCKS_TO_WAIT_MISSING);
+        node.setBlocksToWaitBeforeInvalidating(BLOCKS_TO_WAIT_BEFORE_INVALIDATING);
+
+        return node;
+    }
+
+    private ChainReorganisation createReorg(BigInteger commonAncestor, String orphanedHash, int newHeadNumber) {
+        return new ChainReorganisation("default", commonAncestor,
+                Collections.singletonList(orphanedHash), createBlockDetails(newHeadNumber));
+    }
+
+    private Block createBlockDetails(int blockNumber) {
+        final Block block = mock(Block.class);
+        when(block.getNumber()).thenReturn(BigInteger.valueOf(blockNumber));
+
+        return block;
+    }
+
+    private void wireLog() {
+        wireLog(false, EVENT_BLOCK_HASH, EVENT_LOG_INDEX);
+    }
+
+    private void wireLog(boolean isRemoved, String blockHash, BigInteger logIndex) {
+        when(mockLog.isRemoved()).thenReturn(isRemoved);
+        when(mockLog.getBlockHash()).thenReturn(blockHash);
+        when(mockLog.getLogIndex()).thenReturn(logIndex);
+    }
+
+    private void expectNoBroadcast() {
+        verify(mockEventBroadcaster, never()).broadcastContractEvent(any(ContractEventDetails.class));
+    }
+
+    private void expectBroadcastWithStatus(ContractEventStatus status) {
+        final ArgumentCaptor<ContractEventDetails> captor = ArgumentCaptor.forClass(ContractEventDetails.class);
+        verify(mockEventBroadcaster, times(1)).broadcastContractEvent(captor.capture());
+
+        assertEquals(status, captor.getValue().getStatus());
+        assertEquals(mockEventDetails.getId(), captor.getValue().getId());
+    }
+}
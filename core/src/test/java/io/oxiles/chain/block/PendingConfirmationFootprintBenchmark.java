@@ -0,0 +1,67 @@
+package io.oxiles.chain.block;
+
+import io.oxiles.dto.event.ContractEventDetails;
+import org.openjdk.jol.info.GraphLayout;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measures the retained heap size of 10000 contract events that are waiting for confirmation, held as
+ * ContractEventDetails and as CompactContractEvents.  The decoded parameters are shared by both
+ * forms, so they are left empty here.
+ *
+ * Run with the main method from the test classpath, as it is not picked up by surefire.
+ */
+public class PendingConfirmationFootprintBenchmark {
+
+    private static final int EVENTS = 10000;
+
+    public static void main(String[] args) {
+        final List<ContractEventDetails> events = new ArrayList<>();
+
+        for (int i = 0; i < EVENTS; i++) {
+            events.add(createEvent(i));
+        }
+
+        final List<CompactContractEvent> compactEvents = new ArrayList<>();
+        events.forEach(event -> compactEvents.add(new CompactContractEvent(event)));
+
+        final long previousSize = GraphLayout.parseInstance(events).totalSize();
+        final long compactSize = GraphLayout.parseInstance(compactEvents).totalSize();
+
+        System.out.println(String.format("Pending events as ContractEventDetails: %d bytes", previousSize));
+        System.out.println(String.format("Pending events as CompactContractEvent: %d bytes", compactSize));
+        System.out.println(String.format("Reduction: %.1f%%", 100.0 * (previousSize - compactSize) / previousSize));
+    }
+
+    private static ContractEventDetails createEvent(int index) {
+        final ContractEventDetails event = new ContractEventDetails();
+
+        event.setName("Transfer");
+        event.setFilterId("transfer-filter");
+        event.setNodeName("default");
+        event.setIndexedParameters(Collections.emptyList());
+        event.setNonIndexedParameters(Collections.emptyList());
+        event.setTransactionHash(hash(index, 1));
+        event.setLogIndex(BigInteger.valueOf(index % 200));
+        event.setBlockNumber(BigInteger.valueOf(12000000 + index / 100));
+        event.setBlockHash(hash(index / 100, 2));
+        event.setAddress("0x6B175474E89094C44Da98b954EedeAC495271d0F");
+        event.setFrom("0x3f5CE5FBFe3E9af3971dD833D26bA9b5C936f0bE");
+        event.setEventSpecificationSignature(hash(0, 3));
+        event.setNetworkName("mainnet");
+        event.setBlockTimestamp(BigInteger.valueOf(1600000000 + index / 100 * 13));
+
+        return event;
+    }
+
+    private static String hash(int index, int salt) {
+        //A distinct String per event, as it would be when read from a response
+        return Numeric.toHexStringWithPrefixZeroPadded(
+                BigInteger.valueOf(index).shiftLeft(8).or(BigInteger.valueOf(salt)), 64);
+    }
+}
@@ -0,0 +1,162 @@
+package io.oxiles.chain.block.reorg;
+
+import io.oxiles.chain.service.domain.Block;
+import io.oxiles.monitoring.EventeumValueMonitor;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class CanonicalChainTrackerTest {
+
+    private static final String NODE_NAME = "mainnet";
+
+    private CanonicalChainTracker underTest;
+
+    private ReorgListener mockReorgListener;
+
+    private Map<String, Block> loadableBlocks;
+
+    @Before
+    public void init() {
+        final EventeumValueMonitor mockValueMonitor = mock(EventeumValueMonitor.class);
+        when(mockValueMonitor.monitor(anyString(), anyString(), any(AtomicLong.class)))
+                .thenAnswer(invocation -> invocation.getArguments()[2]);
+
+        loadableBlocks = new HashMap<>();
+        mockReorgListener = mock(ReorgListener.class);
+
+        underTest = new CanonicalChainTracker(NODE_NAME, BigInteger.valueOf(12), mockValueMonitor);
+        underTest.setHeaderLoader(hash -> Optional.ofNullable(loadableBlocks.get(hash)));
+        underTest.addReorgListener(mockReorgListener);
+    }
+
+    @Test
+    public void testLinkedBlocksDoNotTriggerReorg() {
+        underTest.onBlock(createBlock(1, "0xa1", "0xa0"));
+        underTest.onBlock(createBlock(2, "0xa2", "0xa1"));
+        underTest.onBlock(createBlock(3, "0xa3", "0xa2"));
+
+        verify(mockReorgListener, never()).onReorg(any());
+        assertEquals(Optional.of("0xa3"), underTest.getCanonicalHash(BigInteger.valueOf(3)));
+    }
+
+    @Test
+    public void testDuplicateBlockIsIgnored() {
+        underTest.onBlock(createBlock(1, "0xa1", "0xa0"));
+        underTest.onBlock(createBlock(2, "0xa2", "0xa1"));
+        underTest.onBlock(createBlock(2, "0xa2", "0xa1"));
+
+        verify(mockReorgListener, never()).onReorg(any());
+    }
+
+    @Test
+    public void testReplacedHeadIsOrphaned() {
+        underTest.onBlock(createBlock(1, "0xa1", "0xa0"));
+        underTest.onBlock(createBlock(2, "0xa2", "0xa1"));
+
+        final Block replacement = createBlock(2, "0xb2", "0xa1");
+        underTest.onBlock(replacement);
+
+        final ChainReorganisation reorg = captureReorg();
+        assertEquals(NODE_NAME, reorg.getNodeName());
+        assertEquals(BigInteger.ONE, reorg.getCommonAncestorNumber());
+        assertEquals(Arrays.asList("0xa2"), reorg.getOrphanedBlockHashes());
+        assertEquals(replacement, reorg.getNewHead());
+        assertEquals(Optional.of("0xb2"), underTest.getCanonicalHash(BigInteger.valueOf(2)));
+    }
+
+    @Test
+    public void testForkIsLocatedByLoadingParents() {
+        underTest.onBlock(createBlock(1, "0xa1", "0xa0"));
+        underTest.onBlock(createBlock(2, "0xa2", "0xa1"));
+        underTest.onBlock(createBlock(3, "0xa3", "0xa2"));
+
+        loadableBlocks.put("0xb2", createBlock(2, "0xb2", "0xa1"));
+        loadableBlocks.put("0xb3", createBlock(3, "0xb3", "0xb2"));
+
+        underTest.onBlock(createBlock(4, "0xb4", "0xb3"));
+
+        final ChainReorganisation reorg = captureReorg();
+        assertEquals(BigInteger.ONE, reorg.getCommonAncestorNumber());
+        assertEquals(Arrays.asList("0xa2", "0xa3"), reorg.getOrphanedBlockHashes());
+        assertEquals(2, reorg.getDepth());
+
+        assertEquals(Optional.of("0xa1"), underTest.getCanonicalHash(BigInteger.valueOf(1)));
+        assertEquals(Optional.of("0xb2"), underTest.getCanonicalHash(BigInteger.valueOf(2)));
+        assertEquals(Optional.of("0xb3"), underTest.getCanonicalHash(BigInteger.valueOf(3)));
+        assertEquals(Optional.of("0xb4"), underTest.getCanonicalHash(BigInteger.valueOf(4)));
+    }
+
+    @Test
+    public void testUnlocatableForkOrphansAllTrackedBlocks() {
+        underTest.onBlock(createBlock(1, "0xa1", "0xa0"));
+        underTest.onBlock(createBlock(2, "0xa2", "0xa1"));
+
+        underTest.onBlock(createBlock(3, "0xb3", "0xb2"));
+
+        final ChainReorganisation reorg = captureReorg();
+        assertNull(reorg.getCommonAncestorNumber());
+        assertEquals(Arrays.asList("0xa1", "0xa2"), reorg.getOrphanedBlockHashes());
+    }
+
+    @Test
+    public void testGapRestartsTracking() {
+        underTest.onBlock(createBlock(1, "0xa1", "0xa0"));
+        underTest.onBlock(createBlock(5, "0xa5", "0xa4"));
+
+        verify(mockReorgListener, never()).onReorg(any());
+        assertFalse(underTest.getCanonicalHash(BigInteger.ONE).isPresent());
+    }
+
+    @Test
+    public void testOnlyRecentBlocksAreTracked() {
+        for (int i = 1; i <= CanonicalChainTracker.MIN_TRACKED_BLOCKS + 10; i++) {
+            underTest.onBlock(createBlock(i, "0xa" + i, "0xa" + (i - 1)));
+        }
+
+        assertFalse(underTest.getCanonicalHash(BigInteger.TEN).isPresent());
+        assertEquals(Optional.of("0xa11"), underTest.getCanonicalHash(BigInteger.valueOf(11)));
+    }
+
+    @Test
+    public void testFailingReorgListenerDoesNotAffectOthers() {
+        final ReorgListener otherListener = mock(ReorgListener.class);
+        underTest.addReorgListener(otherListener);
+        doThrow(new RuntimeException("Boom")).when(mockReorgListener).onReorg(any());
+
+        underTest.onBlock(createBlock(1, "0xa1", "0xa0"));
+        underTest.onBlock(createBlock(1, "0xb1", "0xa0"));
+
+        verify(otherListener).onReorg(any());
+    }
+
+    private ChainReorganisation captureReorg() {
+        final ArgumentCaptor<ChainReorganisation> captor = ArgumentCaptor.forClass(ChainReorganisation.class);
+        verify(mockReorgListener).onReorg(captor.capture());
+
+        return captor.getValue();
+    }
+
+    private Block createBlock(long number, String hash, String parentHash) {
+        final Block block = mock(Block.class);
+        when(block.getNumber()).thenReturn(BigInteger.valueOf(number));
+        when(block.getHash()).thenReturn(hash);
+        when(block.getParentHash()).thenReturn(parentHash);
+
+        return block;
+    }
+}
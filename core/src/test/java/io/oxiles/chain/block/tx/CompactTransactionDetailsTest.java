@@ -0,0 +1,48 @@
+package io.oxiles.chain.block.tx;
+
+import io.oxiles.dto.transaction.TransactionDetails;
+import io.oxiles.dto.transaction.TransactionStatus;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompactTransactionDetailsTest {
+
+    private static final String TX_HASH = "0x1fdb6a20587d7114ee471f3ec9d2517b267fc951eafc91ccdede7c50962a755b";
+
+    private static final String BLOCK_HASH = "0x368ce0ee3afdf1bd73d7e6912f899f31b14b9656e1a3164400ba4587df192c1d";
+
+    @Test
+    public void testDetailsAreRebuiltWithNewStatus() {
+        final TransactionDetails details = new TransactionDetails(TX_HASH, "0x1a", BLOCK_HASH, "0xb71b00",
+                "1600000000", "0x5", "0xfrom", "0xto", "0x1bc16d674ec80000", "default", null, "0x", null,
+                TransactionStatus.UNCONFIRMED);
+
+        final TransactionDetails rebuilt =
+                new CompactTransactionDetails(details).toTransactionDetails(TransactionStatus.CONFIRMED);
+
+        details.setStatus(TransactionStatus.CONFIRMED);
+        assertEquals(details, rebuilt);
+    }
+
+    @Test
+    public void testAbsentFieldsStayAbsent() {
+        final TransactionDetails details = new TransactionDetails();
+        details.setHash(TX_HASH);
+
+        assertEquals(details, new CompactTransactionDetails(details).toTransactionDetails(null));
+    }
+
+    @Test
+    public void testBlockHashIsMatchedIgnoringCase() {
+        final TransactionDetails details = new TransactionDetails();
+        details.setBlockHash(BLOCK_HASH);
+
+        final CompactTransactionDetails underTest = new CompactTransactionDetails(details);
+
+        assertTrue(underTest.isInBlock(BLOCK_HASH.toUpperCase().replace("0X", "0x")));
+        assertFalse(underTest.isInBlock(TX_HASH));
+    }
+}
@@ -0,0 +1,136 @@
+package io.oxiles.chain.block.tx;
+
+import io.oxiles.chain.block.tx.criteria.TxHashMatchingCriteria;
+import io.oxiles.chain.factory.TransactionDetailsFactory;
+import io.oxiles.chain.service.BlockCache;
+import io.oxiles.chain.service.BlockchainService;
+import io.oxiles.chain.service.container.ChainServicesContainer;
+import io.oxiles.chain.service.container.NodeServices;
+import io.oxiles.chain.service.domain.Block;
+import io.oxiles.chain.service.domain.Transaction;
+import io.oxiles.chain.service.domain.TransactionReceipt;
+import io.oxiles.chain.service.domain.wrapper.Web3jBlock;
+import io.oxiles.chain.settings.Node;
+import io.oxiles.chain.settings.NodeSettings;
+import io.oxiles.dto.transaction.TransactionDetails;
+import io.oxiles.dto.transaction.TransactionStatus;
+import io.oxiles.integration.broadcast.blockchain.BlockchainEventBroadcaster;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class DefaultTransactionMonitoringBlockListenerTest {
+
+    private static final String NODE_NAME = "default";
+
+    private static final String TX_HASH = "0x1fdb6a20587d7114ee471f3ec9d2517b267fc951eafc91ccdede7c50962a755b";
+
+    private static final String BLOCK_HASH = "0x368ce0ee3afdf1bd73d7e6912f899f31b14b9656e1a3164400ba4587df192c1d";
+
+    private BlockchainService mockBlockchainService;
+
+    private BlockchainEventBroadcaster mockBroadcaster;
+
+    private TransactionDetailsFactory mockTransactionDetailsFactory;
+
+    private DefaultTransactionMonitoringBlockListener underTest;
+
+    @Before
+    public void init() {
+        mockBlockchainService = mock(BlockchainService.class);
+        mockBroadcaster = mock(BlockchainEventBroadcaster.class);
+        mockTransactionDetailsFactory = mock(TransactionDetailsFactory.class);
+
+        final NodeServices mockNodeServices = mock(NodeServices.class);
+        when(mockNodeServices.getBlockchainService()).thenReturn(mockBlockchainService);
+
+        final ChainServicesContainer mockContainer = mock(ChainServicesContainer.class);
+        when(mockContainer.getNodeNames()).thenReturn(Collections.singletonList(NODE_NAME));
+        when(mockContainer.getNodeServices(NODE_NAME)).thenReturn(mockNodeServices);
+
+        final Node node = new Node();
+        node.setBlocksToWaitForConfirmation(BigInteger.ZERO);
+
+        final NodeSettings mockNodeSettings = mock(NodeSettings.class);
+        when(mockNodeSettings.getNode(NODE_NAME)).thenReturn(node);
+
+        final BlockCache mockBlockCache = mock(BlockCache.class);
+        when(mockBlockCache.getCachedBlocks()).thenReturn(Collections.emptySet());
+
+        final TransactionReceipt mockReceipt = mock(TransactionReceipt.class);
+        when(mockReceipt.getStatus()).thenReturn("0x1");
+        when(mockBlockchainService.getTransactionReceipt(TX_HASH)).thenReturn(mockReceipt);
+
+        final TransactionDetails txDetails = new TransactionDetails();
+        txDetails.setHash(TX_HASH);
+        txDetails.setNodeName(NODE_NAME);
+        txDetails.setStatus(TransactionStatus.CONFIRMED);
+        when(mockTransactionDetailsFactory.createTransactionDetails(
+                any(Block.class), any(Transaction.class), any(TransactionStatus.class))).thenReturn(txDetails);
+
+        underTest = new DefaultTransactionMonitoringBlockListener(mockContainer, mockBroadcaster,
+                mockTransactionDetailsFactory, mockBlockCache, mockNodeSettings);
+    }
+
+    @Test
+    public void testHeadersOnlyBlockIsRetrievedWithTransactionsOnceMonitoring() {
+        final Web3jBlock headersOnly = mockWeb3jBlock(true);
+        final Block fullBlock = mockBlockWithTransaction();
+        when(mockBlockchainService.getBlock(BLOCK_HASH, true)).thenReturn(Optional.of(fullBlock));
+
+        underTest.addMatchingCriteria(createCriteria());
+        underTest.onBlock(headersOnly);
+
+        verify(mockBlockchainService).getBlock(BLOCK_HASH, true);
+        verify(mockBroadcaster).broadcastTransaction(any(TransactionDetails.class));
+    }
+
+    @Test
+    public void testEmptyBlockIsNotRetrievedAgain() {
+        underTest.addMatchingCriteria(createCriteria());
+        underTest.onBlock(mockWeb3jBlock(false));
+
+        verify(mockBlockchainService, never()).getBlock(anyString(), anyBoolean());
+    }
+
+    @Test
+    public void testHeadersOnlyBlockIsNotRetrievedWithoutCriteria() {
+        underTest.onBlock(mockWeb3jBlock(true));
+
+        verify(mockBlockchainService, never()).getBlock(anyString(), anyBoolean());
+    }
+
+    private TxHashMatchingCriteria createCriteria() {
+        return new TxHashMatchingCriteria(NODE_NAME, TX_HASH, Collections.singletonList(TransactionStatus.CONFIRMED));
+    }
+
+    private Web3jBlock mockWeb3jBlock(boolean transactionHashesOnly) {
+        final Web3jBlock block = mock(Web3jBlock.class);
+        when(block.getHash()).thenReturn(BLOCK_HASH);
+        when(block.getNodeName()).thenReturn(NODE_NAME);
+        when(block.getTransactions()).thenReturn(Collections.emptyList());
+        when(block.isTransactionHashesOnly()).thenReturn(transactionHashesOnly);
+
+        return block;
+    }
+
+    private Block mockBlockWithTransaction() {
+        final Transaction tx = mock(Transaction.class);
+        when(tx.getHash()).thenReturn(TX_HASH);
+
+        final Block block = mock(Block.class);
+        when(block.getHash()).thenReturn(BLOCK_HASH);
+        when(block.getNodeName()).thenReturn(NODE_NAME);
+        when(block.getTransactions()).thenReturn(Collections.singletonList(tx));
+
+        return block;
+    }
+}
@@ -4,7 +4,7 @@ import io.oxiles.chain.service.container.NodeServices;
 import io.oxiles.dto.event.ContractEventDetails;
 import io.oxiles.dto.event.ContractEventStatus;
 import io.oxiles.testutils.DummyAsyncTaskService;
-import io.oxiles.chain.block.BlockListener;
+import io.oxiles.chain.block.ConfirmationTracker;
 import io.oxiles.chain.service.BlockchainService;
 import io.oxiles.chain.service.container.ChainServicesContainer;
 import io.oxiles.chain.service.domain.TransactionReceipt;
@@ -28,7 +28,7 @@ public class ConfirmationCheckInitialiserTest {
      private ConfirmationCheckInitialiser underTest;
 
      private BlockchainService mockBlockchainService;
-     private BlockListener mockBlockListener;
+     private ConfirmationTracker mockConfirmationTracker;
      private ChainServicesContainer mockChainServicesContainer;
      private NodeServices mockNodeServices;
      private NodeSettings mockNodeSettings;
@@ -39,7 +39,7 @@ public class ConfirmationCheckInitialiserTest {
      public void init() {
 
          mockBlockchainService = mock(BlockchainService.class);
-         mockBlockListener = mock(BlockListener.class);
+         mockConfirmationTracker = mock(ConfirmationTracker.class);
          mockChainServicesContainer = mock(ChainServicesContainer.class);
          mockNodeServices = mock(NodeServices.class);
          mockNodeSettings = mock(NodeSettings.class);
@@ -66,14 +66,31 @@ public class ConfirmationCheckInitialiserTest {
              when(event.getBlockNumber()).thenReturn(currentBlock);
              underTest.onEvent(event);
 
-             verify(mockBlockchainService, times(1)).addBlockListener(mockBlockListener);
+             verify(mockConfirmationTracker, times(1)).track(event, currentBlock);
+             verify(mockBlockchainService, times(1)).addBlockListener(mockConfirmationTracker);
+             verify(mockBlockchainService, times(1)).addReorgListener(mockConfirmationTracker);
          }
 
+    @Test
+    public void testTrackerIsSharedByEventsOfNode() {
+        final ContractEventDetails firstEvent = createContractEventDetails(ContractEventStatus.UNCONFIRMED);
+        final ContractEventDetails secondEvent = createContractEventDetails(ContractEventStatus.UNCONFIRMED);
+        when(firstEvent.getBlockNumber()).thenReturn(currentBlock);
+        when(secondEvent.getBlockNumber()).thenReturn(currentBlock);
+
+        underTest.onEvent(firstEvent);
+        underTest.onEvent(secondEvent);
+
+        verify(mockConfirmationTracker, times(1)).track(firstEvent, currentBlock);
+        verify(mockConfirmationTracker, times(1)).track(secondEvent, currentBlock);
+        verify(mockBlockchainService, times(1)).addBlockListener(mockConfirmationTracker);
+    }
+
     @Test
     public void testOnEventInvalidated() {
         underTest.onEvent(createContractEventDetails(ContractEventStatus.INVALIDATED));
 
-        verify(mockBlockchainService, never()).addBlockListener(mockBlockListener);
+        verify(mockConfirmationTracker, never()).track(any(), any());
     }
 
     @Test
@@ -87,7 +104,7 @@ public class ConfirmationCheckInitialiserTest {
         when(mockBlockchainService.getTransactionReceipt(TX_HASH)).thenReturn(mockTxReceipt);
         underTest.onEvent(event);
 
-        verify(mockBlockchainService, times(0)).addBlockListener(mockBlockListener);
+        verify(mockConfirmationTracker, never()).track(any(), any());
     }
 
      private ContractEventDetails createContractEventDetails(ContractEventStatus status) {
@@ -111,8 +128,8 @@ public class ConfirmationCheckInitialiserTest {
          }
 
          @Override
-         protected BlockListener createEventConfirmationBlockListener(ContractEventDetails eventDetails,Node node) {
-             return mockBlockListener;
+         protected ConfirmationTracker createConfirmationTracker(BlockchainService blockchainService, Node node) {
+             return mockConfirmationTracker;
          }
      }
 }
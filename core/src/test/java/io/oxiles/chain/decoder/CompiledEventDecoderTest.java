@@ -0,0 +1,85 @@
+package io.oxiles.chain.decoder;
+
+import io.oxiles.chain.converter.Web3jEventParameterConverter;
+import io.oxiles.chain.util.Web3jUtil;
+import io.oxiles.dto.event.filter.ContractEventSpecification;
+import io.oxiles.dto.event.filter.ParameterDefinition;
+import io.oxiles.dto.event.filter.ParameterType;
+import io.oxiles.dto.event.parameter.EventParameter;
+import io.oxiles.settings.EventeumSettings;
+import org.junit.Before;
+import org.junit.Test;
+import org.web3j.crypto.Keys;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompiledEventDecoderTest {
+
+    //Values: 123, 0x00a329c0648769a73afac7f9381e08fb43dbea72, -42
+    private static final String LOG_DATA = "0x000000000000000000000000000000000000000000000000000000000000007b00000000000000000000000000a329c0648769a73afac7f9381e08fb43dbea72ffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffd6";
+
+    //Values: 456
+    private static final String INDEXED_PARAM = "0x00000000000000000000000000000000000000000000000000000000000001c8";
+
+    private ContractEventSpecification eventSpec;
+
+    private EventDecoderCache decoderCache;
+
+    @Before
+    public void init() {
+        eventSpec = new ContractEventSpecification();
+        eventSpec.setEventName("DummyEvent");
+        eventSpec.setIndexedParameterDefinitions(
+                Arrays.asList(new ParameterDefinition(0, ParameterType.build("UINT256"))));
+        eventSpec.setNonIndexedParameterDefinitions(Arrays.asList(
+                new ParameterDefinition(1, ParameterType.build("UINT256")),
+                new ParameterDefinition(2, ParameterType.build("ADDRESS")),
+                new ParameterDefinition(3, ParameterType.build("INT256"))));
+
+        decoderCache = new EventDecoderCache(
+                new Web3jEventParameterConverter(new EventeumSettings(false)), 10);
+    }
+
+    @Test
+    public void testDecoderIsCompiledOncePerSpecification() {
+        final CompiledEventDecoder decoder = decoderCache.getDecoder(eventSpec);
+
+        assertSame(decoder, decoderCache.getDecoder(eventSpec));
+        assertEquals(Web3jUtil.getSignature(eventSpec), decoder.getSignature());
+    }
+
+    @Test
+    public void testNonIndexedParametersAreDecoded() {
+        final List<EventParameter> parameters = decoderCache.getDecoder(eventSpec).decodeNonIndexed(LOG_DATA);
+
+        assertEquals(3, parameters.size());
+        assertEquals(BigInteger.valueOf(123), parameters.get(0).getValue());
+        assertEquals("uint256", parameters.get(0).getType());
+        assertEquals(Keys.toChecksumAddress("0x00a329c0648769a73afac7f9381e08fb43dbea72"), parameters.get(1).getValue());
+        assertEquals(BigInteger.valueOf(-42), parameters.get(2).getValue());
+    }
+
+    @Test
+    public void testIndexedParametersAreDecoded() {
+        final List<EventParameter> parameters = decoderCache.getDecoder(eventSpec)
+                .decodeIndexed(Arrays.asList(Web3jUtil.getSignature(eventSpec), INDEXED_PARAM));
+
+        assertEquals(1, parameters.size());
+        assertEquals(BigInteger.valueOf(456), parameters.get(0).getValue());
+    }
+
+    @Test
+    public void testSpecificationWithoutParametersDecodesEmpty() {
+        final ContractEventSpecification emptySpec = new ContractEventSpecification();
+        emptySpec.setEventName("Empty");
+
+        assertTrue(decoderCache.getDecoder(emptySpec).decodeNonIndexed("0x").isEmpty());
+        assertTrue(decoderCache.getDecoder(emptySpec).decodeIndexed(Arrays.asList("0x1")).isEmpty());
+    }
+}
@@ -0,0 +1,111 @@
+package io.oxiles.chain.decoder;
+
+import io.oxiles.chain.converter.Web3jEventParameterConverter;
+import io.oxiles.chain.util.Web3jUtil;
+import io.oxiles.dto.event.filter.ContractEventSpecification;
+import io.oxiles.dto.event.filter.ParameterDefinition;
+import io.oxiles.dto.event.filter.ParameterType;
+import io.oxiles.dto.event.parameter.EventParameter;
+import io.oxiles.settings.EventeumSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.web3j.abi.EventEncoder;
+import org.web3j.abi.FunctionReturnDecoder;
+import org.web3j.abi.Utils;
+import org.web3j.abi.datatypes.Event;
+import org.web3j.abi.datatypes.Type;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per log cost of decoding an event by rebuilding the signature and type references
+ * every time, as DefaultContractEventDetailsFactory used to, against a CompiledEventDecoder.
+ *
+ * Run with the main method from the test classpath, as it is not picked up by surefire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventDecoderBenchmark {
+
+    private static final String LOG_DATA = "0x000000000000000000000000000000000000000000000000000000000000007b00000000000000000000000000a329c0648769a73afac7f9381e08fb43dbea72ffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffd6";
+
+    private static final String INDEXED_PARAM = "0x00000000000000000000000000000000000000000000000000000000000001c8";
+
+    private ContractEventSpecification eventSpec;
+
+    private Web3jEventParameterConverter converter;
+
+    private EventDecoderCache decoderCache;
+
+    private List<String> topics;
+
+    @Setup
+    public void setup() {
+        eventSpec = new ContractEventSpecification();
+        eventSpec.setEventName("Transfer");
+        eventSpec.setIndexedParameterDefinitions(
+                Arrays.asList(new ParameterDefinition(0, ParameterType.build("UINT256"))));
+        eventSpec.setNonIndexedParameterDefinitions(Arrays.asList(
+                new ParameterDefinition(1, ParameterType.build("UINT256")),
+                new ParameterDefinition(2, ParameterType.build("ADDRESS")),
+                new ParameterDefinition(3, ParameterType.build("INT256"))));
+
+        converter = new Web3jEventParameterConverter(new EventeumSettings(false));
+        decoderCache = new EventDecoderCache(converter, EventDecoderCache.DEFAULT_MAX_SPECIFICATIONS);
+        topics = Arrays.asList(Web3jUtil.getSignature(eventSpec), INDEXED_PARAM);
+    }
+
+    @Benchmark
+    public void uncompiled(Blackhole blackhole) {
+        final List<ParameterDefinition> all = new ArrayList<>(eventSpec.getIndexedParameterDefinitions());
+        all.addAll(eventSpec.getNonIndexedParameterDefinitions());
+        Collections.sort(all);
+        blackhole.consume(EventEncoder.encode(
+                new Event(eventSpec.getEventName(), Web3jUtil.getTypeReferencesFromParameterDefinitions(all))));
+
+        final List<Type> nonIndexed = FunctionReturnDecoder.decode(LOG_DATA, Utils.convert(
+                Web3jUtil.getTypeReferencesFromParameterDefinitions(eventSpec.getNonIndexedParameterDefinitions())));
+        nonIndexed.forEach(type -> blackhole.consume(converter.convert(type)));
+
+        blackhole.consume(converter.convert(FunctionReturnDecoder.decodeIndexedValue(topics.get(1),
+                Web3jUtil.getTypeReferenceFromParameterType(
+                        eventSpec.getIndexedParameterDefinitions().get(0).getType()))));
+    }
+
+    @Benchmark
+    public void compiled(Blackhole blackhole) {
+        final CompiledEventDecoder decoder = decoderCache.getDecoder(eventSpec);
+
+        blackhole.consume(decoder.getSignature());
+
+        final List<EventParameter> nonIndexed = decoder.decodeNonIndexed(LOG_DATA);
+        blackhole.consume(nonIndexed);
+        blackhole.consume(decoder.decodeIndexed(topics));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EventDecoderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,106 @@
+package io.oxiles.chain.decoder;
+
+import io.oxiles.chain.converter.Web3jEventParameterConverter;
+import io.oxiles.chain.util.Web3jUtil;
+import io.oxiles.dto.event.filter.ContractEventSpecification;
+import io.oxiles.dto.event.filter.ParameterDefinition;
+import io.oxiles.dto.event.filter.ParameterType;
+import io.oxiles.dto.event.parameter.EventParameter;
+import io.oxiles.settings.EventeumSettings;
+import org.junit.Test;
+import org.web3j.abi.FunctionReturnDecoder;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.utils.Numeric;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class StaticTypeDecodersTest {
+
+    private static final String NEGATIVE_WORD = "ffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffd6";
+
+    private static final String ADDRESS_WORD = "00000000000000000000000000a329c0648769a73afac7f9381e08fb43dbea72";
+
+    private static final String ONE_WORD = "0000000000000000000000000000000000000000000000000000000000000001";
+
+    private static final String TWO_WORD = "0000000000000000000000000000000000000000000000000000000000000002";
+
+    private static final String ASCII_WORD = "48656c6c6f000000000000000000000000000000000000000000000000000000";
+
+    private Web3jEventParameterConverter converter = new Web3jEventParameterConverter(new EventeumSettings(false));
+
+    @Test
+    public void testNumbersMatchWeb3jDecoding() {
+        assertMatchesWeb3j("UINT256", NEGATIVE_WORD, converter);
+        assertMatchesWeb3j("INT256", NEGATIVE_WORD, converter);
+        assertMatchesWeb3j("INT8", NEGATIVE_WORD, converter);
+        assertMatchesWeb3j("UINT8", NEGATIVE_WORD, converter);
+        assertMatchesWeb3j("UINT64", ONE_WORD, converter);
+    }
+
+    @Test
+    public void testAddressMatchesWeb3jDecoding() {
+        assertMatchesWeb3j("ADDRESS", ADDRESS_WORD, converter);
+    }
+
+    @Test
+    public void testBoolMatchesWeb3jDecoding() {
+        assertMatchesWeb3j("BOOL", ONE_WORD, converter);
+        assertMatchesWeb3j("BOOL", TWO_WORD, converter);
+    }
+
+    @Test
+    public void testBytesMatchWeb3jDecoding() {
+        final Web3jEventParameterConverter asciiConverter =
+                new Web3jEventParameterConverter(new EventeumSettings(true));
+
+        assertMatchesWeb3j("BYTES32", ASCII_WORD, converter);
+        assertMatchesWeb3j("BYTES5", ASCII_WORD, converter);
+        assertMatchesWeb3j("BYTES32", ASCII_WORD, asciiConverter);
+        assertMatchesWeb3j("BYTE", ASCII_WORD, converter);
+    }
+
+    @Test
+    public void testDynamicTypesHaveNoRawDecoder() {
+        assertNull(StaticTypeDecoders.forType(ParameterType.build("STRING"), converter));
+        assertNull(StaticTypeDecoders.forType(ParameterType.build("UINT256[]"), converter));
+    }
+
+    @Test
+    public void testEventWithDynamicParameterFallsBackToWeb3j() {
+        final ContractEventSpecification spec = new ContractEventSpecification();
+        spec.setEventName("Named");
+        spec.setNonIndexedParameterDefinitions(Arrays.asList(
+                new ParameterDefinition(0, ParameterType.build("UINT256")),
+                new ParameterDefinition(1, ParameterType.build("STRING"))));
+
+        //uint256 1, string "Hello"
+        final String data = "0x" + ONE_WORD
+                + "0000000000000000000000000000000000000000000000000000000000000040"
+                + "0000000000000000000000000000000000000000000000000000000000000005"
+                + ASCII_WORD;
+
+        final List<EventParameter> parameters = new CompiledEventDecoder(spec, converter).decodeNonIndexed(data);
+
+        assertEquals("1", parameters.get(0).getValueString());
+        assertEquals("Hello", parameters.get(1).getValueString());
+    }
+
+    private void assertMatchesWeb3j(String type, String word, Web3jEventParameterConverter theConverter) {
+        final ParameterType parameterType = ParameterType.build(type);
+        final TypeReference<Type> typeReference =
+                (TypeReference<Type>) Web3jUtil.getTypeReferenceFromParameterType(parameterType);
+
+        final EventParameter expected = theConverter.convert(
+                FunctionReturnDecoder.decode("0x" + word, Arrays.asList(typeReference)).get(0));
+        final EventParameter actual = StaticTypeDecoders.forType(parameterType, theConverter)
+                .decode(Numeric.hexStringToByteArray(word), 0);
+
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getValue(), actual.getValue());
+    }
+}
@@ -2,7 +2,9 @@ package io.oxiles.chain.factory;
 
 import io.oxiles.dto.event.ContractEventDetails;
 import io.oxiles.dto.event.ContractEventStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.oxiles.dto.event.parameter.EventParameter;
+import io.oxiles.dto.event.parameter.NumberParameter;
 import io.oxiles.chain.converter.EventParameterConverter;
 import io.oxiles.chain.service.domain.TransactionReceipt;
 import io.oxiles.chain.settings.Node;
@@ -23,7 +25,13 @@ import java.math.BigInteger;
 import java.util.Arrays;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class DefaultContractEventDetailsFactoryTest {
@@ -87,6 +95,7 @@ public class DefaultContractEventDetailsFactoryTest {
     @Before
     public void init() {
         mockParameterCoverter = mock(EventParameterConverter.class);
+        when(mockParameterCoverter.forType(anyString())).thenReturn(mockParameterCoverter);
 
         mockLog = mock(org.web3j.protocol.core.methods.response.Log.class);
         mockEthBlock = mock(EthBlock.class);
@@ -181,6 +190,48 @@ public class DefaultContractEventDetailsFactoryTest {
         assertEquals(BigInteger.valueOf(-42), argumentCaptor.getAllValues().get(2).getValue());
     }
 
+    @Test
+    public void testLazyParametersAreDecodedOnFirstAccess() {
+        final DefaultContractEventDetailsFactory underTest = createFactory(BigInteger.TEN, true);
+
+        final EventParameter mockParam1 = mock(EventParameter.class);
+        when(mockParameterCoverter.convert(any(Type.class))).thenReturn(mockParam1);
+
+        final ContractEventDetails eventDetails = underTest.createEventDetails(filter, mockLog, mockEthBlock, mockTransactionReceipt);
+
+        verify(mockParameterCoverter, never()).convert(any(Type.class));
+
+        assertEquals(Arrays.asList(mockParam1, mockParam1, mockParam1), eventDetails.getNonIndexedParameters());
+        assertEquals(Arrays.asList(mockParam1), eventDetails.getIndexedParameters());
+        verify(mockParameterCoverter, times(4)).convert(any(Type.class));
+
+        eventDetails.getNonIndexedParameters();
+        verify(mockParameterCoverter, times(4)).convert(any(Type.class));
+    }
+
+    @Test
+    public void testLazyParametersAreDecodedOnSerialization() throws Exception {
+        when(mockParameterCoverter.convert(any(Type.class)))
+                .thenAnswer(invocation -> new NumberParameter("uint256", BigInteger.ONE));
+
+        final ContractEventDetails eventDetails = createFactory(BigInteger.TEN, true)
+                .createEventDetails(filter, mockLog, mockEthBlock, mockTransactionReceipt);
+
+        final String json = new ObjectMapper().writeValueAsString(eventDetails);
+
+        assertTrue(json.contains("\"indexedParameters\":[{"));
+        assertTrue(json.contains("\"nonIndexedParameters\":[{"));
+    }
+
+    private DefaultContractEventDetailsFactory createFactory(BigInteger confirmations, boolean lazy) {
+        Node node =
+                new Node();
+        node.setBlocksToWaitForConfirmation(confirmations);
+        node.setBlocksToWaitForMissingTx(BigInteger.valueOf(100));
+        node.setBlocksToWaitBeforeInvalidating(BigInteger.valueOf(5));
+        return new DefaultContractEventDetailsFactory(mockParameterCoverter, node, NETWORK_NAME, lazy);
+    }
+
     private DefaultContractEventDetailsFactory createFactory(BigInteger confirmations) {
         Node node =
                 new Node();
@@ -2,6 +2,8 @@ package io.oxiles.chain.service;
 
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.oxiles.service.SubscriptionService;
+import io.oxiles.chain.service.endpoint.Endpoint;
+import io.oxiles.chain.service.endpoint.PooledWeb3jService;
 import io.oxiles.chain.service.health.NodeHealthCheckService;
 import io.oxiles.chain.service.health.strategy.ReconnectionStrategy;
 import io.oxiles.constant.Constants;
@@ -15,9 +17,11 @@ import org.junit.Test;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Optional;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.mockito.Mockito.*;
 
@@ -164,6 +168,24 @@ public class NodeHealthCheckServiceTest {
         verify(mockSubscriptionService, never()).unsubscribeToAllSubscriptions(Constants.DEFAULT_NODE_NAME);
     }
 
+    @Test
+    public void testEndpointsAreProbed() {
+        final Endpoint endpoint = new Endpoint("http://localhost:8545", null, HEALTH_CHECK_INTERVAL);
+        final PooledWeb3jService mockEndpointPool = mock(PooledWeb3jService.class);
+        when(mockEndpointPool.getEndpoints()).thenReturn(Arrays.asList(endpoint));
+        when(mockEndpointPool.getHedgeableRequests()).thenReturn(new AtomicLong(0));
+        when(mockEndpointPool.getHedgedRequests()).thenReturn(new AtomicLong(0));
+        when(mockEndpointPool.getHedgeWins()).thenReturn(new AtomicLong(0));
+        when(mockEndpointPool.getHedgeLosses()).thenReturn(new AtomicLong(0));
+
+        underTest.setEndpointPool(mockEndpointPool);
+        wireBlockchainServiceUp(true);
+        underTest.checkHealth();
+
+        verify(mockEndpointPool, times(1)).checkEndpoints();
+        verify(mockReconnectionStrategy, never()).reconnect();
+    }
+
     private void wireBlockchainServiceUp(boolean isSubscribed) {
         when(mockBlockchainService.getCurrentBlockNumber()).thenReturn(BLOCK_NUMBER);
         when(mockBlockchainService.isConnected()).thenReturn(isSubscribed);
@@ -1,8 +1,10 @@
 package io.oxiles.chain.service;
 
 import io.oxiles.chain.factory.ContractEventDetailsFactory;
+import io.oxiles.chain.service.log.ReceiptRetryScheduler;
 import io.oxiles.chain.service.strategy.BlockSubscriptionStrategy;
 import io.oxiles.dto.event.ContractEventDetails;
+import io.oxiles.monitoring.EventeumValueMonitor;
 import io.oxiles.testutils.DummyAsyncTaskService;
 import io.reactivex.Flowable;
 import io.oxiles.chain.service.domain.TransactionReceipt;
@@ -32,8 +34,11 @@ import java.util.Optional;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.eq;
@@ -77,8 +82,14 @@ public class Web3jServiceTest {
         when(mockRequest.send()).thenReturn(blockNumber);
         doReturn(mockRequest).when(mockWeb3j).ethBlockNumber();
 
+        final EventeumValueMonitor mockValueMonitor = mock(EventeumValueMonitor.class);
+        when(mockValueMonitor.monitor(anyString(), anyString(), any(Number.class)))
+                .thenAnswer(invocation -> invocation.getArguments()[2]);
+
         underTest = new Web3jService("test", mockWeb3j, mockContractEventDetailsFactory,
-                mockBlockManagement, mockBlockSubscriptionStrategy, new DummyAsyncTaskService());
+                mockBlockManagement, mockBlockSubscriptionStrategy,
+                new ReceiptRetryScheduler("test", 10l, 3, mockValueMonitor, new DummyAsyncTaskService()),
+                new DummyAsyncTaskService());
     }
 
     @Test
@@ -97,6 +108,15 @@ public class Web3jServiceTest {
         assertEquals(mockContractEventDetails, eventDetails);
     }
 
+    @Test
+    public void testEventIsDispatchedOnceLateBlockHeaderIsAvailable() throws IOException {
+
+        final ContractEventDetails eventDetails = doRegisterEventListenerAndTrigger(true);
+
+        assertEquals(mockContractEventDetails, eventDetails);
+        verify(mockWeb3j, times(2)).ethGetBlockByHash(BLOCK_HASH, false);
+    }
+
     @Test
     public void testGetClientVersionHappyPath() throws IOException {
         final Request<?, Web3ClientVersion> mockRequest = mock(Request.class);
@@ -178,6 +198,10 @@ public class Web3jServiceTest {
     }
 
     private ContractEventDetails doRegisterEventListenerAndTrigger() throws IOException {
+        return doRegisterEventListenerAndTrigger(false);
+    }
+
+    private ContractEventDetails doRegisterEventListenerAndTrigger(boolean headerLate) throws IOException {
         final org.web3j.protocol.core.methods.response.Log mockLog
                 = mock(org.web3j.protocol.core.methods.response.Log.class);
 
@@ -186,6 +210,9 @@ public class Web3jServiceTest {
 
         final Request<?, EthBlock> mockRequest = mock(Request.class);
         final EthBlock mockBlock = mock(EthBlock.class);
+        final EthBlock.Block header = mock(EthBlock.Block.class);
+        //The node does not serve the header on the first attempt if it is late
+        when(mockBlock.getBlock()).thenReturn(headerLate ? null : header, header);
 
         final Request<?, EthGetTransactionReceipt> mockRequestGetTransactionReceipt = mock(Request.class);
         final EthGetTransactionReceipt mockGetTransactionReceipt = mock(EthGetTransactionReceipt.class);
@@ -193,8 +220,9 @@ public class Web3jServiceTest {
                 Optional.of(mock(org.web3j.protocol.core.methods.response.TransactionReceipt.class));
 
         when(mockRequest.send()).thenReturn(mockBlock);
-        doReturn(mockRequest).when(mockWeb3j).ethGetBlockByNumber(any(DefaultBlockParameterNumber.class), eq(false));
+        doReturn(mockRequest).when(mockWeb3j).ethGetBlockByHash(BLOCK_HASH, false);
 
+        when(mockLog.getBlockHash()).thenReturn(BLOCK_HASH);
         when(mockLog.getTransactionHash()).thenReturn(TX_HASH);
         when(mockRequestGetTransactionReceipt.send()).thenReturn(mockGetTransactionReceipt);
         when(mockGetTransactionReceipt.getTransactionReceipt()).thenReturn(optionalTransactionReceipt);
@@ -209,7 +237,7 @@ public class Web3jServiceTest {
         underTest.registerEventListener(filter, mockEventListener);
 
         final ArgumentCaptor<ContractEventDetails> captor = ArgumentCaptor.forClass(ContractEventDetails.class);
-        verify(mockEventListener).onEvent(captor.capture());
+        verify(mockEventListener, timeout(5000)).onEvent(captor.capture());
 
         return captor.getValue();
     }
@@ -0,0 +1,154 @@
+package io.oxiles.chain.service.cache;
+
+import io.oxiles.chain.service.domain.Block;
+import io.oxiles.chain.service.domain.TransactionReceipt;
+import io.oxiles.monitoring.EventeumValueMonitor;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RpcResponseCacheTest {
+
+    private static final String TX_HASH = "0xc283f53461e98400619f3fcdc081e6f95848c7ad32f79718fcb77fe865e5b58a";
+
+    private static final String BLOCK_HASH = "0xc0e07697167c58f2a173df45f5c9b2c46ca0941cdf0bf79616d53dc92f62aebd";
+
+    private RpcResponseCache underTest;
+
+    private Function<String, TransactionReceipt> mockReceiptLoader;
+
+    private TransactionReceipt mockReceipt;
+
+    @Before
+    public void init() {
+        mockReceiptLoader = mock(Function.class);
+        mockReceipt = mock(TransactionReceipt.class);
+        when(mockReceipt.getBlockNumber()).thenReturn(BigInteger.valueOf(100));
+        when(mockReceiptLoader.apply(TX_HASH)).thenReturn(mockReceipt);
+
+        underTest = new RpcResponseCache("test", BigInteger.valueOf(12), 1024l * 1024, 0l, mockMonitor());
+    }
+
+    @Test
+    public void testFinalResponseIsServedFromCache() {
+        underTest.onBlock(createBlock(200, "0x1", "0x0"));
+
+        assertEquals(mockReceipt, underTest.getTransactionReceipt(TX_HASH, mockReceiptLoader));
+        assertEquals(mockReceipt, underTest.getTransactionReceipt(TX_HASH, mockReceiptLoader));
+
+        verify(mockReceiptLoader, times(1)).apply(TX_HASH);
+    }
+
+    @Test
+    public void testUnfinalisedResponseExpires() throws InterruptedException {
+        underTest.onBlock(createBlock(105, "0x1", "0x0"));
+
+        underTest.getTransactionReceipt(TX_HASH, mockReceiptLoader);
+        Thread.sleep(5);
+        underTest.getTransactionReceipt(TX_HASH, mockReceiptLoader);
+
+        verify(mockReceiptLoader, times(2)).apply(TX_HASH);
+    }
+
+    @Test
+    public void testUnfinalisedResponsesAreDroppedOnReorg() {
+        final RpcResponseCache longTtlCache = new RpcResponseCache(
+                "test", BigInteger.valueOf(12), 1024l * 1024, 60000l, mockMonitor());
+
+        longTtlCache.onBlock(createBlock(105, "0x1", "0x0"));
+        longTtlCache.getTransactionReceipt(TX_HASH, mockReceiptLoader);
+        longTtlCache.getTransactionReceipt(TX_HASH, mockReceiptLoader);
+        verify(mockReceiptLoader, times(1)).apply(TX_HASH);
+
+        //Block 106 does not build on 0x1
+        longTtlCache.onBlock(createBlock(106, "0x3", "0x2"));
+        longTtlCache.getTransactionReceipt(TX_HASH, mockReceiptLoader);
+
+        verify(mockReceiptLoader, times(2)).apply(TX_HASH);
+        assertEquals(1, longTtlCache.getInvalidations().get());
+        assertEquals(0, longTtlCache.getEvictions().get());
+    }
+
+    @Test
+    public void testExpiredResponseIsNotCountedAsEviction() throws InterruptedException {
+        underTest.onBlock(createBlock(105, "0x1", "0x0"));
+
+        underTest.getTransactionReceipt(TX_HASH, mockReceiptLoader);
+        Thread.sleep(5);
+        underTest.getTransactionReceipt(TX_HASH, mockReceiptLoader);
+
+        assertEquals(1, underTest.getExpiries().get());
+        assertEquals(0, underTest.getEvictions().get());
+    }
+
+    @Test
+    public void testResponsesOverTheSizeLimitAreCountedAsEvictions() {
+        final RpcResponseCache smallCache = new RpcResponseCache(
+                "test", BigInteger.valueOf(12), 8192l, 0l, mockMonitor());
+        when(mockReceiptLoader.apply(anyString())).thenReturn(mockReceipt);
+
+        smallCache.onBlock(createBlock(200, "0x1", "0x0"));
+
+        for (int i = 0; i < 100; i++) {
+            smallCache.getTransactionReceipt("0x" + i, mockReceiptLoader);
+        }
+
+        assertTrue(smallCache.getEvictions().get() > 0);
+        assertEquals(0, smallCache.getExpiries().get());
+        assertEquals(0, smallCache.getInvalidations().get());
+    }
+
+    @Test
+    public void testMissingReceiptIsNotCached() {
+        when(mockReceiptLoader.apply(TX_HASH)).thenReturn(null);
+
+        underTest.getTransactionReceipt(TX_HASH, mockReceiptLoader);
+        underTest.getTransactionReceipt(TX_HASH, mockReceiptLoader);
+
+        verify(mockReceiptLoader, times(2)).apply(TX_HASH);
+    }
+
+    @Test
+    public void testBlocksAreCachedPerTransactionDetail() {
+        final Block block = createBlock(100, BLOCK_HASH, "0x0");
+        final Function<String, Optional<Block>> mockBlockLoader = mock(Function.class);
+        when(mockBlockLoader.apply(BLOCK_HASH)).thenReturn(Optional.of(block));
+
+        underTest.onBlock(createBlock(200, "0x1", "0x0"));
+
+        underTest.getBlock(BLOCK_HASH, false, mockBlockLoader);
+        underTest.getBlock(BLOCK_HASH, false, mockBlockLoader);
+        underTest.getBlock(BLOCK_HASH, true, mockBlockLoader);
+
+        verify(mockBlockLoader, times(2)).apply(BLOCK_HASH);
+    }
+
+    private Block createBlock(long number, String hash, String parentHash) {
+        final Block block = mock(Block.class);
+        when(block.getNumber()).thenReturn(BigInteger.valueOf(number));
+        when(block.getHash()).thenReturn(hash);
+        when(block.getParentHash()).thenReturn(parentHash);
+
+        return block;
+    }
+
+    private EventeumValueMonitor mockMonitor() {
+        final EventeumValueMonitor mockValueMonitor = mock(EventeumValueMonitor.class);
+        when(mockValueMonitor.monitor(anyString(), anyString(), any(Number.class)))
+                .thenAnswer(invocation -> invocation.getArguments()[2]);
+
+        return mockValueMonitor;
+    }
+}
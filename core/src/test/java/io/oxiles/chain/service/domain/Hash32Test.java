@@ -0,0 +1,57 @@
+package io.oxiles.chain.service.domain;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class Hash32Test {
+
+    private static final String HASH = "0xc0e07697167c58f2a173df45f5c9b2c46ca0941cdf0bf79616d53dc92f62aebd";
+
+    private static final String ZERO_HASH = "0x" + String.join("", java.util.Collections.nCopies(64, "0"));
+
+    private static final String OTHER_HASH = "0x368ce0ee3afdf1bd73d7e6912f899f31b14b9656e1a3164400ba4587df192c1d";
+
+    @Test
+    public void testHexRoundTrip() {
+        assertEquals(HASH, Hash32.fromHex(HASH).toHex());
+        assertEquals(HASH, Hash32.fromHex(HASH.toUpperCase().replace("0X", "")).toHex());
+        assertEquals("0x" + String.join("", java.util.Collections.nCopies(64, "0")),
+                Hash32.fromHex("0x" + String.join("", java.util.Collections.nCopies(64, "0"))).toHex());
+    }
+
+    @Test
+    public void testHexIsBuiltOnce() {
+        final Hash32 hash = Hash32.fromHex(HASH);
+
+        assertSame(hash.toHex(), hash.toHex());
+        assertEquals(Hash32.fromHex(HASH), hash);
+    }
+
+    @Test
+    public void testEquality() {
+        assertEquals(Hash32.fromHex(HASH), Hash32.fromHex(HASH));
+        assertEquals(Hash32.fromHex(HASH).hashCode(), Hash32.fromHex(HASH).hashCode());
+        assertFalse(Hash32.fromHex(HASH).equals(Hash32.fromHex(OTHER_HASH)));
+        assertTrue(Hash32.fromHex(HASH).matches(HASH.toUpperCase().replace("0X", "0x")));
+    }
+
+    @Test
+    public void testNull() {
+        assertNull(Hash32.fromHex(null));
+        assertNull(Hash32.toHex(null));
+    }
+
+    @Test
+    public void testValueThatIsNotAHashIsKept() {
+        assertEquals("0x0", Hash32.fromHex("0x0").toHex());
+        assertEquals("0xnothex" + HASH.substring(8), Hash32.fromHex("0xnothex" + HASH.substring(8)).toHex());
+        assertEquals(Hash32.fromHex("0x0"), Hash32.fromHex("0x0"));
+        assertFalse(Hash32.fromHex("0x0").equals(Hash32.fromHex(ZERO_HASH)));
+        assertTrue(Hash32.fromHex("0x0").matches("0X0"));
+    }
+}
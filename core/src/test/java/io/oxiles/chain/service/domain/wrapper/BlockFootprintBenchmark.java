@@ -0,0 +1,46 @@
+package io.oxiles.chain.service.domain.wrapper;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jol.info.GraphLayout;
+import org.web3j.protocol.core.methods.response.EthBlock;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the retained heap size of a converted block of 100 transactions, in the compact Web3jBlock
+ * form and in the previous form where quantities were BigIntegers and hashes were hex Strings
+ * (mirrored by the mapped classes of {@link Web3jMappingBenchmark}).
+ *
+ * Run with the main method from the test classpath, as it is not picked up by surefire.
+ */
+public class BlockFootprintBenchmark {
+
+    public static void main(String[] args) {
+        final Web3jMappingBenchmark blocks = new Web3jMappingBenchmark();
+        blocks.setup();
+
+        final EthBlock.Block ethBlock = blocks.ethBlock;
+
+        final ModelMapper modelMapper = new ModelMapper();
+        modelMapper.typeMap(EthBlock.Block.class, Web3jMappingBenchmark.MappedBlock.class)
+                .addMappings(mapper -> mapper.skip(Web3jMappingBenchmark.MappedBlock::setTransactions));
+        final Web3jMappingBenchmark.MappedBlock previousBlock =
+                modelMapper.map(ethBlock, Web3jMappingBenchmark.MappedBlock.class);
+        final List<Web3jMappingBenchmark.MappedTransaction> previousTransactions = ethBlock.getTransactions()
+                .stream()
+                .map(tx -> modelMapper.map(tx.get(), Web3jMappingBenchmark.MappedTransaction.class))
+                .collect(Collectors.toList());
+
+        final Web3jBlock compactBlock = new Web3jBlock(ethBlock, "node");
+
+        final long previousSize = GraphLayout.parseInstance(previousBlock, previousTransactions).totalSize();
+        final long compactSize = GraphLayout.parseInstance(compactBlock).totalSize();
+
+        System.out.println(String.format("Previous block representation: %d bytes", previousSize));
+        System.out.println(String.format("Compact block representation:  %d bytes", compactSize));
+        System.out.println(String.format("Reduction: %.1f%%", 100.0 * (previousSize - compactSize) / previousSize));
+
+        System.out.println(GraphLayout.parseInstance(compactBlock).toFootprint());
+    }
+}
@@ -0,0 +1,84 @@
+package io.oxiles.chain.service.domain.wrapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.methods.response.EthBlock;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading a full block response into a Web3jBlock through web3j's EthBlock with reading it
+ * through the streaming parser.  The gc.alloc.rate.norm figures from the GC profiler give the bytes
+ * allocated per block.
+ *
+ * Run with the main method from the test classpath, as it is not picked up by surefire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamingParseBenchmark {
+
+    @Param({"200"})
+    int transactionsPerBlock;
+
+    private ObjectMapper objectMapper;
+
+    private byte[] response;
+
+    @Setup
+    public void setup() {
+        final List<String> transactions = new ArrayList<>();
+
+        for (int i = 0; i < transactionsPerBlock; i++) {
+            transactions.add(StreamingResponseParserTest.transaction(i));
+        }
+
+        final String block = StreamingResponseParserTest.blockResponse(false)
+                .replaceFirst("\"transactions\":\\[[^\\]]*\\]", "\"transactions\":[" + String.join(",", transactions) + "]");
+
+        objectMapper = ObjectMapperFactory.getObjectMapper();
+        response = block.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object web3j() throws IOException {
+        final EthBlock ethBlock = objectMapper.readValue(new ByteArrayInputStream(response), EthBlock.class);
+
+        return new Web3jBlock(ethBlock.getBlock(), "node");
+    }
+
+    @Benchmark
+    public Object streaming() throws IOException {
+        return objectMapper.readValue(new ByteArrayInputStream(response), StreamedEthBlock.class).getBlock("node");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StreamingParseBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
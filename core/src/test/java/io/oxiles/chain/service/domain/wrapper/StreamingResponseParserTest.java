@@ -0,0 +1,213 @@
+package io.oxiles.chain.service.domain.wrapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.oxiles.chain.service.domain.Block;
+import io.oxiles.chain.service.domain.TransactionReceipt;
+import org.junit.Test;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingResponseParserTest {
+
+    private static final String NODE_NAME = "mainnet";
+
+    private static final String BLOOM = "0x" + String.join("", Collections.nCopies(256, "00"));
+
+    private ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+
+    @Test
+    public void testFullBlockMatchesWeb3jConversion() throws Exception {
+        final String json = blockResponse(true);
+
+        final Block streamed = objectMapper.readValue(json, StreamedEthBlock.class).getBlock(NODE_NAME).get();
+        final Block converted = new Web3jBlock(objectMapper.readValue(json, EthBlock.class).getBlock(), NODE_NAME);
+
+        assertEquals(converted, streamed);
+        assertEquals(3, streamed.getTransactions().size());
+        assertEquals(NODE_NAME, streamed.getNodeName());
+    }
+
+    @Test
+    public void testBlockHeaderMatchesWeb3jConversion() throws Exception {
+        final String json = blockResponse(false);
+
+        final Block streamed = objectMapper.readValue(json, StreamedEthBlock.class).getBlock(NODE_NAME).get();
+        final Block converted = new Web3jBlock(objectMapper.readValue(json, EthBlock.class).getBlock(), NODE_NAME);
+
+        assertEquals(converted, streamed);
+        assertTrue(streamed.getTransactions().isEmpty());
+    }
+
+    @Test
+    public void testBlockCanBeReadFromTree() throws Exception {
+        //Batch responses are read into a tree before each response is converted
+        final String json = blockResponse(true);
+
+        final Block streamed = objectMapper.treeToValue(objectMapper.readTree(json), StreamedEthBlock.class)
+                .getBlock(NODE_NAME).get();
+        final Block converted = new Web3jBlock(objectMapper.readValue(json, EthBlock.class).getBlock(), NODE_NAME);
+
+        assertEquals(converted, streamed);
+    }
+
+    @Test
+    public void testNonStandardValuesAreKept() throws Exception {
+        final String largeGasLimit = "0x" + String.join("", Collections.nCopies(10, "ff"));
+        final String json = blockResponse(true)
+                .replace("\"mixHash\":\"" + hash(106) + "\"", "\"mixHash\":\"0x0\"")
+                .replace("\"gasLimit\":\"0x1c9c380\"", "\"gasLimit\":\"" + largeGasLimit + "\"")
+                .replace("\"gas\":\"0x5208\"", "\"gas\":\"" + largeGasLimit + "\"");
+
+        final Block streamed = objectMapper.readValue(json, StreamedEthBlock.class).getBlock(NODE_NAME).get();
+        final Block converted = new Web3jBlock(objectMapper.readValue(json, EthBlock.class).getBlock(), NODE_NAME);
+
+        assertEquals(converted, streamed);
+        assertEquals("0x0", streamed.getMixHash());
+        assertEquals(Numeric.decodeQuantity(largeGasLimit), streamed.getGasLimit());
+        assertEquals(largeGasLimit, streamed.getTransactions().get(0).getGas());
+        assertEquals(BigInteger.valueOf(0x5208), streamed.getGasUsed());
+    }
+
+    @Test
+    public void testMissingBlock() throws Exception {
+        final StreamedEthBlock response =
+                objectMapper.readValue("{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":null}", StreamedEthBlock.class);
+
+        assertFalse(response.getBlock(NODE_NAME).isPresent());
+    }
+
+    @Test
+    public void testReceiptMatchesWeb3jConversion() throws Exception {
+        final String json = response(receipt());
+
+        final TransactionReceipt streamed =
+                objectMapper.readValue(json, StreamedEthGetTransactionReceipt.class).getTransactionReceipt().get();
+        final TransactionReceipt converted = new Web3jTransactionReceipt(
+                objectMapper.readValue(json, EthGetTransactionReceipt.class).getTransactionReceipt().get());
+
+        assertEquals(converted, streamed);
+        assertEquals(2, streamed.getLogs().size());
+    }
+
+    @Test
+    public void testMissingReceipt() throws Exception {
+        final StreamedEthGetTransactionReceipt response = objectMapper.readValue(
+                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":null}", StreamedEthGetTransactionReceipt.class);
+
+        assertFalse(response.getTransactionReceipt().isPresent());
+    }
+
+    @Test
+    public void testErrorResponse() throws Exception {
+        final StreamedEthBlock response = objectMapper.readValue(
+                "{\"jsonrpc\":\"2.0\",\"id\":1,\"error\":{\"code\":-32000,\"message\":\"Boom\"}}", StreamedEthBlock.class);
+
+        assertTrue(response.hasError());
+        assertEquals("Boom", response.getError().getMessage());
+    }
+
+    static String blockResponse(boolean fullTransactionObjects) {
+        final List<String> transactions = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            transactions.add(fullTransactionObjects ? transaction(i) : "\"" + hash(i) + "\"");
+        }
+
+        return response("{"
+                + "\"number\":\"0x10\","
+                + "\"hash\":\"" + hash(100) + "\","
+                + "\"parentHash\":\"" + hash(101) + "\","
+                + "\"nonce\":\"0x0000000000000042\","
+                + "\"sha3Uncles\":\"" + hash(102) + "\","
+                + "\"logsBloom\":\"" + BLOOM + "\","
+                + "\"transactionsRoot\":\"" + hash(103) + "\","
+                + "\"stateRoot\":\"" + hash(104) + "\","
+                + "\"receiptsRoot\":\"" + hash(105) + "\","
+                + "\"miner\":\"0x7a55a28856d43bba3c6a7e36f2cee9a82923e99b\","
+                + "\"mixHash\":\"" + hash(106) + "\","
+                + "\"difficulty\":\"0x2\","
+                + "\"totalDifficulty\":\"0x1234\","
+                + "\"extraData\":\"0xabcdef\","
+                + "\"size\":\"0x300\","
+                + "\"gasLimit\":\"0x1c9c380\","
+                + "\"gasUsed\":\"0x5208\","
+                + "\"timestamp\":\"0x5f5e100\","
+                + "\"baseFeePerGas\":\"0x7\","
+                + "\"withdrawals\":[{\"index\":\"0x1\",\"amount\":\"0x2\"}],"
+                + "\"transactions\":[" + String.join(",", transactions) + "],"
+                + "\"uncles\":[\"" + hash(107) + "\"]"
+                + "}");
+    }
+
+    static String transaction(int index) {
+        return "{"
+                + "\"hash\":\"" + hash(index) + "\","
+                + "\"nonce\":\"0x1a\","
+                + "\"blockHash\":\"" + hash(100) + "\","
+                + "\"blockNumber\":\"0x10\","
+                + "\"transactionIndex\":\"0x" + Integer.toHexString(index) + "\","
+                + "\"from\":\"0x7a55a28856d43bba3c6a7e36f2cee9a82923e99b\","
+                + (index == 2 ? "\"to\":null," : "\"to\":\"0x1234567890123456789012345678901234567890\",")
+                + "\"value\":\"0x3e8\","
+                + "\"gasPrice\":\"0x5\","
+                + "\"gas\":\"0x5208\","
+                + "\"input\":\"0x\","
+                + "\"type\":\"0x2\","
+                + "\"accessList\":[{\"address\":\"0x1234567890123456789012345678901234567890\",\"storageKeys\":[]}],"
+                + "\"r\":\"0x1\","
+                + "\"s\":\"0x2\","
+                + "\"v\":\"0x25\""
+                + "}";
+    }
+
+    static String receipt() {
+        return "{"
+                + "\"transactionHash\":\"" + hash(1) + "\","
+                + "\"transactionIndex\":\"0x1\","
+                + "\"blockHash\":\"" + hash(100) + "\","
+                + "\"blockNumber\":\"0x10\","
+                + "\"cumulativeGasUsed\":\"0xa410\","
+                + "\"gasUsed\":\"0x5208\","
+                + "\"contractAddress\":null,"
+                + "\"from\":\"0x7a55a28856d43bba3c6a7e36f2cee9a82923e99b\","
+                + "\"to\":\"0x1234567890123456789012345678901234567890\","
+                + "\"effectiveGasPrice\":\"0x5\","
+                + "\"logs\":[" + log(0) + "," + log(1) + "],"
+                + "\"logsBloom\":\"" + BLOOM + "\","
+                + "\"status\":\"0x1\""
+                + "}";
+    }
+
+    static String log(int index) {
+        return "{"
+                + "\"removed\":false,"
+                + "\"logIndex\":\"0x" + Integer.toHexString(index) + "\","
+                + "\"transactionIndex\":\"0x1\","
+                + "\"transactionHash\":\"" + hash(1) + "\","
+                + "\"blockHash\":\"" + hash(100) + "\","
+                + "\"blockNumber\":\"0x10\","
+                + "\"address\":\"0x1234567890123456789012345678901234567890\","
+                + "\"data\":\"0x" + String.join("", Collections.nCopies(32, "ab")) + "\","
+                + "\"topics\":[\"" + hash(200) + "\",\"" + hash(201) + "\"]"
+                + "}";
+    }
+
+    static String response(String result) {
+        return "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":" + result + "}";
+    }
+
+    static String hash(int seed) {
+        return Web3jMappingBenchmark.hash(seed);
+    }
+}
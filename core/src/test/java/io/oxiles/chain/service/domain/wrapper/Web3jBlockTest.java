@@ -0,0 +1,113 @@
+package io.oxiles.chain.service.domain.wrapper;
+
+import io.oxiles.chain.service.domain.Log;
+import io.oxiles.chain.service.domain.Transaction;
+import org.junit.Test;
+import org.web3j.crypto.Keys;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class Web3jBlockTest {
+
+    private static final String FROM = "0x7a55a28856d43bba3c6a7e36f2cee9a82923e99b";
+
+    private static final String TO = "0x1234567890123456789012345678901234567890";
+
+    private static final String BLOCK_HASH = "0xc0e07697167c58f2a173df45f5c9b2c46ca0941cdf0bf79616d53dc92f62aebd";
+
+    private static final String PARENT_HASH = "0x368ce0ee3afdf1bd73d7e6912f899f31b14b9656e1a3164400ba4587df192c1d";
+
+    private static final String TX_HASH = "0x1fdb6a20587d7114ee471f3ec9d2517b267fc951eafc91ccdede7c50962a755b";
+
+    private static final String ROOT = "0x56e81f171bcc55a6ff8345e692c0f86e5b48e01b996cadc001622fb5e363b421";
+
+    private static final String LOGS_BLOOM = "0x" + String.join("", Collections.nCopies(64, "0080"));
+
+    @Test
+    public void testBlockIsMapped() {
+        final Web3jBlock block = new Web3jBlock(createBlock("0x7"), "node");
+
+        assertEquals(BigInteger.valueOf(16), block.getNumber());
+        assertEquals(BLOCK_HASH, block.getHash());
+        assertEquals(PARENT_HASH, block.getParentHash());
+        assertEquals(BigInteger.valueOf(7), block.getNonce());
+        assertEquals(ROOT, block.getStateRoot());
+        assertEquals(LOGS_BLOOM, block.getLogsBloom());
+        assertEquals("0xminer", block.getMiner());
+        assertEquals(BigInteger.valueOf(256), block.getDifficulty());
+        assertEquals(BigInteger.valueOf(512), block.getTotalDifficulty());
+        assertEquals(BigInteger.valueOf(1024), block.getGasLimit());
+        assertEquals(BigInteger.valueOf(1280), block.getGasUsed());
+        assertEquals(BigInteger.valueOf(1536), block.getTimestamp());
+        assertEquals(Collections.singletonList("0xu"), block.getUncles());
+        assertEquals("node", block.getNodeName());
+        assertEquals(1, block.getTransactions().size());
+    }
+
+    @Test
+    public void testBlockWithoutNonceIsMapped() {
+        assertNull(new Web3jBlock(createBlock(null), "node").getNonce());
+    }
+
+    @Test
+    public void testUnsignedNonceIsMapped() {
+        assertEquals(new BigInteger("ffffffffffffffff", 16),
+                new Web3jBlock(createBlock("0xffffffffffffffff"), "node").getNonce());
+    }
+
+    @Test
+    public void testTransactionsAreMappedWithRawQuantitiesAndChecksummedAddresses() {
+        final Transaction tx = new Web3jBlock(createBlock("0x7"), "node").getTransactions().get(0);
+
+        assertEquals(TX_HASH, tx.getHash());
+        assertEquals(BLOCK_HASH, tx.getBlockHash());
+        assertEquals("0x1a", tx.getNonce());
+        assertEquals("0x10", tx.getBlockNumber());
+        assertEquals("0x2", tx.getTransactionIndex());
+        assertEquals(Keys.toChecksumAddress(FROM), tx.getFrom());
+        assertEquals(Keys.toChecksumAddress(TO), tx.getTo());
+        assertEquals("0x3e8", tx.getValue());
+        assertEquals("0x5", tx.getGasPrice());
+        assertEquals("0x5208", tx.getGas());
+        assertEquals("0xinput", tx.getInput());
+        assertEquals(27, tx.getV());
+    }
+
+    @Test
+    public void testReceiptAndLogsAreMapped() {
+        final org.web3j.protocol.core.methods.response.Log web3jLog = new org.web3j.protocol.core.methods.response.Log(
+                false, "0x1", "0x2", "0xth", "0xbh", "0x10", FROM, "0xdata", "mined", Arrays.asList("0xt1"));
+        final Web3jTransactionReceipt receipt = new Web3jTransactionReceipt(new TransactionReceipt(
+                "0xth", "0x2", "0xbh", "0x10", "0x20", "0x30", null, "0xroot", "0x1",
+                FROM, TO, Arrays.asList(web3jLog), "0xbloom", null));
+
+        assertEquals(BigInteger.valueOf(2), receipt.getTransactionIndex());
+        assertEquals(BigInteger.valueOf(16), receipt.getBlockNumber());
+        assertEquals(BigInteger.valueOf(32), receipt.getCumulativeGasUsed());
+        assertEquals(BigInteger.valueOf(48), receipt.getGasUsed());
+        assertEquals("0x1", receipt.getStatus());
+        assertEquals("0xbloom", receipt.getLogsBloom());
+
+        final Log log = receipt.getLogs().get(0);
+        assertEquals(BigInteger.ONE, log.getLogIndex());
+        assertEquals(BigInteger.valueOf(16), log.getBlockNumber());
+        assertEquals(FROM, log.getAddress());
+        assertEquals("0xdata", log.getData());
+        assertEquals(Arrays.asList("0xt1"), log.getTopics());
+    }
+
+    static EthBlock.Block createBlock(String nonce) {
+        return new EthBlock.Block("0x10", BLOCK_HASH, PARENT_HASH, nonce, ROOT, LOGS_BLOOM, ROOT, ROOT, ROOT,
+                "0xauth", "0xminer", ROOT, "0x100", "0x200", "0xextra", "0x300", "0x400", "0x500", "0x600",
+                Arrays.asList(new EthBlock.TransactionObject(TX_HASH, "0x1a", BLOCK_HASH, "0x10", "0x2", FROM, TO,
+                        "0x3e8", "0x5", "0x5208", "0xinput", null, "0xpub", "0xraw", "0xr", "0xs", 27)),
+                Arrays.asList("0xu"), Arrays.asList("0xseal"));
+    }
+}
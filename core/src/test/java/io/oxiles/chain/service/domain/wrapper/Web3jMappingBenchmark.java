@@ -0,0 +1,154 @@
+package io.oxiles.chain.service.domain.wrapper;
+
+import io.oxiles.chain.factory.DefaultTransactionDetailsFactory;
+import io.oxiles.chain.service.domain.Transaction;
+import io.oxiles.dto.transaction.TransactionDetails;
+import io.oxiles.dto.transaction.TransactionStatus;
+import lombok.Data;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.web3j.crypto.Hash;
+import org.web3j.protocol.core.methods.response.EthBlock;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares converting a block of transactions into Web3jBlock and TransactionDetails objects with the
+ * explicit mappings against the ModelMapper based conversion that was used previously, which built a
+ * new ModelMapper for every block and every transaction.
+ *
+ * Run with the main method from the test classpath, as it is not picked up by surefire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Web3jMappingBenchmark {
+
+    private static final int TRANSACTIONS_PER_BLOCK = 100;
+
+    EthBlock.Block ethBlock;
+
+    private DefaultTransactionDetailsFactory transactionDetailsFactory;
+
+    @Setup
+    public void setup() {
+        final List<EthBlock.TransactionResult> transactions = new ArrayList<>();
+
+        for (int i = 0; i < TRANSACTIONS_PER_BLOCK; i++) {
+            transactions.add(new EthBlock.TransactionObject(hash(i), "0x1a", hash(-1), "0x10",
+                    "0x" + Integer.toHexString(i), "0x7a55a28856d43bba3c6a7e36f2cee9a82923e99b",
+                    "0x1234567890123456789012345678901234567890", "0x3e8", "0x5", "0x5208", "0x", null,
+                    "0xpub", "0xraw", "0xr", "0xs", 27));
+        }
+
+        ethBlock = new EthBlock.Block("0x10", hash(-1), hash(-2), "0x7", hash(-3), "0x" + String.join("", Collections.nCopies(256, "00")),
+                hash(-4), hash(-5), hash(-6), "0xauth", "0xminer", hash(-7), "0x100", "0x200", "0xextra", "0x300", "0x400", "0x500", "0x600",
+                transactions, new ArrayList<>(), new ArrayList<>());
+
+        transactionDetailsFactory = new DefaultTransactionDetailsFactory();
+    }
+
+    @Benchmark
+    public void modelMapper(Blackhole blackhole) {
+        final ModelMapper blockMapper = new ModelMapper();
+        blockMapper.typeMap(EthBlock.Block.class, MappedBlock.class)
+                .addMappings(mapper -> mapper.skip(MappedBlock::setTransactions));
+        blackhole.consume(blockMapper.map(ethBlock, MappedBlock.class));
+
+        final ModelMapper detailsMapper = new ModelMapper();
+
+        for (EthBlock.TransactionResult result : ethBlock.getTransactions()) {
+            final MappedTransaction transaction =
+                    new ModelMapper().map(result.get(), MappedTransaction.class);
+
+            blackhole.consume(detailsMapper.map(transaction, TransactionDetails.class));
+        }
+    }
+
+    @Benchmark
+    public void explicit(Blackhole blackhole) {
+        final Web3jBlock block = new Web3jBlock(ethBlock, "node");
+
+        for (Transaction transaction : block.getTransactions()) {
+            blackhole.consume(transactionDetailsFactory.createTransactionDetails(
+                    block, transaction, TransactionStatus.CONFIRMED));
+        }
+    }
+
+    static String hash(int seed) {
+        return Hash.sha3String(String.valueOf(seed));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(Web3jMappingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Data
+    public static class MappedBlock {
+        private BigInteger number;
+        private String hash;
+        private String parentHash;
+        private BigInteger nonce;
+        private String sha3Uncles;
+        private String logsBloom;
+        private String transactionsRoot;
+        private String stateRoot;
+        private String receiptsRoot;
+        private String author;
+        private String miner;
+        private String mixHash;
+        private BigInteger difficulty;
+        private BigInteger totalDifficulty;
+        private String extraData;
+        private BigInteger size;
+        private BigInteger gasLimit;
+        private BigInteger gasUsed;
+        private BigInteger timestamp;
+        private List<Transaction> transactions;
+        private List<String> uncles;
+        private List<String> sealFields;
+    }
+
+    @Data
+    public static class MappedTransaction {
+        private String hash;
+        private String nonce;
+        private String blockHash;
+        private String blockNumber;
+        private String transactionIndex;
+        private String from;
+        private String to;
+        private String value;
+        private String gasPrice;
+        private String gas;
+        private String input;
+        private String creates;
+        private String publicKey;
+        private String raw;
+        private String r;
+        private String s;
+        private long v;
+    }
+}
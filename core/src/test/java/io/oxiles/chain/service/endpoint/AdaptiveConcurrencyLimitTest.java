@@ -0,0 +1,113 @@
+package io.oxiles.chain.service.endpoint;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    private static final long LATENCY = 100;
+
+    private static final String METHOD = "eth_getTransactionReceipt";
+
+    @Test
+    public void testLimitGrowsByOnePerWindowWhileInUse() {
+        final AdaptiveConcurrencyLimit underTest = new AdaptiveConcurrencyLimit(4, 10);
+
+        for (int i = 0; i < 3; i++) {
+            underTest.onSuccess(underTest.start(), METHOD, LATENCY, 4);
+        }
+        assertEquals(4, underTest.getLimit());
+
+        underTest.onSuccess(underTest.start(), METHOD, LATENCY, 4);
+        assertEquals(5, underTest.getLimit());
+
+        for (int i = 0; i < 5; i++) {
+            underTest.onSuccess(underTest.start(), METHOD, LATENCY, 5);
+        }
+        assertEquals(6, underTest.getLimit());
+    }
+
+    @Test
+    public void testLimitDoesNotGrowWhenUnused() {
+        final AdaptiveConcurrencyLimit underTest = new AdaptiveConcurrencyLimit(4, 10);
+
+        for (int i = 0; i < 10; i++) {
+            underTest.onSuccess(underTest.start(), METHOD, LATENCY, 1);
+        }
+
+        assertEquals(4, underTest.getLimit());
+    }
+
+    @Test
+    public void testLimitDoesNotGrowPastMax() {
+        final AdaptiveConcurrencyLimit underTest = new AdaptiveConcurrencyLimit(9, 10);
+
+        for (int i = 0; i < 50; i++) {
+            underTest.onSuccess(underTest.start(), METHOD, LATENCY, 10);
+        }
+
+        assertEquals(10, underTest.getLimit());
+    }
+
+    @Test
+    public void testLimitIsHalvedOnDrop() {
+        final AdaptiveConcurrencyLimit underTest = new AdaptiveConcurrencyLimit(8, 10);
+
+        underTest.onDropped(underTest.start());
+
+        assertEquals(4, underTest.getLimit());
+    }
+
+    @Test
+    public void testLimitIsCutOnLatencySpike() {
+        final AdaptiveConcurrencyLimit underTest = new AdaptiveConcurrencyLimit(10, 10);
+
+        underTest.onSuccess(underTest.start(), METHOD, LATENCY, 1);
+        underTest.onSuccess(underTest.start(), METHOD, LATENCY * 3, 10);
+
+        assertEquals(9, underTest.getLimit());
+    }
+
+    @Test
+    public void testSlowMethodDoesNotCutLimitForFastOnes() {
+        final AdaptiveConcurrencyLimit underTest = new AdaptiveConcurrencyLimit(10, 10);
+
+        for (int i = 0; i < 5; i++) {
+            underTest.onSuccess(underTest.start(), "eth_blockNumber", LATENCY, 1);
+            underTest.onSuccess(underTest.start(), "eth_getLogs", LATENCY * 20, 1);
+            underTest.onSuccess(underTest.start(), "batch", LATENCY * 5, 1);
+        }
+
+        assertEquals(10, underTest.getLimit());
+
+        underTest.onSuccess(underTest.start(), "eth_blockNumber", LATENCY * 3, 1);
+        assertEquals(9, underTest.getLimit());
+    }
+
+    @Test
+    public void testRequestsSentBeforeCutDoNotCutAgain() {
+        final AdaptiveConcurrencyLimit underTest = new AdaptiveConcurrencyLimit(8, 10);
+
+        final long first = underTest.start();
+        final long second = underTest.start();
+
+        underTest.onDropped(first);
+        underTest.onDropped(second);
+        assertEquals(4, underTest.getLimit());
+
+        underTest.onDropped(underTest.start());
+        assertEquals(2, underTest.getLimit());
+    }
+
+    @Test
+    public void testLimitNeverFallsBelowOne() {
+        final AdaptiveConcurrencyLimit underTest = new AdaptiveConcurrencyLimit(2, 10);
+
+        for (int i = 0; i < 5; i++) {
+            underTest.onDropped(underTest.start());
+        }
+
+        assertEquals(1, underTest.getLimit());
+    }
+}
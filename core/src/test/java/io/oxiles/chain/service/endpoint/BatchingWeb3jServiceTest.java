@@ -0,0 +1,259 @@
+package io.oxiles.chain.service.endpoint;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.web3j.protocol.Service;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class BatchingWeb3jServiceTest {
+
+    private static final int MAX_BATCH_SIZE = 3;
+
+    private static final long LONG_WINDOW = 60000;
+
+    private static final String TX_HASH = "0x1fdb6a20587d7114ee471f3ec9d2517b267fc951eafc91ccdede7c50962a755b";
+
+    private static final String BLOCK_HASH = "0x368ce0ee3afdf1bd73d7e6912f899f31b14b9656e1a3164400ba4587df192c1d";
+
+    private Web3jService mockDelegate;
+
+    private BatchingWeb3jService underTest;
+
+    @Before
+    public void init() {
+        mockDelegate = mock(Web3jService.class);
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        underTest.close();
+    }
+
+    @Test
+    public void testRequestsWithinWindowAreBatched() throws Exception {
+        underTest = new BatchingWeb3jService("mainnet", mockDelegate, 10, 50l);
+        respondToBatches(false);
+
+        final List<Request<?, EthBlockNumber>> requests = createRequests(3);
+        final List<CompletableFuture<EthBlockNumber>> responses = sendAll(requests);
+
+        for (int i = 0; i < requests.size(); i++) {
+            assertEquals(requests.get(i).getId(), responses.get(i).get(1, TimeUnit.SECONDS).getId());
+        }
+
+        final ArgumentCaptor<BatchRequest> captor = ArgumentCaptor.forClass(BatchRequest.class);
+        verify(mockDelegate, times(1)).sendBatch(captor.capture());
+        assertEquals(3, captor.getValue().getRequests().size());
+    }
+
+    @Test
+    public void testResponsesAreMatchedById() throws Exception {
+        underTest = new BatchingWeb3jService("mainnet", mockDelegate, MAX_BATCH_SIZE, LONG_WINDOW);
+        respondToBatches(true);
+
+        final List<Request<?, EthBlockNumber>> requests = createRequests(MAX_BATCH_SIZE);
+        final List<CompletableFuture<EthBlockNumber>> responses = sendAll(requests);
+
+        for (int i = 0; i < requests.size(); i++) {
+            assertEquals(requests.get(i).getId(), responses.get(i).get(1, TimeUnit.SECONDS).getId());
+        }
+    }
+
+    @Test
+    public void testReorderedMixedBatchIsReadIntoRequestedTypes() throws Exception {
+        final ReversingService service = new ReversingService();
+        underTest = new BatchingWeb3jService("mainnet", service, 2, LONG_WINDOW);
+
+        final CompletableFuture<EthGetTransactionReceipt> receipt = underTest.sendAsync(
+                new Request<>("eth_getTransactionReceipt", Collections.singletonList(TX_HASH),
+                        service, EthGetTransactionReceipt.class), EthGetTransactionReceipt.class);
+        final CompletableFuture<EthBlock> block = underTest.sendAsync(
+                new Request<>("eth_getBlockByHash", Arrays.asList(BLOCK_HASH, false),
+                        service, EthBlock.class), EthBlock.class);
+
+        assertEquals(TX_HASH, receipt.get(1, TimeUnit.SECONDS).getTransactionReceipt().get().getTransactionHash());
+        assertEquals(BLOCK_HASH, block.get(1, TimeUnit.SECONDS).getBlock().getHash());
+    }
+
+    @Test
+    public void testFullBatchIsSentWithoutWaitingForWindow() throws Exception {
+        underTest = new BatchingWeb3jService("mainnet", mockDelegate, MAX_BATCH_SIZE, LONG_WINDOW);
+        respondToBatches(false);
+
+        final List<CompletableFuture<EthBlockNumber>> responses = sendAll(createRequests(MAX_BATCH_SIZE + 1));
+
+        for (int i = 0; i < MAX_BATCH_SIZE; i++) {
+            responses.get(i).get(1, TimeUnit.SECONDS);
+        }
+
+        assertTrue(!responses.get(MAX_BATCH_SIZE).isDone());
+        verify(mockDelegate, times(1)).sendBatch(any(BatchRequest.class));
+    }
+
+    @Test
+    public void testSingleRequestIsSentOnItsOwn() throws Exception {
+        underTest = new BatchingWeb3jService("mainnet", mockDelegate, MAX_BATCH_SIZE, 1l);
+
+        final EthBlockNumber response = new EthBlockNumber();
+        when(mockDelegate.send(any(Request.class), eq(EthBlockNumber.class))).thenReturn(response);
+
+        assertSame(response, underTest.send(createRequests(1).get(0), EthBlockNumber.class));
+        verify(mockDelegate, never()).sendBatch(any(BatchRequest.class));
+    }
+
+    @Test
+    public void testBatchFailureIsPassedToEveryCaller() throws Exception {
+        underTest = new BatchingWeb3jService("mainnet", mockDelegate, MAX_BATCH_SIZE, LONG_WINDOW);
+        when(mockDelegate.sendBatch(any(BatchRequest.class))).thenThrow(new IOException("Down"));
+
+        for (CompletableFuture<EthBlockNumber> response : sendAll(createRequests(MAX_BATCH_SIZE))) {
+            assertFailedWith(IOException.class, response);
+        }
+    }
+
+    @Test
+    public void testProviderWithoutBatchSupportFailsWithIOException() throws Exception {
+        underTest = new BatchingWeb3jService("mainnet", mockDelegate, MAX_BATCH_SIZE, LONG_WINDOW);
+        //What web3j throws when a batch is answered with a single error object rather than an array
+        when(mockDelegate.sendBatch(any(BatchRequest.class))).thenThrow(new ClassCastException(
+                "com.fasterxml.jackson.databind.node.ObjectNode cannot be cast to com.fasterxml.jackson.databind.node.ArrayNode"));
+
+        for (CompletableFuture<EthBlockNumber> response : sendAll(createRequests(MAX_BATCH_SIZE))) {
+            try {
+                response.get(1, TimeUnit.SECONDS);
+                fail("Expected the request to fail");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IOException);
+                assertTrue(e.getCause().getMessage().contains("does not support JSON-RPC batches"));
+            }
+        }
+    }
+
+    @Test
+    public void testMissingResponseFailsOnlyItsCaller() throws Exception {
+        underTest = new BatchingWeb3jService("mainnet", mockDelegate, MAX_BATCH_SIZE, LONG_WINDOW);
+
+        when(mockDelegate.sendBatch(any(BatchRequest.class))).thenAnswer(invocation -> {
+            final BatchRequest batch = (BatchRequest) invocation.getArguments()[0];
+            final List<Response<?>> responses = new ArrayList<>();
+            batch.getRequests().subList(1, batch.getRequests().size()).forEach(request -> responses.add(respond(request)));
+
+            return new BatchResponse(batch.getRequests(), responses);
+        });
+
+        final List<CompletableFuture<EthBlockNumber>> responses = sendAll(createRequests(MAX_BATCH_SIZE));
+
+        assertFailedWith(IOException.class, responses.get(0));
+        responses.get(1).get(1, TimeUnit.SECONDS);
+        responses.get(2).get(1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Answers a batch in reverse order, reading and writing the JSON as a provider would.
+     */
+    private static class ReversingService extends Service {
+
+        private ReversingService() {
+            super(false);
+        }
+
+        @Override
+        protected InputStream performIO(String payload) throws IOException {
+            final List<String> responses = new ArrayList<>();
+
+            for (JsonNode request : objectMapper.readTree(payload)) {
+                final String result = request.get("method").asText().equals("eth_getTransactionReceipt")
+                        ? "{\"transactionHash\":\"" + TX_HASH + "\",\"blockHash\":\"" + BLOCK_HASH + "\"}"
+                        : "{\"hash\":\"" + BLOCK_HASH + "\",\"number\":\"0x10\",\"transactions\":[]}";
+
+                responses.add(0, "{\"jsonrpc\":\"2.0\",\"id\":" + request.get("id").asLong()
+                        + ",\"result\":" + result + "}");
+            }
+
+            return new ByteArrayInputStream(
+                    ("[" + String.join(",", responses) + "]").getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private void respondToBatches(boolean reversed) throws IOException {
+        when(mockDelegate.sendBatch(any(BatchRequest.class))).thenAnswer(invocation -> {
+            final BatchRequest batch = (BatchRequest) invocation.getArguments()[0];
+            final List<Response<?>> responses = new ArrayList<>();
+            batch.getRequests().forEach(request -> responses.add(respond(request)));
+
+            if (reversed) {
+                Collections.reverse(responses);
+            }
+
+            return new BatchResponse(batch.getRequests(), responses);
+        });
+    }
+
+    private EthBlockNumber respond(Request<?, ?> request) {
+        final EthBlockNumber response = new EthBlockNumber();
+        response.setId(request.getId());
+
+        return response;
+    }
+
+    private List<Request<?, EthBlockNumber>> createRequests(int count) {
+        final List<Request<?, EthBlockNumber>> requests = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            requests.add(new Request<>("eth_blockNumber", Collections.<String>emptyList(),
+                    mockDelegate, EthBlockNumber.class));
+        }
+
+        return requests;
+    }
+
+    private List<CompletableFuture<EthBlockNumber>> sendAll(List<Request<?, EthBlockNumber>> requests) {
+        final List<CompletableFuture<EthBlockNumber>> responses = new ArrayList<>();
+        requests.forEach(request -> responses.add(underTest.sendAsync(request, EthBlockNumber.class)));
+
+        return responses;
+    }
+
+    private void assertFailedWith(Class<? extends Throwable> errorType, CompletableFuture<?> response) throws Exception {
+        try {
+            response.get(1, TimeUnit.SECONDS);
+            fail("Expected the request to fail");
+        } catch (ExecutionException e) {
+            assertTrue(errorType.isInstance(e.getCause()));
+        }
+    }
+}
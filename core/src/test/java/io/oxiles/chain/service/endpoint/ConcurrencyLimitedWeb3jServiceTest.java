@@ -0,0 +1,199 @@
+package io.oxiles.chain.service.endpoint;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.exceptions.ClientConnectionException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ConcurrencyLimitedWeb3jServiceTest {
+
+    private Web3jService mockDelegate;
+
+    private ConcurrencyLimitedWeb3jService underTest;
+
+    @Before
+    public void init() {
+        mockDelegate = mock(Web3jService.class);
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        underTest.close();
+    }
+
+    @Test
+    public void testRequestsOverLimitAreQueuedInOrder() throws Exception {
+        underTest = new ConcurrencyLimitedWeb3jService("mainnet", mockDelegate, new AdaptiveConcurrencyLimit(1, 1));
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Long> sent = Collections.synchronizedList(new ArrayList<>());
+
+        when(mockDelegate.send(any(Request.class), eq(EthBlockNumber.class))).thenAnswer(invocation -> {
+            sent.add(((Request<?, ?>) invocation.getArguments()[0]).getId());
+            release.await(1, TimeUnit.SECONDS);
+            return new EthBlockNumber();
+        });
+
+        final List<Request<?, EthBlockNumber>> requests = createRequests(5);
+        final List<CompletableFuture<EthBlockNumber>> responses = new ArrayList<>();
+        requests.forEach(request -> responses.add(underTest.sendAsync(request, EthBlockNumber.class)));
+
+        waitFor(() -> sent.size() == 1);
+        assertEquals(1, underTest.getInFlightGauge().get());
+        assertEquals(4, underTest.getQueueLengthGauge().get());
+
+        release.countDown();
+
+        for (CompletableFuture<EthBlockNumber> response : responses) {
+            response.get(1, TimeUnit.SECONDS);
+        }
+
+        for (int i = 0; i < requests.size(); i++) {
+            assertEquals(requests.get(i).getId(), (long) sent.get(i));
+        }
+
+        assertEquals(0, underTest.getQueueLengthGauge().get());
+    }
+
+    @Test
+    public void testBatchTakesSingleSlot() throws Exception {
+        underTest = new ConcurrencyLimitedWeb3jService("mainnet", mockDelegate, new AdaptiveConcurrencyLimit(1, 1));
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final BatchRequest batch = new BatchRequest(mockDelegate);
+        createRequests(5).forEach(batch::add);
+
+        when(mockDelegate.sendBatch(batch)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(1, TimeUnit.SECONDS);
+            return new BatchResponse(batch.getRequests(), Collections.emptyList());
+        });
+
+        final CompletableFuture<BatchResponse> batchResponse = underTest.sendBatchAsync(batch);
+        final CompletableFuture<EthBlockNumber> queued =
+                underTest.sendAsync(createRequests(1).get(0), EthBlockNumber.class);
+
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        assertEquals(1, underTest.getInFlightGauge().get());
+        assertEquals(1, underTest.getQueueLengthGauge().get());
+
+        when(mockDelegate.send(any(Request.class), eq(EthBlockNumber.class))).thenReturn(new EthBlockNumber());
+        release.countDown();
+
+        batchResponse.get(1, TimeUnit.SECONDS);
+        queued.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testFailureCutsLimit() throws Exception {
+        underTest = new ConcurrencyLimitedWeb3jService("mainnet", mockDelegate, new AdaptiveConcurrencyLimit(8, 8));
+        when(mockDelegate.send(any(Request.class), eq(EthBlockNumber.class))).thenThrow(new IOException("429"));
+
+        try {
+            underTest.send(createRequests(1).get(0), EthBlockNumber.class);
+            fail("Expected the request to fail");
+        } catch (IOException e) {
+            assertEquals("429", e.getMessage());
+        }
+
+        waitFor(() -> underTest.getLimitGauge().get() == 4);
+    }
+
+    @Test
+    public void testHttpErrorStatusCutsLimit() throws Exception {
+        underTest = new ConcurrencyLimitedWeb3jService("mainnet", mockDelegate, new AdaptiveConcurrencyLimit(8, 8));
+        when(mockDelegate.send(any(Request.class), eq(EthBlockNumber.class)))
+                .thenThrow(new ClientConnectionException("Invalid response received: 429; Too Many Requests"));
+
+        try {
+            underTest.send(createRequests(1).get(0), EthBlockNumber.class);
+            fail("Expected the request to fail");
+        } catch (ClientConnectionException e) {
+            assertTrue(e.getMessage().contains("429"));
+        }
+
+        waitFor(() -> underTest.getLimitGauge().get() == 4);
+    }
+
+    @Test
+    public void testRateLimitedResponseCutsLimit() throws Exception {
+        underTest = new ConcurrencyLimitedWeb3jService("mainnet", mockDelegate, new AdaptiveConcurrencyLimit(8, 8));
+
+        final EthBlockNumber rateLimited = new EthBlockNumber();
+        rateLimited.setError(new Response.Error(ConcurrencyLimitedWeb3jService.RATE_LIMITED_ERROR_CODE, "Limited"));
+        when(mockDelegate.send(any(Request.class), eq(EthBlockNumber.class))).thenReturn(rateLimited);
+
+        assertSame(rateLimited, underTest.send(createRequests(1).get(0), EthBlockNumber.class));
+        waitFor(() -> underTest.getLimitGauge().get() == 4);
+    }
+
+    @Test
+    public void testUnexpectedErrorDoesNotCutLimit() throws Exception {
+        underTest = new ConcurrencyLimitedWeb3jService("mainnet", mockDelegate, new AdaptiveConcurrencyLimit(8, 8));
+        when(mockDelegate.send(any(Request.class), eq(EthBlockNumber.class)))
+                .thenThrow(new IllegalStateException("Bad request"));
+
+        final CompletableFuture<EthBlockNumber> response =
+                underTest.sendAsync(createRequests(1).get(0), EthBlockNumber.class);
+
+        try {
+            response.get(1, TimeUnit.SECONDS);
+            fail("Expected the request to fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+
+        assertEquals(8, underTest.getLimitGauge().get());
+    }
+
+    private List<Request<?, EthBlockNumber>> createRequests(int count) {
+        final List<Request<?, EthBlockNumber>> requests = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            requests.add(new Request<>("eth_blockNumber", Collections.<String>emptyList(),
+                    mockDelegate, EthBlockNumber.class));
+        }
+
+        return requests;
+    }
+
+    private void waitFor(Condition condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 1000;
+
+        while (!condition.isMet()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for condition");
+            }
+
+            Thread.sleep(5);
+        }
+    }
+
+    private interface Condition {
+        boolean isMet();
+    }
+}
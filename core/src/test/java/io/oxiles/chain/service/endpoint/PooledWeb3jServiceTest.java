@@ -0,0 +1,323 @@
+package io.oxiles.chain.service.endpoint;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.exceptions.ClientConnectionException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class PooledWeb3jServiceTest {
+
+    private static final long EJECTION_TIME = 60000;
+
+    private static final Double HEDGE_PERCENTILE = 95d;
+
+    private Web3jService mockServiceA;
+
+    private Web3jService mockServiceB;
+
+    private Endpoint endpointA;
+
+    private Endpoint endpointB;
+
+    private EthBlockNumber response;
+
+    private PooledWeb3jService underTest;
+
+    @Before
+    public void init() throws Exception {
+        mockServiceA = mock(Web3jService.class);
+        mockServiceB = mock(Web3jService.class);
+        response = new EthBlockNumber();
+
+        when(mockServiceA.send(any(Request.class), eq(EthBlockNumber.class))).thenReturn(response);
+        when(mockServiceB.send(any(Request.class), eq(EthBlockNumber.class))).thenReturn(response);
+
+        endpointA = new Endpoint("http://a", mockServiceA, EJECTION_TIME);
+        endpointB = new Endpoint("http://b", mockServiceB, EJECTION_TIME);
+
+        underTest = new PooledWeb3jService("mainnet", Arrays.asList(endpointA, endpointB), null);
+    }
+
+    @Test
+    public void testRequestsAreSpreadAcrossEndpoints() throws Exception {
+        //The weights come from the observed latencies, so these are fixed rather than measured
+        endpointA.onSuccess(10);
+        endpointB.onSuccess(10);
+
+        final Map<Endpoint, Integer> selections = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            selections.merge(underTest.select(Collections.emptySet(), 0), 1, Integer::sum);
+        }
+
+        assertEquals(5, selections.get(endpointA).intValue());
+        assertEquals(5, selections.get(endpointB).intValue());
+
+        send();
+        send();
+
+        verify(mockServiceA, times(1)).send(any(Request.class), eq(EthBlockNumber.class));
+        verify(mockServiceB, times(1)).send(any(Request.class), eq(EthBlockNumber.class));
+    }
+
+    @Test
+    public void testFasterEndpointIsFavoured() {
+        endpointA.onSuccess(10);
+        endpointB.onSuccess(100);
+
+        final Map<Endpoint, Integer> selections = new HashMap<>();
+        for (int i = 0; i < 1100; i++) {
+            selections.merge(underTest.select(Collections.emptySet(), 0), 1, Integer::sum);
+        }
+
+        assertEquals(1000, selections.get(endpointA).intValue());
+        assertEquals(100, selections.get(endpointB).intValue());
+    }
+
+    @Test
+    public void testFailedRequestIsRetriedOnNextEndpoint() throws Exception {
+        when(mockServiceA.send(any(Request.class), eq(EthBlockNumber.class))).thenThrow(new IOException("Down"));
+
+        assertSame(response, send());
+        assertSame(response, send());
+
+        verify(mockServiceB, times(2)).send(any(Request.class), eq(EthBlockNumber.class));
+        assertTrue(endpointA.getErrorRate() > 0);
+        assertEquals(0, endpointB.getErrorRate(), 0);
+    }
+
+    @Test
+    public void testHttpErrorStatusIsRetriedOnNextEndpoint() throws Exception {
+        when(mockServiceA.send(any(Request.class), eq(EthBlockNumber.class)))
+                .thenThrow(new ClientConnectionException("Invalid response received: 429; Too Many Requests"));
+
+        assertSame(response, send());
+
+        verify(mockServiceB, times(1)).send(any(Request.class), eq(EthBlockNumber.class));
+        assertTrue(endpointA.getErrorRate() > 0);
+    }
+
+    @Test
+    public void testLookupByHashWithoutResultIsRetriedOnNextEndpoint() throws Exception {
+        final EthBlock found = new EthBlock();
+        found.setResult(new EthBlock.Block());
+        when(mockServiceA.send(any(Request.class), eq(EthBlock.class))).thenReturn(new EthBlock());
+        when(mockServiceB.send(any(Request.class), eq(EthBlock.class))).thenReturn(found);
+
+        assertSame(found, getBlockByHash());
+        assertSame(found, getBlockByHash());
+
+        verify(mockServiceB, times(2)).send(any(Request.class), eq(EthBlock.class));
+        //The lagging endpoint answered, so it is not penalised
+        assertEquals(0, endpointA.getErrorRate(), 0);
+        assertTrue(endpointA.isAvailable(System.currentTimeMillis()));
+    }
+
+    @Test
+    public void testLookupByHashWithoutResultOnAnyEndpointReturnsEmptyResponse() throws Exception {
+        final EthBlock notFound = new EthBlock();
+        when(mockServiceA.send(any(Request.class), eq(EthBlock.class))).thenReturn(notFound);
+        when(mockServiceB.send(any(Request.class), eq(EthBlock.class))).thenReturn(notFound);
+
+        assertSame(notFound, getBlockByHash());
+
+        verify(mockServiceA, times(1)).send(any(Request.class), eq(EthBlock.class));
+        verify(mockServiceB, times(1)).send(any(Request.class), eq(EthBlock.class));
+    }
+
+    @Test
+    public void testOtherMethodsWithoutResultAreNotRetried() throws Exception {
+        //The response set up in init has no result
+        assertSame(response, send());
+
+        verify(mockServiceA, times(1)).send(any(Request.class), eq(EthBlockNumber.class));
+        verify(mockServiceB, never()).send(any(Request.class), eq(EthBlockNumber.class));
+    }
+
+    @Test
+    public void testFailingEndpointIsEjected() throws Exception {
+        when(mockServiceA.send(any(Request.class), eq(EthBlockNumber.class))).thenThrow(new IOException("Down"));
+
+        for (int i = 0; i < 10; i++) {
+            send();
+        }
+
+        verify(mockServiceA, times(Endpoint.EJECTION_THRESHOLD)).send(any(Request.class), eq(EthBlockNumber.class));
+        assertFalse(endpointA.isHealthy());
+        assertFalse(endpointA.isAvailable(System.currentTimeMillis()));
+        assertEquals(0, endpointA.getHealthyGauge().get());
+    }
+
+    @Test
+    public void testEjectedEndpointIsUsedWhenNoOtherIsAvailable() throws Exception {
+        ejectAll();
+
+        assertSame(response, send());
+    }
+
+    @Test(expected = IOException.class)
+    public void testErrorIsThrownWhenAllEndpointsFail() throws Exception {
+        when(mockServiceA.send(any(Request.class), eq(EthBlockNumber.class))).thenThrow(new IOException("Down"));
+        when(mockServiceB.send(any(Request.class), eq(EthBlockNumber.class))).thenThrow(new IOException("Down"));
+
+        send();
+    }
+
+    @Test
+    public void testHealthCheckReadmitsRecoveredEndpoint() throws Exception {
+        ejectAll();
+        assertFalse(endpointA.isAvailable(System.currentTimeMillis()));
+
+        assertTrue(underTest.checkEndpoints());
+
+        assertTrue(endpointA.isAvailable(System.currentTimeMillis()));
+        assertTrue(endpointA.isHealthy());
+        assertEquals(1, endpointA.getHealthyGauge().get());
+    }
+
+    @Test
+    public void testHealthCheckReportsWhenNoEndpointResponds() throws Exception {
+        when(mockServiceA.send(any(Request.class), eq(EthBlockNumber.class))).thenThrow(new IOException("Down"));
+        when(mockServiceB.send(any(Request.class), eq(EthBlockNumber.class))).thenThrow(new IOException("Down"));
+
+        assertFalse(underTest.checkEndpoints());
+    }
+
+    @Test
+    public void testHealthCheckFailsEndpointWithHttpErrorStatus() throws Exception {
+        when(mockServiceA.send(any(Request.class), eq(EthBlockNumber.class)))
+                .thenThrow(new ClientConnectionException("Invalid response received: 503; Service Unavailable"));
+
+        assertTrue(underTest.checkEndpoints());
+
+        assertTrue(endpointA.getErrorRate() > 0);
+        assertEquals(0, endpointB.getErrorRate(), 0);
+    }
+
+    @Test
+    public void testSlowReadIsHedged() throws Exception {
+        final EthBlockNumber hedgedResponse = new EthBlockNumber();
+        underTest = createHedgingPool(1);
+        respondAfter(mockServiceA, response, 1000);
+        respondAfter(mockServiceB, hedgedResponse, 0);
+
+        assertSame(hedgedResponse, send());
+
+        assertEquals(1, underTest.getHedgeableRequests().get());
+        assertEquals(1, underTest.getHedgedRequests().get());
+        assertEquals(1, underTest.getHedgeWins().get());
+        assertEquals(0, underTest.getHedgeLosses().get());
+    }
+
+    @Test
+    public void testHedgedReadFallsBackWhenEndpointThrowsRuntimeException() throws Exception {
+        underTest = createHedgingPool(1000);
+        when(mockServiceA.send(any(Request.class), eq(EthBlockNumber.class)))
+                .thenThrow(new IllegalStateException("Connection pool shut down"));
+
+        assertSame(response, send());
+        assertSame(response, send());
+
+        verify(mockServiceB, atLeast(1)).send(any(Request.class), eq(EthBlockNumber.class));
+    }
+
+    @Test
+    public void testHedgedReadFallsBackOnUncheckedTransportError() throws Exception {
+        underTest = createHedgingPool(1000);
+        when(mockServiceA.send(any(Request.class), eq(EthBlockNumber.class)))
+                .thenThrow(new UncheckedIOException(new SocketException("Connection reset")));
+
+        assertSame(response, send());
+        assertSame(response, send());
+
+        assertTrue(endpointA.getErrorRate() > 0);
+        assertEquals(0, endpointB.getErrorRate(), 0);
+    }
+
+    @Test
+    public void testOriginalResponseCanWinHedge() throws Exception {
+        underTest = createHedgingPool(1);
+        respondAfter(mockServiceA, response, 100);
+        respondAfter(mockServiceB, new EthBlockNumber(), 2000);
+
+        assertSame(response, send());
+
+        assertEquals(1, underTest.getHedgedRequests().get());
+        assertEquals(0, underTest.getHedgeWins().get());
+        assertEquals(1, underTest.getHedgeLosses().get());
+    }
+
+    @Test
+    public void testPromptReadIsNotHedged() throws Exception {
+        underTest = createHedgingPool(5000);
+
+        assertSame(response, send());
+
+        assertEquals(1, underTest.getHedgeableRequests().get());
+        assertEquals(0, underTest.getHedgedRequests().get());
+        verify(mockServiceB, never()).send(any(Request.class), eq(EthBlockNumber.class));
+    }
+
+    @Test
+    public void testWritesAreNotHedged() throws Exception {
+        underTest = createHedgingPool(1);
+        respondAfter(mockServiceA, response, 100);
+
+        underTest.send(new Request<>("eth_sendRawTransaction", Collections.singletonList("0x00"),
+                underTest, EthBlockNumber.class), EthBlockNumber.class);
+
+        assertEquals(0, underTest.getHedgedRequests().get());
+        verify(mockServiceB, never()).send(any(Request.class), eq(EthBlockNumber.class));
+    }
+
+    private PooledWeb3jService createHedgingPool(long recentLatency) {
+        for (int i = 0; i < Endpoint.MIN_LATENCY_SAMPLES; i++) {
+            endpointA.onSuccess(recentLatency);
+            endpointB.onSuccess(recentLatency);
+        }
+
+        return new PooledWeb3jService("mainnet", Arrays.asList(endpointA, endpointB), HEDGE_PERCENTILE);
+    }
+
+    private void respondAfter(Web3jService mockService, EthBlockNumber response, long delay) throws IOException {
+        when(mockService.send(any(Request.class), eq(EthBlockNumber.class))).thenAnswer(invocation -> {
+            Thread.sleep(delay);
+            return response;
+        });
+    }
+
+    private void ejectAll() {
+        for (int i = 0; i < Endpoint.EJECTION_THRESHOLD; i++) {
+            endpointA.onFailure(System.currentTimeMillis());
+            endpointB.onFailure(System.currentTimeMillis());
+        }
+    }
+
+    private EthBlock getBlockByHash() throws IOException {
+        return underTest.send(new Request<>("eth_getBlockByHash", Arrays.asList("0x1", false),
+                underTest, EthBlock.class), EthBlock.class);
+    }
+
+    private EthBlockNumber send() throws IOException {
+        return underTest.send(new Request<>("eth_blockNumber", Collections.<String>emptyList(),
+                underTest, EthBlockNumber.class), EthBlockNumber.class);
+    }
+}
@@ -0,0 +1,121 @@
+package io.oxiles.chain.service.log;
+
+import io.oxiles.chain.service.domain.TransactionReceipt;
+import org.junit.Before;
+import org.junit.Test;
+import org.web3j.protocol.core.methods.response.EthBlock;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BlockContextCacheTest {
+
+    private static final String BLOCK_HASH = "0xc0e07697167c58f2a173df45f5c9b2c46ca0941cdf0bf79616d53dc92f62aebd";
+
+    private static final String OTHER_BLOCK_HASH = "0x0000000000000000000000000000000000000000000000000000000000000001";
+
+    private static final String TX_HASH = "0xc283f53461e98400619f3fcdc081e6f95848c7ad32f79718fcb77fe865e5b58a";
+
+    private BlockContextCache underTest;
+
+    private Function<String, EthBlock> mockBlockLoader;
+
+    private Function<String, TransactionReceipt> mockReceiptLoader;
+
+    private EthBlock mockBlock;
+
+    private TransactionReceipt mockReceipt;
+
+    @Before
+    public void init() {
+        mockBlockLoader = mock(Function.class);
+        mockReceiptLoader = mock(Function.class);
+        mockBlock = mock(EthBlock.class);
+        mockReceipt = mock(TransactionReceipt.class);
+
+        when(mockBlockLoader.apply(BLOCK_HASH)).thenReturn(mockBlock);
+        when(mockReceiptLoader.apply(TX_HASH)).thenReturn(mockReceipt);
+        when(mockReceipt.getBlockHash()).thenReturn(BLOCK_HASH);
+
+        underTest = new BlockContextCache(mockBlockLoader, mockReceiptLoader, BlockContextCache.DEFAULT_MAX_BLOCKS);
+    }
+
+    @Test
+    public void testBlockAndReceiptAreFetchedOnce() {
+        assertEquals(mockBlock, underTest.getBlock(BLOCK_HASH));
+        assertEquals(mockBlock, underTest.getBlock(BLOCK_HASH));
+        assertEquals(mockReceipt, underTest.getTransactionReceipt(BLOCK_HASH, TX_HASH));
+        assertEquals(mockReceipt, underTest.getTransactionReceipt(BLOCK_HASH, TX_HASH));
+
+        verify(mockBlockLoader, times(1)).apply(BLOCK_HASH);
+        verify(mockReceiptLoader, times(1)).apply(TX_HASH);
+    }
+
+    @Test
+    public void testInvalidatedBlockIsRefetched() {
+        underTest.getBlock(BLOCK_HASH);
+        underTest.invalidate(BLOCK_HASH);
+        underTest.getBlock(BLOCK_HASH);
+
+        verify(mockBlockLoader, times(2)).apply(BLOCK_HASH);
+    }
+
+    @Test
+    public void testReceiptFromAnotherForkIsNotReturnedOrCached() {
+        assertNull(underTest.getTransactionReceipt(OTHER_BLOCK_HASH, TX_HASH));
+
+        when(mockReceipt.getBlockHash()).thenReturn(OTHER_BLOCK_HASH);
+        assertEquals(mockReceipt, underTest.getTransactionReceipt(OTHER_BLOCK_HASH, TX_HASH));
+    }
+
+    @Test
+    public void testMissingReceiptIsNotCached() {
+        when(mockReceiptLoader.apply(TX_HASH)).thenReturn(null).thenReturn(mockReceipt);
+
+        assertNull(underTest.getTransactionReceipt(BLOCK_HASH, TX_HASH));
+        assertEquals(mockReceipt, underTest.getTransactionReceipt(BLOCK_HASH, TX_HASH));
+    }
+
+    @Test
+    public void testSlowReceiptLookupDoesNotBlockOtherTransactions() throws Exception {
+        final String otherTxHash = "0x01";
+        final TransactionReceipt otherReceipt = mock(TransactionReceipt.class);
+        final CountDownLatch lookupStarted = new CountDownLatch(1);
+        final CountDownLatch releaseLookup = new CountDownLatch(1);
+
+        when(otherReceipt.getBlockHash()).thenReturn(BLOCK_HASH);
+        when(mockReceiptLoader.apply(otherTxHash)).thenReturn(otherReceipt);
+        when(mockReceiptLoader.apply(TX_HASH)).thenAnswer(invocation -> {
+            lookupStarted.countDown();
+            releaseLookup.await();
+            return mockReceipt;
+        });
+
+        final CompletableFuture<TransactionReceipt> slowLookup =
+                CompletableFuture.supplyAsync(() -> underTest.getTransactionReceipt(BLOCK_HASH, TX_HASH));
+        assertTrue(lookupStarted.await(5, TimeUnit.SECONDS));
+
+        final CompletableFuture<TransactionReceipt> otherLookup =
+                CompletableFuture.supplyAsync(() -> underTest.getTransactionReceipt(BLOCK_HASH, otherTxHash));
+        assertEquals(otherReceipt, otherLookup.get(5, TimeUnit.SECONDS));
+
+        final CompletableFuture<TransactionReceipt> sharedLookup =
+                CompletableFuture.supplyAsync(() -> underTest.getTransactionReceipt(BLOCK_HASH, TX_HASH));
+
+        releaseLookup.countDown();
+
+        assertEquals(mockReceipt, slowLookup.get(5, TimeUnit.SECONDS));
+        assertEquals(mockReceipt, sharedLookup.get(5, TimeUnit.SECONDS));
+        verify(mockReceiptLoader, times(1)).apply(TX_HASH);
+    }
+}
@@ -0,0 +1,223 @@
+package io.oxiles.chain.service.log;
+
+import io.oxiles.chain.block.reorg.ChainReorganisation;
+import io.oxiles.chain.service.domain.Block;
+import io.oxiles.chain.util.Web3jUtil;
+import io.oxiles.dto.event.filter.ContractEventFilter;
+import io.oxiles.dto.event.filter.ContractEventSpecification;
+import io.oxiles.monitoring.EventeumValueMonitor;
+import io.oxiles.repository.ContractEventFilterRepository;
+import io.oxiles.testutils.BloomBuilder;
+import io.oxiles.testutils.DummyAsyncTaskService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BlockLogExtractorTest {
+
+    private static final String ADDRESS = "0x7a55a28856d43bba3c6a7e36f2cee9a82923e99b";
+
+    private BlockLogExtractor underTest;
+
+    private Web3j mockWeb3j;
+
+    private Request<?, EthLog> mockLogRequest;
+
+    private ContractEventSpecification eventSpec;
+
+    private DummyAsyncTaskService asyncTaskService;
+
+    @Before
+    public void init() throws IOException {
+        mockWeb3j = mock(Web3j.class);
+        mockLogRequest = mock(Request.class);
+        doReturn(mockLogRequest).when(mockWeb3j).ethGetLogs(any(EthFilter.class));
+        mockLogs();
+
+        eventSpec = new ContractEventSpecification();
+        eventSpec.setEventName("Transfer");
+
+        asyncTaskService = spy(new DummyAsyncTaskService());
+        underTest = new BlockLogExtractor(mockWeb3j, "test",
+                new LogBackfillEngine(mockWeb3j, "test", 1000, 2, mock(ContractEventFilterRepository.class)),
+                mockMonitor(), asyncTaskService);
+        underTest.start();
+    }
+
+    @Test
+    public void testLogsAreQueriedByBlockHash() throws IOException {
+        final List<Log> received = new ArrayList<>();
+
+        underTest.onBlock(createBlock(100, "0x100", null));
+        underTest.register(createFilter(), BigInteger.valueOf(101), collect(received));
+
+        final Log expected = createLog(101);
+        mockLogs(expected);
+        underTest.onBlock(createBlock(101, "0x101", null));
+
+        assertEquals(Arrays.asList(expected), received);
+
+        final ArgumentCaptor<EthFilter> captor = ArgumentCaptor.forClass(EthFilter.class);
+        verify(mockWeb3j).ethGetLogs(captor.capture());
+
+        final String json = ObjectMapperFactory.getObjectMapper().writeValueAsString(captor.getValue());
+        assertTrue(json.contains("\"blockHash\":\"0x101\""));
+        assertFalse(json.contains("fromBlock"));
+        assertFalse(json.contains("toBlock"));
+    }
+
+    @Test
+    public void testMissedBlocksAreFilledWithRangeQuery() throws IOException {
+        final List<Log> received = new ArrayList<>();
+
+        underTest.onBlock(createBlock(100, "0x100", null));
+        underTest.register(createFilter(), BigInteger.valueOf(101), collect(received));
+
+        final Log missed = createLog(101);
+        mockLogs(missed);
+        underTest.onBlock(createBlock(103, "0x103", null));
+
+        final ArgumentCaptor<EthFilter> captor = ArgumentCaptor.forClass(EthFilter.class);
+        verify(mockWeb3j, times(2)).ethGetLogs(captor.capture());
+
+        final EthFilter rangeFilter = captor.getAllValues().get(0);
+        assertEquals("0x65", rangeFilter.getFromBlock().getValue());
+        assertEquals("0x66", rangeFilter.getToBlock().getValue());
+        assertTrue(captor.getAllValues().get(1) instanceof BlockHashEthFilter);
+    }
+
+    @Test
+    public void testBlockWithoutBloomMatchIsNotQueried() throws IOException {
+        underTest.onBlock(createBlock(100, "0x100", null));
+        underTest.register(createFilter(), BigInteger.valueOf(101), log -> CompletableFuture.completedFuture(null));
+
+        underTest.onBlock(createBlock(101, "0x101", new BloomBuilder().build()));
+
+        verify(mockWeb3j, never()).ethGetLogs(any(EthFilter.class));
+        assertEquals(1, underTest.getSkippedQueries());
+    }
+
+    @Test
+    public void testBlocksAreProcessedOffTheDispatchThread() {
+        underTest.onBlock(createBlock(100, "0x100", null));
+
+        verify(asyncTaskService).execute(eq("BLOCK-LOGS-TEST"), any(Runnable.class));
+    }
+
+    @Test
+    public void testLogsOfOrphanedBlockAreRemoved() throws IOException {
+        final List<Log> received = new ArrayList<>();
+
+        underTest.onBlock(createBlock(100, "0x100", null));
+        underTest.register(createFilter(), BigInteger.valueOf(101), collect(received));
+
+        final Log orphanedLog = createLog(101, "0x101");
+        mockLogs(orphanedLog);
+        underTest.onBlock(createBlock(101, "0x101", null));
+
+        underTest.onReorg(new ChainReorganisation("test", BigInteger.valueOf(100),
+                Arrays.asList("0x101"), createBlock(101, "0x201", null)));
+
+        final Log replacementLog = createLog(101, "0x201");
+        mockLogs(replacementLog);
+        underTest.onBlock(createBlock(101, "0x201", null));
+
+        assertEquals(3, received.size());
+        assertEquals(orphanedLog, received.get(0));
+        assertTrue(received.get(1).isRemoved());
+        assertEquals("0x101", received.get(1).getBlockHash());
+        assertEquals(replacementLog, received.get(2));
+    }
+
+    private ContractEventFilter createFilter() {
+        final ContractEventFilter filter = new ContractEventFilter();
+        filter.setId("filter");
+        filter.setContractAddress(ADDRESS);
+        filter.setEventSpecification(eventSpec);
+
+        return filter;
+    }
+
+    private Block createBlock(long number, String hash, String logsBloom) {
+        final Block block = mock(Block.class);
+        when(block.getNumber()).thenReturn(BigInteger.valueOf(number));
+        when(block.getHash()).thenReturn(hash);
+        when(block.getLogsBloom()).thenReturn(logsBloom);
+
+        return block;
+    }
+
+    private Log createLog(long blockNumber) {
+        final Log log = new Log();
+        log.setAddress(ADDRESS);
+        log.setBlockNumber("0x" + Long.toHexString(blockNumber));
+        log.setTopics(Arrays.asList(Web3jUtil.getSignature(eventSpec)));
+
+        return log;
+    }
+
+    private Log createLog(long blockNumber, String blockHash) {
+        final Log log = createLog(blockNumber);
+        log.setBlockHash(blockHash);
+        log.setLogIndex("0x0");
+
+        return log;
+    }
+
+    private void mockLogs(Log... logs) throws IOException {
+        final List<EthLog.LogResult> results = new ArrayList<>();
+
+        for (Log log : logs) {
+            results.add(new EthLog.LogObject(log.isRemoved(), log.getLogIndexRaw(), log.getTransactionIndexRaw(),
+                    log.getTransactionHash(), log.getBlockHash(), log.getBlockNumberRaw(), log.getAddress(),
+                    log.getData(), log.getType(), log.getTopics()));
+        }
+
+        final EthLog ethLog = new EthLog();
+        ethLog.setResult(results);
+        when(mockLogRequest.send()).thenReturn(ethLog);
+    }
+
+    private Function<Log, CompletableFuture<?>> collect(List<Log> received) {
+        return theLog -> {
+            received.add(theLog);
+            return CompletableFuture.completedFuture(null);
+        };
+    }
+
+    private EventeumValueMonitor mockMonitor() {
+        final EventeumValueMonitor mockValueMonitor = mock(EventeumValueMonitor.class);
+        when(mockValueMonitor.monitor(anyString(), anyString(), any(Number.class)))
+                .thenAnswer(invocation -> invocation.getArguments()[2]);
+
+        return mockValueMonitor;
+    }
+}
@@ -0,0 +1,220 @@
+package io.oxiles.chain.service.log;
+
+import io.oxiles.dto.event.filter.ContractEventFilter;
+import io.oxiles.repository.ContractEventFilterRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LogBackfillEngineTest {
+
+    private static final String ADDRESS = "0x7a55a28856d43bba3c6a7e36f2cee9a82923e99b";
+
+    private static final LogQuery QUERY = new LogQuery(Collections.singletonList(ADDRESS), null);
+
+    private LogBackfillEngine underTest;
+
+    private Web3j mockWeb3j;
+
+    private ContractEventFilterRepository mockRepository;
+
+    private List<BigInteger> failingFromBlocks = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void init() {
+        mockWeb3j = mock(Web3j.class);
+        mockRepository = mock(ContractEventFilterRepository.class);
+
+        //Every block in the requested range contains a single log
+        doAnswer(invocation -> {
+            final EthFilter filter = (EthFilter) invocation.getArguments()[0];
+            final BigInteger from = toBigInteger(filter.getFromBlock().getValue());
+            final BigInteger to = toBigInteger(filter.getToBlock().getValue());
+
+            final Request<?, EthLog> request = mock(Request.class);
+            doAnswer(sendInvocation -> createResponse(from, to)).when(request).send();
+
+            return request;
+        }).when(mockWeb3j).ethGetLogs(any(EthFilter.class));
+
+        underTest = new LogBackfillEngine(mockWeb3j, "test", 10, 3, mockRepository);
+    }
+
+    @After
+    public void cleanup() {
+        underTest.shutdown();
+    }
+
+    @Test
+    public void testLogsAreDeliveredInBlockOrder() {
+        final List<BigInteger> delivered = new ArrayList<>();
+        final List<BigInteger> checkpoints = new ArrayList<>();
+
+        final BigInteger last = underTest.backfill(QUERY, BigInteger.valueOf(1), BigInteger.valueOf(500),
+                log -> deliver(delivered, log), checkpoints::add, () -> false);
+
+        assertEquals(BigInteger.valueOf(500), last);
+        assertEquals(500, delivered.size());
+
+        for (int i = 0; i < delivered.size(); i++) {
+            assertEquals(BigInteger.valueOf(i + 1), delivered.get(i));
+        }
+
+        assertEquals(BigInteger.valueOf(500), checkpoints.get(checkpoints.size() - 1));
+    }
+
+    @Test
+    public void testChunkSizeGrowsOnFastResponses() {
+        underTest.backfill(QUERY, BigInteger.valueOf(1), BigInteger.valueOf(500),
+                log -> CompletableFuture.completedFuture(null), block -> {}, () -> false);
+
+        assertTrue(underTest.getChunkSize() > 10);
+    }
+
+    @Test
+    public void testFailedChunkIsRetriedWithSmallerChunks() {
+        failingFromBlocks.add(BigInteger.valueOf(1));
+
+        final List<BigInteger> delivered = new ArrayList<>();
+
+        underTest.backfill(QUERY, BigInteger.valueOf(1), BigInteger.valueOf(10),
+                log -> deliver(delivered, log), block -> {}, () -> false);
+
+        assertEquals(10, delivered.size());
+        assertEquals(BigInteger.ONE, delivered.get(0));
+    }
+
+    @Test
+    public void testCancelledBackfillStops() {
+        final List<BigInteger> delivered = new ArrayList<>();
+
+        final BigInteger last = underTest.backfill(QUERY, BigInteger.valueOf(1), BigInteger.valueOf(500),
+                log -> deliver(delivered, log), block -> {}, () -> !delivered.isEmpty());
+
+        assertEquals(BigInteger.valueOf(10), last);
+        assertEquals(10, delivered.size());
+    }
+
+    @Test
+    public void testCheckpointWaitsForLogsToBeProcessed() {
+        final CompletableFuture<Void> firstLogProcessed = new CompletableFuture<>();
+        final List<BigInteger> checkpoints = Collections.synchronizedList(new ArrayList<>());
+        final List<Boolean> processedAtCheckpoint = Collections.synchronizedList(new ArrayList<>());
+
+        final BigInteger last = underTest.backfill(QUERY, BigInteger.valueOf(1), BigInteger.valueOf(20),
+                log -> {
+                    if (log.getBlockNumber().equals(BigInteger.ONE)) {
+                        //Still processing after every chunk has been delivered
+                        CompletableFuture.runAsync(() -> {
+                            sleep(200);
+                            firstLogProcessed.complete(null);
+                        });
+
+                        return firstLogProcessed;
+                    }
+
+                    return CompletableFuture.completedFuture(null);
+                },
+                block -> {
+                    processedAtCheckpoint.add(firstLogProcessed.isDone());
+                    checkpoints.add(block);
+                },
+                () -> false);
+
+        assertEquals(BigInteger.valueOf(20), last);
+        assertEquals(Arrays.asList(BigInteger.valueOf(10), BigInteger.valueOf(20)), checkpoints);
+        assertEquals(Arrays.asList(true, true), processedAtCheckpoint);
+    }
+
+    @Test
+    public void testCheckpointSavesNextBlockOnStoredFilter() {
+        final ContractEventFilter filter = createFilter();
+        final ContractEventFilter storedFilter = createFilter();
+        when(mockRepository.findById(filter.getId())).thenReturn(Optional.of(storedFilter));
+
+        underTest.checkpoint(filter, BigInteger.TEN);
+
+        assertEquals(BigInteger.valueOf(11), filter.getBackfillCheckpoint());
+        assertEquals(BigInteger.valueOf(11), storedFilter.getBackfillCheckpoint());
+        verify(mockRepository).save(storedFilter);
+    }
+
+    @Test
+    public void testCheckpointDoesNotRecreateRemovedFilter() {
+        final ContractEventFilter filter = createFilter();
+        when(mockRepository.findById(filter.getId())).thenReturn(Optional.empty());
+
+        underTest.checkpoint(filter, BigInteger.TEN);
+
+        verify(mockRepository, never()).save(any(ContractEventFilter.class));
+    }
+
+    private ContractEventFilter createFilter() {
+        final ContractEventFilter filter = new ContractEventFilter();
+        filter.setId("filter");
+
+        return filter;
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompletableFuture<?> deliver(List<BigInteger> delivered, Log log) {
+        delivered.add(log.getBlockNumber());
+
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private EthLog createResponse(BigInteger from, BigInteger to) {
+        final EthLog ethLog = new EthLog();
+
+        if (failingFromBlocks.remove(from)) {
+            ethLog.setError(new Response.Error(-32005, "query returned more than 10000 results"));
+            return ethLog;
+        }
+
+        final List<EthLog.LogResult> results = new ArrayList<>();
+
+        for (BigInteger block = from; block.compareTo(to) <= 0; block = block.add(BigInteger.ONE)) {
+            results.add(new EthLog.LogObject(false, "0x0", "0x0", null, null,
+                    "0x" + block.toString(16), ADDRESS, "0x", null, Arrays.asList()));
+        }
+
+        ethLog.setResult(results);
+
+        return ethLog;
+    }
+
+    private BigInteger toBigInteger(String hex) {
+        return new BigInteger(hex.substring(2), 16);
+    }
+}
@@ -0,0 +1,362 @@
+package io.oxiles.chain.service.log;
+
+import io.oxiles.chain.block.reorg.ChainReorganisation;
+import io.oxiles.chain.service.domain.Block;
+import io.oxiles.chain.util.Web3jUtil;
+import io.oxiles.dto.event.filter.ContractEventFilter;
+import io.oxiles.dto.event.filter.ContractEventSpecification;
+import io.oxiles.dto.event.filter.ParameterDefinition;
+import io.oxiles.dto.event.filter.ParameterType;
+import io.oxiles.monitoring.EventeumValueMonitor;
+import io.oxiles.repository.ContractEventFilterRepository;
+import io.oxiles.testutils.BloomBuilder;
+import io.oxiles.testutils.DummyAsyncTaskService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LogMultiplexerTest {
+
+    private static final String ADDRESS_1 = "0x7a55a28856d43bba3c6a7e36f2cee9a82923e99b";
+
+    private static final String ADDRESS_2 = "0x06012c8cf97bead5deae237070f9587f8e7a266d";
+
+    private LogMultiplexer underTest;
+
+    private Web3j mockWeb3j;
+
+    private Request<?, EthLog> mockLogRequest;
+
+    private ContractEventSpecification eventSpec;
+
+    @Before
+    public void init() throws IOException {
+        mockWeb3j = mock(Web3j.class);
+        mockLogRequest = mock(Request.class);
+        doReturn(mockLogRequest).when(mockWeb3j).ethGetLogs(any(EthFilter.class));
+
+        eventSpec = new ContractEventSpecification();
+        eventSpec.setEventName("Transfer");
+        eventSpec.setIndexedParameterDefinitions(
+                Arrays.asList(new ParameterDefinition(0, ParameterType.build("ADDRESS"))));
+
+        underTest = new LogMultiplexer(mockWeb3j, "test", 1000l,
+                new LogBackfillEngine(mockWeb3j, "test", 1000, 2, mock(ContractEventFilterRepository.class)),
+                mockMonitor(), new DummyAsyncTaskService());
+    }
+
+    @Test
+    public void testSingleQueryRoutesLogsToMatchingFilters() throws IOException {
+        final List<Log> received1 = new ArrayList<>();
+        final List<Log> received2 = new ArrayList<>();
+
+        mockCurrentBlock(100);
+        mockLogs();
+        underTest.poll();
+
+        underTest.register(createFilter(ADDRESS_1), BigInteger.valueOf(101), collect(received1));
+        underTest.register(createFilter(ADDRESS_2), BigInteger.valueOf(101), collect(received2));
+
+        mockCurrentBlock(101);
+        final Log log1 = createLog(ADDRESS_1, 101);
+        final Log log2 = createLog(ADDRESS_2, 101);
+        mockLogs(log1, log2);
+        underTest.poll();
+
+        assertEquals(Arrays.asList(log1), received1);
+        assertEquals(Arrays.asList(log2), received2);
+
+        final ArgumentCaptor<EthFilter> captor = ArgumentCaptor.forClass(EthFilter.class);
+        verify(mockWeb3j, times(1)).ethGetLogs(captor.capture());
+        assertEquals(2, captor.getValue().getAddress().size());
+        assertEquals(BigInteger.valueOf(101),
+                new BigInteger(captor.getValue().getFromBlock().getValue().substring(2), 16));
+    }
+
+    @Test
+    public void testDisposedRegistrationNoLongerReceivesLogs() throws IOException {
+        final List<Log> received1 = new ArrayList<>();
+        final List<Log> received2 = new ArrayList<>();
+
+        mockCurrentBlock(100);
+        mockLogs();
+        underTest.poll();
+
+        final LogRegistration registration1 =
+                underTest.register(createFilter(ADDRESS_1), BigInteger.valueOf(101), collect(received1));
+        underTest.register(createFilter(ADDRESS_2), BigInteger.valueOf(101), collect(received2));
+
+        registration1.dispose();
+        assertTrue(registration1.isDisposed());
+
+        mockCurrentBlock(101);
+        mockLogs(createLog(ADDRESS_1, 101), createLog(ADDRESS_2, 101));
+        underTest.poll();
+
+        assertTrue(received1.isEmpty());
+        assertEquals(1, received2.size());
+    }
+
+    @Test
+    public void testRegistrationBehindHeadIsCaughtUp() throws IOException {
+        final List<Log> received = new ArrayList<>();
+
+        mockCurrentBlock(100);
+        mockLogs();
+        underTest.poll();
+
+        underTest.register(createFilter(ADDRESS_1), BigInteger.valueOf(50), collect(received));
+
+        final Log pastLog = createLog(ADDRESS_1, 60);
+        mockLogs(pastLog);
+        underTest.poll();
+
+        assertEquals(Arrays.asList(pastLog), received);
+    }
+
+    @Test
+    public void testLogsBeforeFilterStartBlockAreIgnored() throws IOException {
+        final List<Log> received = new ArrayList<>();
+
+        mockCurrentBlock(100);
+        mockLogs();
+        underTest.poll();
+
+        underTest.register(createFilter(ADDRESS_1), BigInteger.valueOf(105), collect(received));
+
+        mockCurrentBlock(105);
+        final Log expected = createLog(ADDRESS_1, 105);
+        mockLogs(createLog(ADDRESS_1, 102), expected);
+        underTest.poll();
+
+        assertEquals(Arrays.asList(expected), received);
+    }
+
+    @Test
+    public void testLogQueryIsSkippedWhenNoBloomMatches() throws IOException {
+        final List<Log> received = new ArrayList<>();
+
+        mockCurrentBlock(100);
+        mockLogs();
+        underTest.poll();
+
+        underTest.register(createFilter(ADDRESS_1), BigInteger.valueOf(101), collect(received));
+
+        underTest.onBlock(createBlock(101, new BloomBuilder().add(ADDRESS_2).build()));
+        underTest.onBlock(createBlock(102, new BloomBuilder().build()));
+
+        mockCurrentBlock(102);
+        mockLogs(createLog(ADDRESS_1, 101));
+        underTest.poll();
+
+        assertTrue(received.isEmpty());
+        assertEquals(1, underTest.getSkippedQueries());
+        verify(mockWeb3j, never()).ethGetLogs(any(EthFilter.class));
+    }
+
+    @Test
+    public void testLogQueryIsSentWhenBloomMatches() throws IOException {
+        final List<Log> received = new ArrayList<>();
+
+        mockCurrentBlock(100);
+        mockLogs();
+        underTest.poll();
+
+        underTest.register(createFilter(ADDRESS_1), BigInteger.valueOf(101), collect(received));
+
+        underTest.onBlock(createBlock(101, new BloomBuilder()
+                .add(ADDRESS_1)
+                .add(Web3jUtil.getSignature(eventSpec))
+                .build()));
+
+        mockCurrentBlock(101);
+        mockLogs(createLog(ADDRESS_1, 101));
+        underTest.poll();
+
+        assertEquals(1, received.size());
+        assertEquals(0, underTest.getSkippedQueries());
+    }
+
+    @Test
+    public void testLogQueryIsSentWhenBloomIsUnknown() throws IOException {
+        final List<Log> received = new ArrayList<>();
+
+        mockCurrentBlock(100);
+        mockLogs();
+        underTest.poll();
+
+        underTest.register(createFilter(ADDRESS_1), BigInteger.valueOf(101), collect(received));
+
+        //No bloom for block 102
+        underTest.onBlock(createBlock(101, new BloomBuilder().build()));
+
+        mockCurrentBlock(102);
+        mockLogs(createLog(ADDRESS_1, 102));
+        underTest.poll();
+
+        assertEquals(1, received.size());
+    }
+
+    @Test
+    public void testLogsOfOrphanedBlocksAreRemovedAndReplaced() throws IOException {
+        final List<Log> received = new ArrayList<>();
+
+        mockCurrentBlock(100);
+        mockLogs();
+        underTest.poll();
+
+        underTest.register(createFilter(ADDRESS_1), BigInteger.valueOf(101), collect(received));
+
+        final Log orphanedLog = createLog(ADDRESS_1, 101, "0xa1");
+        mockCurrentBlock(101);
+        mockLogs(orphanedLog);
+        underTest.poll();
+
+        //The bloom of the orphaned block would otherwise rule out the replacement block
+        underTest.onBlock(createBlock(101, new BloomBuilder().build()));
+
+        underTest.onReorg(new ChainReorganisation("test", BigInteger.valueOf(100),
+                Arrays.asList("0xa1"), createBlock(102, null)));
+
+        assertEquals(2, received.size());
+        assertTrue(received.get(1).isRemoved());
+        assertEquals("0xa1", received.get(1).getBlockHash());
+        assertEquals(orphanedLog.getLogIndex(), received.get(1).getLogIndex());
+
+        final Log replacementLog = createLog(ADDRESS_1, 101, "0xb1");
+        mockCurrentBlock(102);
+        mockLogs(replacementLog);
+        underTest.poll();
+
+        assertEquals(3, received.size());
+        assertFalse(received.get(2).isRemoved());
+        assertEquals("0xb1", received.get(2).getBlockHash());
+
+        final ArgumentCaptor<EthFilter> captor = ArgumentCaptor.forClass(EthFilter.class);
+        verify(mockWeb3j, times(2)).ethGetLogs(captor.capture());
+        assertEquals(BigInteger.valueOf(101),
+                new BigInteger(captor.getValue().getFromBlock().getValue().substring(2), 16));
+        assertEquals(0, underTest.getSkippedQueries());
+    }
+
+    @Test
+    public void testLogsOfCanonicalBlocksAreNotDeliveredTwiceAfterReorg() throws IOException {
+        final List<Log> received = new ArrayList<>();
+
+        mockCurrentBlock(100);
+        mockLogs();
+        underTest.poll();
+
+        underTest.register(createFilter(ADDRESS_1), BigInteger.valueOf(101), collect(received));
+
+        final Log canonicalLog = createLog(ADDRESS_1, 101, "0xa1");
+        mockCurrentBlock(102);
+        mockLogs(canonicalLog);
+        underTest.poll();
+
+        underTest.onReorg(new ChainReorganisation("test", BigInteger.valueOf(100),
+                Arrays.asList("0xa2"), createBlock(102, null)));
+
+        mockLogs(createLog(ADDRESS_1, 101, "0xa1"));
+        underTest.poll();
+
+        assertEquals(Arrays.asList(canonicalLog), received);
+    }
+
+    private Block createBlock(long number, String logsBloom) {
+        final Block block = mock(Block.class);
+        when(block.getNumber()).thenReturn(BigInteger.valueOf(number));
+        when(block.getLogsBloom()).thenReturn(logsBloom);
+
+        return block;
+    }
+
+    private ContractEventFilter createFilter(String address) {
+        final ContractEventFilter filter = new ContractEventFilter();
+        filter.setId(address);
+        filter.setContractAddress(address);
+        filter.setEventSpecification(eventSpec);
+
+        return filter;
+    }
+
+    private Log createLog(String address, long blockNumber) {
+        final Log log = new Log();
+        log.setAddress(address);
+        log.setBlockNumber("0x" + Long.toHexString(blockNumber));
+        log.setTopics(Arrays.asList(Web3jUtil.getSignature(eventSpec)));
+
+        return log;
+    }
+
+    private Log createLog(String address, long blockNumber, String blockHash) {
+        final Log log = createLog(address, blockNumber);
+        log.setBlockHash(blockHash);
+        log.setLogIndex("0x1");
+
+        return log;
+    }
+
+    private void mockCurrentBlock(long blockNumber) throws IOException {
+        final Request<?, EthBlockNumber> mockRequest = mock(Request.class);
+        final EthBlockNumber ethBlockNumber = new EthBlockNumber();
+        ethBlockNumber.setResult("0x" + Long.toHexString(blockNumber));
+        when(mockRequest.send()).thenReturn(ethBlockNumber);
+        doReturn(mockRequest).when(mockWeb3j).ethBlockNumber();
+    }
+
+    private void mockLogs(Log... logs) throws IOException {
+        final List<EthLog.LogResult> results = new ArrayList<>();
+
+        for (Log log : logs) {
+            results.add(new EthLog.LogObject(log.isRemoved(), log.getLogIndexRaw(), log.getTransactionIndexRaw(),
+                    log.getTransactionHash(), log.getBlockHash(), log.getBlockNumberRaw(), log.getAddress(),
+                    log.getData(), log.getType(), log.getTopics()));
+        }
+
+        final EthLog ethLog = new EthLog();
+        ethLog.setResult(results);
+        when(mockLogRequest.send()).thenReturn(ethLog);
+    }
+
+    private Function<Log, CompletableFuture<?>> collect(List<Log> received) {
+        return theLog -> {
+            received.add(theLog);
+            return CompletableFuture.completedFuture(null);
+        };
+    }
+
+    private EventeumValueMonitor mockMonitor() {
+        final EventeumValueMonitor mockValueMonitor = mock(EventeumValueMonitor.class);
+        when(mockValueMonitor.monitor(anyString(), anyString(), any(Number.class)))
+                .thenAnswer(invocation -> invocation.getArguments()[2]);
+
+        return mockValueMonitor;
+    }
+}
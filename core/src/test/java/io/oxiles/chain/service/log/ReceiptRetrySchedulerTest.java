@@ -0,0 +1,146 @@
+package io.oxiles.chain.service.log;
+
+import io.oxiles.chain.service.BlockchainException;
+import io.oxiles.chain.service.domain.TransactionReceipt;
+import io.oxiles.monitoring.EventeumValueMonitor;
+import io.oxiles.service.StripedAsyncTaskService;
+import io.oxiles.testutils.DummyAsyncTaskService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReceiptRetrySchedulerTest {
+
+    private static final String TX_HASH = "0xc283f53461e98400619f3fcdc081e6f95848c7ad32f79718fcb77fe865e5b58a";
+
+    private static final String LATER_TX_HASH = "0x1fdb6a20587d7114ee471f3ec9d2517b267fc951eafc91ccdede7c50962a755b";
+
+    private static final String CONTRACT_ADDRESS = "0x7a55a28856d43bba3c6a7e36f2cee9a82923e99b";
+
+    private EventeumValueMonitor mockValueMonitor;
+
+    private ReceiptRetryScheduler underTest;
+
+    @Before
+    public void init() {
+        mockValueMonitor = mock(EventeumValueMonitor.class);
+        when(mockValueMonitor.monitor(anyString(), anyString(), any(Number.class)))
+                .thenAnswer(invocation -> invocation.getArguments()[2]);
+
+        underTest = new ReceiptRetryScheduler("test", 5l, 3, mockValueMonitor, new DummyAsyncTaskService());
+    }
+
+    @After
+    public void cleanup() {
+        underTest.shutdown();
+    }
+
+    @Test
+    public void testAvailableReceiptIsConsumedInline() {
+        final TransactionReceipt receipt = mock(TransactionReceipt.class);
+        final AtomicReference<TransactionReceipt> consumed = new AtomicReference<>();
+
+        final CompletableFuture<Void> result = underTest.submit("EVENT", TX_HASH, () -> receipt, consumed::set);
+
+        assertEquals(receipt, consumed.get());
+        assertTrue(result.isDone());
+        assertFalse(result.isCompletedExceptionally());
+        assertEquals(0, underTest.getPendingRetries());
+    }
+
+    @Test
+    public void testMissingReceiptIsRetriedUntilAvailable() throws InterruptedException {
+        final TransactionReceipt receipt = mock(TransactionReceipt.class);
+        final AtomicInteger attempts = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        underTest.submit("EVENT", TX_HASH, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new BlockchainException("Not indexed");
+            }
+
+            return attempts.get() < 3 ? null : receipt;
+        }, consumed -> latch.countDown());
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void testRetriesStopAfterMaxAttempts() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        final AtomicReference<TransactionReceipt> consumed = new AtomicReference<>();
+
+        final CompletableFuture<Void> result = underTest.submit("EVENT", TX_HASH, () -> {
+            attempts.incrementAndGet();
+            return null;
+        }, consumed::set);
+
+        try {
+            result.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof BlockchainException);
+        }
+
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(3, attempts.get());
+        assertNull(consumed.get());
+        assertFalse(underTest.getPendingRetries() > 0);
+    }
+
+    @Test
+    public void testRetriedReceiptIsConsumedAfterLaterReceiptsOfSameKey() throws InterruptedException {
+        final StripedAsyncTaskService stripedService = new StripedAsyncTaskService(4, mockValueMonitor);
+        final ReceiptRetryScheduler scheduler =
+                new ReceiptRetryScheduler("test", 5l, 3, mockValueMonitor, stripedService);
+
+        final TransactionReceipt receipt = mock(TransactionReceipt.class);
+        final AtomicInteger attempts = new AtomicInteger();
+        final List<String> consumed = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(2);
+
+        try {
+            //The first log of the contract has no receipt yet, the second one does
+            stripedService.execute("EVENT", "test", CONTRACT_ADDRESS, () -> scheduler.submit(
+                    "EVENT", CONTRACT_ADDRESS, TX_HASH,
+                    () -> attempts.incrementAndGet() == 1 ? null : receipt,
+                    consumedReceipt -> {
+                        consumed.add(TX_HASH);
+                        latch.countDown();
+                    }));
+            stripedService.execute("EVENT", "test", CONTRACT_ADDRESS, () -> scheduler.submit(
+                    "EVENT", CONTRACT_ADDRESS, LATER_TX_HASH, () -> receipt,
+                    consumedReceipt -> {
+                        consumed.add(LATER_TX_HASH);
+                        latch.countDown();
+                    }));
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+            //The parked log does not hold up the lane, so it is overtaken by the later log
+            assertEquals(Arrays.asList(LATER_TX_HASH, TX_HASH), consumed);
+        } finally {
+            scheduler.shutdown();
+            stripedService.shutdown();
+        }
+    }
+}
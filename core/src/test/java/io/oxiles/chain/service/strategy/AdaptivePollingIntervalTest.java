@@ -0,0 +1,90 @@
+package io.oxiles.chain.service.strategy;
+
+import io.oxiles.monitoring.EventeumValueMonitor;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AdaptivePollingIntervalTest {
+
+    private static final long MIN_INTERVAL = 500;
+
+    private static final long MAX_INTERVAL = 20000;
+
+    private AdaptivePollingInterval underTest;
+
+    private AtomicLong gauge;
+
+    @Before
+    public void init() {
+        final EventeumValueMonitor mockValueMonitor = mock(EventeumValueMonitor.class);
+        when(mockValueMonitor.monitor(anyString(), anyString(), any(AtomicLong.class)))
+                .thenAnswer(invocation -> {
+                    gauge = (AtomicLong) invocation.getArguments()[2];
+                    return gauge;
+                });
+
+        underTest = new AdaptivePollingInterval("mainnet", MIN_INTERVAL, MAX_INTERVAL, mockValueMonitor);
+    }
+
+    @Test
+    public void testMinimumIntervalUntilBlockTimeIsKnown() {
+        assertEquals(MIN_INTERVAL, underTest.nextDelay(0));
+    }
+
+    @Test
+    public void testBlockTimeIsLearntFromTimestamps() {
+        underTest.onBlock(BigInteger.valueOf(1), BigInteger.valueOf(100), 100000);
+        underTest.onBlock(BigInteger.valueOf(3), BigInteger.valueOf(124), 124000);
+
+        assertEquals(12000, underTest.getEstimatedBlockTime());
+    }
+
+    @Test
+    public void testPollIsScheduledForNextExpectedBlock() {
+        underTest.onBlock(BigInteger.valueOf(1), BigInteger.valueOf(100), 100000);
+        underTest.onBlock(BigInteger.valueOf(2), BigInteger.valueOf(112), 112000);
+
+        assertEquals(12000, underTest.nextDelay(112000));
+        assertEquals(2000, underTest.nextDelay(122000));
+        assertEquals(2000, gauge.get());
+    }
+
+    @Test
+    public void testBacksOffWhenBlockIsOverdue() {
+        underTest.onBlock(BigInteger.valueOf(1), BigInteger.valueOf(100), 100000);
+        underTest.onBlock(BigInteger.valueOf(2), BigInteger.valueOf(112), 112000);
+
+        underTest.onNoBlock(124000);
+        assertEquals(1000, underTest.nextDelay(124000));
+
+        underTest.onNoBlock(125000);
+        assertEquals(2000, underTest.nextDelay(125000));
+
+        underTest.onBlock(BigInteger.valueOf(3), BigInteger.valueOf(126), 126000);
+        assertEquals(12400, underTest.nextDelay(126000));
+    }
+
+    @Test
+    public void testIntervalIsBounded() {
+        underTest.onBlock(BigInteger.valueOf(1), BigInteger.valueOf(100), 100000);
+        underTest.onBlock(BigInteger.valueOf(2), BigInteger.valueOf(160), 160000);
+
+        assertEquals(MAX_INTERVAL, underTest.nextDelay(160000));
+        assertEquals(MIN_INTERVAL, underTest.nextDelay(219900));
+
+        for (int i = 0; i < 100; i++) {
+            underTest.onNoBlock(230000);
+        }
+
+        assertEquals(MAX_INTERVAL, underTest.nextDelay(230000));
+    }
+}
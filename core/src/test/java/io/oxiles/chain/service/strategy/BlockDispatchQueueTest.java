@@ -0,0 +1,187 @@
+package io.oxiles.chain.service.strategy;
+
+import io.oxiles.chain.service.domain.Block;
+import io.oxiles.monitoring.EventeumValueMonitor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BlockDispatchQueueTest {
+
+    private static final int CAPACITY = 2;
+
+    private Map<String, Number> gauges;
+
+    private EventeumValueMonitor mockValueMonitor;
+
+    private List<BigInteger> dispatched;
+
+    private CountDownLatch release;
+
+    private CountDownLatch firstDispatched;
+
+    private BlockDispatchQueue underTest;
+
+    @Before
+    public void init() {
+        gauges = new HashMap<>();
+        mockValueMonitor = mock(EventeumValueMonitor.class);
+        when(mockValueMonitor.monitor(anyString(), anyString(), any(Number.class)))
+                .thenAnswer(invocation -> {
+                    gauges.put((String) invocation.getArguments()[0], (Number) invocation.getArguments()[2]);
+                    return invocation.getArguments()[2];
+                });
+
+        dispatched = new CopyOnWriteArrayList<>();
+        release = new CountDownLatch(1);
+        firstDispatched = new CountDownLatch(1);
+    }
+
+    @After
+    public void cleanup() {
+        release.countDown();
+        underTest.shutdown();
+    }
+
+    @Test
+    public void testBlocksAreDispatchedInOrder() throws Exception {
+        start("BLOCK");
+        release.countDown();
+
+        underTest.add(createBlock(1));
+        underTest.add(createBlock(2));
+        underTest.add(createBlock(3));
+
+        awaitDispatched(3);
+        assertEquals(numbers(1, 2, 3), dispatched);
+    }
+
+    @Test
+    public void testBlockPolicyWaitsForSpace() throws Exception {
+        start("BLOCK");
+        fillQueue();
+
+        final Thread producer = new Thread(() -> {
+            try {
+                underTest.add(createBlock(4));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+
+        producer.join(200);
+        assertTrue(producer.isAlive());
+        assertEquals(1L, gauges.get("blockQueueBlocked").longValue());
+
+        release.countDown();
+        producer.join(1000);
+        assertFalse(producer.isAlive());
+
+        awaitDispatched(4);
+        assertEquals(numbers(1, 2, 3, 4), dispatched);
+        assertEquals(0L, gauges.get("blockQueueDropped").longValue());
+    }
+
+    @Test
+    public void testDropNewestPolicy() throws Exception {
+        start("DROP_NEWEST");
+        fillQueue();
+
+        assertFalse(underTest.add(createBlock(4)));
+        assertEquals(1L, gauges.get("blockQueueDropped").longValue());
+
+        release.countDown();
+        awaitDispatched(3);
+        assertEquals(numbers(1, 2, 3), dispatched);
+    }
+
+    @Test
+    public void testDropOldestPolicy() throws Exception {
+        start("DROP_OLDEST");
+        fillQueue();
+
+        //Block 4 is queued, block 2 is dropped in its place and is not replayed
+        assertTrue(underTest.add(createBlock(4)));
+        assertEquals(1L, gauges.get("blockQueueDropped").longValue());
+
+        release.countDown();
+        awaitDispatched(3);
+        assertEquals(numbers(1, 3, 4), dispatched);
+    }
+
+    @Test
+    public void testQueueDepthIsExported() throws Exception {
+        start("BLOCK");
+        fillQueue();
+
+        assertEquals(CAPACITY, gauges.get("blockQueueDepth").intValue());
+        assertEquals(CAPACITY, underTest.getDepth());
+    }
+
+    private void start(String overflowPolicy) {
+        underTest = new BlockDispatchQueue("mainnet", CAPACITY, overflowPolicy, mockValueMonitor);
+        underTest.start(block -> {
+            firstDispatched.countDown();
+
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            dispatched.add(block.getNumber());
+        });
+    }
+
+    /**
+     * Adds a block that is held in the handler, then fills the queue behind it.
+     */
+    private void fillQueue() throws InterruptedException {
+        underTest.add(createBlock(1));
+        assertTrue(firstDispatched.await(1, TimeUnit.SECONDS));
+
+        for (int i = 2; i < 2 + CAPACITY; i++) {
+            underTest.add(createBlock(i));
+        }
+    }
+
+    private void awaitDispatched(int count) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 1000;
+
+        while (dispatched.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertEquals(count, dispatched.size());
+    }
+
+    private List<BigInteger> numbers(long... numbers) {
+        return Arrays.stream(numbers).mapToObj(BigInteger::valueOf).collect(Collectors.toList());
+    }
+
+    private Block createBlock(long number) {
+        final Block block = mock(Block.class);
+        when(block.getNumber()).thenReturn(BigInteger.valueOf(number));
+
+        return block;
+    }
+}
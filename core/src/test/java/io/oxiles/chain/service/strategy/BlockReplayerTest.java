@@ -0,0 +1,188 @@
+package io.oxiles.chain.service.strategy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.oxiles.chain.service.domain.Block;
+import io.oxiles.chain.service.domain.wrapper.StreamedEthBlock;
+import org.junit.Before;
+import org.junit.Test;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class BlockReplayerTest {
+
+    private static final int WINDOW = 4;
+
+    private static final String NODE_NAME = "mainnet";
+
+    private Web3j mockWeb3j;
+
+    private AtomicInteger inFlight = new AtomicInteger();
+
+    private AtomicInteger maxInFlight = new AtomicInteger();
+
+    private BlockReplayer underTest;
+
+    @Before
+    public void init() {
+        mockWeb3j = mock(Web3j.class);
+
+        doAnswer(invocation -> {
+            final DefaultBlockParameter blockParameter = (DefaultBlockParameter) invocation.getArguments()[0];
+            final BigInteger number = Numeric.decodeQuantity(blockParameter.getValue());
+
+            final Request<?, EthBlock> mockRequest = mock(Request.class);
+            when(mockRequest.send()).thenAnswer(send -> {
+                final int current = inFlight.incrementAndGet();
+                maxInFlight.accumulateAndGet(current, Math::max);
+
+                try {
+                    //Later blocks are returned first, to check that the blocks are re-ordered
+                    TimeUnit.MILLISECONDS.sleep(Math.max(0, 50 - number.intValue() * 5));
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+
+                return createEthBlock(number);
+            });
+
+            return mockRequest;
+        }).when(mockWeb3j).ethGetBlockByNumber(any(DefaultBlockParameter.class), eq(false));
+
+        underTest = new BlockReplayer(mockWeb3j, null, NODE_NAME, WINDOW);
+    }
+
+    @Test
+    public void testReplayEmitsBlocksInOrder() {
+        final List<BigInteger> numbers = toNumbers(underTest.replay(BigInteger.ONE, BigInteger.TEN, false)
+                .toList()
+                .blockingGet());
+
+        assertEquals(range(1, 10), numbers);
+    }
+
+    @Test
+    public void testReplayFetchesBlocksConcurrentlyWithinWindow() {
+        underTest.replay(BigInteger.ONE, BigInteger.TEN, false).blockingSubscribe();
+
+        assertTrue(maxInFlight.get() > 1);
+        assertTrue(maxInFlight.get() <= WINDOW);
+    }
+
+    @Test
+    public void testReplayOfEmptyRange() {
+        assertEquals(0, (long) underTest.replay(BigInteger.TEN, BigInteger.ONE, false).count().blockingGet());
+    }
+
+    @Test
+    public void testCatchUpRereadsHeadUntilReached() throws IOException {
+        final Request<?, EthBlockNumber> mockRequest = mock(Request.class);
+        when(mockRequest.send()).thenReturn(
+                createEthBlockNumber(3), createEthBlockNumber(5), createEthBlockNumber(5));
+        doReturn(mockRequest).when(mockWeb3j).ethBlockNumber();
+
+        final List<BigInteger> numbers = toNumbers(underTest.catchUp(BigInteger.ONE, false)
+                .toList()
+                .blockingGet());
+
+        assertEquals(range(1, 5), numbers);
+        verify(mockRequest, times(3)).send();
+    }
+
+    @Test
+    public void testFailedFetchIsRetried() throws IOException {
+        final Request<?, EthBlock> mockRequest = mock(Request.class);
+        when(mockRequest.send())
+                .thenThrow(new IOException("Timeout"))
+                .thenReturn(createEthBlock(BigInteger.ONE));
+        doReturn(mockRequest).when(mockWeb3j).ethGetBlockByNumber(any(DefaultBlockParameter.class), eq(true));
+
+        final List<BigInteger> numbers = toNumbers(underTest.replay(BigInteger.ONE, BigInteger.ONE, true)
+                .toList()
+                .blockingGet());
+
+        assertEquals(range(1, 1), numbers);
+        verify(mockRequest, times(2)).send();
+    }
+
+    @Test
+    public void testBlocksAreReadWithStreamingParserWhenTransportIsKnown() throws IOException {
+        final Web3jService mockRpcService = mock(Web3jService.class);
+        final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+
+        when(mockRpcService.send(any(Request.class), eq(StreamedEthBlock.class))).thenAnswer(invocation -> {
+            final Request<?, ?> request = (Request<?, ?>) invocation.getArguments()[0];
+
+            return objectMapper.readValue(String.format(
+                    "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":{\"number\":\"%s\",\"transactions\":[]}}",
+                    request.getParams().get(0)), StreamedEthBlock.class);
+        });
+
+        underTest = new BlockReplayer(mockWeb3j, mockRpcService, NODE_NAME, WINDOW);
+
+        final List<Block> blocks = underTest.replay(BigInteger.ONE, BigInteger.valueOf(3), true)
+                .toList()
+                .blockingGet();
+
+        assertEquals(range(1, 3), toNumbers(blocks));
+        assertEquals(NODE_NAME, blocks.get(0).getNodeName());
+        verify(mockRpcService, times(3)).send(any(Request.class), eq(StreamedEthBlock.class));
+        verify(mockWeb3j, never()).ethGetBlockByNumber(any(DefaultBlockParameter.class), anyBoolean());
+    }
+
+    private EthBlock createEthBlock(BigInteger number) {
+        final EthBlock.Block block = new EthBlock.Block();
+        block.setNumber(Numeric.encodeQuantity(number));
+        block.setSize("0x0");
+        block.setGasLimit("0x0");
+        block.setGasUsed("0x0");
+        block.setTimestamp("0x0");
+        block.setDifficulty("0x0");
+        block.setTotalDifficulty("0x0");
+        block.setTransactions(Collections.emptyList());
+
+        final EthBlock ethBlock = new EthBlock();
+        ethBlock.setResult(block);
+
+        return ethBlock;
+    }
+
+    private EthBlockNumber createEthBlockNumber(long number) {
+        final EthBlockNumber blockNumber = new EthBlockNumber();
+        blockNumber.setResult(Numeric.encodeQuantity(BigInteger.valueOf(number)));
+
+        return blockNumber;
+    }
+
+    private List<BigInteger> toNumbers(List<Block> blocks) {
+        return blocks.stream()
+                .map(Block::getNumber)
+                .collect(Collectors.toList());
+    }
+
+    private List<BigInteger> range(long from, long to) {
+        return LongStream.rangeClosed(from, to)
+                .mapToObj(BigInteger::valueOf)
+                .collect(Collectors.toList());
+    }
+}
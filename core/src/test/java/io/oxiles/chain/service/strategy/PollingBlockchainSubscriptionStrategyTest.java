@@ -1,34 +1,51 @@
 package io.oxiles.chain.service.strategy;
 
 import io.oxiles.testutils.DummyAsyncTaskService;
+import io.reactivex.Flowable;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.processors.PublishProcessor;
 import io.oxiles.chain.block.BlockListener;
 import io.oxiles.chain.service.domain.Block;
+import io.oxiles.monitoring.EventeumValueMonitor;
 import io.oxiles.service.EventStoreService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.web3j.protocol.Web3j;
+import io.oxiles.model.LatestBlock;
+import org.web3j.protocol.core.Request;
 import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.utils.Numeric;
 
+import java.io.IOException;
 import java.math.BigInteger;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 
 public class PollingBlockchainSubscriptionStrategyTest {
 
     private static final String BLOCK_HASH = "0xc0e07697167c58f2a173df45f5c9b2c46ca0941cdf0bf79616d53dc92f62aebd";
 
+    private static final String MISSED_BLOCK_HASH = "0x0f1e07697167c58f2a173df45f5c9b2c46ca0941cdf0bf79616d53dc92f62aeb";
+
+    private static final String NEXT_BLOCK_HASH = "0x1d2e07697167c58f2a173df45f5c9b2c46ca0941cdf0bf79616d53dc92f62aeb";
+
     private static final BigInteger BLOCK_NUMBER = BigInteger.valueOf(123);
 
     private static final BigInteger BLOCK_TIMESTAMP = BigInteger.valueOf(12345678);
 
     private static final String NODE_NAME = "mainnet";
 
+    private static final BigInteger MAX_UNSYNCED_BLOCKS = BigInteger.valueOf(100);
+
     private PollingBlockSubscriptionStrategy underTest;
 
     private PublishProcessor<EthBlock> blockPublishProcessor;
@@ -55,10 +72,10 @@ public class PollingBlockchainSubscriptionStrategyTest {
         when(mockEthBlock.getBlock()).thenReturn(mockBlock);
 
         blockPublishProcessor = PublishProcessor.create();
-        when(mockWeb3j.blockFlowable(true)).thenReturn(blockPublishProcessor);
+        when(mockWeb3j.blockFlowable(false)).thenReturn(blockPublishProcessor);
 
         underTest = new PollingBlockSubscriptionStrategy(mockWeb3j,
-                NODE_NAME, mockEventStoreService, BigInteger.valueOf(0), new DummyAsyncTaskService());
+                NODE_NAME, mockEventStoreService, MAX_UNSYNCED_BLOCKS, new DummyAsyncTaskService());
     }
 
     @Test
@@ -132,6 +149,171 @@ public class PollingBlockchainSubscriptionStrategyTest {
         assertEquals(NODE_NAME, block.getNodeName());
     }
 
+    @Test
+    public void testSwitchToFullTransactionObjectsResubscribesFromLastBlock() {
+        final BlockReplayer mockBlockReplayer = mockBlockReplayer();
+
+        final PublishProcessor<Block> headersProcessor = PublishProcessor.create();
+        final PublishProcessor<Block> fullProcessor = PublishProcessor.create();
+        final Block block = mockBlock(BLOCK_NUMBER, BLOCK_HASH);
+        when(mockBlockReplayer.catchUp(any(BigInteger.class), eq(false))).thenReturn(headersProcessor);
+        when(mockBlockReplayer.catchUp(any(BigInteger.class), eq(true))).thenReturn(fullProcessor);
+        when(mockWeb3j.blockFlowable(true)).thenReturn(PublishProcessor.create());
+
+        mockBlockListener = mock(BlockListener.class);
+        underTest.addBlockListener(mockBlockListener);
+        underTest.subscribe();
+
+        awaitSubscriber(headersProcessor);
+        headersProcessor.onNext(block);
+        verify(mockBlockListener, timeout(1000)).onBlock(any());
+
+        underTest.setFullTransactionObjects(true);
+
+        verify(mockBlockReplayer, timeout(1000)).catchUp(BLOCK_NUMBER, true);
+        assertFalse(headersProcessor.hasSubscribers());
+
+        //The last block is replayed by the new subscription, but is not passed to the listeners again
+        awaitSubscriber(fullProcessor);
+        fullProcessor.onNext(block);
+
+        verify(mockBlockListener, after(500).times(1)).onBlock(any());
+    }
+
+    @Test
+    public void testPollingContinuesAfterCatchUp() {
+        final Block block = mockBlock(BLOCK_NUMBER, BLOCK_HASH);
+        final BlockReplayer mockBlockReplayer = mockBlockReplayer();
+        when(mockBlockReplayer.catchUp(any(BigInteger.class), eq(false))).thenReturn(Flowable.just(block));
+
+        mockBlockListener = mock(BlockListener.class);
+        underTest.addBlockListener(mockBlockListener);
+        underTest.subscribe();
+
+        verify(mockBlockListener, timeout(1000)).onBlock(any());
+
+        awaitSubscriber(blockPublishProcessor);
+        final EthBlock nextBlock = mockEthBlock(BLOCK_NUMBER.add(BigInteger.ONE), NEXT_BLOCK_HASH);
+        blockPublishProcessor.onNext(nextBlock);
+
+        final ArgumentCaptor<Block> captor = ArgumentCaptor.forClass(Block.class);
+        verify(mockBlockListener, timeout(1000).times(2)).onBlock(captor.capture());
+        assertEquals(NEXT_BLOCK_HASH, captor.getAllValues().get(1).getHash());
+    }
+
+    @Test
+    public void testMissedBlocksAreReplayedBeforeNextBlock() {
+        final BlockReplayer mockBlockReplayer = mockBlockReplayer();
+        final PublishProcessor<Block> catchUpProcessor = PublishProcessor.create();
+        when(mockBlockReplayer.catchUp(any(BigInteger.class), eq(false))).thenReturn(catchUpProcessor);
+
+        final BigInteger missedNumber = BLOCK_NUMBER.add(BigInteger.ONE);
+        final BigInteger nextNumber = BLOCK_NUMBER.add(BigInteger.valueOf(2));
+        final Block missedBlock = mockBlock(missedNumber, MISSED_BLOCK_HASH);
+        when(mockBlockReplayer.replay(missedNumber, missedNumber, false)).thenReturn(Flowable.just(missedBlock));
+
+        final Block nextBlock = mockBlock(nextNumber, NEXT_BLOCK_HASH);
+
+        mockBlockListener = mock(BlockListener.class);
+        underTest.addBlockListener(mockBlockListener);
+        underTest.subscribe();
+
+        awaitSubscriber(catchUpProcessor);
+        catchUpProcessor.onNext(mockBlock(BLOCK_NUMBER, BLOCK_HASH));
+        catchUpProcessor.onNext(nextBlock);
+
+        final ArgumentCaptor<Block> captor = ArgumentCaptor.forClass(Block.class);
+        verify(mockBlockListener, timeout(1000).times(3)).onBlock(captor.capture());
+
+        assertEquals(BLOCK_NUMBER, captor.getAllValues().get(0).getNumber());
+        assertEquals(missedNumber, captor.getAllValues().get(1).getNumber());
+        assertEquals(nextNumber, captor.getAllValues().get(2).getNumber());
+    }
+
+    @Test
+    public void testAdaptivePollingFetchesNewBlocks() throws IOException {
+        final EventeumValueMonitor mockValueMonitor = mock(EventeumValueMonitor.class);
+        when(mockValueMonitor.monitor(anyString(), anyString(), any(AtomicLong.class)))
+                .thenAnswer(invocation -> invocation.getArguments()[2]);
+        underTest.setPollingInterval(new AdaptivePollingInterval(NODE_NAME, 10l, 50l, mockValueMonitor));
+
+        final BlockReplayer mockBlockReplayer = mock(BlockReplayer.class);
+        underTest.setBlockReplayer(mockBlockReplayer);
+
+        final BigInteger nextNumber = BLOCK_NUMBER.add(BigInteger.ONE);
+        final Block block = mockBlock(BLOCK_NUMBER, BLOCK_HASH);
+        final Block nextBlock = mockBlock(nextNumber, NEXT_BLOCK_HASH);
+        when(mockBlockReplayer.replay(BLOCK_NUMBER, BLOCK_NUMBER, false)).thenReturn(Flowable.just(block));
+        when(mockBlockReplayer.replay(nextNumber, nextNumber, false)).thenReturn(Flowable.just(nextBlock));
+
+        final Request<?, EthBlockNumber> mockRequest = mock(Request.class);
+        when(mockRequest.send()).thenReturn(createEthBlockNumber(BLOCK_NUMBER), createEthBlockNumber(BLOCK_NUMBER),
+                createEthBlockNumber(nextNumber));
+        doReturn(mockRequest).when(mockWeb3j).ethBlockNumber();
+
+        mockBlockListener = mock(BlockListener.class);
+        underTest.addBlockListener(mockBlockListener);
+        underTest.subscribe();
+
+        final ArgumentCaptor<Block> captor = ArgumentCaptor.forClass(Block.class);
+        verify(mockBlockListener, timeout(2000).times(2)).onBlock(captor.capture());
+
+        assertEquals(BLOCK_NUMBER, captor.getAllValues().get(0).getNumber());
+        assertEquals(nextNumber, captor.getAllValues().get(1).getNumber());
+        verify(mockWeb3j, never()).blockFlowable(anyBoolean());
+    }
+
+    private EthBlockNumber createEthBlockNumber(BigInteger number) {
+        final EthBlockNumber blockNumber = new EthBlockNumber();
+        blockNumber.setResult(Numeric.encodeQuantity(number));
+
+        return blockNumber;
+    }
+
+    private BlockReplayer mockBlockReplayer() {
+        final LatestBlock latestBlock = new LatestBlock();
+        latestBlock.setNumber(BigInteger.ONE);
+        when(mockEventStoreService.getLatestBlock(NODE_NAME)).thenReturn(Optional.of(latestBlock));
+
+        final BlockReplayer mockBlockReplayer = mock(BlockReplayer.class);
+        underTest.setBlockReplayer(mockBlockReplayer);
+
+        return mockBlockReplayer;
+    }
+
+    private EthBlock mockEthBlock(BigInteger number, String hash) {
+        final EthBlock ethBlock = mock(EthBlock.class);
+        final EthBlock.Block block = mock(EthBlock.Block.class);
+
+        when(block.getNumber()).thenReturn(number);
+        when(block.getHash()).thenReturn(hash);
+        when(block.getTimestamp()).thenReturn(BLOCK_TIMESTAMP);
+        when(ethBlock.getBlock()).thenReturn(block);
+
+        return ethBlock;
+    }
+
+    private Block mockBlock(BigInteger number, String hash) {
+        final Block block = mock(Block.class);
+
+        when(block.getNumber()).thenReturn(number);
+        when(block.getHash()).thenReturn(hash);
+        when(block.getTimestamp()).thenReturn(BLOCK_TIMESTAMP);
+        when(block.getNodeName()).thenReturn(NODE_NAME);
+
+        return block;
+    }
+
+    private void awaitSubscriber(PublishProcessor<?> processor) {
+        final long deadline = System.currentTimeMillis() + 1000;
+
+        while (!processor.hasSubscribers() && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+
+        assertTrue(processor.hasSubscribers());
+    }
+
     private Block doRegisterBlockListenerAndTrigger()  {
 
         mockBlockListener = mock(BlockListener.class);
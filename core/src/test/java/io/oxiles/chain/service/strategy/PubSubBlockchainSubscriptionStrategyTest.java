@@ -1,14 +1,17 @@
 package io.oxiles.chain.service.strategy;
 
 import io.oxiles.testutils.DummyAsyncTaskService;
+import io.reactivex.Flowable;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.processors.PublishProcessor;
 import io.oxiles.chain.block.BlockListener;
 import io.oxiles.chain.service.domain.Block;
+import io.oxiles.model.LatestBlock;
 import io.oxiles.service.EventStoreService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.core.Request;
 import org.web3j.protocol.core.methods.response.EthBlock;
@@ -19,6 +22,7 @@ import org.web3j.utils.Numeric;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -28,6 +32,10 @@ public class PubSubBlockchainSubscriptionStrategyTest {
 
     private static final String BLOCK_HASH = "0xc0e07697167c58f2a173df45f5c9b2c46ca0941cdf0bf79616d53dc92f62aebd";
 
+    private static final String CAUGHT_UP_BLOCK_HASH = "0x0f1e07697167c58f2a173df45f5c9b2c46ca0941cdf0bf79616d53dc92f62aeb";
+
+    private static final String MISSED_BLOCK_HASH = "0x1d2e07697167c58f2a173df45f5c9b2c46ca0941cdf0bf79616d53dc92f62aeb";
+
     private static final BigInteger BLOCK_NUMBER = BigInteger.valueOf(123);
 
     private static final String BLOCK_NUMBER_HEX = "0x7B";
@@ -37,6 +45,8 @@ public class PubSubBlockchainSubscriptionStrategyTest {
 
     private static final String NODE_NAME = "mainnet";
 
+    private static final BigInteger MAX_UNSYNCED_BLOCKS = BigInteger.valueOf(100);
+
     private PubSubBlockSubscriptionStrategy underTest;
 
     private PublishProcessor<NewHeadsNotification> blockPublishProcessor;
@@ -76,12 +86,12 @@ public class PubSubBlockchainSubscriptionStrategyTest {
         when(mockEthBlock.getBlock()).thenReturn(mockBlock);
 
         final Request<?, EthBlock> mockRequest = mock(Request.class);
-        doReturn(mockRequest).when(mockWeb3j).ethGetBlockByHash(BLOCK_HASH, true);
+        doReturn(mockRequest).when(mockWeb3j).ethGetBlockByHash(BLOCK_HASH, false);
 
         when(mockRequest.send()).thenReturn(mockEthBlock);
 
         underTest = new PubSubBlockSubscriptionStrategy(mockWeb3j, NODE_NAME,
-                mockEventStoreService, BigInteger.valueOf(0), new DummyAsyncTaskService());
+                mockEventStoreService, MAX_UNSYNCED_BLOCKS, new DummyAsyncTaskService());
     }
 
     @Test
@@ -155,6 +165,121 @@ public class PubSubBlockchainSubscriptionStrategyTest {
         assertEquals(NODE_NAME, block.getNodeName());
     }
 
+    @Test
+    public void testFullTransactionObjectsAreRequestedOnceEnabled() throws IOException {
+        final Request<?, EthBlock> mockFullRequest = mock(Request.class);
+        doReturn(mockFullRequest).when(mockWeb3j).ethGetBlockByHash(BLOCK_HASH, true);
+        when(mockFullRequest.send()).thenReturn(mockEthBlock);
+
+        underTest.subscribe();
+        doRegisterBlockListenerAndTrigger();
+        verify(mockWeb3j, never()).ethGetBlockByHash(BLOCK_HASH, true);
+
+        underTest.setFullTransactionObjects(true);
+        blockPublishProcessor.onNext(mockNewHeadsNotification);
+
+        verify(mockWeb3j).ethGetBlockByHash(BLOCK_HASH, true);
+        //The same head is not passed to the listeners again
+        verify(mockBlockListener, times(1)).onBlock(any());
+    }
+
+    @Test
+    public void testMissedBlocksAreReplayedOnHandOverToNewHeads() {
+        final LatestBlock latestBlock = new LatestBlock();
+        latestBlock.setNumber(BigInteger.ONE);
+        when(mockEventStoreService.getLatestBlock(NODE_NAME)).thenReturn(Optional.of(latestBlock));
+
+        final BigInteger caughtUpNumber = BLOCK_NUMBER.subtract(BigInteger.valueOf(2));
+        final BigInteger missedNumber = BLOCK_NUMBER.subtract(BigInteger.ONE);
+
+        final Block caughtUpBlock = mockBlock(caughtUpNumber, CAUGHT_UP_BLOCK_HASH);
+        final Block missedBlock = mockBlock(missedNumber, MISSED_BLOCK_HASH);
+
+        final BlockReplayer mockBlockReplayer = mock(BlockReplayer.class);
+        when(mockBlockReplayer.catchUp(BigInteger.ONE, false)).thenReturn(Flowable.just(caughtUpBlock));
+        when(mockBlockReplayer.replay(missedNumber, missedNumber, false)).thenReturn(Flowable.just(missedBlock));
+        underTest.setBlockReplayer(mockBlockReplayer);
+
+        mockBlockListener = mock(BlockListener.class);
+        underTest.addBlockListener(mockBlockListener);
+        underTest.subscribe();
+
+        verify(mockWeb3j, timeout(1000)).newHeadsNotifications();
+        blockPublishProcessor.onNext(mockNewHeadsNotification);
+
+        final ArgumentCaptor<Block> captor = ArgumentCaptor.forClass(Block.class);
+        verify(mockBlockListener, timeout(1000).times(3)).onBlock(captor.capture());
+
+        assertEquals(caughtUpNumber, captor.getAllValues().get(0).getNumber());
+        assertEquals(missedNumber, captor.getAllValues().get(1).getNumber());
+        assertEquals(BLOCK_NUMBER, captor.getAllValues().get(2).getNumber());
+    }
+
+    @Test
+    public void testBlockDroppedByDispatchQueueIsReplayedWithNextBlock() throws Exception {
+        final BigInteger firstNumber = BLOCK_NUMBER.subtract(BigInteger.valueOf(2));
+        final BigInteger droppedNumber = BLOCK_NUMBER.subtract(BigInteger.ONE);
+
+        final Block first = mockBlock(firstNumber, CAUGHT_UP_BLOCK_HASH);
+        final Block dropped = mockBlock(droppedNumber, MISSED_BLOCK_HASH);
+        final Block next = mockBlock(BLOCK_NUMBER, BLOCK_HASH);
+
+        final BlockDispatchQueue mockBlockDispatchQueue = mock(BlockDispatchQueue.class);
+        when(mockBlockDispatchQueue.add(any(Block.class))).thenReturn(true);
+        when(mockBlockDispatchQueue.add(dropped)).thenReturn(false, true);
+        underTest.setBlockDispatchQueue(mockBlockDispatchQueue);
+
+        final BlockReplayer mockBlockReplayer = mock(BlockReplayer.class);
+        when(mockBlockReplayer.replay(droppedNumber, droppedNumber, false)).thenReturn(Flowable.just(dropped));
+        underTest.setBlockReplayer(mockBlockReplayer);
+
+        underTest.triggerListeners(first);
+        underTest.triggerListeners(dropped);
+        underTest.triggerListeners(next);
+
+        final InOrder inOrder = inOrder(mockBlockDispatchQueue);
+        inOrder.verify(mockBlockDispatchQueue).add(first);
+        inOrder.verify(mockBlockDispatchQueue, times(2)).add(dropped);
+        inOrder.verify(mockBlockDispatchQueue).add(next);
+    }
+
+    @Test
+    public void testNextBlockIsHeldBackWhileDroppedBlockCannotBeQueued() throws Exception {
+        final BigInteger firstNumber = BLOCK_NUMBER.subtract(BigInteger.valueOf(2));
+        final BigInteger droppedNumber = BLOCK_NUMBER.subtract(BigInteger.ONE);
+
+        final Block first = mockBlock(firstNumber, CAUGHT_UP_BLOCK_HASH);
+        final Block dropped = mockBlock(droppedNumber, MISSED_BLOCK_HASH);
+        final Block next = mockBlock(BLOCK_NUMBER, BLOCK_HASH);
+
+        final BlockDispatchQueue mockBlockDispatchQueue = mock(BlockDispatchQueue.class);
+        when(mockBlockDispatchQueue.add(any(Block.class))).thenReturn(true);
+        when(mockBlockDispatchQueue.add(dropped)).thenReturn(false);
+        underTest.setBlockDispatchQueue(mockBlockDispatchQueue);
+
+        final BlockReplayer mockBlockReplayer = mock(BlockReplayer.class);
+        when(mockBlockReplayer.replay(droppedNumber, droppedNumber, false)).thenReturn(Flowable.just(dropped));
+        underTest.setBlockReplayer(mockBlockReplayer);
+
+        underTest.triggerListeners(first);
+        underTest.triggerListeners(dropped);
+        underTest.triggerListeners(next);
+
+        //Queueing the next block would leave a gap that is never replayed
+        verify(mockBlockDispatchQueue, times(2)).add(dropped);
+        verify(mockBlockDispatchQueue, never()).add(next);
+    }
+
+    private Block mockBlock(BigInteger number, String hash) {
+        final Block block = mock(Block.class);
+
+        when(block.getNumber()).thenReturn(number);
+        when(block.getHash()).thenReturn(hash);
+        when(block.getNodeName()).thenReturn(NODE_NAME);
+
+        return block;
+    }
+
     private Block doRegisterBlockListenerAndTrigger() {
 
         mockBlockListener = mock(BlockListener.class);
@@ -0,0 +1,49 @@
+package io.oxiles.chain.settings;
+
+import io.oxiles.chain.service.BlockchainException;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+public class NodeSettingsTest {
+
+    @Test
+    public void testHttpUrlsArePooled() {
+        final NodeSettings underTest = new NodeSettings(environment("http://a:8545", "http://b:8545, http://c:8545"));
+
+        assertEquals(Arrays.asList("http://a:8545", "http://b:8545", "http://c:8545"),
+                underTest.getNode("default").getUrls());
+    }
+
+    @Test
+    public void testSingleWebSocketUrlIsAccepted() {
+        final NodeSettings underTest = new NodeSettings(environment("ws://a:8546", null));
+
+        assertEquals("ws://a:8546", underTest.getNode("default").getUrl());
+    }
+
+    @Test(expected = BlockchainException.class)
+    public void testWebSocketUrlCannotBePooled() {
+        new NodeSettings(environment("ws://a:8546", "http://b:8545"));
+    }
+
+    @Test(expected = BlockchainException.class)
+    public void testWebSocketUrlCannotBeAddedToHttpPool() {
+        new NodeSettings(environment("http://a:8545", "wss://b:8546"));
+    }
+
+    private MockEnvironment environment(String url, String urls) {
+        final MockEnvironment environment = new MockEnvironment()
+                .withProperty("ethereum.nodes[0].name", "default")
+                .withProperty("ethereum.nodes[0].url", url);
+
+        if (urls != null) {
+            environment.setProperty("ethereum.nodes[0].urls", urls);
+        }
+
+        return environment;
+    }
+}
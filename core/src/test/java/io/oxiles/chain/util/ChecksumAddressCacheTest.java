@@ -0,0 +1,42 @@
+package io.oxiles.chain.util;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.web3j.crypto.Keys;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ChecksumAddressCacheTest {
+
+    private static final String ADDRESS = "0x7a55a28856d43bba3c6a7e36f2cee9a82923e99b";
+
+    @Before
+    public void init() {
+        ChecksumAddressCache.clear();
+    }
+
+    @Test
+    public void testAddressIsChecksummed() {
+        assertEquals(Keys.toChecksumAddress(ADDRESS), ChecksumAddressCache.toChecksumAddress(ADDRESS));
+    }
+
+    @Test
+    public void testSameInstanceIsReturnedRegardlessOfCasingOrPrefix() {
+        final String checksummed = ChecksumAddressCache.toChecksumAddress(ADDRESS);
+
+        assertSame(checksummed, ChecksumAddressCache.toChecksumAddress(ADDRESS.toUpperCase().replace("0X", "0x")));
+        assertSame(checksummed, ChecksumAddressCache.toChecksumAddress(ADDRESS.substring(2)));
+        assertSame(checksummed, ChecksumAddressCache.toChecksumAddress(checksummed));
+
+        assertEquals(1, ChecksumAddressCache.getMisses().get());
+        assertEquals(3, ChecksumAddressCache.getHits().get());
+        assertEquals(1, ChecksumAddressCache.size());
+    }
+
+    @Test
+    public void testNullAddress() {
+        assertNull(ChecksumAddressCache.toChecksumAddress(null));
+    }
+}
@@ -0,0 +1,38 @@
+package io.oxiles.chain.util;
+
+import io.oxiles.testutils.BloomBuilder;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LogsBloomTest {
+
+    private static final String ADDRESS = "0x7a55a28856d43bba3c6a7e36f2cee9a82923e99b";
+
+    private static final String OTHER_ADDRESS = "0x06012c8cf97bead5deae237070f9587f8e7a266d";
+
+    private static final String TOPIC = "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef";
+
+    @Test
+    public void testAddedValuesAreContained() {
+        final LogsBloom bloom = LogsBloom.fromHex(new BloomBuilder().add(ADDRESS).add(TOPIC).build()).get();
+
+        assertTrue(bloom.mightContain(ADDRESS));
+        assertTrue(bloom.mightContain(TOPIC));
+    }
+
+    @Test
+    public void testOtherValueIsNotContained() {
+        final LogsBloom bloom = LogsBloom.fromHex(new BloomBuilder().add(ADDRESS).build()).get();
+
+        assertFalse(bloom.mightContain(OTHER_ADDRESS));
+        assertFalse(bloom.mightContain(TOPIC));
+    }
+
+    @Test
+    public void testMissingOrMalformedBloomIsEmpty() {
+        assertFalse(LogsBloom.fromHex(null).isPresent());
+        assertFalse(LogsBloom.fromHex("0x1234").isPresent());
+    }
+}
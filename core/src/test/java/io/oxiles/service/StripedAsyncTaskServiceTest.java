@@ -0,0 +1,156 @@
+package io.oxiles.service;
+
+import io.oxiles.monitoring.EventeumValueMonitor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StripedAsyncTaskServiceTest {
+
+    private static final String EXECUTOR_NAME = "EVENT";
+
+    private static final String NODE_NAME = "mainnet";
+
+    private EventeumValueMonitor mockValueMonitor;
+
+    private StripedAsyncTaskService underTest;
+
+    @Before
+    public void init() {
+        mockValueMonitor = mock(EventeumValueMonitor.class);
+        when(mockValueMonitor.monitor(anyString(), anyString(), any(Number.class)))
+                .thenAnswer(invocation -> invocation.getArguments()[2]);
+
+        underTest = new StripedAsyncTaskService(4, mockValueMonitor);
+    }
+
+    @After
+    public void cleanup() {
+        underTest.shutdown();
+    }
+
+    @Test
+    public void testTasksOfAKeyRunInOrder() throws InterruptedException {
+        final List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch latch = new CountDownLatch(100);
+
+        for (int i = 0; i < 100; i++) {
+            final int index = i;
+
+            underTest.execute(EXECUTOR_NAME, NODE_NAME, "0xabc", () -> {
+                executed.add(index);
+                latch.countDown();
+            });
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Integer.valueOf(i), executed.get(i));
+        }
+    }
+
+    @Test
+    public void testUnrelatedKeysRunInParallel() throws InterruptedException {
+        final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        final CountDownLatch latch = new CountDownLatch(100);
+
+        for (int i = 0; i < 100; i++) {
+            underTest.execute(EXECUTOR_NAME, NODE_NAME, "0x" + i, () -> {
+                threadNames.add(Thread.currentThread().getName());
+                latch.countDown();
+            });
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(4, threadNames.size());
+    }
+
+    @Test
+    public void testQueueDepthIsReportedPerLane() throws InterruptedException {
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final String key = "0xabc";
+        final int lane = Math.floorMod(key.hashCode(), 4);
+
+        underTest.execute(EXECUTOR_NAME, NODE_NAME, key, () -> await(blocker));
+        underTest.execute(EXECUTOR_NAME, NODE_NAME, key, () -> {});
+        underTest.execute(EXECUTOR_NAME, NODE_NAME, key, () -> {});
+
+        //The first task may not have been taken off the queue yet
+        assertTrue(underTest.getQueueDepth(EXECUTOR_NAME, NODE_NAME, lane) >= 2);
+        assertEquals(0, underTest.getQueueDepth(EXECUTOR_NAME, NODE_NAME, (lane + 1) % 4));
+
+        blocker.countDown();
+    }
+
+    @Test
+    public void testLaneGaugesAreRegisteredAgainstNode() throws InterruptedException {
+        runOnLanes(underTest);
+
+        for (int i = 0; i < 4; i++) {
+            verify(mockValueMonitor).monitor(eq("eventLane" + i + "QueueDepth"), eq(NODE_NAME), any(AtomicInteger.class));
+        }
+    }
+
+    @Test
+    public void testSingleLaneGaugeIsRegistered() throws InterruptedException {
+        final StripedAsyncTaskService singleLane = new StripedAsyncTaskService(1, mockValueMonitor);
+
+        try {
+            runOnLanes(singleLane);
+
+            verify(mockValueMonitor).monitor(eq("eventLane0QueueDepth"), eq(NODE_NAME), any(AtomicInteger.class));
+        } finally {
+            singleLane.shutdown();
+        }
+    }
+
+    @Test
+    public void testNodesHaveTheirOwnLanes() throws InterruptedException {
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final CountDownLatch otherNodeExecuted = new CountDownLatch(1);
+        final String key = "0xabc";
+
+        underTest.execute(EXECUTOR_NAME, NODE_NAME, key, () -> await(blocker));
+        underTest.execute(EXECUTOR_NAME, "ropsten", key, otherNodeExecuted::countDown);
+
+        //The same key of another node is not held up behind the blocked lane
+        assertTrue(otherNodeExecuted.await(5, TimeUnit.SECONDS));
+
+        blocker.countDown();
+    }
+
+    private void runOnLanes(StripedAsyncTaskService service) throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        service.execute(EXECUTOR_NAME, NODE_NAME, "0xabc", latch::countDown);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.oxiles.testutils;
+
+import org.web3j.crypto.Hash;
+import org.web3j.utils.Numeric;
+
+/**
+ * Builds hex encoded logs blooms as specified in the yellow paper, for use in tests.
+ */
+public class BloomBuilder {
+
+    private byte[] bloom = new byte[256];
+
+    public BloomBuilder add(String hexValue) {
+        final byte[] hash = Hash.sha3(Numeric.hexStringToByteArray(hexValue));
+
+        for (int i = 0; i < 6; i += 2) {
+            final int bit = ((hash[i] & 0x07) << 8) | (hash[i + 1] & 0xFF);
+
+            bloom[255 - (bit >> 3)] |= (byte) (1 << (bit & 0x07));
+        }
+
+        return this;
+    }
+
+    public String build() {
+        return Numeric.toHexString(bloom);
+    }
+}